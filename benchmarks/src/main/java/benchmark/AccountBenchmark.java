@@ -0,0 +1,81 @@
+package benchmark;
+
+import model.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the Account calls made on every edit and every month: the surplus and income totals, and computeNextPeriod.
+ * The account is rebuilt for each iteration, since computeNextPeriod adds a receipt per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AccountBenchmark {
+
+    /**
+     * An account with only sources, for the totals, which do not depend on the debts.
+     */
+    @State(Scope.Thread)
+    public static class Sources {
+        @Param({"10", "1000"})
+        int sources;
+
+        Account account;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            account = Accounts.generate(sources, 0, 0);
+        }
+    }
+
+    /**
+     * An account with sources and debts, for computeNextPeriod.
+     */
+    @State(Scope.Thread)
+    public static class SourcesAndDebts {
+        @Param({"10", "1000"})
+        int sources;
+
+        @Param({"1", "100"})
+        int debts;
+
+        Account account;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            account = Accounts.generate(sources, debts, 0);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal calculateSurplus(Sources state) {
+        return state.account.calculateSurplus();
+    }
+
+    @Benchmark
+    public BigDecimal calculateIncome(Sources state) {
+        return state.account.calculateIncome();
+    }
+
+    @Benchmark
+    public int computeNextPeriod(SourcesAndDebts state) {
+        state.account.computeNextPeriod();
+        return state.account.getMonthTracker();
+    }
+}
@@ -0,0 +1,31 @@
+package benchmark;
+
+import model.Account;
+
+import java.math.BigDecimal;
+
+/**
+ * Builds the accounts the benchmarks run on.
+ */
+final class Accounts {
+    private Accounts() {
+    }
+
+    //EFFECTS: Returns an account with the given numbers of sources, debts and receipts. The sources cancel out and
+    //         the debts are interest-free, so computeNextPeriod can run any number of times without the balances
+    //         going out of Money's range.
+    static Account generate(int sources, int debts, int receipts) {
+        Account acc = new Account();
+        for (int i = 0; i < sources; i++) {
+            long cents = (i / 2 + 1) * 1234L;
+            acc.addSource("Source " + i, BigDecimal.valueOf(i % 2 == 0 ? cents : -cents, 2));
+        }
+        for (int i = 0; i < debts; i++) {
+            acc.addDebt("Debt " + i, BigDecimal.valueOf(1000 + i * 250), BigDecimal.ZERO);
+        }
+        for (int i = 0; i < receipts; i++) {
+            acc.getReceipts().add("Month " + i + " receipt\nBalance: " + i + ".00\nSurplus: 12.34\nSavings: 5.00\n");
+        }
+        return acc;
+    }
+}
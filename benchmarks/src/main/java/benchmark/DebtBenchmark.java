@@ -0,0 +1,57 @@
+package benchmark;
+
+import model.DebtAcc;
+import model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times compounding a month of interest onto a debt, both at a rate Money holds exactly and at one it compounds in
+ * BigDecimal (see Money.ofRate). Compounding grows the balance by about a hundredfold every 400 calls, so once it
+ * passes RESET_UNITS the debt is replaced with a fresh one; that costs one allocation every thousand or so calls.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DebtBenchmark {
+    private static final BigDecimal START = BigDecimal.valueOf(1000);
+    private static final long RESET_UNITS = 1_000_000_000L * 1_000_000L; // a billion dollars in micro-units
+
+    @Param({"0.0125", "0.0125000001"})
+    String interest;
+
+    private BigDecimal rate;
+    private DebtAcc debt;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        rate = new BigDecimal(interest);
+        debt = new DebtAcc("Loan", START, rate);
+    }
+
+    @Benchmark
+    public long calculateInterest() {
+        debt.calculateInterest();
+        long money = debt.getMoney();
+        if (Money.units(money) > RESET_UNITS) {
+            debt = new DebtAcc("Loan", START, rate);
+        }
+        return money;
+    }
+}
@@ -0,0 +1,55 @@
+package benchmark;
+
+import model.EventLog;
+import model.EventType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times logging a typed event, from one thread and from four at once, with the log full so that every event evicts
+ * the oldest one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EventLogBenchmark {
+    private static final BigDecimal AMOUNT = BigDecimal.valueOf(5000);
+
+    private EventLog log;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        log = EventLog.getInstance();
+        log.clear();
+        for (int i = 0; i < log.getCapacity(); i++) {
+            log.logEvent(EventType.SOURCE_ADDED, "Setup", AMOUNT);
+        }
+    }
+
+    @Benchmark
+    public void logEvent() {
+        log.logEvent(EventType.SOURCE_ADDED, "Work", AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void logEventContended() {
+        log.logEvent(EventType.SOURCE_ADDED, "Work", AMOUNT);
+    }
+}
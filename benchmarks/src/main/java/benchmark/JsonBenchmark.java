@@ -0,0 +1,74 @@
+package benchmark;
+
+import model.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import persistence.JsonReader;
+import persistence.JsonWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times saving an account to, and loading it from, a JSON file in a temporary directory.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JsonBenchmark {
+    @Param({"10", "1000"})
+    int sources;
+
+    @Param({"1", "100"})
+    int debts;
+
+    @Param({"0", "5000"})
+    int receipts;
+
+    private Account account;
+    private Path dir;
+    private String file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        account = Accounts.generate(sources, debts, receipts);
+        dir = Files.createTempDirectory("benchmark");
+        file = dir.resolve("account.json").toString();
+        write();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(Path.of(file));
+        Files.delete(dir);
+    }
+
+    @Benchmark
+    public Account read() throws IOException {
+        return new JsonReader(file).read();
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        JsonWriter writer = new JsonWriter(file);
+        writer.open();
+        writer.write(account);
+        writer.close();
+    }
+}
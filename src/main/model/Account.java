@@ -1,14 +1,13 @@
 package model;
 
-import org.json.JSONArray;
 import org.json.JSONObject;
 import persistence.Writable;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
  /**
  *  Represents a budgeting account to store user accounting information:
@@ -18,305 +17,635 @@ import java.util.Objects;
   *     - User's savings account
   *     - User's list of debt accounts
   *     - And the user's account receipts from previous months
+  *
+  * An account in concurrent mode can be changed from several threads at once, such as the UI, an importer and a
+  * scheduler. Each part of it (sources, debts, savings, balance, and month and receipts) has its own read/write lock
+  * (see AccountLocks): an operation locks only the parts it touches, so changes to different parts run side by side,
+  * and one that spans parts (moving money between balance and savings, or ending a period) locks them all together
+  * and is seen whole. toJson, AccountSnapshot and readers between lockForReading and unlockForReading see every part
+  * at one moment. The lists returned by the getters and changes made directly on a SavingsAcc, DebtAcc or the
+  * receipts are not guarded. Outside concurrent mode, the default, nothing is locked.
+  *
+  * Every change made through the account's methods, in either mode, ends by publishing an immutable AccountSnapshot
+  * of the whole account, which snapshot returns without locking. A snapshot shares the parts a change did not touch
+  * with the one before it, and is swapped in with a compare-and-set, so changes to different parts running side by
+  * side each publish on top of the other. Changes made directly on the parts are published by publishSnapshot.
  */
 public class Account implements Writable {
+    private static volatile boolean verifyTotals = Boolean.getBoolean("budgeit.verifyTotals");
+
     int monthTracker;
-    BigDecimal balance; // Balance in cents
+    long balance; // Money-packed balance, see Money
     BigDecimal savingsPercentGoal; // Savings goal as percentage
-    List<Source> sources; // Catalogue of sources
+    NamedList<Source> sources; // Catalogue of sources, indexed by name
     SavingsAcc savings; // A tracker for long term savings
-    ArrayList<DebtAcc> debts; // A list of debts for the user to fill.
-    ArrayList<String> receipts = new ArrayList<>(); // A list of Receipts stored as strings.
-
-    //EFFECTS: Creates a fresh account with no values.
+    NamedList<DebtAcc> debts; // A list of debts for the user to fill, indexed by name
+    ReceiptHistory receipts = new ReceiptHistory(); // The receipts of previous months, stored as columns
+    SourceTotals totals = new SourceTotals(); // Running income/expense totals over sources
+    List<AccountListener> listeners = new CopyOnWriteArrayList<>(); // Told about every change, see AccountListener
+    final AccountLocks locks; // Guard each part of the account in concurrent mode
+    private final AtomicReference<AccountSnapshot> published; // The account as of its last change
+
+    //EFFECTS: Creates a fresh account with no values, in concurrent mode if started with
+    //         -Dbudgeit.concurrentAccount=true
     public Account() {
+        this(Boolean.getBoolean("budgeit.concurrentAccount"));
+    }
+
+    //EFFECTS: Creates a fresh account with no values, in concurrent mode if concurrent is true
+    public Account(boolean concurrent) {
+        this.locks = new AccountLocks(concurrent);
         this.monthTracker = 1;
-        this.balance = BigDecimal.valueOf(0);
+        this.balance = Money.ZERO;
         this.savingsPercentGoal = BigDecimal.valueOf(0);
-        this.sources = new ArrayList<>();
+        this.sources = new NamedList<>();
         this.savings = new SavingsAcc(BigDecimal.valueOf(0),BigDecimal.valueOf(0));
-        this.debts = new ArrayList<>();
+        this.debts = new NamedList<>();
+        this.published = new AtomicReference<>(AccountSnapshot.of(this));
     }
 
-    //REQUIRES: val != 0, name IS NOT duplicate
+    //REQUIRES: val != 0
     //MODIFIES: this
-    //EFFECTS: Adds an income/expense to the list of sources
-    public void addSource(String name, BigDecimal val) {
-        Source s = new Source(name, val);
-        this.sources.add(s);
-        EventLog.getInstance().logEvent(new Event("Source added with name: " + name
-                + ", and modify balance: " + val));
+    //EFFECTS: Adds an income/expense to the list of sources and returns true, if name is already used by another
+    //         source nothing is added and returns false
+    public boolean addSource(String name, BigDecimal val) {
+        locks.write(AccountLocks.SOURCES);
+        try {
+            Source s = new Source(name, val);
+            if (this.sources.containsName(name)) {
+                EventLog.getInstance().logEvent(EventType.SOURCE_DUPLICATE, name);
+                return false;
+            }
+            totals.add(s.value); // first, so a total out of Money's range leaves the account as it was
+            this.sources.put(name, s);
+            published.updateAndGet(snapshot -> snapshot.withSources(this, snapshot.sources.append(s)));
+            EventLog.getInstance().logEvent(EventType.SOURCE_ADDED, name, val);
+            changed(AccountOp.ADD_SOURCE, name, val, null);
+            return true;
+        } finally {
+            locks.unlockWrite(AccountLocks.SOURCES);
+        }
     }
 
     //MODIFIES: this
     //EFFECTS: Removes the specified source from the source list, if not found return false, else true
     public boolean removeSource(String name) {
-        List<Source> sources = this.getSources();
-        for (int i = 0; i < this.sources.size(); i++) {
-            Source s = sources.get(i);
-            if (Objects.equals(s.name, name)) {
-                sources.remove(i);
-                EventLog.getInstance().logEvent(new Event("Source removed with name: " + name));
+        locks.write(AccountLocks.SOURCES);
+        try {
+            int slot = this.sources.slotOf(name);
+            Source removed = this.sources.remove(name);
+            if (removed != null) {
+                totals.remove(removed.value);
+                if (this.sources.compactSlots()) {
+                    publish(AccountLocks.SOURCES);
+                } else {
+                    published.updateAndGet(snapshot -> snapshot.withSources(this, snapshot.sources.set(slot, null)));
+                }
+                EventLog.getInstance().logEvent(EventType.SOURCE_REMOVED, name);
+                changed(AccountOp.REMOVE_SOURCE, name, null, null);
                 return true;
             }
+            EventLog.getInstance().logEvent(EventType.SOURCE_NOT_FOUND, name);
+            return false;
+        } finally {
+            locks.unlockWrite(AccountLocks.SOURCES);
+        }
+    }
+
+    //EFFECTS: Returns the source with the given name, or null if there is none
+    public Source getSource(String name) {
+        locks.read(AccountLocks.SOURCES);
+        try {
+            return this.sources.find(name);
+        } finally {
+            locks.unlockRead(AccountLocks.SOURCES);
         }
-        EventLog.getInstance().logEvent(new Event("Failed to find and remove source with name: " + name));
-        return false;
     }
 
     //REQUIRES: that lst is a list of all sources for an account.
     //EFFECTS: Return a value, positive or negative, that represents inbound
     //         or outbound funds from balance for the month.
     public BigDecimal calculateSurplus() {
-        List<Source> sources = getSources();
-        BigDecimal s = BigDecimal.valueOf(0);
-        for (Source source : sources) {
-            s = s.add(source.getValue());
+        return Money.toBigDecimal(surplus());
+    }
+
+    //EFFECTS: Returns the Money-packed surplus for the month, rounded up to whole cents
+    long surplus() {
+        locks.read(AccountLocks.SOURCES);
+        try {
+            verifyTotals();
+            EventLog.getInstance().logEvent(EventType.SURPLUS_CALCULATED);
+            return totals.surplus();
+        } finally {
+            locks.unlockRead(AccountLocks.SOURCES);
+        }
+    }
+
+    //EFFECTS: Returns the surplus for the month from the running source totals, rounded up to whole cents. Unlike
+    //         calculateSurplus, nothing is logged, so it can be read whenever a display needs it.
+    public BigDecimal getSurplus() {
+        locks.read(AccountLocks.SOURCES);
+        try {
+            return Money.toBigDecimal(totals.surplus());
+        } finally {
+            locks.unlockRead(AccountLocks.SOURCES);
         }
-        EventLog.getInstance().logEvent(new Event("Calculating surplus for period..."));
-        return s.setScale(2, RoundingMode.CEILING);
     }
 
-    //REQUIRES: that lst is a list of income sources
     //EFFECTS: Return the sum of all income sources
     public BigDecimal calculateIncome() {
-        List<Source> sources = getSources();
-        BigDecimal income = BigDecimal.valueOf(0);
-
-        for (Source source : sources) {
-
-            if (source.getValue().compareTo(BigDecimal.ZERO) > 0) {
-                income = income.add(source.getValue());
-            }
+        locks.read(AccountLocks.SOURCES);
+        try {
+            verifyTotals();
+            EventLog.getInstance().logEvent(EventType.INCOME_CALCULATED);
+            return Money.toBigDecimal(totals.income());
+        } finally {
+            locks.unlockRead(AccountLocks.SOURCES);
         }
-        EventLog.getInstance().logEvent(new Event("Calculating sources income total..."));
-        return income;
     }
 
-    //REQUIRES: that lst is a list of expense sources
     //EFFECTS: Return the sum of all expenses.
     public BigDecimal calculateExpenses() {
-        List<Source> sources = getSources();
-        BigDecimal expenses = BigDecimal.valueOf(0);
-
-        for (Source source : sources) {
-
-            if (source.getValue().compareTo(BigDecimal.ZERO) < 0) {
-                expenses = expenses.subtract(source.getValue());
-            }
+        locks.read(AccountLocks.SOURCES);
+        try {
+            verifyTotals();
+            EventLog.getInstance().logEvent(EventType.EXPENSES_CALCULATED);
+            return Money.toBigDecimal(totals.expenses());
+        } finally {
+            locks.unlockRead(AccountLocks.SOURCES);
         }
-        expenses = expenses.multiply(BigDecimal.valueOf(-1));
-        EventLog.getInstance().logEvent(new Event("Calculating sources expense total..."));
-        return expenses;
     }
 
     //MODIFIES: this
     //EFFECTS: Returns a receipt of incoming and outgoing expenses that month, with updated balance and values
     public String returnReceipt() {
-        BigDecimal income = calculateIncome();
-        BigDecimal expense = calculateExpenses();
-        BigDecimal surplus = calculateSurplus();
+        locks.read(AccountLocks.SOURCES | AccountLocks.BALANCE | AccountLocks.HISTORY);
+        try {
+            BigDecimal income = calculateIncome();
+            BigDecimal expense = calculateExpenses();
+            BigDecimal surplus = calculateSurplus();
 
-        EventLog.getInstance().logEvent(new Event("Creating receipt..."));
+            EventLog.getInstance().logEvent(EventType.RECEIPT_CREATED);
 
-        return "Month: " + monthTracker
-                + "\nIncome: " + income
-                + "\nExpenses: " + expense
-                + "\n" + "------"
-                + "\nTotal: " + surplus
-                + "\nRecommended Savings: " + savingsPercentGoal.multiply(calculateSurplus())
-                + "\n------";
+            return ReceiptHistory.summary(monthTracker, income, expense, surplus, savingsPercentGoal.multiply(surplus));
+        } finally {
+            locks.unlockRead(AccountLocks.SOURCES | AccountLocks.BALANCE | AccountLocks.HISTORY);
+        }
+    }
+
+    //EFFECTS: Returns the columns of this month's receipt of surplus, given the balance and savings balance after
+    //         the month ends
+    private long[] receiptAmounts(long surplus, long newBalance, long newSavings) {
+        long[] amounts = new long[ReceiptHistory.Column.values().length];
+        amounts[ReceiptHistory.Column.INCOME.ordinal()] = totals.income();
+        amounts[ReceiptHistory.Column.EXPENSES.ordinal()] = totals.expenses();
+        amounts[ReceiptHistory.Column.SURPLUS.ordinal()] = surplus;
+        amounts[ReceiptHistory.Column.SAVINGS.ordinal()] =
+                Money.of(savingsPercentGoal.multiply(Money.toBigDecimal(surplus)));
+        amounts[ReceiptHistory.Column.BALANCE.ordinal()] = newBalance;
+        amounts[ReceiptHistory.Column.SAVINGS_BALANCE.ordinal()] = newSavings;
+        return amounts;
+    }
+
+    //MODIFIES: Account
+    //EFFECTS: Turns checking of the running source totals against a full recompute on or off. Also enabled at
+    //         startup with -Dbudgeit.verifyTotals=true.
+    public static void setVerifyTotals(boolean verify) {
+        verifyTotals = verify;
+    }
+
+    //EFFECTS: If verification is on, re-sums every source and throws IllegalStateException if the running totals
+    //         have drifted from the result
+    private void verifyTotals() {
+        if (!verifyTotals) {
+            return;
+        }
+        SourceTotals recomputed = new SourceTotals();
+        for (Source source : sources) {
+            recomputed.add(source.value);
+        }
+        if (recomputed.income() != totals.income() || recomputed.expenses() != totals.expenses()) {
+            throw new IllegalStateException("Running source totals are out of date: income "
+                    + Money.toBigDecimal(totals.income()) + " should be " + Money.toBigDecimal(recomputed.income())
+                    + ", expenses " + Money.toBigDecimal(totals.expenses()) + " should be "
+                    + Money.toBigDecimal(recomputed.expenses()));
+        }
     }
 
     //REQUIRES: val > 0
     //MODIFIES: this
     //EFFECTS: Adds val to balance
     public void depositBalance(BigDecimal val) {
-        EventLog.getInstance().logEvent(new Event(val + " added to account balance"));
-        this.balance = this.balance.add(val);
+        locks.write(AccountLocks.BALANCE);
+        try {
+            EventLog.getInstance().logEvent(EventType.BALANCE_DEPOSITED, val);
+            this.balance = Money.add(this.balance, Money.of(val));
+            publish(AccountLocks.BALANCE);
+            changed(AccountOp.DEPOSIT_BALANCE, null, val, null);
+        } finally {
+            locks.unlockWrite(AccountLocks.BALANCE);
+        }
     }
 
     //REQUIRES: val > 0, val <= balance
     //MODIFIES: this
     //EFFECTS: Subtracts val from balance
     public void withdrawBalance(BigDecimal val) {
-        EventLog.getInstance().logEvent(new Event(val + " withdrawn from account balance"));
-        this.balance = this.balance.subtract(val);
+        locks.write(AccountLocks.BALANCE);
+        try {
+            EventLog.getInstance().logEvent(EventType.BALANCE_WITHDRAWN, val);
+            this.balance = Money.subtract(this.balance, Money.of(val));
+            publish(AccountLocks.BALANCE);
+            changed(AccountOp.WITHDRAW_BALANCE, null, val, null);
+        } finally {
+            locks.unlockWrite(AccountLocks.BALANCE);
+        }
     }
 
     //MODIFIES: this
     //EFFECTS: Updates balance to val
     public void updateBalance(BigDecimal val) {
-        EventLog.getInstance().logEvent(new Event("Balance updated to: " + val));
-        this.balance = val;
+        locks.write(AccountLocks.BALANCE);
+        try {
+            EventLog.getInstance().logEvent(EventType.BALANCE_UPDATED, val);
+            this.balance = Money.of(val);
+            publish(AccountLocks.BALANCE);
+            changed(AccountOp.UPDATE_BALANCE, null, val, null);
+        } finally {
+            locks.unlockWrite(AccountLocks.BALANCE);
+        }
     }
 
     //MODIFIES: this
-    //EFFECTS: Updates debt, savings, and balance, records a receipt, and recommends a savings deposit for that month
+    //EFFECTS: Updates debt, savings, and balance, and records a receipt for the month. See getRecommendedSavings for
+    //         the deposit to suggest for the next one. Every new value is worked out before any is stored, so if one
+    //         is out of Money's range, ArithmeticException is thrown and the account is left as it was.
     public void computeNextPeriod() {
-        this.balance = this.balance.add(calculateSurplus()).setScale(2, RoundingMode.CEILING);
-        this.savings.calculateInterest();
-        for (DebtAcc debts : debts) {
-            debts.calculateInterest();
+        locks.write(AccountLocks.ALL);
+        try {
+            long surplus = surplus();
+            long newBalance = Money.ceilCents(Money.add(this.balance, surplus));
+            long newSavings = savings.compounded();
+            long[] newDebts = new long[debts.size()];
+            long[] charged = new long[newDebts.length];
+            int i = 0;
+            for (DebtAcc debt : debts) {
+                newDebts[i] = debt.compounded();
+                charged[i] = Money.subtract(newDebts[i], debt.getMoney());
+                i++;
+            }
+            long[] amounts = receiptAmounts(surplus, newBalance, newSavings);
+
+            this.balance = newBalance;
+            this.savings.bal = newSavings;
+            i = 0;
+            for (DebtAcc debt : debts) {
+                EventLog.getInstance().logEvent(EventType.DEBT_INTEREST_CALCULATED, debt.getName());
+                debt.value = newDebts[i];
+                receipts.addDebtBalance(debt.getName(), newDebts[i], charged[i]);
+                i++;
+            }
+            EventLog.getInstance().logEvent(EventType.RECEIPT_CREATED);
+            receipts.record(monthTracker, amounts);
+            monthTracker += 1;
+            EventLog.getInstance().logEvent(EventType.PERIOD_ENDED);
+            publish(AccountLocks.ALL & ~AccountLocks.SOURCES);
+            changed(AccountOp.NEXT_PERIOD, null, null, null);
+        } finally {
+            locks.unlockWrite(AccountLocks.ALL);
         }
-        this.receipts.add(returnReceipt());
-        monthTracker += 1;
-        System.out.println("We recommend saving: " + savingsPercentGoal.multiply(calculateSurplus()));
-        EventLog.getInstance().logEvent(new Event("Ending current period, calculating next..."));
     }
 
     //REQUIRES: amt > 0, 0 < interest < 1
     //MODIFIES: this
-    //EFFECTS: Adds a debt to the list of debts in the account
-    public void addDebt(String name, BigDecimal amt, BigDecimal interest) {
-        DebtAcc debt = new DebtAcc(name, amt, interest);
-        this.debts.add(debt);
-        EventLog.getInstance().logEvent(new Event("Adding a debt account with name: " + name
-                + ", balance: " + amt + ", and interest: " + interest));
+    //EFFECTS: Adds a debt to the list of debts in the account and returns true, if name is already used by another
+    //         debt nothing is added and returns false
+    public boolean addDebt(String name, BigDecimal amt, BigDecimal interest) {
+        locks.write(AccountLocks.DEBTS);
+        try {
+            DebtAcc debt = new DebtAcc(name, amt, interest);
+            if (!this.debts.put(name, debt)) {
+                EventLog.getInstance().logEvent(EventType.DEBT_DUPLICATE, name);
+                return false;
+            }
+            AccountSnapshot.Debt copy = new AccountSnapshot.Debt(debt);
+            published.updateAndGet(snapshot -> snapshot.withDebts(this, snapshot.debts.append(copy)));
+            EventLog.getInstance().logEvent(EventType.DEBT_ADDED, name, amt, interest);
+            changed(AccountOp.ADD_DEBT, name, amt, interest);
+            return true;
+        } finally {
+            locks.unlockWrite(AccountLocks.DEBTS);
+        }
+    }
+
+    //EFFECTS: Returns the debt account with the given name, or null if there is none
+    public DebtAcc getDebt(String name) {
+        locks.read(AccountLocks.DEBTS);
+        try {
+            return this.debts.find(name);
+        } finally {
+            locks.unlockRead(AccountLocks.DEBTS);
+        }
     }
 
     //MODIFIES: this
     //EFFECTS: Removes a debt with the given name from your account. If name found, true, else false.
     public boolean removeDebt(String name) {
-        for (int i = 0; i < this.debts.size(); i++) {
-            DebtAcc d = debts.get(i);
-            if (d.name.equals(name)) {
-                debts.remove(i);
-                EventLog.getInstance().logEvent(new Event("Removing a debt account with name: " + name));
+        locks.write(AccountLocks.DEBTS);
+        try {
+            int slot = this.debts.slotOf(name);
+            if (this.debts.remove(name) != null) {
+                if (this.debts.compactSlots()) {
+                    publish(AccountLocks.DEBTS);
+                } else {
+                    published.updateAndGet(snapshot -> snapshot.withDebts(this, snapshot.debts.set(slot, null)));
+                }
+                EventLog.getInstance().logEvent(EventType.DEBT_REMOVED, name);
+                changed(AccountOp.REMOVE_DEBT, name, null, null);
                 return true;
             }
+            EventLog.getInstance().logEvent(EventType.DEBT_NOT_REMOVED, name);
+            return false;
+        } finally {
+            locks.unlockWrite(AccountLocks.DEBTS);
         }
-        EventLog.getInstance().logEvent(new Event("Failed to find and remove debt account with name: "
-                + name));
-        return false;
     }
 
     //REQUIRES: amt > 0
     //MODIFIES: this
     //EFFECTS: Moves cash from account balance to savings.
     public void depositSavings(BigDecimal amt) {
-        SavingsAcc savings = this.savings;
-        this.balance = balance.subtract(amt);
-        savings.addValue(amt);
-        EventLog.getInstance().logEvent(new Event("Deposited " + amt + " to savings account"));
+        locks.write(AccountLocks.SAVINGS | AccountLocks.BALANCE);
+        try {
+            SavingsAcc savings = this.savings;
+            long money = Money.of(amt);
+            long newBalance = Money.subtract(balance, money);
+            long newSavings = Money.add(savings.getMoney(), money);
+            this.balance = newBalance;
+            savings.bal = newSavings;
+            EventLog.getInstance().logEvent(EventType.SAVINGS_DEPOSITED, amt);
+            publish(AccountLocks.SAVINGS | AccountLocks.BALANCE);
+            changed(AccountOp.DEPOSIT_SAVINGS, null, amt, null);
+        } finally {
+            locks.unlockWrite(AccountLocks.SAVINGS | AccountLocks.BALANCE);
+        }
     }
 
     //REQUIRES: amt > 0, amt <= savings.balance
     //MODIFIES: this
     //EFFECTS: Moves cash from savings to account balance
     public void withdrawSavings(BigDecimal amt) {
-        SavingsAcc savings = this.savings;
-        this.balance = balance.add(amt);
-        savings.subValue(amt);
-        EventLog.getInstance().logEvent(new Event("Withdrew " + amt + " from savings account"));
+        locks.write(AccountLocks.SAVINGS | AccountLocks.BALANCE);
+        try {
+            SavingsAcc savings = this.savings;
+            long money = Money.of(amt);
+            long newBalance = Money.add(balance, money);
+            long newSavings = Money.subtract(savings.getMoney(), money);
+            this.balance = newBalance;
+            savings.bal = newSavings;
+            EventLog.getInstance().logEvent(EventType.SAVINGS_WITHDRAWN, amt);
+            publish(AccountLocks.SAVINGS | AccountLocks.BALANCE);
+            changed(AccountOp.WITHDRAW_SAVINGS, null, amt, null);
+        } finally {
+            locks.unlockWrite(AccountLocks.SAVINGS | AccountLocks.BALANCE);
+        }
     }
 
     //MODIFIES: this
     //EFFECTS: If name is present in one of Account's debtAcc objects name field, pays amt from the debtAcc's value.
     public Boolean payDebt(String name, BigDecimal amt) {
-        List<DebtAcc> debts = this.debts;
+        locks.write(AccountLocks.DEBTS);
+        try {
+            DebtAcc d = this.debts.find(name);
 
-        for (DebtAcc d : debts) {
-            if (d.getName().equals(name)) {
+            if (d != null) {
                 d.subValue(amt);
-                EventLog.getInstance().logEvent(new Event("Successfully paid " + amt + " from "
-                        + name + "'s debt account balance"));
+                publishDebt(d);
+                EventLog.getInstance().logEvent(EventType.DEBT_PAID, amt, name);
+                changed(AccountOp.PAY_DEBT, name, amt, null);
                 return true;
             }
+            EventLog.getInstance().logEvent(EventType.DEBT_NOT_FOUND, name);
+            return false;
+        } finally {
+            locks.unlockWrite(AccountLocks.DEBTS);
         }
-        EventLog.getInstance().logEvent(new Event("Could not find debt account with name: " + name));
-        return false;
     }
 
-    //EFFECTS: Creates a JSONObject representing an account to be written to a save file
-    public JSONObject toJson() {
-        JSONObject json = new JSONObject();
-        json.put("month", monthTracker);
-        json.put("balance", balance);
-        json.put("spg", savingsPercentGoal);
-        json.put("sources", sourcesToJson());
-        json.put("savings", savings.toJson());
-        json.put("debts", debtsToJson());
-        json.put("receipts", receiptsToJson());
-        EventLog.getInstance().logEvent(new Event("Creating account save data..."));
-        return json;
+    //REQUIRES: amt > 0
+    //MODIFIES: this
+    //EFFECTS: If name is present in one of Account's debtAcc objects name field, adds amt to the debtAcc's value and
+    //         returns true, else returns false
+    public boolean addToDebt(String name, BigDecimal amt) {
+        locks.write(AccountLocks.DEBTS);
+        try {
+            DebtAcc d = this.debts.find(name);
+
+            if (d != null) {
+                d.addValue(amt);
+                publishDebt(d);
+                changed(AccountOp.ADD_TO_DEBT, name, amt, null);
+                return true;
+            }
+            EventLog.getInstance().logEvent(EventType.DEBT_NOT_FOUND, name);
+            return false;
+        } finally {
+            locks.unlockWrite(AccountLocks.DEBTS);
+        }
     }
 
-    //EFFECTS: Parses the account's list of sources to a JSONArray to be added to a JSONObject
-    private JSONArray sourcesToJson() {
-        JSONArray jsonArray = new JSONArray();
+    //REQUIRES: 0 <= interest <= 1
+    //MODIFIES: this
+    //EFFECTS: Sets the interest rate of the savings account
+    public void setSavingsInterest(BigDecimal interest) {
+        locks.write(AccountLocks.SAVINGS);
+        try {
+            this.savings.setInterest(interest);
+            publish(AccountLocks.SAVINGS);
+            changed(AccountOp.SET_SAVINGS_INTEREST, null, null, interest);
+        } finally {
+            locks.unlockWrite(AccountLocks.SAVINGS);
+        }
+    }
 
-        for (Source s : sources) {
-            jsonArray.put(s.toJson());
+    //MODIFIES: this
+    //EFFECTS: Removes all receipts and starts counting months from 1 again. The old receipts are left as they were
+    //         for the snapshots that share them.
+    public void clearReceipts() {
+        locks.write(AccountLocks.HISTORY);
+        try {
+            this.receipts = new ReceiptHistory();
+            this.monthTracker = 1;
+            publish(AccountLocks.HISTORY);
+            changed(AccountOp.CLEAR_RECEIPTS, null, null, null);
+        } finally {
+            locks.unlockWrite(AccountLocks.HISTORY);
         }
+    }
 
-        return jsonArray;
+    //EFFECTS: Returns true if the account is in concurrent mode
+    public boolean isConcurrent() {
+        return locks.isConcurrent();
     }
 
-    //EFFECTS: Parses the account's list of debts to a JSONArray to be added to a JSONObject
-    private JSONArray debtsToJson() {
-        JSONArray jsonArray = new JSONArray();
+    //MODIFIES: this
+    //EFFECTS: Holds off every change to the account until unlockForReading is called, so that a reader of several
+    //         parts, such as a save file writer, sees them all at one moment. Other readers are not held off. Does
+    //         nothing outside concurrent mode.
+    public void lockForReading() {
+        locks.read(AccountLocks.ALL);
+    }
 
-        for (DebtAcc d : debts) {
-            jsonArray.put(d.toJson());
+    //REQUIRES: lockForReading was called on this thread and not yet matched
+    //MODIFIES: this
+    //EFFECTS: Lets changes to the account go ahead again
+    public void unlockForReading() {
+        locks.unlockRead(AccountLocks.ALL);
+    }
+
+    //EFFECTS: Returns the account as of its last change, without locking, so it can be read from any thread while
+    //         the account keeps changing
+    public AccountSnapshot snapshot() {
+        return published.get();
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Publishes a snapshot of every part of the account, taking in changes made directly on its parts (such
+    //         as a save file reader filling in the savings and receipts) that its methods have not published
+    public void publishSnapshot() {
+        locks.write(AccountLocks.ALL);
+        try {
+            published.set(AccountSnapshot.of(this));
+        } finally {
+            locks.unlockWrite(AccountLocks.ALL);
         }
+    }
 
-        return jsonArray;
+    //REQUIRES: this thread holds the write locks of parts
+    //MODIFIES: this
+    //EFFECTS: Publishes a snapshot with the current figures of parts, sharing the rest with the last one
+    private void publish(int parts) {
+        published.updateAndGet(snapshot -> snapshot.next(this, parts));
     }
 
-    //EFFECTS: Parses the account's list of receipts to a JSONArray to be added to a JSONObject
-    private JSONArray receiptsToJson() {
-        JSONArray jsonArray = new JSONArray();
+    //REQUIRES: this thread holds the write lock of the debts, and debt is one of them
+    //MODIFIES: this
+    //EFFECTS: Publishes a snapshot with the current figures of debt, sharing the rest with the last one
+    private void publishDebt(DebtAcc debt) {
+        int slot = debts.slotOf(debt.name);
+        AccountSnapshot.Debt copy = new AccountSnapshot.Debt(debt);
+        published.updateAndGet(snapshot -> snapshot.withDebts(this, snapshot.debts.set(slot, copy)));
+    }
 
-        for (String s : receipts) {
-            jsonArray.put(receiptToJson(s));
-        }
+    //MODIFIES: this
+    //EFFECTS: Registers listener to be told about every change made through this account's methods from now on
+    public void addListener(AccountListener listener) {
+        listeners.add(listener);
+    }
 
-        return jsonArray;
+    //MODIFIES: this
+    //EFFECTS: Stops listener from being told about changes
+    public void removeListener(AccountListener listener) {
+        listeners.remove(listener);
     }
 
-    //EFFECTS: Parses a receipt to a JSONObject
-    private JSONObject receiptToJson(String s) {
-        JSONObject json = new JSONObject();
-        json.put("receipt", s);
-        return json;
+    //EFFECTS: Tells every listener about a change that was just made
+    private void changed(AccountOp op, String name, BigDecimal amount, BigDecimal rate) {
+        for (AccountListener listener : listeners) {
+            listener.accountChanged(this, op, name, amount, rate);
+        }
     }
 
+    //EFFECTS: Creates a JSONObject representing an account to be written to a save file, from a snapshot taken
+    //         now so that changes made directly on its parts are included
+    public JSONObject toJson() {
+        return new AccountSnapshot(this).toJson();
+    }
 
     //EFFECTS: Returns savings balance
     public BigDecimal getSavingsBal() {
-        return this.savings.getBal();
+        locks.read(AccountLocks.SAVINGS);
+        try {
+            return this.savings.getBal();
+        } finally {
+            locks.unlockRead(AccountLocks.SAVINGS);
+        }
     }
 
     //REQUIRES: That a savings goal has been set
     //EFFECTS: Returns an integer based on your surplus that month and your savings goal
     public BigDecimal suggestSavings(BigDecimal surplus) {
-        BigDecimal goal = surplus.multiply(this.savingsPercentGoal).setScale(2, RoundingMode.CEILING);
-        EventLog.getInstance().logEvent(new Event("Calculated suggested savings for this month: " + goal));
-        return goal;
+        locks.read(AccountLocks.BALANCE);
+        try {
+            BigDecimal goal = surplus.multiply(this.savingsPercentGoal).setScale(2, RoundingMode.CEILING);
+            EventLog.getInstance().logEvent(EventType.SAVINGS_SUGGESTED, goal);
+            return goal;
+        } finally {
+            locks.unlockRead(AccountLocks.BALANCE);
+        }
     }
 
     public BigDecimal getBalance() {
-        return balance;
+        locks.read(AccountLocks.BALANCE);
+        try {
+            return Money.toBigDecimal(balance);
+        } finally {
+            locks.unlockRead(AccountLocks.BALANCE);
+        }
+    }
+
+    //EFFECTS: Returns the Money-packed account balance
+    public long getMoney() {
+        locks.read(AccountLocks.BALANCE);
+        try {
+            return balance;
+        } finally {
+            locks.unlockRead(AccountLocks.BALANCE);
+        }
+    }
+
+    //EFFECTS: Returns the savings deposit recommended for the month: the savings goal's share of the surplus
+    public BigDecimal getRecommendedSavings() {
+        return getSavingsPercentGoal().multiply(getSurplus());
     }
 
     public BigDecimal getSavingsPercentGoal() {
-        return savingsPercentGoal;
+        locks.read(AccountLocks.BALANCE);
+        try {
+            return savingsPercentGoal;
+        } finally {
+            locks.unlockRead(AccountLocks.BALANCE);
+        }
     }
 
     public void setSavingsPercentGoal(BigDecimal savingsPercentGoal) {
-        this.savingsPercentGoal = savingsPercentGoal;
+        locks.write(AccountLocks.BALANCE);
+        try {
+            this.savingsPercentGoal = savingsPercentGoal;
+            publish(AccountLocks.BALANCE);
+            changed(AccountOp.SET_SAVINGS_GOAL, null, null, savingsPercentGoal);
+        } finally {
+            locks.unlockWrite(AccountLocks.BALANCE);
+        }
     }
 
     public List<Source> getSources() {
         return sources;
     }
 
-    public ArrayList<String> getReceipts() {
+    //EFFECTS: Returns the receipts recorded so far. Receipts loaded from a binary save file with more than one page
+    //         of them are read from the file a page at a time (see ReceiptHistory.setPages); ones loaded from a JSON
+    //         save file are all read into memory when it is loaded.
+    public ReceiptHistory getReceipts() {
         return receipts;
     }
 
-    public ArrayList<DebtAcc> getDebts() {
+    //EFFECTS: Returns a query over column of every receipt recorded, for ranges of months and their aggregates
+    public HistoryQuery queryHistory(ReceiptHistory.Column column) {
+        return receipts.query(column);
+    }
+
+    public List<DebtAcc> getDebts() {
         return debts;
     }
 
@@ -325,10 +654,22 @@ public class Account implements Writable {
     }
 
     public void setMonthTracker(int monthTracker) {
-        this.monthTracker = monthTracker;
+        locks.write(AccountLocks.HISTORY);
+        try {
+            this.monthTracker = monthTracker;
+            publish(AccountLocks.HISTORY);
+            changed(AccountOp.SET_MONTH, null, BigDecimal.valueOf(monthTracker), null);
+        } finally {
+            locks.unlockWrite(AccountLocks.HISTORY);
+        }
     }
 
     public int getMonthTracker() {
-        return monthTracker;
+        locks.read(AccountLocks.HISTORY);
+        try {
+            return monthTracker;
+        } finally {
+            locks.unlockRead(AccountLocks.HISTORY);
+        }
     }
 }
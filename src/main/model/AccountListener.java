@@ -0,0 +1,15 @@
+package model;
+
+import java.math.BigDecimal;
+
+/**
+ * An interface for objects that are told about every change made through an Account's methods, such as a journal
+ * that records changes as they happen. Changes made directly on the account's SavingsAcc or DebtAcc objects are
+ * not reported.
+ */
+public interface AccountListener {
+
+    //EFFECTS: Receives a change that was just made to account. name, amount and rate hold the arguments the change
+    //         was made with and are null if the operation has no such argument (see AccountOp).
+    void accountChanged(Account account, AccountOp op, String name, BigDecimal amount, BigDecimal rate);
+}
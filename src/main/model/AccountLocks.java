@@ -0,0 +1,92 @@
+package model;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The locks guarding each part of an account in concurrent mode, one read/write lock per part, so that changes to
+ * different parts (a source added while savings are deposited) do not wait on each other while readers of a part
+ * share it. Parts are bits, so an operation spanning several names them all at once, and they are always locked in
+ * bit order and unlocked in reverse, so two operations can never each hold a part the other is waiting for.
+ *
+ * Outside concurrent mode there are no locks and every method returns at once.
+ */
+final class AccountLocks {
+    static final int SOURCES = 1;  // sources and their running totals
+    static final int DEBTS = 2;    // the debts and their balances
+    static final int SAVINGS = 4;  // the savings account
+    static final int BALANCE = 8;  // the balance and savings percent goal
+    static final int HISTORY = 16; // the month and receipts
+    static final int ALL = SOURCES | DEBTS | SAVINGS | BALANCE | HISTORY;
+
+    private final ReentrantReadWriteLock[] stripes; // by bit, or null outside concurrent mode
+
+    //EFFECTS: Creates the locks of an account, or none if concurrent is false
+    AccountLocks(boolean concurrent) {
+        if (concurrent) {
+            stripes = new ReentrantReadWriteLock[Integer.bitCount(ALL)];
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new ReentrantReadWriteLock();
+            }
+        } else {
+            stripes = null;
+        }
+    }
+
+    //EFFECTS: Returns true if these are the locks of an account in concurrent mode
+    boolean isConcurrent() {
+        return stripes != null;
+    }
+
+    //REQUIRES: this thread does not hold the write lock of a later part than those in parts, unless it holds all of
+    //          parts already
+    //MODIFIES: this
+    //EFFECTS: Waits for and takes the read locks of parts
+    void read(int parts) {
+        if (stripes != null) {
+            for (int i = 0; i < stripes.length; i++) {
+                if ((parts & 1 << i) != 0) {
+                    stripes[i].readLock().lock();
+                }
+            }
+        }
+    }
+
+    //REQUIRES: this thread holds the read locks of parts
+    //MODIFIES: this
+    //EFFECTS: Releases the read locks of parts
+    void unlockRead(int parts) {
+        if (stripes != null) {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                if ((parts & 1 << i) != 0) {
+                    stripes[i].readLock().unlock();
+                }
+            }
+        }
+    }
+
+    //REQUIRES: this thread holds no read lock of parts, and no lock of a later part than those in parts
+    //MODIFIES: this
+    //EFFECTS: Waits for and takes the write locks of parts
+    void write(int parts) {
+        if (stripes != null) {
+            for (int i = 0; i < stripes.length; i++) {
+                if ((parts & 1 << i) != 0) {
+                    stripes[i].writeLock().lock();
+                }
+            }
+        }
+    }
+
+    //REQUIRES: this thread holds the write locks of parts
+    //MODIFIES: this
+    //EFFECTS: Releases the write locks of parts
+    void unlockWrite(int parts) {
+        if (stripes != null) {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                if ((parts & 1 << i) != 0) {
+                    stripes[i].writeLock().unlock();
+                }
+            }
+        }
+    }
+}
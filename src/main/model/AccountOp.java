@@ -0,0 +1,83 @@
+package model;
+
+import java.math.BigDecimal;
+
+/**
+ * The changes that can be made to an Account through its methods, as reported to an AccountListener. Applying an
+ * operation with the same arguments to an account in the same state makes the same change again, so a list of
+ * operations can be replayed to rebuild an account.
+ *
+ * Journals store each operation by its position in this list, so new operations must be added at the end.
+ */
+public enum AccountOp {
+    ADD_SOURCE,           // name, amount
+    REMOVE_SOURCE,        // name
+    DEPOSIT_BALANCE,      // amount
+    WITHDRAW_BALANCE,     // amount
+    UPDATE_BALANCE,       // amount
+    NEXT_PERIOD,
+    ADD_DEBT,             // name, amount, rate
+    REMOVE_DEBT,          // name
+    PAY_DEBT,             // name, amount
+    ADD_TO_DEBT,          // name, amount
+    DEPOSIT_SAVINGS,      // amount
+    WITHDRAW_SAVINGS,     // amount
+    SET_SAVINGS_INTEREST, // rate
+    SET_SAVINGS_GOAL,     // rate
+    SET_MONTH,            // amount (the month number)
+    CLEAR_RECEIPTS;
+
+    //MODIFIES: acc
+    //EFFECTS: Makes this change to acc with the given arguments
+    public void apply(Account acc, String name, BigDecimal amount, BigDecimal rate) {
+        switch (this) {
+            case ADD_SOURCE:
+                acc.addSource(name, amount);
+                break;
+            case REMOVE_SOURCE:
+                acc.removeSource(name);
+                break;
+            case DEPOSIT_BALANCE:
+                acc.depositBalance(amount);
+                break;
+            case WITHDRAW_BALANCE:
+                acc.withdrawBalance(amount);
+                break;
+            case UPDATE_BALANCE:
+                acc.updateBalance(amount);
+                break;
+            case NEXT_PERIOD:
+                acc.computeNextPeriod();
+                break;
+            case ADD_DEBT:
+                acc.addDebt(name, amount, rate);
+                break;
+            case REMOVE_DEBT:
+                acc.removeDebt(name);
+                break;
+            case PAY_DEBT:
+                acc.payDebt(name, amount);
+                break;
+            case ADD_TO_DEBT:
+                acc.addToDebt(name, amount);
+                break;
+            case DEPOSIT_SAVINGS:
+                acc.depositSavings(amount);
+                break;
+            case WITHDRAW_SAVINGS:
+                acc.withdrawSavings(amount);
+                break;
+            case SET_SAVINGS_INTEREST:
+                acc.setSavingsInterest(rate);
+                break;
+            case SET_SAVINGS_GOAL:
+                acc.setSavingsPercentGoal(rate);
+                break;
+            case SET_MONTH:
+                acc.setMonthTracker(amount.intValueExact());
+                break;
+            default:
+                acc.clearReceipts();
+        }
+    }
+}
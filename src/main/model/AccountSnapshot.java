@@ -0,0 +1,371 @@
+package model;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import persistence.Writable;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * An immutable copy of an account at one moment: its month, balance, sources, debts, savings and receipts.
+ *
+ * Every change made through an Account publishes a new snapshot (see Account.snapshot), so the UI, the save file
+ * writers and the projection engines can read the latest one from any thread without locking, never holding up a
+ * change and never seeing one half done. A new snapshot shares everything the change did not touch with the one
+ * before it: the sources and debts are persistent vectors, so a change to one source or debt copies only a short
+ * path of the vector, and the receipts are a read-only view of the account's history (see ReceiptHistory.view),
+ * which shares its columns and stays as it was however the history changes later.
+ *
+ * The vectors are indexed by each source's or debt's slot in the account (see NamedList.slotOf), so a removal only
+ * leaves null in its slot. Reading the ith one skips those, through a map of the slots in use that each snapshot
+ * builds the first time it is read, if it has any removed slots.
+ */
+public final class AccountSnapshot implements Writable {
+    /**
+     * A debt as it was when the snapshot was taken. DebtAcc can be changed in place, so it is not shared.
+     */
+    static final class Debt {
+        final String name;
+        final long value; // Money-packed balance
+        final BigDecimal interest;
+        final long rate; // Money-packed interest
+
+        //EFFECTS: Copies the current figures of debt
+        Debt(DebtAcc debt) {
+            this.name = debt.name;
+            this.value = debt.value;
+            this.interest = debt.interest;
+            this.rate = debt.rate;
+        }
+    }
+
+    private final int month;
+    private final long balance;
+    private final BigDecimal savingsPercentGoal;
+    final PersistentVector<Source> sources; // by slot, null where a source was removed
+    private final int sourceCount;
+    private final long income;
+    private final long expenses;
+    final PersistentVector<Debt> debts; // by slot, null where a debt was removed
+    private final int debtCount;
+    private final long savings;
+    private final BigDecimal savingsInterest;
+    private final long savingsRate;
+    private final ReceiptHistory receipts; // a view of the account's receipts
+    private final int receiptCount;
+    private volatile int[] sourceSlots; // slots of the sources in order, built when first needed
+    private volatile int[] debtSlots; // slots of the debts in order, built when first needed
+
+    //EFFECTS: Copies the current figures of acc, including any changes made directly on its parts since it last
+    //         published a snapshot. Account.snapshot returns the published one without locking.
+    public AccountSnapshot(Account acc) {
+        this(take(acc));
+    }
+
+    //EFFECTS: Creates a snapshot that shares every figure of other
+    private AccountSnapshot(AccountSnapshot other) {
+        this.month = other.month;
+        this.balance = other.balance;
+        this.savingsPercentGoal = other.savingsPercentGoal;
+        this.sources = other.sources;
+        this.sourceCount = other.sourceCount;
+        this.income = other.income;
+        this.expenses = other.expenses;
+        this.debts = other.debts;
+        this.debtCount = other.debtCount;
+        this.savings = other.savings;
+        this.savingsInterest = other.savingsInterest;
+        this.savingsRate = other.savingsRate;
+        this.receipts = other.receipts;
+        this.receiptCount = other.receiptCount;
+    }
+
+    //REQUIRES: this thread holds the write or read locks of parts of acc, previous is not null unless parts is
+    //          AccountLocks.ALL
+    //EFFECTS: Creates a snapshot that copies the given parts (AccountLocks bits) of acc and shares the rest with
+    //         previous. The sources and debts are the vectors given, indexed by slot in acc, or copied from acc if
+    //         they are null.
+    private AccountSnapshot(Account acc, AccountSnapshot previous, int parts, PersistentVector<Source> sources,
+                            PersistentVector<Debt> debts) {
+        boolean newSources = (parts & AccountLocks.SOURCES) != 0;
+        boolean newDebts = (parts & AccountLocks.DEBTS) != 0;
+        boolean newSavings = (parts & AccountLocks.SAVINGS) != 0;
+        boolean newBalance = (parts & AccountLocks.BALANCE) != 0;
+        boolean newHistory = (parts & AccountLocks.HISTORY) != 0;
+        this.month = newHistory ? acc.monthTracker : previous.month;
+        this.receipts = newHistory ? acc.receipts.view() : previous.receipts;
+        this.receiptCount = newHistory ? this.receipts.size() : previous.receiptCount;
+        this.balance = newBalance ? acc.balance : previous.balance;
+        this.savingsPercentGoal = newBalance ? acc.savingsPercentGoal : previous.savingsPercentGoal;
+        this.sources = !newSources ? previous.sources : sources != null ? sources : copySources(acc);
+        this.sourceCount = newSources ? acc.sources.size() : previous.sourceCount;
+        this.income = newSources ? acc.totals.income() : previous.income;
+        this.expenses = newSources ? acc.totals.expenses() : previous.expenses;
+        this.debts = !newDebts ? previous.debts : debts != null ? debts : copyDebts(acc);
+        this.debtCount = newDebts ? acc.debts.size() : previous.debtCount;
+        this.savings = newSavings ? acc.savings.bal : previous.savings;
+        this.savingsInterest = newSavings ? acc.savings.interest : previous.savingsInterest;
+        this.savingsRate = newSavings ? acc.savings.rate : previous.savingsRate;
+    }
+
+    //REQUIRES: this thread holds the write locks of every part of acc, or no other thread can reach acc yet
+    //EFFECTS: Returns a snapshot of every part of acc
+    static AccountSnapshot of(Account acc) {
+        return new AccountSnapshot(acc, null, AccountLocks.ALL, null, null);
+    }
+
+    //REQUIRES: this thread holds the write locks of parts of acc
+    //EFFECTS: Returns a snapshot that copies the given parts of acc and shares the rest with this one
+    AccountSnapshot next(Account acc, int parts) {
+        return new AccountSnapshot(acc, this, parts, null, null);
+    }
+
+    //REQUIRES: this thread holds the write lock of the sources of acc, and sources are its sources
+    //EFFECTS: Returns a snapshot with the given sources and acc's totals over them, sharing the rest with this one
+    AccountSnapshot withSources(Account acc, PersistentVector<Source> sources) {
+        return new AccountSnapshot(acc, this, AccountLocks.SOURCES, sources, null);
+    }
+
+    //REQUIRES: this thread holds the write lock of the debts of acc, and debts are its debts
+    //EFFECTS: Returns a snapshot with the given debts, sharing the rest with this one
+    AccountSnapshot withDebts(Account acc, PersistentVector<Debt> debts) {
+        return new AccountSnapshot(acc, this, AccountLocks.DEBTS, null, debts);
+    }
+
+    //EFFECTS: Takes a snapshot of every part of acc, holding off changes to it while it is copied
+    private static AccountSnapshot take(Account acc) {
+        acc.locks.read(AccountLocks.ALL);
+        try {
+            return of(acc);
+        } finally {
+            acc.locks.unlockRead(AccountLocks.ALL);
+        }
+    }
+
+    //EFFECTS: Returns the sources of acc as a new vector indexed by slot
+    private static PersistentVector<Source> copySources(Account acc) {
+        return PersistentVector.of(acc.sources.toSlotArray());
+    }
+
+    //EFFECTS: Returns copies of the debts of acc as a new vector indexed by slot
+    private static PersistentVector<Debt> copyDebts(Account acc) {
+        Object[] debts = acc.debts.toSlotArray();
+        for (int i = 0; i < debts.length; i++) {
+            if (debts[i] != null) {
+                debts[i] = new Debt((DebtAcc) debts[i]);
+            }
+        }
+        return PersistentVector.of(debts);
+    }
+
+    //EFFECTS: Returns the slots of vector that are not null, in order, given that count of them are not null
+    private static int[] usedSlots(PersistentVector<?> vector, int count) {
+        int[] used = new int[count];
+        int n = 0;
+        for (int slot = 0; n < count; slot++) {
+            if (vector.get(slot) != null) {
+                used[n++] = slot;
+            }
+        }
+        return used;
+    }
+
+    //REQUIRES: 0 <= i < getSourceCount()
+    //EFFECTS: Returns the ith source, in the order they were added
+    private Source sourceAt(int i) {
+        Objects.checkIndex(i, sourceCount);
+        if (sources.size() == sourceCount) {
+            return sources.get(i);
+        }
+        int[] slots = sourceSlots;
+        if (slots == null) {
+            slots = usedSlots(sources, sourceCount);
+            sourceSlots = slots;
+        }
+        return sources.get(slots[i]);
+    }
+
+    //REQUIRES: 0 <= i < getDebtCount()
+    //EFFECTS: Returns the ith debt, in the order they were added
+    private Debt debtAt(int i) {
+        Objects.checkIndex(i, debtCount);
+        if (debts.size() == debtCount) {
+            return debts.get(i);
+        }
+        int[] slots = debtSlots;
+        if (slots == null) {
+            slots = usedSlots(debts, debtCount);
+            debtSlots = slots;
+        }
+        return debts.get(slots[i]);
+    }
+
+    //EFFECTS: Creates a JSONObject representing the account as it was, in the same form as Account.toJson
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("month", month);
+        json.put("balance", getBalance());
+        json.put("spg", savingsPercentGoal);
+        JSONArray sourcesJson = new JSONArray();
+        for (int i = 0; i < sourceCount; i++) {
+            sourcesJson.put(sourceAt(i).toJson());
+        }
+        json.put("sources", sourcesJson);
+        JSONObject savingsJson = new JSONObject();
+        savingsJson.put("balance", getSavingsBal());
+        savingsJson.put("interest", savingsInterest);
+        json.put("savings", savingsJson);
+        JSONArray debtsJson = new JSONArray();
+        for (int i = 0; i < debtCount; i++) {
+            JSONObject debt = new JSONObject();
+            debt.put("name", getDebtName(i));
+            debt.put("value", getDebtValue(i));
+            debt.put("interest", getDebtInterest(i));
+            debtsJson.put(debt);
+        }
+        json.put("debts", debtsJson);
+        JSONArray receiptsJson = new JSONArray();
+        for (int i = 0; i < receiptCount; i++) {
+            receiptsJson.put(receiptToJson(i));
+        }
+        json.put("receipts", receiptsJson);
+        EventLog.getInstance().logEvent(EventType.SAVE_DATA_CREATED);
+        return json;
+    }
+
+    //EFFECTS: Parses the ith receipt to a JSONObject, as its text if it was saved as text by an older version
+    private JSONObject receiptToJson(int i) {
+        JSONObject json = new JSONObject();
+        if (!receipts.isRecorded(i)) {
+            json.put("receipt", receipts.get(i));
+            return json;
+        }
+        json.put("month", receipts.getMonth(i));
+        for (ReceiptHistory.Column column : ReceiptHistory.Column.values()) {
+            json.put(column.getKey(), Money.toBigDecimal(receipts.getMoney(column, i)));
+        }
+        JSONArray debtBalances = new JSONArray();
+        for (int j = 0; j < receipts.getDebtCount(i); j++) {
+            JSONObject debt = new JSONObject();
+            debt.put("name", receipts.getDebtName(i, j));
+            debt.put("value", Money.toBigDecimal(receipts.getDebtBalance(i, j)));
+            debt.put("interest", Money.toBigDecimal(receipts.getDebtInterest(i, j)));
+            debtBalances.put(debt);
+        }
+        json.put("debts", debtBalances);
+        return json;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    public BigDecimal getBalance() {
+        return Money.toBigDecimal(balance);
+    }
+
+    //EFFECTS: Returns the Money-packed balance
+    public long getMoney() {
+        return balance;
+    }
+
+    public int getSourceCount() {
+        return sourceCount;
+    }
+
+    //REQUIRES: 0 <= i < getSourceCount()
+    public String getSourceName(int i) {
+        return sourceAt(i).name;
+    }
+
+    //REQUIRES: 0 <= i < getSourceCount()
+    public BigDecimal getSourceValue(int i) {
+        return Money.toBigDecimal(sourceAt(i).value);
+    }
+
+    //REQUIRES: 0 <= i < getSourceCount()
+    //EFFECTS: Returns the Money-packed value of the ith source
+    public long getSourceMoney(int i) {
+        return sourceAt(i).value;
+    }
+
+    //EFFECTS: Returns the surplus for the month from the account's running source totals
+    public BigDecimal getSurplus() {
+        return Money.toBigDecimal(surplus());
+    }
+
+    //EFFECTS: Returns the Money-packed surplus for the month, rounded up to whole cents
+    long surplus() {
+        return Money.ceilCents(Money.add(income, expenses));
+    }
+
+    public int getDebtCount() {
+        return debtCount;
+    }
+
+    //REQUIRES: 0 <= i < getDebtCount()
+    public String getDebtName(int i) {
+        return debtAt(i).name;
+    }
+
+    //REQUIRES: 0 <= i < getDebtCount()
+    public BigDecimal getDebtValue(int i) {
+        return Money.toBigDecimal(debtAt(i).value);
+    }
+
+    //REQUIRES: 0 <= i < getDebtCount()
+    //EFFECTS: Returns the Money-packed balance of the ith debt
+    public long getDebtMoney(int i) {
+        return debtAt(i).value;
+    }
+
+    //REQUIRES: 0 <= i < getDebtCount()
+    public BigDecimal getDebtInterest(int i) {
+        return debtAt(i).interest;
+    }
+
+    //REQUIRES: 0 <= i < getDebtCount()
+    //EFFECTS: Returns the Money-packed interest rate of the ith debt, or Money.INEXACT if Money cannot hold it
+    long getDebtRate(int i) {
+        return debtAt(i).rate;
+    }
+
+    public BigDecimal getSavingsBal() {
+        return Money.toBigDecimal(savings);
+    }
+
+    //EFFECTS: Returns the Money-packed savings balance
+    public long getSavingsMoney() {
+        return savings;
+    }
+
+    public BigDecimal getSavingsInterest() {
+        return savingsInterest;
+    }
+
+    //EFFECTS: Returns the Money-packed savings interest rate, or Money.INEXACT if Money cannot hold it
+    long getSavingsRate() {
+        return savingsRate;
+    }
+
+    public BigDecimal getSavingsPercentGoal() {
+        return savingsPercentGoal;
+    }
+
+    //EFFECTS: Returns the number of receipts the account had recorded
+    public int getReceiptCount() {
+        return receiptCount;
+    }
+
+    //EFFECTS: Returns the receipts the account had recorded, as a read-only view
+    public ReceiptHistory getReceipts() {
+        return receipts;
+    }
+
+    //EFFECTS: Returns a query over column of the receipts the account had recorded
+    public HistoryQuery queryHistory(ReceiptHistory.Column column) {
+        return new HistoryQuery(receipts, column, 0, receiptCount);
+    }
+}
@@ -0,0 +1,172 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Indexes the values of one receipt column so that range queries do not scan the range. Values are amounts in
+ * micro-units (see Money.units), appended in receipt order.
+ *
+ * Sums come from prefix sums, and the rows holding the smallest and largest values from sparse tables, where entry
+ * k of row j is the best row among the 2^k rows starting at j; any range is covered by two overlapping entries, so
+ * each of these is constant time. Percentiles come from a persistent binary trie over the values: version i holds
+ * the first i values, so the values of a range are version to minus version from, and the kth smallest is found by
+ * walking the two versions down together, one step per key bit. The trie is only built once a percentile is asked
+ * for. Appending updates every index in logarithmic time.
+ *
+ * One index is shared by a receipt history and its views, which may read it while the history appends to it, so
+ * every method is synchronized.
+ */
+class ColumnIndex {
+    private static final int KEY_BITS = 61; // micro-units fit in 61 bits once biased to be non-negative
+    private static final long KEY_BIAS = 1L << (KEY_BITS - 1);
+
+    private int size;
+    private long[] values = new long[16];
+    private long[] prefix = new long[17]; // prefix[i] is the sum of the first i values
+    private int[][] minTable = {new int[16]};
+    private int[][] maxTable = {new int[16]};
+
+    private int trieSize; // values inserted into the trie so far
+    private int[] roots = new int[17]; // roots[i] is the trie holding the first i values
+    private int nodes = 1; // node 0 is the empty trie, its own children
+    private int[] left = new int[1024];
+    private int[] right = new int[1024];
+    private int[] counts = new int[1024];
+
+    //EFFECTS: Returns the number of values indexed
+    synchronized int size() {
+        return size;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Appends value to the end of the column
+    synchronized void append(long value) {
+        if (size == values.length) {
+            int capacity = size * 2;
+            values = Arrays.copyOf(values, capacity);
+            prefix = Arrays.copyOf(prefix, capacity + 1);
+            for (int k = 0; k < minTable.length; k++) {
+                minTable[k] = Arrays.copyOf(minTable[k], capacity);
+                maxTable[k] = Arrays.copyOf(maxTable[k], capacity);
+            }
+        }
+        values[size] = value;
+        prefix[size + 1] = Math.addExact(prefix[size], value);
+        minTable[0][size] = size;
+        maxTable[0][size] = size;
+        for (int k = 1; (1 << k) <= size + 1; k++) {
+            if (k == minTable.length) {
+                minTable = Arrays.copyOf(minTable, k + 1);
+                maxTable = Arrays.copyOf(maxTable, k + 1);
+                minTable[k] = new int[values.length];
+                maxTable[k] = new int[values.length];
+            }
+            int j = size + 1 - (1 << k);
+            int half = j + (1 << (k - 1));
+            minTable[k][j] = smaller(minTable[k - 1][j], minTable[k - 1][half]);
+            maxTable[k][j] = larger(maxTable[k - 1][j], maxTable[k - 1][half]);
+        }
+        size++;
+    }
+
+    //REQUIRES: 0 <= from <= to <= size()
+    //EFFECTS: Returns the sum of the values in [from, to)
+    synchronized long sum(int from, int to) {
+        return prefix[to] - prefix[from];
+    }
+
+    //REQUIRES: 0 <= from < to <= size()
+    //EFFECTS: Returns the row of the smallest value in [from, to), the earliest if several are equal
+    synchronized int minRow(int from, int to) {
+        int k = 31 - Integer.numberOfLeadingZeros(to - from);
+        return smaller(minTable[k][from], minTable[k][to - (1 << k)]);
+    }
+
+    //REQUIRES: 0 <= from < to <= size()
+    //EFFECTS: Returns the row of the largest value in [from, to), the earliest if several are equal
+    synchronized int maxRow(int from, int to) {
+        int k = 31 - Integer.numberOfLeadingZeros(to - from);
+        return larger(maxTable[k][from], maxTable[k][to - (1 << k)]);
+    }
+
+    //REQUIRES: 0 <= row < size()
+    //EFFECTS: Returns the value of row
+    synchronized long get(int row) {
+        return values[row];
+    }
+
+    //REQUIRES: 0 <= from < to <= size(), 0 <= k < to - from
+    //MODIFIES: this
+    //EFFECTS: Returns the kth smallest (from 0) value in [from, to)
+    synchronized long kth(int from, int to, int k) {
+        while (trieSize < size) {
+            if (trieSize + 1 == roots.length) {
+                roots = Arrays.copyOf(roots, roots.length * 2);
+            }
+            roots[trieSize + 1] = insert(roots[trieSize], values[trieSize] + KEY_BIAS);
+            trieSize++;
+        }
+        int a = roots[from];
+        int b = roots[to];
+        long key = 0;
+        for (int bit = KEY_BITS - 1; bit >= 0; bit--) {
+            int inLeft = counts[left[b]] - counts[left[a]];
+            if (k < inLeft) {
+                a = left[a];
+                b = left[b];
+            } else {
+                k -= inLeft;
+                a = right[a];
+                b = right[b];
+                key |= 1L << bit;
+            }
+        }
+        return key - KEY_BIAS;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Returns a new version of the trie rooted at old with key added, sharing every node off key's path
+    private int insert(int old, long key) {
+        int root = copy(old);
+        int node = root;
+        for (int bit = KEY_BITS - 1; bit >= 0; bit--) {
+            counts[node]++;
+            // copy before storing, as copying may replace the arrays
+            if ((key >>> bit & 1) == 0) {
+                int child = copy(left[node]);
+                left[node] = child;
+                node = child;
+            } else {
+                int child = copy(right[node]);
+                right[node] = child;
+                node = child;
+            }
+        }
+        counts[node]++;
+        return root;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Returns a new node with the children and count of node
+    private int copy(int node) {
+        if (nodes == counts.length) {
+            left = Arrays.copyOf(left, nodes * 2);
+            right = Arrays.copyOf(right, nodes * 2);
+            counts = Arrays.copyOf(counts, nodes * 2);
+        }
+        left[nodes] = left[node];
+        right[nodes] = right[node];
+        counts[nodes] = counts[node];
+        return nodes++;
+    }
+
+    //EFFECTS: Returns whichever of rows a and b holds the smaller value, a if they are equal
+    private int smaller(int a, int b) {
+        return values[b] < values[a] ? b : a;
+    }
+
+    //EFFECTS: Returns whichever of rows a and b holds the larger value, a if they are equal
+    private int larger(int a, int b) {
+        return values[b] > values[a] ? b : a;
+    }
+}
@@ -4,7 +4,6 @@ import org.json.JSONObject;
 import persistence.Writable;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 /**
  * Represents a debt account that stores:
@@ -14,45 +13,53 @@ import java.math.RoundingMode;
  */
 
 public class DebtAcc implements HasInterest, Writable {
-    BigDecimal value;
+    long value; // Money-packed balance, see Money
     String name;
     BigDecimal interest;
+    long rate; // Money-packed copy of interest used for compounding, or Money.INEXACT to compound from interest
 
     //MODIFIES: this
     //EFFECTS: Constructs a debt account
     public DebtAcc(String name, BigDecimal value, BigDecimal interest) {
-        this.value = value;
+        this.value = Money.of(value);
         this.name = name;
-        this.interest = interest;
+        setInterest(interest);
     }
 
     //EFFECTS: Calculates addition to debt -- SEE INTERFACE
     @Override
     public void calculateInterest() {
-        EventLog.getInstance().logEvent(new Event("Calculating interest for debt account " + getName()));
-        this.value = value.multiply(interest.add(BigDecimal.valueOf(1))).setScale(2, RoundingMode.CEILING);
+        long next = compounded();
+        EventLog.getInstance().logEvent(EventType.DEBT_INTEREST_CALCULATED, name);
+        this.value = next;
+    }
+
+    //EFFECTS: Returns the Money-packed balance after a month of interest, without changing it. Throws
+    //         ArithmeticException if Money cannot hold it.
+    long compounded() {
+        return rate == Money.INEXACT ? Money.compound(value, interest) : Money.compound(value, rate);
     }
 
     //EFFECTS: Adds value to the debt -- SEE INTERFACE
     @Override
     public void addValue(BigDecimal payment) {
         //EventLog.getInstance().logEvent(new Event("Added " + payment + " to " + getName() + "'s value"));
-        this.value = value.add(payment);
+        this.value = Money.add(value, Money.of(payment));
     }
 
     //EFFECTS: Pays debt by amount payment -- SEE INTERFACE
     @Override
     public boolean subValue(BigDecimal payment) {
         //EventLog.getInstance().logEvent(new Event("Removed " + payment + " from " + getName() + "'s value"));
-        this.value = value.subtract(payment);
-        return this.value.equals(BigDecimal.valueOf(0));
+        this.value = Money.subtract(value, Money.of(payment));
+        return Money.isPlainZero(this.value);
     }
 
     //EFFECTS: Parses a DebtAcc object to a JSONObject
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
         json.put("name", name);
-        json.put("value", value);
+        json.put("value", getValue());
         json.put("interest", interest);
         return json;
     }
@@ -60,12 +67,23 @@ public class DebtAcc implements HasInterest, Writable {
     @Override
     public void setInterest(BigDecimal interest) {
         this.interest = interest;
+        this.rate = Money.ofRate(interest);
     }
 
     public BigDecimal getValue() {
+        return Money.toBigDecimal(value);
+    }
+
+    //EFFECTS: Returns the Money-packed balance of this debt
+    public long getMoney() {
         return value;
     }
 
+    //EFFECTS: Returns the Money-packed interest rate of this debt, or Money.INEXACT if Money cannot hold it
+    public long getRate() {
+        return rate;
+    }
+
     public String getName() {
         return this.name;
     }
@@ -1,15 +1,26 @@
 package model;
 
-import java.util.Calendar;
+import java.time.Instant;
 import java.util.Date;
 
 
 /**
  * Represents an alarm system event.
+ *
+ * An event records its type, the time it was created and up to three raw
+ * arguments. The description is only formatted from the type's template
+ * the first time it is asked for, so logging an event that is never read
+ * costs no string building.
  */
 public class Event {
     private static final int HASH_CONSTANT = 13;
-    private Date dateLogged;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private final EventType type;
+    private final long timestamp; // nanoseconds since the epoch
+    private final Object arg0;
+    private final Object arg1;
+    private final Object arg2;
     private String description;
 
     /**
@@ -19,25 +30,96 @@ public class Event {
      * @param description a description of the event
      */
     public Event(String description) {
-        dateLogged = Calendar.getInstance().getTime();
+        this(EventType.MESSAGE, description, null, null);
         this.description = description;
     }
 
+    /**
+     * Creates an event of the given type with no arguments
+     * and the current date/time stamp.
+     *
+     * @param type the type of the event
+     */
+    public Event(EventType type) {
+        this(type, null, null, null);
+    }
+
+    /**
+     * Creates an event of the given type with one argument
+     * and the current date/time stamp.
+     *
+     * @param type the type of the event
+     * @param arg0 the first value for the type's message template
+     */
+    public Event(EventType type, Object arg0) {
+        this(type, arg0, null, null);
+    }
+
+    /**
+     * Creates an event of the given type with two arguments
+     * and the current date/time stamp.
+     *
+     * @param type the type of the event
+     * @param arg0 the first value for the type's message template
+     * @param arg1 the second value for the type's message template
+     */
+    public Event(EventType type, Object arg0, Object arg1) {
+        this(type, arg0, arg1, null);
+    }
+
+    /**
+     * Creates an event of the given type with three arguments
+     * and the current date/time stamp.
+     *
+     * @param type the type of the event
+     * @param arg0 the first value for the type's message template
+     * @param arg1 the second value for the type's message template
+     * @param arg2 the third value for the type's message template
+     */
+    public Event(EventType type, Object arg0, Object arg1, Object arg2) {
+        this.type = type;
+        this.timestamp = now();
+        this.arg0 = arg0;
+        this.arg1 = arg1;
+        this.arg2 = arg2;
+    }
+
     /**
      * Gets the date of this event (includes time).
      *
      * @return the date of the event
      */
     public Date getDate() {
-        return dateLogged;
+        return new Date(timestamp / NANOS_PER_MILLI);
+    }
+
+    /**
+     * Gets the time of this event.
+     *
+     * @return the nanoseconds since the epoch when the event was created
+     */
+    public long getTimestamp() {
+        return timestamp;
     }
 
     /**
-     * Gets the description of this event.
+     * Gets the type of this event.
+     *
+     * @return the type of the event
+     */
+    public EventType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the description of this event, formatting it on first use.
      *
      * @return the description of the event
      */
     public String getDescription() {
+        if (description == null) {
+            description = type.format(arg0, arg1, arg2);
+        }
         return description;
     }
 
@@ -53,17 +135,24 @@ public class Event {
 
         Event otherEvent = (Event) other;
 
-        return (this.dateLogged.equals(otherEvent.dateLogged)
-                && this.description.equals(otherEvent.description));
+        return (this.getDate().equals(otherEvent.getDate())
+                && this.getDescription().equals(otherEvent.getDescription()));
     }
 
     @Override
     public int hashCode() {
-        return (HASH_CONSTANT * dateLogged.hashCode() + description.hashCode());
+        return (HASH_CONSTANT * getDate().hashCode() + getDescription().hashCode());
     }
 
     @Override
     public String toString() {
-        return dateLogged.toString() + "\n" + description;
+        return getDate().toString() + "\n" + getDescription();
+    }
+
+    // EFFECTS: returns the current wall-clock time in nanoseconds since the epoch. The Instant does not escape,
+    //          so the JIT is free to scalarise it away.
+    private static long now() {
+        Instant instant = Instant.now();
+        return instant.getEpochSecond() * NANOS_PER_SECOND + instant.getNano();
     }
 }
@@ -1,28 +1,89 @@
 package model;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Represents a log of alarm system events.
  * We use the Singleton Design Pattern to ensure that there is only
  * one EventLog in the system and that the system has global access
  * to the single instance of the EventLog.
+ *
+ * Events are kept in a fixed-capacity ring buffer that any number of
+ * threads can log to without locking. Once the buffer is full, each new
+ * event evicts the oldest one, which is either dropped or appended to a
+ * spill file depending on the retention policy. The capacity, policy and
+ * spill file can be set with the system properties
+ * budgeit.eventlog.capacity, budgeit.eventlog.retention and
+ * budgeit.eventlog.spill, or with configure.
+ *
+ * Spilling is synchronous: the thread whose event evicted another writes
+ * it, and writers take turns on the log's lock, so a burst of evictions
+ * from many threads is written one event at a time. Each burst is flushed
+ * by the last writer in it, once no other evicting thread is waiting, so
+ * the spill file is at most one burst behind the log and one flush is paid
+ * per burst rather than per event. close flushes and closes the file, and
+ * is also run when the JVM shuts down.
+ *
+ * Typed events above the log's level (budgeit.eventlog.level, INFO by
+ * default) are skipped before they are even constructed.
+ *
+ * Every logged event is also handed to each registered EventSink.
  */
 public class EventLog implements Iterable<Event> {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * What happens to the oldest event when the log is full.
+     */
+    public enum Retention {
+        DROP_OLDEST,
+        SPILL_TO_DISK
+    }
+
+    private final AtomicLong logged = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicInteger spillers = new AtomicInteger(); // threads writing or waiting to write a spilled event
+    private final List<EventSink> sinks = new CopyOnWriteArrayList<>();
+    private volatile Ring ring;
+    private volatile EventType.Level level;
+    private volatile Retention retention;
+    private volatile Path spillFile;
+    private BufferedWriter spillWriter;
+
     /**
-     * the only EventLog in the system (Singleton Design Pattern)
+     * Holds the only EventLog in the system (Singleton Design Pattern).
+     * The class loader initialises it exactly once, on first use.
      */
-    private static EventLog theLog;
-    private Collection<Event> events;
+    private static class Holder {
+        private static final EventLog THE_LOG = new EventLog();
+    }
 
     /**
      * Prevent external construction.
      * (Singleton Design Pattern).
      */
     private EventLog() {
-        events = new ArrayList<Event>();
+        level = EventType.Level.valueOf(System.getProperty("budgeit.eventlog.level", EventType.Level.INFO.name()));
+        String spill = System.getProperty("budgeit.eventlog.spill");
+        configure(Integer.getInteger("budgeit.eventlog.capacity", DEFAULT_CAPACITY),
+                Retention.valueOf(System.getProperty("budgeit.eventlog.retention", Retention.DROP_OLDEST.name())),
+                spill == null ? null : Paths.get(spill));
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "event-log-close"));
     }
 
     /**
@@ -33,11 +94,43 @@ public class EventLog implements Iterable<Event> {
      * @return instance of EventLog
      */
     public static EventLog getInstance() {
-        if (theLog == null) {
-            theLog = new EventLog();
+        return Holder.THE_LOG;
+    }
+
+    /**
+     * Replaces the event buffer with an empty one of the given capacity
+     * (rounded up to a power of two) and sets what happens to events
+     * evicted once it is full. Events logged by other threads while the
+     * log is being reconfigured may be lost.
+     *
+     * @param capacity  the number of events to retain in memory
+     * @param retention the policy for evicted events
+     * @param spillFile the file evicted events are appended to, or null to drop them
+     */
+    public synchronized void configure(int capacity, Retention retention, Path spillFile) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Event log capacity must be positive: " + capacity);
         }
+        closeSpillWriter();
+        this.retention = retention;
+        this.spillFile = spillFile;
+        int slots = Integer.highestOneBit(capacity);
+        this.ring = new Ring(slots < capacity ? slots << 1 : slots);
+    }
+
+    /**
+     * Writes any spilled events still buffered to the spill file.
+     */
+    public synchronized void flush() {
+        flushSpillWriter();
+    }
 
-        return theLog;
+    /**
+     * Flushes and closes the spill file. It is reopened if another event
+     * is spilled.
+     */
+    public synchronized void close() {
+        closeSpillWriter();
     }
 
     /**
@@ -46,19 +139,277 @@ public class EventLog implements Iterable<Event> {
      * @param e the event to be added
      */
     public void logEvent(Event e) {
-        events.add(e);
+        logged.incrementAndGet();
+        Event evicted = ring.add(e);
+        if (evicted != null) {
+            evict(evicted);
+        }
+        for (EventSink sink : sinks) {
+            sink.accept(e);
+        }
+    }
+
+    /**
+     * Registers a sink to receive every event logged from now on.
+     *
+     * @param sink the sink to add
+     */
+    public void addSink(EventSink sink) {
+        sinks.add(sink);
+    }
+
+    /**
+     * Stops a sink from receiving events.
+     *
+     * @param sink the sink to remove
+     */
+    public void removeSink(EventSink sink) {
+        sinks.remove(sink);
+    }
+
+    /**
+     * Logs an event of the given type if the log's level records it.
+     *
+     * @param type the type of event
+     */
+    public void logEvent(EventType type) {
+        if (isLoggable(type)) {
+            logEvent(new Event(type));
+        }
+    }
+
+    /**
+     * Logs an event of the given type if the log's level records it.
+     *
+     * @param type the type of event
+     * @param arg0 the first value for the type's message template
+     */
+    public void logEvent(EventType type, Object arg0) {
+        if (isLoggable(type)) {
+            logEvent(new Event(type, arg0));
+        }
+    }
+
+    /**
+     * Logs an event of the given type if the log's level records it.
+     *
+     * @param type the type of event
+     * @param arg0 the first value for the type's message template
+     * @param arg1 the second value for the type's message template
+     */
+    public void logEvent(EventType type, Object arg0, Object arg1) {
+        if (isLoggable(type)) {
+            logEvent(new Event(type, arg0, arg1));
+        }
+    }
+
+    /**
+     * Logs an event of the given type if the log's level records it.
+     *
+     * @param type the type of event
+     * @param arg0 the first value for the type's message template
+     * @param arg1 the second value for the type's message template
+     * @param arg2 the third value for the type's message template
+     */
+    public void logEvent(EventType type, Object arg0, Object arg1, Object arg2) {
+        if (isLoggable(type)) {
+            logEvent(new Event(type, arg0, arg1, arg2));
+        }
+    }
+
+    /**
+     * @param type the type of event
+     * @return true if events of the given type are recorded at the log's current level
+     */
+    public boolean isLoggable(EventType type) {
+        return type.getLevel().compareTo(level) <= 0;
+    }
+
+    /**
+     * Sets the most detailed level of typed event that is recorded.
+     *
+     * @param level the new level, OFF to skip all typed events
+     */
+    public void setLevel(EventType.Level level) {
+        this.level = level;
+    }
+
+    /**
+     * @return the most detailed level of typed event that is recorded
+     */
+    public EventType.Level getLevel() {
+        return level;
     }
 
     /**
      * Clears the event log and logs the event.
      */
     public void clear() {
-        events.clear();
+        synchronized (this) {
+            ring = new Ring(ring.capacity());
+            flushSpillWriter();
+        }
         logEvent(new Event("Event log cleared."));
     }
 
+    /**
+     * @return the number of events the log can hold in memory
+     */
+    public int getCapacity() {
+        return ring.capacity();
+    }
+
+    /**
+     * @return the number of events currently held in memory
+     */
+    public int getRetainedCount() {
+        return ring.size();
+    }
+
+    /**
+     * @return the number of events logged since startup
+     */
+    public long getLoggedCount() {
+        return logged.get();
+    }
+
+    /**
+     * @return the number of events evicted and discarded since startup
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return the number of events evicted and written to the spill file since startup
+     */
+    public long getSpilledCount() {
+        return spilled.get();
+    }
+
+    /**
+     * Iterates over a snapshot of the retained events, oldest first.
+     */
     @Override
     public Iterator<Event> iterator() {
-        return events.iterator();
+        return ring.snapshot().iterator();
+    }
+
+    // EFFECTS: discards an evicted event, or appends it to the spill file if spilling is configured
+    private void evict(Event e) {
+        if (retention != Retention.SPILL_TO_DISK || spillFile == null) {
+            dropped.incrementAndGet();
+            return;
+        }
+        spillers.incrementAndGet();
+        if (spill(e)) {
+            spilled.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    // REQUIRES: spillers was incremented for this call
+    // EFFECTS: appends e to the spill file, flushing it if no other thread is waiting to spill, and returns false
+    //          if e could not be written
+    private synchronized boolean spill(Event e) {
+        try {
+            if (spillWriter == null) {
+                spillWriter = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            spillWriter.write(e.toString().replace('\n', ' '));
+            spillWriter.newLine();
+            return true;
+        } catch (IOException ex) {
+            return false;
+        } finally {
+            if (spillers.decrementAndGet() == 0) {
+                flushSpillWriter();
+            }
+        }
+    }
+
+    // EFFECTS: flushes spilled events to disk, ignoring failures
+    private void flushSpillWriter() {
+        try {
+            if (spillWriter != null) {
+                spillWriter.flush();
+            }
+        } catch (IOException ex) {
+            // Spilling is best-effort, the events are already counted
+        }
+    }
+
+    // EFFECTS: closes the spill file, ignoring failures
+    private void closeSpillWriter() {
+        try {
+            if (spillWriter != null) {
+                spillWriter.close();
+            }
+        } catch (IOException ex) {
+            // Spilling is best-effort, the events are already counted
+        }
+        spillWriter = null;
+    }
+
+    /**
+     * A fixed-capacity multi-producer ring buffer. Producers claim a sequence
+     * number with a single atomic increment and write their event to the slot
+     * it maps to, replacing whatever event was there. Each slot is stamped with
+     * the sequence number of the event in it so readers can skip slots that
+     * are mid-write or have been overwritten.
+     */
+    private static final class Ring {
+        private static final long WRITING = -1;
+        private final AtomicReferenceArray<Event> slots;
+        private final AtomicLongArray stamps;
+        private final AtomicLong next = new AtomicLong();
+        private final int mask;
+
+        Ring(int capacity) {
+            slots = new AtomicReferenceArray<>(capacity);
+            stamps = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                stamps.set(i, WRITING);
+            }
+            mask = capacity - 1;
+        }
+
+        // EFFECTS: stores e in the next slot and returns the event it replaced, or null if the slot was empty
+        Event add(Event e) {
+            long seq = next.getAndIncrement();
+            int slot = (int) (seq & mask);
+            stamps.set(slot, WRITING);
+            Event evicted = slots.getAndSet(slot, e);
+            stamps.set(slot, seq);
+            return evicted;
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        int size() {
+            return (int) Math.min(next.get(), capacity());
+        }
+
+        // EFFECTS: returns the retained events, oldest first, skipping any being overwritten during the copy
+        List<Event> snapshot() {
+            long end = next.get();
+            long start = Math.max(0, end - capacity());
+            List<Event> events = new ArrayList<>((int) (end - start));
+            for (long seq = start; seq < end; seq++) {
+                int slot = (int) (seq & mask);
+                if (stamps.get(slot) != seq) {
+                    continue;
+                }
+                Event e = slots.get(slot);
+                if (stamps.get(slot) == seq) {
+                    events.add(e);
+                }
+            }
+            return events;
+        }
     }
 }
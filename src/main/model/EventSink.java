@@ -0,0 +1,11 @@
+package model;
+
+/**
+ * An interface for objects that receive every event as it is added to the EventLog, such as a writer that
+ * persists events as they happen.
+ */
+public interface EventSink {
+
+    //EFFECTS: Receives an event that was just logged. Called on the logging thread, so it must not block.
+    void accept(Event e);
+}
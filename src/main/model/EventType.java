@@ -0,0 +1,67 @@
+package model;
+
+/**
+ * The kinds of event the model logs. Each type has a level and a message template; "{}" marks where each of the
+ * event's arguments goes when the message is formatted.
+ */
+public enum EventType {
+    MESSAGE(Level.INFO, "{}"),
+
+    SOURCE_ADDED(Level.INFO, "Source added with name: {}, and modify balance: {}"),
+    SOURCE_DUPLICATE(Level.INFO, "Failed to add source, name already in use: {}"),
+    SOURCE_REMOVED(Level.INFO, "Source removed with name: {}"),
+    SOURCE_NOT_FOUND(Level.INFO, "Failed to find and remove source with name: {}"),
+    BALANCE_DEPOSITED(Level.INFO, "{} added to account balance"),
+    BALANCE_WITHDRAWN(Level.INFO, "{} withdrawn from account balance"),
+    BALANCE_UPDATED(Level.INFO, "Balance updated to: {}"),
+    PERIOD_ENDED(Level.INFO, "Ending current period, calculating next..."),
+    DEBT_ADDED(Level.INFO, "Adding a debt account with name: {}, balance: {}, and interest: {}"),
+    DEBT_DUPLICATE(Level.INFO, "Failed to add debt account, name already in use: {}"),
+    DEBT_REMOVED(Level.INFO, "Removing a debt account with name: {}"),
+    DEBT_NOT_REMOVED(Level.INFO, "Failed to find and remove debt account with name: {}"),
+    DEBT_PAID(Level.INFO, "Successfully paid {} from {}'s debt account balance"),
+    DEBT_NOT_FOUND(Level.INFO, "Could not find debt account with name: {}"),
+    SAVINGS_DEPOSITED(Level.INFO, "Deposited {} to savings account"),
+    SAVINGS_WITHDRAWN(Level.INFO, "Withdrew {} from savings account"),
+
+    SURPLUS_CALCULATED(Level.DEBUG, "Calculating surplus for period..."),
+    INCOME_CALCULATED(Level.DEBUG, "Calculating sources income total..."),
+    EXPENSES_CALCULATED(Level.DEBUG, "Calculating sources expense total..."),
+    RECEIPT_CREATED(Level.DEBUG, "Creating receipt..."),
+    DEBT_INTEREST_CALCULATED(Level.DEBUG, "Calculating interest for debt account {}"),
+    SAVINGS_SUGGESTED(Level.DEBUG, "Calculated suggested savings for this month: {}"),
+    SAVE_DATA_CREATED(Level.DEBUG, "Creating account save data...");
+
+    /**
+     * How detailed an event is. The event log records events at or below its own level.
+     */
+    public enum Level {
+        OFF,
+        INFO,
+        DEBUG
+    }
+
+    private final Level level;
+    private final String[] parts;
+
+    EventType(Level level, String template) {
+        this.level = level;
+        this.parts = template.split("\\{}", -1);
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    //EFFECTS: Fills the template with args in order, leaving any unused placeholders empty
+    String format(Object... args) {
+        StringBuilder sb = new StringBuilder(parts[0]);
+        for (int i = 1; i < parts.length; i++) {
+            if (i - 1 < args.length) {
+                sb.append(args[i - 1]);
+            }
+            sb.append(parts[i]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,212 @@
+package model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A query over one column of an account's receipt history, restricted to a range of receipts. Narrowing the range
+ * (by months, to the last receipts, or into years or quarters) returns a new query, and the aggregates are answered
+ * from indexes the history keeps over its columns (see ColumnIndex): sums, minimums, maximums and averages in
+ * constant time, and percentiles and month lookups in logarithmic time, however long the history is.
+ *
+ * Every receipt in the range counts, including ones saved as text by older versions (which have zero amounts unless
+ * their text could be read). Month ranges assume receipts are in month order, as computeNextPeriod records them.
+ */
+public final class HistoryQuery {
+    /**
+     * A span of months that receipts can be grouped by, counting from month 1.
+     */
+    public enum Period {
+        QUARTER(3), YEAR(12);
+
+        private final int months;
+
+        Period(int months) {
+            this.months = months;
+        }
+
+        public int getMonths() {
+            return months;
+        }
+    }
+
+    private static final int RATIO_SCALE = 6;
+
+    private final ReceiptHistory history;
+    private final ReceiptHistory.Column column;
+    private final int from;
+    private final int to;
+
+    //REQUIRES: 0 <= from <= to <= history.size()
+    //EFFECTS: Creates a query over column of the receipts from (inclusive) to to (exclusive)
+    HistoryQuery(ReceiptHistory history, ReceiptHistory.Column column, int from, int to) {
+        Objects.checkFromToIndex(from, to, history.size());
+        this.history = history;
+        this.column = column;
+        this.from = from;
+        this.to = to;
+    }
+
+    //EFFECTS: Returns this query over another column of the same receipts
+    public HistoryQuery column(ReceiptHistory.Column other) {
+        return new HistoryQuery(history, other, from, to);
+    }
+
+    //REQUIRES: 0 <= first <= last <= count()
+    //EFFECTS: Returns the query over the receipts of this one from first (inclusive) to last (exclusive)
+    public HistoryQuery range(int first, int last) {
+        Objects.checkFromToIndex(first, last, count());
+        return new HistoryQuery(history, column, from + first, from + last);
+    }
+
+    //EFFECTS: Returns the query over the receipts of this one for months first to last, both inclusive
+    public HistoryQuery months(int first, int last) {
+        int start = Math.min(to, history.firstRowOfMonth(first, from));
+        int end = to;
+        if (last < first) {
+            end = start;
+        } else if (last < Integer.MAX_VALUE) {
+            end = Math.min(to, history.firstRowOfMonth(last + 1, start));
+        }
+        return new HistoryQuery(history, column, start, end);
+    }
+
+    //REQUIRES: n >= 0
+    //EFFECTS: Returns the query over the last n receipts of this one, or all of them if there are fewer
+    public HistoryQuery last(int n) {
+        return new HistoryQuery(history, column, Math.max(from, to - n), to);
+    }
+
+    //EFFECTS: Returns this query split into one query per period with receipts, in order
+    public List<HistoryQuery> groupBy(Period period) {
+        List<HistoryQuery> groups = new ArrayList<>();
+        int start = from;
+        while (start < to) {
+            int group = Math.floorDiv(history.getMonth(start) - 1, period.getMonths());
+            int next = Math.min(to, history.firstRowOfMonth((group + 1) * period.getMonths() + 1, start));
+            groups.add(new HistoryQuery(history, column, start, next));
+            start = next;
+        }
+        return groups;
+    }
+
+    public ReceiptHistory.Column getColumn() {
+        return column;
+    }
+
+    //EFFECTS: Returns the number of receipts in the range
+    public int count() {
+        return to - from;
+    }
+
+    //REQUIRES: count() > 0
+    //EFFECTS: Returns the month of the first receipt in the range
+    public int firstMonth() {
+        requireReceipts();
+        return history.getMonth(from);
+    }
+
+    //REQUIRES: count() > 0
+    //EFFECTS: Returns the month of the last receipt in the range
+    public int lastMonth() {
+        requireReceipts();
+        return history.getMonth(to - 1);
+    }
+
+    //EFFECTS: Returns the Money-packed total of the range, at the largest scale the column has held, or Money.ZERO
+    //         if the range is empty
+    public long sum() {
+        if (from == to) {
+            return Money.ZERO;
+        }
+        return Money.ofUnits(history.index(column).sum(from, to), history.getScale(column));
+    }
+
+    //REQUIRES: count() > 0
+    //EFFECTS: Returns the Money-packed smallest amount in the range
+    public long min() {
+        return history.getMoney(column, minRow());
+    }
+
+    //REQUIRES: count() > 0
+    //EFFECTS: Returns the Money-packed largest amount in the range
+    public long max() {
+        return history.getMoney(column, maxRow());
+    }
+
+    //REQUIRES: count() > 0
+    //EFFECTS: Returns the month of the smallest amount in the range (for surplus, the worst month), the earliest if
+    //         several months share it
+    public int minMonth() {
+        return history.getMonth(minRow());
+    }
+
+    //REQUIRES: count() > 0
+    //EFFECTS: Returns the month of the largest amount in the range, the earliest if several months share it
+    public int maxMonth() {
+        return history.getMonth(maxRow());
+    }
+
+    //REQUIRES: count() > 0
+    //EFFECTS: Returns the mean amount of the range, rounded half-even to at least cents
+    public BigDecimal average() {
+        requireReceipts();
+        return Money.toBigDecimal(sum()).divide(BigDecimal.valueOf(count()),
+                Math.max(2, history.getScale(column)), RoundingMode.HALF_EVEN);
+    }
+
+    //REQUIRES: count() > 0, 0 <= percent <= 100
+    //EFFECTS: Returns the Money-packed amount at the given percentile of the range, by nearest rank: the smallest
+    //         amount at least percent% of the range is no larger than
+    public long percentile(double percent) {
+        requireReceipts();
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percent);
+        }
+        int rank = (int) Math.ceil(percent * count() / 100) - 1;
+        long units = history.index(column).kth(from, to, Math.max(0, Math.min(rank, count() - 1)));
+        return Money.ofUnits(units, history.getScale(column));
+    }
+
+    //REQUIRES: count() > 0
+    //EFFECTS: Returns the change from the first amount of the range to the last as a fraction of the first (0.05 is
+    //         5% growth), or null if the first amount is zero
+    public BigDecimal growth() {
+        requireReceipts();
+        BigDecimal first = Money.toBigDecimal(history.getMoney(column, from));
+        if (first.signum() == 0) {
+            return null;
+        }
+        BigDecimal last = Money.toBigDecimal(history.getMoney(column, to - 1));
+        return last.subtract(first).divide(first.abs(), RATIO_SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    //EFFECTS: Returns the Money-packed interest the named debt was charged over the range, zero if it was never
+    //         recorded in it
+    public long interest(String debt) {
+        return history.debtInterest(debt, from, to);
+    }
+
+    //EFFECTS: Returns the row of the smallest amount in the range
+    private int minRow() {
+        requireReceipts();
+        return history.index(column).minRow(from, to);
+    }
+
+    //EFFECTS: Returns the row of the largest amount in the range
+    private int maxRow() {
+        requireReceipts();
+        return history.index(column).maxRow(from, to);
+    }
+
+    //EFFECTS: Throws NoSuchElementException if the range has no receipts
+    private void requireReceipts() {
+        if (from == to) {
+            throw new NoSuchElementException("No receipts in the range");
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * A fixed-point money value packed into a single primitive long, so that balance arithmetic in the model does
+ * not allocate.
+ *
+ * The upper 61 bits hold the amount in micro-units (millionths of a dollar), and the low 3 bits hold the scale
+ * the equivalent BigDecimal would carry (0 to 6). Keeping the scale means every value converted back with
+ * toBigDecimal is equal (not just compareTo equal) to what the old BigDecimal arithmetic produced, so JSON files
+ * and the UI see the same numbers. Amounts given with more than 6 decimal places are rounded half-even on entry.
+ *
+ * Interest rates are packed with ofRate, which gives INEXACT instead of rounding a rate with more decimal places or
+ * more than Money can hold. The scale bits never hold 7 otherwise, so INEXACT is no money value, and a rate packed
+ * to it is compounded from its BigDecimal instead.
+ *
+ * BigDecimal should only be used at the edges of the program (JSON, UI and console input/output).
+ */
+public final class Money {
+    public static final int MAX_SCALE = 6;
+    public static final long ZERO = 0L;
+    public static final long INEXACT = 7L; // scale 7, which no money value has
+
+    private static final int SCALE_BITS = 3;
+    private static final long SCALE_MASK = (1L << SCALE_BITS) - 1;
+    private static final long MAX_UNITS = Long.MAX_VALUE >> SCALE_BITS;
+    private static final long MIN_UNITS = Long.MIN_VALUE >> SCALE_BITS;
+    private static final long UNITS_PER_CENT = 10_000L;
+    private static final long[] POW10 = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L};
+
+    private Money() {
+    }
+
+    //REQUIRES: val != null
+    //EFFECTS: Packs a BigDecimal into a money value, keeping its scale (clamped to 0..MAX_SCALE), and throws
+    //         ArithmeticException if |val| is over 1,152,921,504,606.846975 (the range of 61 bits of micro-units)
+    public static long of(BigDecimal val) {
+        int scale = Math.max(0, Math.min(val.scale(), MAX_SCALE));
+        BigDecimal rounded = val.scale() == scale ? val : val.setScale(scale, RoundingMode.HALF_EVEN);
+        long unscaled = rounded.unscaledValue().longValueExact();
+        return pack(Math.multiplyExact(unscaled, POW10[MAX_SCALE - scale]), scale);
+    }
+
+    //REQUIRES: rate != null
+    //EFFECTS: Packs an interest rate as of does if that keeps its exact value, or else returns INEXACT
+    public static long ofRate(BigDecimal rate) {
+        if (rate.stripTrailingZeros().scale() > MAX_SCALE) {
+            return INEXACT;
+        }
+        try {
+            return of(rate);
+        } catch (ArithmeticException e) {
+            return INEXACT;
+        }
+    }
+
+    //REQUIRES: 0 <= scale <= MAX_SCALE
+    //EFFECTS: Packs a whole number of cents into a money value with the given scale
+    public static long ofCents(long cents, int scale) {
+        return pack(Math.multiplyExact(cents, UNITS_PER_CENT), scale);
+    }
+
+    //REQUIRES: 0 <= scale <= MAX_SCALE, units has no non-zero digits beyond scale
+    //EFFECTS: Packs an amount in micro-units into a money value with the given scale
+    static long ofUnits(long units, int scale) {
+        return pack(units, scale);
+    }
+
+    //EFFECTS: Unpacks a money value to a BigDecimal with the same value and scale it was recorded at
+    public static BigDecimal toBigDecimal(long money) {
+        int scale = scale(money);
+        return BigDecimal.valueOf(units(money) / POW10[MAX_SCALE - scale], scale);
+    }
+
+    //EFFECTS: Returns the amount in micro-units (millionths)
+    public static long units(long money) {
+        return money >> SCALE_BITS;
+    }
+
+    //EFFECTS: Returns the BigDecimal scale of the money value
+    public static int scale(long money) {
+        return (int) (money & SCALE_MASK);
+    }
+
+    //EFFECTS: Returns -1, 0 or 1 as the money value is negative, zero or positive
+    public static int signum(long money) {
+        return Long.signum(units(money));
+    }
+
+    //EFFECTS: Returns a compared to b by value only, ignoring scale (as BigDecimal.compareTo)
+    public static int compare(long a, long b) {
+        return Long.compare(units(a), units(b));
+    }
+
+    //EFFECTS: Returns a + b, with the larger of the two scales (as BigDecimal.add)
+    public static long add(long a, long b) {
+        return pack(Math.addExact(units(a), units(b)), Math.max(scale(a), scale(b)));
+    }
+
+    //EFFECTS: Returns a - b, with the larger of the two scales (as BigDecimal.subtract)
+    public static long subtract(long a, long b) {
+        return pack(Math.subtractExact(units(a), units(b)), Math.max(scale(a), scale(b)));
+    }
+
+    //EFFECTS: Returns -a with the same scale (as BigDecimal.negate)
+    public static long negate(long a) {
+        return pack(Math.negateExact(units(a)), scale(a));
+    }
+
+    //REQUIRES: 0 <= scale <= MAX_SCALE, a has no non-zero digits beyond scale
+    //EFFECTS: Returns a with its scale replaced, without rounding
+    public static long withScale(long a, int scale) {
+        return pack(units(a), scale);
+    }
+
+    //EFFECTS: Returns a rounded up to whole cents with scale 2 (as BigDecimal.setScale(2, RoundingMode.CEILING))
+    public static long ceilCents(long a) {
+        return ofCents(-Math.floorDiv(-units(a), UNITS_PER_CENT), 2);
+    }
+
+    //EFFECTS: Returns a * (1 + rate) rounded up to whole cents with scale 2, as
+    //         a.multiply(rate.add(ONE)).setScale(2, RoundingMode.CEILING) would. rate is a money-packed value.
+    public static long compound(long a, long rate) {
+        long factor = POW10[MAX_SCALE] + units(rate);
+        long units = units(a);
+        long hi = Math.multiplyHigh(units, factor);
+        long lo = units * factor;
+        if ((hi == 0 && lo >= 0) || (hi == -1 && lo < 0)) {
+            long perCent = POW10[MAX_SCALE] * UNITS_PER_CENT;
+            return ofCents(-Math.floorDiv(-lo, perCent), 2);
+        }
+        BigDecimal exact = toBigDecimal(a).multiply(toBigDecimal(rate).add(BigDecimal.ONE));
+        return of(exact.setScale(2, RoundingMode.CEILING));
+    }
+
+    //EFFECTS: Returns a * (1 + rate) rounded up to whole cents with scale 2, as
+    //         a.multiply(rate.add(ONE)).setScale(2, RoundingMode.CEILING) would, for a rate packed to INEXACT
+    public static long compound(long a, BigDecimal rate) {
+        return of(toBigDecimal(a).multiply(rate.add(BigDecimal.ONE)).setScale(2, RoundingMode.CEILING));
+    }
+
+    //EFFECTS: Returns true if a is exactly zero with scale 0 (as a.equals(BigDecimal.valueOf(0)))
+    public static boolean isPlainZero(long a) {
+        return a == ZERO;
+    }
+
+    //EFFECTS: packs micro-units and a scale into a money value, throwing ArithmeticException when out of range
+    private static long pack(long units, int scale) {
+        if (units > MAX_UNITS || units < MIN_UNITS) {
+            throw new ArithmeticException("Money value out of range: " + units + " micro-units");
+        }
+        return (units << SCALE_BITS) | scale;
+    }
+}
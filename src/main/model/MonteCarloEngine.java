@@ -0,0 +1,409 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Simulates many random futures of an account and reports percentile bands of its balance, savings and debts,
+ * where ProjectionEngine gives the single future in which nothing changes.
+ *
+ * Two kinds of uncertainty are modelled:
+ *      - income volatility: each month, every source's value varies independently by a normal amount with a
+ *        standard deviation of its volatility times its value. Since the sum of independent normals is normal,
+ *        each path draws one number a month for the whole surplus instead of one per source.
+ *      - rate shocks: each path draws one normal shift, scaled by the rate shock, that is added to the interest
+ *        rate of the savings account and every debt for the whole path (rates do not go below zero). This models
+ *        a market-wide change in rates, so a path where debts cost more is also one where savings earn more.
+ *
+ * The simulation works in doubles and does not round to the cent, so with no volatility and no rate shock its
+ * bands differ from ProjectionEngine's values by at most a cent a month.
+ *
+ * Paths are split into chunks of CHUNK_SIZE, each with its own SplittableRandom split from the seed, and stepped in
+ * parallel with fork/join. Each path's state lives in primitive arrays indexed by path, so no objects are created
+ * per path or per month. All paths are advanced to each reported month before percentiles are taken, which keeps
+ * memory at a few numbers per path regardless of the number of months. The result depends only on the seed, not
+ * on how many threads ran it. Percentiles are exact: a histogram of each value finds the few bins that hold them,
+ * and only those bins are searched, rather than sorting or selecting over every path.
+ */
+public final class MonteCarloEngine {
+    public static final double[] PERCENTILES = {5, 25, 50, 75, 95};
+    public static final int MAX_POINTS = 120;
+    static final int CHUNK_SIZE = 4096;
+    static final int BINS = 4096;
+
+    private final double balance;
+    private final String[] sourceNames;
+    private final double[] sourceValues;
+    private final double[] sourceVolatility;
+    private final double savings;
+    private final double savingsRate;
+    private final String[] debtNames;
+    private final double[] debts;
+    private final double[] debtRates;
+    private double rateShock;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    //EFFECTS: Creates an engine that simulates acc as it is now, with no volatility and no rate shock
+    public MonteCarloEngine(Account acc) {
+        this(new AccountSnapshot(acc));
+    }
+
+    //EFFECTS: Creates an engine that simulates the account snapshot was taken of, as it was then, with no volatility
+    //         and no rate shock
+    public MonteCarloEngine(AccountSnapshot snapshot) {
+        this.balance = snapshot.getBalance().doubleValue();
+        this.sourceNames = new String[snapshot.getSourceCount()];
+        this.sourceValues = new double[sourceNames.length];
+        this.sourceVolatility = new double[sourceNames.length];
+        for (int i = 0; i < sourceNames.length; i++) {
+            sourceNames[i] = snapshot.getSourceName(i);
+            sourceValues[i] = snapshot.getSourceValue(i).doubleValue();
+        }
+        this.savings = snapshot.getSavingsBal().doubleValue();
+        this.savingsRate = snapshot.getSavingsInterest().doubleValue();
+        this.debtNames = new String[snapshot.getDebtCount()];
+        this.debts = new double[debtNames.length];
+        this.debtRates = new double[debtNames.length];
+        for (int i = 0; i < debts.length; i++) {
+            debtNames[i] = snapshot.getDebtName(i);
+            debts[i] = snapshot.getDebtValue(i).doubleValue();
+            debtRates[i] = snapshot.getDebtInterest(i).doubleValue();
+        }
+    }
+
+    //REQUIRES: volatility >= 0
+    //MODIFIES: this
+    //EFFECTS: Sets the monthly volatility of every source, as a fraction of its value
+    public void setVolatility(double volatility) {
+        for (int i = 0; i < sourceVolatility.length; i++) {
+            sourceVolatility[i] = volatility;
+        }
+    }
+
+    //REQUIRES: volatility >= 0
+    //MODIFIES: this
+    //EFFECTS: Sets the monthly volatility of the named source, as a fraction of its value, and returns true, or
+    //         returns false if there is no such source
+    public boolean setSourceVolatility(String name, double volatility) {
+        for (int i = 0; i < sourceNames.length; i++) {
+            if (sourceNames[i].equals(name)) {
+                sourceVolatility[i] = volatility;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //REQUIRES: rateShock >= 0
+    //MODIFIES: this
+    //EFFECTS: Sets the standard deviation of the shift added to every interest rate on each path
+    public void setRateShock(double rateShock) {
+        this.rateShock = rateShock;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Runs simulations in pool instead of the common fork/join pool
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    //REQUIRES: 1 <= months <= ProjectionEngine.MAX_MONTHS, paths >= 1
+    //EFFECTS: Simulates paths futures of months months from seed and returns the PERCENTILES of each value at up to
+    //         MAX_POINTS + 1 evenly spaced months, including month 0 and the last month. Throws
+    //         IllegalArgumentException if months or paths is out of range.
+    public MonteCarloResult simulate(int months, int paths, long seed) {
+        if (months < 1 || months > ProjectionEngine.MAX_MONTHS) {
+            throw new IllegalArgumentException("Months must be between 1 and " + ProjectionEngine.MAX_MONTHS + ": "
+                    + months);
+        }
+        if (paths < 1) {
+            throw new IllegalArgumentException("At least one path is needed: " + paths);
+        }
+        int[] points = reportedMonths(months);
+        Paths state = new Paths(paths, seed, points[1]);
+        double[][][] bands = new double[2 + debts.length][PERCENTILES.length][points.length];
+        state.report(0, bands);
+        for (int point = 1; point < points.length; point++) {
+            pool.invoke(state.new Step(0, state.randoms.length, points[point] - points[point - 1]));
+            state.report(point, bands);
+        }
+        return new MonteCarloResult(points, PERCENTILES.clone(), paths, debtNames, bands);
+    }
+
+    //EFFECTS: Returns the months to report for a run of the given length, evenly spaced, at most MAX_POINTS apart
+    //         from month 0
+    private static int[] reportedMonths(int months) {
+        int stride = (months + MAX_POINTS - 1) / MAX_POINTS;
+        List<Integer> points = new ArrayList<>();
+        for (int month = 0; month < months; month += stride) {
+            points.add(month);
+        }
+        points.add(months);
+        int[] result = new int[points.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = points.get(i);
+        }
+        return result;
+    }
+
+    //EFFECTS: Returns the mean and standard deviation of one month's surplus
+    private double[] surplusDistribution() {
+        double mean = 0;
+        double variance = 0;
+        for (int i = 0; i < sourceValues.length; i++) {
+            mean += sourceValues[i];
+            double sd = sourceValues[i] * sourceVolatility[i];
+            variance += sd * sd;
+        }
+        return new double[] {mean, Math.sqrt(variance)};
+    }
+
+    //REQUIRES: count >= 1, bins.length >= 2, scratch.length >= count, result.length == PERCENTILES.length
+    //MODIFIES: bins, scratch, result
+    //EFFECTS: Stores the PERCENTILES of values[0, count) (nearest rank) in result
+    static void percentiles(double[] values, int count, int[] bins, double[] scratch, double[] result) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int p = 0; p < count; p++) {
+            double value = values[p];
+            min = value < min ? value : min;
+            max = value > max ? value : max;
+        }
+        if (!(max > min)) {
+            Arrays.fill(result, min);
+            return;
+        }
+        double scale = (bins.length - 1) / (max - min);
+        Arrays.fill(bins, 0);
+        for (int p = 0; p < count; p++) {
+            bins[(int) ((values[p] - min) * scale)]++;
+        }
+        // Find the bin and the rank within it of each percentile, and lay out the bins that hold one in scratch
+        int[] wanted = new int[result.length];
+        int[] rank = new int[result.length];
+        int[] start = new int[result.length + 1];
+        int slots = 0;
+        int bin = 0;
+        int below = 0;
+        for (int i = 0; i < result.length; i++) {
+            int k = (int) Math.round(PERCENTILES[i] / 100 * (count - 1));
+            while (below + bins[bin] <= k) {
+                below += bins[bin++];
+            }
+            if (slots == 0 || wanted[slots - 1] != bin) {
+                wanted[slots] = bin;
+                start[slots + 1] = start[slots] + bins[bin];
+                slots++;
+            }
+            rank[i] = start[slots - 1] + k - below;
+        }
+        int[] next = Arrays.copyOf(start, slots);
+        Arrays.fill(bins, -1); // bins now maps each bin to its slot in scratch, or -1
+        for (int s = 0; s < slots; s++) {
+            bins[wanted[s]] = s;
+        }
+        for (int p = 0; p < count; p++) {
+            int s = bins[(int) ((values[p] - min) * scale)];
+            if (s >= 0) {
+                scratch[next[s]++] = values[p];
+            }
+        }
+        int slot = 0;
+        for (int i = 0; i < result.length; i++) {
+            while (rank[i] >= start[slot + 1]) {
+                slot++;
+            }
+            select(scratch, start[slot], start[slot + 1], rank[i]);
+            result[i] = scratch[rank[i]];
+        }
+    }
+
+    //REQUIRES: lo <= k < hi
+    //MODIFIES: values
+    //EFFECTS: Rearranges values[lo, hi) so that values[k] is the value that would be there if it were sorted, with
+    //         no larger value before it and no smaller value after it
+    static void select(double[] values, int lo, int hi, int k) {
+        hi--;
+        while (lo < hi) {
+            double pivot = median(values[lo], values[(lo + hi) >>> 1], values[hi]);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    double swap = values[i];
+                    values[i++] = values[j];
+                    values[j--] = swap;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    //EFFECTS: Returns the middle value of a, b and c
+    private static double median(double a, double b, double c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    /**
+     * The state of every path in one run, stored by value across parallel arrays indexed by path.
+     */
+    private final class Paths {
+        final int count;
+        final double surplusMean;
+        final double surplusSd;
+        final SplittableRandom[] randoms;
+        final double[] balance;
+        final double[] savings;
+        final int stride;
+        final double[] savingsRate;
+        final double[] savingsStride;
+        final double[][] debts;
+        final double[][] debtRates;
+        final double[][] debtStride;
+        final double[][] scratch;
+        final int[][] bins;
+
+        //EFFECTS: Starts count paths at the account's current values, drawing each path's rate shock from seed. Most
+        //         steps will be stride months long, so the growth over that many months is worked out once per path.
+        Paths(int count, long seed, int stride) {
+            this.count = count;
+            this.stride = stride;
+            double[] surplus = surplusDistribution();
+            this.surplusMean = surplus[0];
+            this.surplusSd = surplus[1];
+            this.randoms = new SplittableRandom[(count + CHUNK_SIZE - 1) / CHUNK_SIZE];
+            SplittableRandom root = new SplittableRandom(seed);
+            for (int i = 0; i < randoms.length; i++) {
+                randoms[i] = root.split();
+            }
+            this.balance = new double[count];
+            this.savings = new double[count];
+            this.savingsRate = new double[count];
+            this.savingsStride = new double[count];
+            this.debts = new double[MonteCarloEngine.this.debts.length][count];
+            this.debtRates = new double[debts.length][count];
+            this.debtStride = new double[debts.length][count];
+            this.scratch = new double[2 + debts.length][count];
+            this.bins = new int[2 + debts.length][BINS];
+            for (int p = 0; p < count; p++) {
+                double shock = rateShock == 0 ? 0 : rateShock * randoms[p / CHUNK_SIZE].nextGaussian();
+                balance[p] = MonteCarloEngine.this.balance;
+                savings[p] = MonteCarloEngine.this.savings;
+                savingsRate[p] = Math.max(0, MonteCarloEngine.this.savingsRate + shock);
+                savingsStride[p] = Math.pow(1 + savingsRate[p], stride);
+                for (int d = 0; d < debts.length; d++) {
+                    debts[d][p] = MonteCarloEngine.this.debts[d];
+                    debtRates[d][p] = Math.max(0, MonteCarloEngine.this.debtRates[d] + shock);
+                    debtStride[d][p] = Math.pow(1 + debtRates[d][p], stride);
+                }
+            }
+        }
+
+        //MODIFIES: bands
+        //EFFECTS: Records the percentiles of every value across all paths as the given point of bands
+        void report(int point, double[][][] bands) {
+            pool.invoke(new Report(0, scratch.length, point, bands));
+        }
+
+        /**
+         * Advances the paths in a range of chunks by a number of months, splitting the range across threads.
+         */
+        private final class Step extends RecursiveAction {
+            private final int from;
+            private final int to;
+            private final int months;
+
+            Step(int from, int to, int months) {
+                this.from = from;
+                this.to = to;
+                this.months = months;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from > 1) {
+                    int mid = (from + to) >>> 1;
+                    invokeAll(new Step(from, mid, months), new Step(mid, to, months));
+                    return;
+                }
+                SplittableRandom random = randoms[from];
+                int start = from * CHUNK_SIZE;
+                int end = Math.min(count, start + CHUNK_SIZE);
+                for (int p = start; p < end; p++) {
+                    double b = balance[p];
+                    for (int m = 0; m < months; m++) {
+                        b += surplusSd == 0 ? surplusMean : surplusMean + surplusSd * random.nextGaussian();
+                    }
+                    balance[p] = b;
+                }
+                grow(savings, months == stride ? savingsStride : null, savingsRate, start, end);
+                for (int d = 0; d < debts.length; d++) {
+                    grow(debts[d], months == stride ? debtStride[d] : null, debtRates[d], start, end);
+                }
+            }
+
+            //MODIFIES: values
+            //EFFECTS: Compounds values[start, end) for this step's months, by the precomputed growth over stride
+            //         months if given, or else at the given monthly rates
+            private void grow(double[] values, double[] growth, double[] rates, int start, int end) {
+                if (growth != null) {
+                    for (int p = start; p < end; p++) {
+                        values[p] *= growth[p];
+                    }
+                } else {
+                    for (int p = start; p < end; p++) {
+                        values[p] *= Math.pow(1 + rates[p], months);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Computes the percentiles of a range of values (balance, savings, then each debt), one per thread.
+         */
+        private final class Report extends RecursiveAction {
+            private final int from;
+            private final int to;
+            private final int point;
+            private final double[][][] bands;
+
+            Report(int from, int to, int point, double[][][] bands) {
+                this.from = from;
+                this.to = to;
+                this.point = point;
+                this.bands = bands;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from > 1) {
+                    int mid = (from + to) >>> 1;
+                    invokeAll(new Report(from, mid, point, bands), new Report(mid, to, point, bands));
+                    return;
+                }
+                double[] values = from == 0 ? balance : from == 1 ? savings : debts[from - 2];
+                double[] result = new double[PERCENTILES.length];
+                percentiles(values, count, bins[from], scratch[from], result);
+                for (int i = 0; i < result.length; i++) {
+                    bands[from][i][point] = result[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package model;
+
+/**
+ * The result of a MonteCarloEngine run: for each reported month (a point), the percentiles of the balance, the
+ * savings and each debt across every simulated path.
+ */
+public final class MonteCarloResult {
+    private static final int BALANCE = 0;
+    private static final int SAVINGS = 1;
+
+    private final int[] months;
+    private final double[] percentiles;
+    private final int paths;
+    private final String[] debtNames;
+    private final double[][][] bands; // [balance, savings, debts...][percentile][point]
+
+    //EFFECTS: Creates a result from the given percentile bands
+    MonteCarloResult(int[] months, double[] percentiles, int paths, String[] debtNames, double[][][] bands) {
+        this.months = months;
+        this.percentiles = percentiles;
+        this.paths = paths;
+        this.debtNames = debtNames;
+        this.bands = bands;
+    }
+
+    //EFFECTS: Returns the number of reported months
+    public int getPointCount() {
+        return months.length;
+    }
+
+    //REQUIRES: 0 <= point < getPointCount()
+    //EFFECTS: Returns the number of months from now of the given point
+    public int getMonth(int point) {
+        return months[point];
+    }
+
+    //EFFECTS: Returns the percentiles reported, in ascending order (see MonteCarloEngine.PERCENTILES)
+    public double[] getPercentiles() {
+        return percentiles.clone();
+    }
+
+    //EFFECTS: Returns the number of paths simulated
+    public int getPaths() {
+        return paths;
+    }
+
+    //REQUIRES: 0 <= percentile < getPercentiles().length, 0 <= point < getPointCount()
+    //EFFECTS: Returns the balance at the given percentile (by index) and point
+    public double getBalance(int percentile, int point) {
+        return bands[BALANCE][percentile][point];
+    }
+
+    //REQUIRES: 0 <= percentile < getPercentiles().length, 0 <= point < getPointCount()
+    //EFFECTS: Returns the savings balance at the given percentile (by index) and point
+    public double getSavings(int percentile, int point) {
+        return bands[SAVINGS][percentile][point];
+    }
+
+    //EFFECTS: Returns the number of debts simulated
+    public int getDebtCount() {
+        return debtNames.length;
+    }
+
+    //REQUIRES: 0 <= debt < getDebtCount()
+    //EFFECTS: Returns the name of the debt at the given index, in the account's order
+    public String getDebtName(int debt) {
+        return debtNames[debt];
+    }
+
+    //REQUIRES: 0 <= debt < getDebtCount(), 0 <= percentile < getPercentiles().length, 0 <= point < getPointCount()
+    //EFFECTS: Returns the value of the debt at the given index, at the given percentile (by index) and point
+    public double getDebt(int debt, int percentile, int point) {
+        return bands[SAVINGS + 1 + debt][percentile][point];
+    }
+}
@@ -0,0 +1,112 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An insertion-ordered list of named elements with a hash index on the name, so that adding, removing and finding an
+ * element by name are O(1) while iteration keeps the order elements were added in. Names are unique.
+ *
+ * Each element also keeps the slot it was given when added, its position counting removed elements, so that a copy
+ * indexed by slot (see AccountSnapshot) can be updated in place when an element changes or is removed instead of
+ * being shifted. Removed slots are only reused once compactSlots renumbers the elements.
+ *
+ * The list is read-only through the java.util.List interface; elements are added and removed by name.
+ */
+public class NamedList<T> extends AbstractList<T> {
+    private final LinkedHashMap<String, T> byName = new LinkedHashMap<>();
+    private Object[] positions; // positional view for get(int), rebuilt lazily after the list changes
+    private final Map<String, Integer> slots = new HashMap<>(); // slot of each name, see slotOf
+    private int slotCount; // slots handed out, including those of removed elements
+
+    //MODIFIES: this
+    //EFFECTS: Adds item under name to the end of the list and returns true, or returns false without changing the
+    //         list if name is already present
+    public boolean put(String name, T item) {
+        if (byName.putIfAbsent(name, item) != null) {
+            return false;
+        }
+        positions = null;
+        slots.put(name, slotCount++);
+        return true;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Removes and returns the element with the given name, or returns null if it is not present
+    public T remove(String name) {
+        T removed = byName.remove(name);
+        if (removed != null) {
+            positions = null;
+            slots.remove(name);
+        }
+        return removed;
+    }
+
+    //EFFECTS: Returns the element with the given name, or null if it is not present
+    public T find(String name) {
+        return byName.get(name);
+    }
+
+    //EFFECTS: Returns the slot of the element with the given name, or -1 if it is not present
+    public int slotOf(String name) {
+        return slots.getOrDefault(name, -1);
+    }
+
+    //EFFECTS: Returns the number of slots handed out, counting those of removed elements
+    public int slotCount() {
+        return slotCount;
+    }
+
+    //EFFECTS: Returns the elements in an array of slotCount() indexed by slot, with null in removed elements' slots
+    public Object[] toSlotArray() {
+        Object[] array = new Object[slotCount];
+        for (Map.Entry<String, T> entry : byName.entrySet()) {
+            array[slots.get(entry.getKey())] = entry.getValue();
+        }
+        return array;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: If more slots belong to removed elements than to present ones, renumbers the elements 0 to size() - 1
+    //         in insertion order and returns true, otherwise returns false. Renumbering is O(n), but n removals must
+    //         come before the next, so it is O(1) per removal over time.
+    public boolean compactSlots() {
+        if (slotCount - byName.size() <= byName.size()) {
+            return false;
+        }
+        slotCount = 0;
+        for (String name : byName.keySet()) {
+            slots.put(name, slotCount++);
+        }
+        return true;
+    }
+
+    //EFFECTS: Returns true if an element with the given name is present
+    public boolean containsName(String name) {
+        return byName.containsKey(name);
+    }
+
+    //EFFECTS: Returns the element at index, in insertion order
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (positions == null) {
+            positions = byName.values().toArray();
+        }
+        return (T) positions[index];
+    }
+
+    @Override
+    public int size() {
+        return byName.size();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return Collections.unmodifiableCollection(byName.values()).iterator();
+    }
+}
@@ -0,0 +1,122 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An immutable list that shares structure with the versions it was made from, so that an AccountSnapshot can keep
+ * the sources or debts of the one before it without copying them.
+ *
+ * Elements are kept in the leaves of a tree 32 wide. Changing or appending an element copies only the nodes on the
+ * path to it (at most 4 for a million elements) and shares every other node with the old version, so both are
+ * O(log32 n). There is no removal; a snapshot leaves null in a removed element's place instead (see NamedList).
+ */
+final class PersistentVector<T> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(new Object[0], 0, 0);
+
+    private final Object[] root; // a leaf of elements if shift is 0, otherwise the child nodes
+    private final int shift;     // the bits of an index used above the leaves
+    private final int size;
+
+    private PersistentVector(Object[] root, int shift, int size) {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+    }
+
+    //EFFECTS: Returns the vector with no elements
+    @SuppressWarnings("unchecked")
+    static <T> PersistentVector<T> empty() {
+        return (PersistentVector<T>) EMPTY;
+    }
+
+    //EFFECTS: Returns a vector of the given elements, in order
+    static <T> PersistentVector<T> of(Object[] items) {
+        if (items.length == 0) {
+            return empty();
+        }
+        Object[] nodes = group(items);
+        int shift = 0;
+        while (nodes.length > 1) {
+            nodes = group(nodes);
+            shift += BITS;
+        }
+        return new PersistentVector<>((Object[]) nodes[0], shift, items.length);
+    }
+
+    int size() {
+        return size;
+    }
+
+    //REQUIRES: 0 <= i < size()
+    //EFFECTS: Returns the element at index i
+    @SuppressWarnings("unchecked")
+    T get(int i) {
+        Objects.checkIndex(i, size);
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(i >>> level) & MASK];
+        }
+        return (T) node[i & MASK];
+    }
+
+    //REQUIRES: 0 <= i < size()
+    //EFFECTS: Returns a vector like this one but with item at index i
+    PersistentVector<T> set(int i, T item) {
+        Objects.checkIndex(i, size);
+        return new PersistentVector<>(set(root, shift, i, item), shift, size);
+    }
+
+    //EFFECTS: Returns a vector like this one with item added to the end
+    PersistentVector<T> append(T item) {
+        if (size == 1 << (shift + BITS)) {
+            Object[] root = {this.root, path(shift, item)};
+            return new PersistentVector<>(root, shift + BITS, size + 1);
+        }
+        return new PersistentVector<>(append(root, shift, size, item), shift, size + 1);
+    }
+
+    //EFFECTS: Returns a copy of node, at the given level, with item at index i
+    private static Object[] set(Object[] node, int level, int i, Object item) {
+        Object[] copy = node.clone();
+        if (level == 0) {
+            copy[i & MASK] = item;
+        } else {
+            int slot = (i >>> level) & MASK;
+            copy[slot] = set((Object[]) node[slot], level - BITS, i, item);
+        }
+        return copy;
+    }
+
+    //REQUIRES: i is the first index past the elements under node
+    //EFFECTS: Returns a copy of node, at the given level, with item added at index i
+    private static Object[] append(Object[] node, int level, int i, Object item) {
+        int slot = (i >>> level) & MASK;
+        Object[] copy = Arrays.copyOf(node, Math.max(node.length, slot + 1));
+        if (level == 0) {
+            copy[slot] = item;
+        } else if (slot < node.length) {
+            copy[slot] = append((Object[]) node[slot], level - BITS, i, item);
+        } else {
+            copy[slot] = path(level - BITS, item);
+        }
+        return copy;
+    }
+
+    //EFFECTS: Returns a new node at the given level holding only item, as its first element
+    private static Object[] path(int level, Object item) {
+        return level == 0 ? new Object[] {item} : new Object[] {path(level - BITS, item)};
+    }
+
+    //EFFECTS: Returns items split into nodes of up to 32, in order
+    private static Object[] group(Object[] items) {
+        Object[] nodes = new Object[(items.length + MASK) >>> BITS];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = Arrays.copyOfRange(items, i << BITS, Math.min(items.length, (i + 1) << BITS));
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,81 @@
+package model;
+
+import java.math.BigDecimal;
+
+/**
+ * The result of a ProjectionEngine run: the balance, savings and each debt of an account for the current month
+ * (month 0) and each projected month after it. Values are kept Money-packed and converted on request.
+ */
+public final class Projection {
+    private final int startMonth;
+    private final long[] balance;
+    private final long[] savings;
+    private final String[] debtNames;
+    private final long[][] debts;
+
+    //EFFECTS: Creates a projection from the given trajectories, which all cover the same months
+    Projection(int startMonth, long[] balance, long[] savings, String[] debtNames, long[][] debts) {
+        this.startMonth = startMonth;
+        this.balance = balance;
+        this.savings = savings;
+        this.debtNames = debtNames;
+        this.debts = debts;
+    }
+
+    //EFFECTS: Returns the number of months projected past the current one
+    public int getMonths() {
+        return balance.length - 1;
+    }
+
+    //EFFECTS: Returns the account's month number at month 0 of the projection
+    public int getStartMonth() {
+        return startMonth;
+    }
+
+    //REQUIRES: 0 <= month <= getMonths()
+    //EFFECTS: Returns the balance after month periods
+    public BigDecimal getBalance(int month) {
+        return Money.toBigDecimal(balance[month]);
+    }
+
+    //REQUIRES: 0 <= month <= getMonths()
+    //EFFECTS: Returns the Money-packed balance after month periods
+    public long getBalanceMoney(int month) {
+        return balance[month];
+    }
+
+    //REQUIRES: 0 <= month <= getMonths()
+    //EFFECTS: Returns the savings balance after month periods
+    public BigDecimal getSavings(int month) {
+        return Money.toBigDecimal(savings[month]);
+    }
+
+    //REQUIRES: 0 <= month <= getMonths()
+    //EFFECTS: Returns the Money-packed savings balance after month periods
+    public long getSavingsMoney(int month) {
+        return savings[month];
+    }
+
+    //EFFECTS: Returns the number of debts projected
+    public int getDebtCount() {
+        return debtNames.length;
+    }
+
+    //REQUIRES: 0 <= debt < getDebtCount()
+    //EFFECTS: Returns the name of the debt at the given index, in the account's order
+    public String getDebtName(int debt) {
+        return debtNames[debt];
+    }
+
+    //REQUIRES: 0 <= debt < getDebtCount(), 0 <= month <= getMonths()
+    //EFFECTS: Returns the value of the debt at the given index after month periods
+    public BigDecimal getDebt(int debt, int month) {
+        return Money.toBigDecimal(debts[debt][month]);
+    }
+
+    //REQUIRES: 0 <= debt < getDebtCount(), 0 <= month <= getMonths()
+    //EFFECTS: Returns the Money-packed value of the debt at the given index after month periods
+    public long getDebtMoney(int debt, int month) {
+        return debts[debt][month];
+    }
+}
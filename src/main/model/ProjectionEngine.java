@@ -0,0 +1,141 @@
+package model;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Projects an account's balance, savings and debts over future months without changing the account.
+ *
+ * The engine copies the figures computeNextPeriod works from when it is created, so later changes to the account
+ * do not affect it and it can be used from any thread. Each projected month matches, to the cent and the scale,
+ * what computeNextPeriod would leave in the account after that many calls.
+ *
+ * The balance has a closed form: after the first month it is a whole number of cents, and the surplus is always
+ * rounded up to whole cents, so the CEILING rounding in computeNextPeriod has no effect from then on and month n
+ * is the first month plus (n - 1) surpluses. Compounding has no such shortcut, since rounding up to the cent every
+ * month gives a different result than rounding once after raising the rate to a power, so savings and debts are
+ * stepped month by month, in whole cents on primitive longs. A value that stops changing (a zero rate or balance,
+ * or interest too small to move a negative balance by a cent) is filled in for the remaining months. A rate Money
+ * cannot hold exactly (see Money.ofRate) is compounded in BigDecimal instead, as computeNextPeriod does.
+ */
+public final class ProjectionEngine {
+    public static final int MAX_MONTHS = 600;
+
+    private static final long UNITS_PER_CENT = 10_000L;
+    private static final long UNITS_PER_DOLLAR = 1_000_000L;
+
+    private final int month;
+    private final long balance;
+    private final long surplus;
+    private final long savings;
+    private final long savingsRate;
+    private final BigDecimal savingsInterest;
+    private final String[] debtNames;
+    private final long[] debts;
+    private final long[] debtRates;
+    private final BigDecimal[] debtInterests;
+
+    //EFFECTS: Creates an engine that projects acc as it is now
+    public ProjectionEngine(Account acc) {
+        this(new AccountSnapshot(acc));
+    }
+
+    //EFFECTS: Creates an engine that projects the account snapshot was taken of, as it was then
+    public ProjectionEngine(AccountSnapshot snapshot) {
+        this.month = snapshot.getMonth();
+        this.balance = snapshot.getMoney();
+        this.surplus = snapshot.surplus();
+        this.savings = snapshot.getSavingsMoney();
+        this.savingsRate = snapshot.getSavingsRate();
+        this.savingsInterest = snapshot.getSavingsInterest();
+        this.debtNames = new String[snapshot.getDebtCount()];
+        this.debts = new long[debtNames.length];
+        this.debtRates = new long[debtNames.length];
+        this.debtInterests = new BigDecimal[debtNames.length];
+        for (int i = 0; i < debts.length; i++) {
+            debtNames[i] = snapshot.getDebtName(i);
+            debts[i] = snapshot.getDebtMoney(i);
+            debtRates[i] = snapshot.getDebtRate(i);
+            debtInterests[i] = snapshot.getDebtInterest(i);
+        }
+    }
+
+    //REQUIRES: 1 <= months <= MAX_MONTHS
+    //EFFECTS: Returns the account's balance, savings and debts for the current month and each of the next months
+    //         months. Throws IllegalArgumentException if months is out of range, and ArithmeticException if a value
+    //         grows beyond what Money can hold.
+    public Projection project(int months) {
+        if (months < 1 || months > MAX_MONTHS) {
+            throw new IllegalArgumentException("Months must be between 1 and " + MAX_MONTHS + ": " + months);
+        }
+        long[][] debtValues = new long[debts.length][];
+        for (int i = 0; i < debts.length; i++) {
+            debtValues[i] = compound(debts[i], debtRates[i], debtInterests[i], months);
+        }
+        return new Projection(month, balances(months), compound(savings, savingsRate, savingsInterest, months),
+                debtNames, debtValues);
+    }
+
+    //EFFECTS: Returns the balance for months 0 to months, using the closed form described above
+    private long[] balances(int months) {
+        long[] values = new long[months + 1];
+        values[0] = balance;
+        long first = Money.ceilCents(Money.add(balance, surplus));
+        long firstCents = Money.units(first) / UNITS_PER_CENT;
+        long surplusCents = Money.units(surplus) / UNITS_PER_CENT;
+        for (int n = 1; n <= months; n++) {
+            values[n] = Money.ofCents(Math.addExact(firstCents, Math.multiplyExact(n - 1L, surplusCents)), 2);
+        }
+        return values;
+    }
+
+    //EFFECTS: Returns value compounded at rate for months 0 to months, rounding up to the cent each month. interest
+    //         is the exact rate, used if rate is Money.INEXACT.
+    private static long[] compound(long value, long rate, BigDecimal interest, int months) {
+        if (rate == Money.INEXACT) {
+            return compoundExactly(value, interest, months);
+        }
+        long[] values = new long[months + 1];
+        values[0] = value;
+        values[1] = Money.compound(value, rate);
+        long factor = UNITS_PER_DOLLAR + Money.units(rate);
+        long limit = Long.MAX_VALUE / Math.max(1, Math.abs(factor));
+        long cents = Money.units(values[1]) / UNITS_PER_CENT;
+        for (int n = 2; n <= months; n++) {
+            long next;
+            if (Math.abs(cents) <= limit) {
+                // From the second month on the value is whole cents, so Money.compound reduces to a ceiling
+                // division by a constant, which the JIT turns into a multiply
+                long product = cents * factor;
+                next = product / UNITS_PER_DOLLAR;
+                if (product > 0 && next * UNITS_PER_DOLLAR != product) {
+                    next++;
+                }
+            } else {
+                next = Money.units(Money.compound(values[n - 1], rate)) / UNITS_PER_CENT;
+            }
+            if (next == cents) {
+                Arrays.fill(values, n, months + 1, values[n - 1]);
+                break;
+            }
+            cents = next;
+            values[n] = Money.ofCents(cents, 2);
+        }
+        return values;
+    }
+
+    //EFFECTS: Returns value compounded at interest for months 0 to months in BigDecimal, rounding up to the cent
+    //         each month
+    private static long[] compoundExactly(long value, BigDecimal interest, int months) {
+        long[] values = new long[months + 1];
+        values[0] = value;
+        for (int n = 1; n <= months; n++) {
+            values[n] = Money.compound(values[n - 1], interest);
+            if (n > 1 && values[n] == values[n - 1]) {
+                Arrays.fill(values, n, months + 1, values[n]);
+                break;
+            }
+        }
+        return values;
+    }
+}
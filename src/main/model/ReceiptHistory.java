@@ -0,0 +1,587 @@
+package model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The receipts an account has recorded, one per ended month, stored as columns of primitive values rather than as
+ * text. Each receipt holds its month, income, expenses, surplus, recommended savings, the balance and savings
+ * balance at the end of the month, and the balance of every debt with the interest it was charged that month.
+ * Amounts are Money-packed longs (see Money).
+ *
+ * Columns grow in chunks of CHUNK_SIZE rows, so adding a receipt never copies earlier ones. Debt balances are kept
+ * in their own columns, with each receipt recording where its debts end, and debt names are stored once and referred
+ * to by index. Queries over the history (see query) use indexes built from the columns the first time they are
+ * needed and extended as receipts are added.
+ *
+ * As a list, each receipt reads as the text shown to the user, built only when it is asked for. Receipts saved by
+ * older versions are plain text: one in the old layout is read into the columns, with no balance or debts, and
+ * still reads back as exactly the same text; any other text is kept as it is, with all its amounts zero.
+ *
+ * A long history loaded from a save file can be left in the file (see setPages). Its receipts come first, and each
+ * page of them is decoded the first time one of its receipts is read; the CACHED_PAGES pages read most recently are
+ * kept decoded and older ones dropped. Receipts added afterwards are held in the columns as usual.
+ *
+ * Reading from several threads at once is safe, as the page cache and query indexes are only built under a lock,
+ * but adding receipts is not safe while any other thread reads this history. A thread that needs to read while
+ * receipts are added reads a view instead (see view): a read-only copy of the receipts as they were, which shares
+ * the columns, as rows already added are never written again, and stays valid however many are added or cleared
+ * after it was taken.
+ */
+public class ReceiptHistory extends AbstractList<String> {
+    public static final int CHUNK_SIZE = 256;
+
+    private static final int CHUNK_BITS = 8;
+    private static final int CACHED_PAGES = 8;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final byte TEXT = 0;    // text that is not a receipt layout this class knows, kept as is
+    private static final byte SUMMARY = 1; // read from text in the old layout, with no balance or debts
+    private static final byte RECORD = 2;  // recorded with its balance and debts
+    private static final String RULE = "------";
+
+    /**
+     * The amounts each receipt records, with the key each is saved under.
+     */
+    public enum Column {
+        INCOME("income"), EXPENSES("expenses"), SURPLUS("surplus"), SAVINGS("savings"), BALANCE("balance"),
+        SAVINGS_BALANCE("savingsBalance");
+
+        private final String key;
+
+        Column(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private int size; // receipts held in the columns, after any paged ones
+    private byte[][] kinds = new byte[0][];
+    private int[][] months = new int[0][];
+    private long[][][] amounts = new long[Column.values().length][0][]; // by column, then chunk, then row
+    private int[][] debtEnds = new int[0][]; // for each receipt, the end of its debts in the debt columns
+    private int debtCount;
+    private int[][] debtNames = new int[0][]; // index into names
+    private long[][] debtBalances = new long[0][];
+    private long[][] debtInterest = new long[0][];
+    private String[] names = new String[4];
+    private int nameCount;
+    private Map<String, Integer> nameIndex = new HashMap<>();
+    private String[][] texts = new String[0][]; // the text of each TEXT receipt, a chunk made when first needed
+    private int[] scales = new int[Column.values().length]; // the largest scale each column has held
+    private int debtInterestScale;
+    private ReceiptPages pages; // the first receipts, left in a save file, or null if there are none
+    private int paged; // the number of receipts in pages
+    private Derived derived = new Derived();
+    private final boolean readOnly;
+
+    /**
+     * What a history builds from its receipts as they are read: the query indexes and the decoded pages. It is shared
+     * with the history's views, as they hold the same receipts up to their size, and only used under its own lock.
+     */
+    private static class Derived {
+        private final ColumnIndex[] indexes = new ColumnIndex[Column.values().length];
+        private final Map<String, DebtSeries> debtSeries = new HashMap<>(); // the interest each debt was charged
+        private int debtSeriesRows; // receipts whose debts have been added to debtSeries
+        private final Map<Integer, ReceiptHistory> cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ReceiptHistory> eldest) {
+                return size() > CACHED_PAGES;
+            }
+        };
+    }
+
+    /**
+     * The receipts that recorded a debt, in order, indexing the interest it was charged in each.
+     */
+    private static class DebtSeries {
+        private int[] rows = new int[16];
+        private final ColumnIndex interest = new ColumnIndex();
+    }
+
+    //EFFECTS: Creates an empty history
+    public ReceiptHistory() {
+        this.readOnly = false;
+    }
+
+    //EFFECTS: Creates a read-only view of the receipts of history as they are now
+    private ReceiptHistory(ReceiptHistory history) {
+        this.readOnly = true;
+        this.size = history.size;
+        this.kinds = history.kinds;
+        this.months = history.months;
+        this.amounts = history.amounts.clone();
+        this.debtEnds = history.debtEnds;
+        this.debtCount = history.debtCount;
+        this.debtNames = history.debtNames;
+        this.debtBalances = history.debtBalances;
+        this.debtInterest = history.debtInterest;
+        this.names = history.names;
+        this.nameCount = history.nameCount;
+        this.nameIndex = null;
+        this.texts = history.texts;
+        this.scales = history.scales.clone();
+        this.debtInterestScale = history.debtInterestScale;
+        this.pages = history.pages;
+        this.paged = history.paged;
+        this.derived = history.derived;
+    }
+
+    //EFFECTS: Returns a read-only view of the receipts as they are now, which later changes to this history do not
+    //         affect. Taking one does not copy the receipts. Any method that would change the view throws
+    //         UnsupportedOperationException.
+    public ReceiptHistory view() {
+        return readOnly ? this : new ReceiptHistory(this);
+    }
+
+    //EFFECTS: Returns true if this is a view, which cannot be changed
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Adds the balance of a debt, and the interest it was charged this month, to the next receipt recorded
+    public void addDebtBalance(String name, long balance, long interest) {
+        checkWritable();
+        if ((debtCount & CHUNK_MASK) == 0) {
+            int chunk = debtCount >> CHUNK_BITS;
+            if (chunk == debtNames.length) {
+                debtNames = Arrays.copyOf(debtNames, Math.max(4, chunk * 2));
+                debtBalances = Arrays.copyOf(debtBalances, debtNames.length);
+                debtInterest = Arrays.copyOf(debtInterest, debtNames.length);
+            }
+            if (debtNames[chunk] == null) {
+                debtNames[chunk] = new int[CHUNK_SIZE];
+                debtBalances[chunk] = new long[CHUNK_SIZE];
+                debtInterest[chunk] = new long[CHUNK_SIZE];
+            }
+        }
+        Integer index = nameIndex.get(name);
+        if (index == null) {
+            if (nameCount == names.length) {
+                names = Arrays.copyOf(names, nameCount * 2);
+            }
+            index = nameCount;
+            names[nameCount++] = name;
+            nameIndex.put(name, index);
+        }
+        debtNames[debtCount >> CHUNK_BITS][debtCount & CHUNK_MASK] = index;
+        debtBalances[debtCount >> CHUNK_BITS][debtCount & CHUNK_MASK] = balance;
+        debtInterest[debtCount >> CHUNK_BITS][debtCount & CHUNK_MASK] = interest;
+        debtInterestScale = Math.max(debtInterestScale, Money.scale(interest));
+        debtCount++;
+    }
+
+    //REQUIRES: amounts has an amount for each Column, by ordinal
+    //MODIFIES: this
+    //EFFECTS: Adds a receipt with the given amounts, owning the debt balances added since the last receipt
+    public void record(int month, long[] amounts) {
+        checkWritable();
+        int i = addRow(RECORD, month);
+        for (Column c : Column.values()) {
+            set(c, i, amounts[c.ordinal()]);
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Adds a receipt saved as text. Text in the old receipt layout is read into the columns; other text is
+    //         kept as it is. Always returns true.
+    @Override
+    public boolean add(String receipt) {
+        checkWritable();
+        int i = addRow(SUMMARY, 0);
+        if (!parseSummary(receipt, i) || !get(paged + i).equals(receipt)) {
+            kinds[i >> CHUNK_BITS][i & CHUNK_MASK] = TEXT;
+            months[i >> CHUNK_BITS][i & CHUNK_MASK] = 0;
+            for (Column c : Column.values()) {
+                set(c, i, Money.ZERO);
+            }
+            int chunk = i >> CHUNK_BITS;
+            if (chunk >= texts.length) {
+                texts = Arrays.copyOf(texts, kinds.length);
+            }
+            if (texts[chunk] == null) {
+                texts[chunk] = new String[CHUNK_SIZE];
+            }
+            texts[chunk][i & CHUNK_MASK] = receipt;
+        }
+        return true;
+    }
+
+    //REQUIRES: this is empty
+    //MODIFIES: this
+    //EFFECTS: Makes the receipts in pages the first receipts of this history, each page decoded when it is first read
+    public void setPages(ReceiptPages pages) {
+        checkWritable();
+        this.pages = pages;
+        paged = pages.size();
+        derived = new Derived();
+        modCount++;
+    }
+
+    //EFFECTS: Returns the pages the first receipts are read from, or null if every receipt is held in memory
+    public ReceiptPages getPages() {
+        return pages;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Removes every receipt, including any left in pages. Views taken before keep theirs.
+    @Override
+    public void clear() {
+        checkWritable();
+        pages = null;
+        paged = 0;
+        size = 0;
+        debtCount = 0;
+        kinds = new byte[0][];
+        months = new int[0][];
+        amounts = new long[Column.values().length][0][];
+        debtEnds = new int[0][];
+        debtNames = new int[0][];
+        debtBalances = new long[0][];
+        debtInterest = new long[0][];
+        names = new String[4];
+        nameCount = 0;
+        nameIndex = new HashMap<>();
+        texts = new String[0][];
+        scales = new int[Column.values().length];
+        debtInterestScale = 0;
+        derived = new Derived();
+        modCount++;
+    }
+
+    //EFFECTS: Returns the number of receipts
+    @Override
+    public int size() {
+        return paged + size;
+    }
+
+    //REQUIRES: 0 <= i < size()
+    //EFFECTS: Returns the text of the ith receipt, as shown to the user
+    @Override
+    public String get(int i) {
+        Objects.checkIndex(i, size());
+        if (i < paged) {
+            return page(i).get(i % pages.getPageSize());
+        }
+        int r = i - paged;
+        byte kind = kinds[r >> CHUNK_BITS][r & CHUNK_MASK];
+        if (kind == TEXT) {
+            return texts[r >> CHUNK_BITS][r & CHUNK_MASK];
+        }
+        StringBuilder text = new StringBuilder(summary(getMonth(i), amount(Column.INCOME, i),
+                amount(Column.EXPENSES, i), amount(Column.SURPLUS, i), amount(Column.SAVINGS, i)));
+        if (kind == RECORD) {
+            text.append("\nBalance: ").append(amount(Column.BALANCE, i))
+                    .append("\nSavings Balance: ").append(amount(Column.SAVINGS_BALANCE, i));
+            for (int j = 0; j < getDebtCount(i); j++) {
+                text.append("\nDebt ").append(getDebtName(i, j)).append(": ")
+                        .append(Money.toBigDecimal(getDebtBalance(i, j)))
+                        .append(" (interest ").append(Money.toBigDecimal(getDebtInterest(i, j))).append(')');
+            }
+            text.append('\n').append(RULE);
+        }
+        return text.toString();
+    }
+
+    //REQUIRES: 0 <= i < size()
+    //EFFECTS: Returns true if the ith receipt was recorded with its balance and debts, false if it was read from
+    //         text saved by an older version
+    public boolean isRecorded(int i) {
+        Objects.checkIndex(i, size());
+        if (i < paged) {
+            return page(i).isRecorded(i % pages.getPageSize());
+        }
+        int r = i - paged;
+        return kinds[r >> CHUNK_BITS][r & CHUNK_MASK] == RECORD;
+    }
+
+    //REQUIRES: 0 <= i < size()
+    //EFFECTS: Returns the month of the ith receipt, or 0 if it is kept only as text
+    public int getMonth(int i) {
+        Objects.checkIndex(i, size());
+        if (i < paged) {
+            return page(i).getMonth(i % pages.getPageSize());
+        }
+        int r = i - paged;
+        return months[r >> CHUNK_BITS][r & CHUNK_MASK];
+    }
+
+    //REQUIRES: 0 <= i < size()
+    //EFFECTS: Returns the Money-packed amount of the ith receipt in column, or zero if it has none
+    public long getMoney(Column column, int i) {
+        Objects.checkIndex(i, size());
+        if (i < paged) {
+            return page(i).getMoney(column, i % pages.getPageSize());
+        }
+        int r = i - paged;
+        return amounts[column.ordinal()][r >> CHUNK_BITS][r & CHUNK_MASK];
+    }
+
+    //REQUIRES: 0 <= i < size()
+    //EFFECTS: Returns the number of debts the ith receipt recorded
+    public int getDebtCount(int i) {
+        if (i < paged) {
+            return page(i).getDebtCount(i % pages.getPageSize());
+        }
+        return debtEnd(i - paged) - debtStart(i - paged);
+    }
+
+    //REQUIRES: 0 <= i < size(), 0 <= j < getDebtCount(i)
+    //EFFECTS: Returns the name of the jth debt the ith receipt recorded
+    public String getDebtName(int i, int j) {
+        if (i < paged) {
+            return page(i).getDebtName(i % pages.getPageSize(), j);
+        }
+        int d = debtStart(i - paged) + j;
+        return names[debtNames[d >> CHUNK_BITS][d & CHUNK_MASK]];
+    }
+
+    //REQUIRES: 0 <= i < size(), 0 <= j < getDebtCount(i)
+    //EFFECTS: Returns the Money-packed balance of the jth debt the ith receipt recorded
+    public long getDebtBalance(int i, int j) {
+        if (i < paged) {
+            return page(i).getDebtBalance(i % pages.getPageSize(), j);
+        }
+        int d = debtStart(i - paged) + j;
+        return debtBalances[d >> CHUNK_BITS][d & CHUNK_MASK];
+    }
+
+    //REQUIRES: 0 <= i < size(), 0 <= j < getDebtCount(i)
+    //EFFECTS: Returns the Money-packed interest the jth debt the ith receipt recorded was charged that month
+    public long getDebtInterest(int i, int j) {
+        if (i < paged) {
+            return page(i).getDebtInterest(i % pages.getPageSize(), j);
+        }
+        int d = debtStart(i - paged) + j;
+        return debtInterest[d >> CHUNK_BITS][d & CHUNK_MASK];
+    }
+
+    //EFFECTS: Returns the largest scale any amount in column has had
+    public int getScale(Column column) {
+        int scale = scales[column.ordinal()];
+        return pages == null ? scale : Math.max(scale, pages.getScale(column));
+    }
+
+    //EFFECTS: Returns the largest scale any debt interest has had
+    public int getDebtInterestScale() {
+        return pages == null ? debtInterestScale : Math.max(debtInterestScale, pages.getDebtInterestScale());
+    }
+
+    //REQUIRES: 0 <= from <= to <= size()
+    //EFFECTS: Returns the Money-packed sum of column over receipts from (inclusive) to to (exclusive)
+    public long sum(Column column, int from, int to) {
+        return query(column).range(from, to).sum();
+    }
+
+    //EFFECTS: Returns a query over column of every receipt
+    public HistoryQuery query(Column column) {
+        return new HistoryQuery(this, column, 0, size());
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Returns the index of column, first extending it to every receipt. It may also index receipts added
+    //         after this view was taken.
+    ColumnIndex index(Column column) {
+        Derived derived = this.derived;
+        synchronized (derived) {
+            ColumnIndex index = derived.indexes[column.ordinal()];
+            if (index == null) {
+                index = new ColumnIndex();
+                derived.indexes[column.ordinal()] = index;
+            }
+            for (int i = index.size(); i < size(); i++) {
+                index.append(Money.units(getMoney(column, i)));
+            }
+            return index;
+        }
+    }
+
+    //REQUIRES: 0 <= from <= to <= size()
+    //MODIFIES: this
+    //EFFECTS: Returns the Money-packed interest the named debt was charged in receipts [from, to), zero if none of
+    //         them recorded it
+    long debtInterest(String name, int from, int to) {
+        Derived derived = this.derived;
+        synchronized (derived) {
+            for (; derived.debtSeriesRows < size(); derived.debtSeriesRows++) {
+                int row = derived.debtSeriesRows;
+                for (int j = 0; j < getDebtCount(row); j++) {
+                    DebtSeries series = derived.debtSeries.computeIfAbsent(getDebtName(row, j), n -> new DebtSeries());
+                    if (series.interest.size() == series.rows.length) {
+                        series.rows = Arrays.copyOf(series.rows, series.rows.length * 2);
+                    }
+                    series.rows[series.interest.size()] = row;
+                    series.interest.append(Money.units(getDebtInterest(row, j)));
+                }
+            }
+            DebtSeries series = derived.debtSeries.get(name);
+            if (series == null) {
+                return Money.withScale(Money.ZERO, getDebtInterestScale());
+            }
+            int first = lowerBound(series.rows, series.interest.size(), from);
+            int last = lowerBound(series.rows, series.interest.size(), to);
+            return Money.ofUnits(series.interest.sum(first, last), getDebtInterestScale());
+        }
+    }
+
+    //EFFECTS: Returns the first receipt at or after from with a month of at least month, or size() if there is
+    //         none. Months must not decrease from receipt to receipt, as computeNextPeriod records them.
+    int firstRowOfMonth(int month, int from) {
+        int lo = from;
+        int hi = size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (getMonth(mid) < month) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    //EFFECTS: Returns the first of the first n sorted values that is at least value, or n if there is none
+    private static int lowerBound(int[] sorted, int n, int value) {
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    //EFFECTS: Returns the text of a receipt summary in the layout every version has shown
+    static String summary(int month, BigDecimal income, BigDecimal expenses, BigDecimal surplus, BigDecimal savings) {
+        return "Month: " + month
+                + "\nIncome: " + income
+                + "\nExpenses: " + expenses
+                + "\n" + RULE
+                + "\nTotal: " + surplus
+                + "\nRecommended Savings: " + savings
+                + "\n" + RULE;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Returns the page holding paged receipt i, decoding it if it is not cached, and throws
+    //         UncheckedIOException if it cannot be read
+    private ReceiptHistory page(int i) {
+        int number = i / pages.getPageSize();
+        Derived derived = this.derived;
+        synchronized (derived) {
+            ReceiptHistory page = derived.cache.get(number);
+            if (page == null) {
+                try {
+                    page = pages.load(number);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read page " + number + " of the receipts", e);
+                }
+                derived.cache.put(number, page);
+            }
+            return page;
+        }
+    }
+
+    //EFFECTS: Throws UnsupportedOperationException if this is a view
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Receipts cannot be changed through a view");
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Adds a row of the given kind and month, owning the debts added since the last row, and returns its
+    //         index among the rows held in the columns
+    private int addRow(byte kind, int month) {
+        int chunk = size >> CHUNK_BITS;
+        if ((size & CHUNK_MASK) == 0) {
+            if (chunk == kinds.length) {
+                int length = Math.max(4, chunk * 2);
+                kinds = Arrays.copyOf(kinds, length);
+                months = Arrays.copyOf(months, length);
+                debtEnds = Arrays.copyOf(debtEnds, length);
+                for (int c = 0; c < amounts.length; c++) {
+                    amounts[c] = Arrays.copyOf(amounts[c], length);
+                }
+            }
+            kinds[chunk] = new byte[CHUNK_SIZE];
+            months[chunk] = new int[CHUNK_SIZE];
+            debtEnds[chunk] = new int[CHUNK_SIZE];
+            for (long[][] column : amounts) {
+                column[chunk] = new long[CHUNK_SIZE];
+            }
+        }
+        int row = size & CHUNK_MASK;
+        kinds[chunk][row] = kind;
+        months[chunk][row] = month;
+        debtEnds[chunk][row] = debtCount;
+        modCount++;
+        return size++;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Sets the amount of row i of the columns in column
+    private void set(Column column, int i, long money) {
+        amounts[column.ordinal()][i >> CHUNK_BITS][i & CHUNK_MASK] = money;
+        scales[column.ordinal()] = Math.max(scales[column.ordinal()], Money.scale(money));
+    }
+
+    //EFFECTS: Returns the amount of the ith receipt in column as a BigDecimal
+    private BigDecimal amount(Column column, int i) {
+        return Money.toBigDecimal(getMoney(column, i));
+    }
+
+    //EFFECTS: Returns the index of the first debt of row i of the columns in the debt columns
+    private int debtStart(int i) {
+        Objects.checkIndex(i, size);
+        return i == 0 ? 0 : debtEnds[(i - 1) >> CHUNK_BITS][(i - 1) & CHUNK_MASK];
+    }
+
+    //EFFECTS: Returns the index after the last debt of row i of the columns in the debt columns
+    private int debtEnd(int i) {
+        Objects.checkIndex(i, size);
+        return debtEnds[i >> CHUNK_BITS][i & CHUNK_MASK];
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Reads receipt text in the old layout into row i and returns true, or returns false if it is not in
+    //         that layout
+    private boolean parseSummary(String receipt, int i) {
+        String[] lines = receipt.split("\n", -1);
+        if (lines.length != 7 || !lines[3].equals(RULE) || !lines[6].equals(RULE)) {
+            return false;
+        }
+        try {
+            months[i >> CHUNK_BITS][i & CHUNK_MASK] = Integer.parseInt(field(lines[0], "Month: "));
+            set(Column.INCOME, i, Money.of(new BigDecimal(field(lines[1], "Income: "))));
+            set(Column.EXPENSES, i, Money.of(new BigDecimal(field(lines[2], "Expenses: "))));
+            set(Column.SURPLUS, i, Money.of(new BigDecimal(field(lines[4], "Total: "))));
+            set(Column.SAVINGS, i, Money.of(new BigDecimal(field(lines[5], "Recommended Savings: "))));
+            return true;
+        } catch (NumberFormatException | ArithmeticException e) {
+            return false;
+        }
+    }
+
+    //EFFECTS: Returns line without its label, throwing NumberFormatException if it does not start with label
+    private static String field(String line, String label) {
+        if (!line.startsWith(label)) {
+            throw new NumberFormatException("Expected " + label);
+        }
+        return line.substring(label.length());
+    }
+}
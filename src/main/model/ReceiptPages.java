@@ -0,0 +1,26 @@
+package model;
+
+import java.io.IOException;
+
+/**
+ * An interface for receipts kept outside memory in pages of a fixed number of receipts, such as in a save file, so
+ * that a ReceiptHistory only decodes the pages that are read (see ReceiptHistory.setPages).
+ */
+public interface ReceiptPages {
+
+    //EFFECTS: Returns the number of receipts in every page together
+    int size();
+
+    //EFFECTS: Returns the number of receipts in each page, except the last which may have fewer
+    int getPageSize();
+
+    //EFFECTS: Returns the largest scale any amount in column has had across every page
+    int getScale(ReceiptHistory.Column column);
+
+    //EFFECTS: Returns the largest scale any debt interest has had across every page
+    int getDebtInterestScale();
+
+    //EFFECTS: Decodes page number page into a new history holding only its receipts, throwing IOException if it
+    //         cannot be read
+    ReceiptHistory load(int page) throws IOException;
+}
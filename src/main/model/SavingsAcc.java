@@ -4,67 +4,84 @@ import org.json.JSONObject;
 import persistence.Writable;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 /**
  * A representation of the user's savings account, with balance and interest accumulated per month.
  */
 public class SavingsAcc implements HasInterest, Writable {
-    BigDecimal bal;
+    long bal; // Money-packed balance, see Money
     BigDecimal interest;
+    long rate; // Money-packed copy of interest used for compounding, or Money.INEXACT to compound from interest
 
     //REQUIRES: initial >= 0
     //EFFECTS: Creates savings account with given initial balance and interest
     public SavingsAcc(BigDecimal initial, BigDecimal interest) {
-        this.bal = initial;
-        this.interest = interest;
+        this.bal = Money.of(initial);
+        setInterest(interest);
     }
 
     //EFFECTS: Calculates interest on your savings -- SEE INTERFACE
     @Override
     public void calculateInterest() {
-        BigDecimal newBal = bal.multiply(interest.add(BigDecimal.valueOf(1))).setScale(2, RoundingMode.CEILING);
+        long newBal = compounded();
         //EventLog.getInstance().logEvent(new Event("Calculated interest added to savings: "
         //        + newBal.subtract(bal)));
         bal = newBal;
     }
 
+    //EFFECTS: Returns the Money-packed balance after a month of interest, without changing it. Throws
+    //         ArithmeticException if Money cannot hold it.
+    long compounded() {
+        return rate == Money.INEXACT ? Money.compound(bal, interest) : Money.compound(bal, rate);
+    }
+
     //EFFECTS: Deposits payment to savings -- SEE INTERFACE
     @Override
     public void addValue(BigDecimal payment) {
         //EventLog.getInstance().logEvent(new Event(payment + " deposited to savings account"));
-        bal = bal.add(payment);
+        bal = Money.add(bal, Money.of(payment));
     }
 
     //EFFECTS: Withdraws from savings -- SEE INTERFACE
     @Override
     public boolean subValue(BigDecimal payment) {
         //EventLog.getInstance().logEvent(new Event(payment + " withdrawn from savings account"));
-        bal = bal.subtract(payment);
-        return bal.equals(BigDecimal.valueOf(0));
+        bal = Money.subtract(bal, Money.of(payment));
+        return Money.isPlainZero(bal);
     }
 
     public BigDecimal getBal() {
+        return Money.toBigDecimal(bal);
+    }
+
+    //EFFECTS: Returns the Money-packed balance of the savings account
+    public long getMoney() {
         return bal;
     }
 
+    //EFFECTS: Returns the Money-packed interest rate of the savings account, or Money.INEXACT if Money cannot hold it
+    public long getRate() {
+        return rate;
+    }
+
     public BigDecimal getInterest() {
         return interest;
     }
 
     public void setBal(BigDecimal bal) {
-        this.bal = bal;
+        this.bal = Money.of(bal);
     }
 
     @Override
     public void setInterest(BigDecimal interest) {
         this.interest = interest;
+        this.rate = Money.ofRate(interest);
     }
 
     //EFFECTS: Parses a SavingsAcc to a JSONObject
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
-        json.put("balance", bal);
+        json.put("balance", getBal());
         json.put("interest", interest);
         return json;
     }
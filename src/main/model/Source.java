@@ -10,11 +10,17 @@ import java.math.BigDecimal;
  */
 public class Source implements Writable {
     String name;
-    BigDecimal value;
+    long value; // Money-packed value, see Money
 
     //MODIFIES: this
     //EFFECTS: Creates a source
     public Source(String name, BigDecimal val) {
+        this(name, Money.of(val));
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Creates a source from a Money-packed value
+    Source(String name, long val) {
         this.name = name;
         this.value = val;
     }
@@ -23,7 +29,7 @@ public class Source implements Writable {
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
         json.put("name", name);
-        json.put("value", value);
+        json.put("value", getValue());
         return json;
     }
 
@@ -32,6 +38,11 @@ public class Source implements Writable {
     }
 
     public BigDecimal getValue() {
+        return Money.toBigDecimal(value);
+    }
+
+    //EFFECTS: Returns the Money-packed value of this source
+    public long getMoney() {
         return value;
     }
 }
@@ -0,0 +1,68 @@
+package model;
+
+/**
+ * Running income and expense totals over an account's sources, kept up to date as sources are added and removed so
+ * that the account's income, expense and surplus figures are O(1) to read.
+ *
+ * The totals are Money-packed. Since a sum's scale is the largest scale of its terms, the number of income and
+ * expense sources at each scale is counted so the scale can be restored when a source is removed.
+ */
+class SourceTotals {
+    private long income = Money.ZERO;
+    private long expenses = Money.ZERO;
+    private final int[] incomeScales = new int[Money.MAX_SCALE + 1];
+    private final int[] expenseScales = new int[Money.MAX_SCALE + 1];
+
+    //MODIFIES: this
+    //EFFECTS: Adds a source's Money-packed value to the totals, or throws ArithmeticException and leaves them as they
+    //         were if the total would be out of Money's range
+    void add(long value) {
+        int sign = Money.signum(value);
+        if (sign > 0) {
+            income = Money.add(income, value);
+            incomeScales[Money.scale(value)]++;
+        } else if (sign < 0) {
+            expenses = Money.add(expenses, value);
+            expenseScales[Money.scale(value)]++;
+        }
+    }
+
+    //REQUIRES: value was previously added and not yet removed
+    //MODIFIES: this
+    //EFFECTS: Removes a source's Money-packed value from the totals
+    void remove(long value) {
+        int sign = Money.signum(value);
+        if (sign > 0) {
+            incomeScales[Money.scale(value)]--;
+            income = Money.withScale(Money.subtract(income, value), maxScale(incomeScales));
+        } else if (sign < 0) {
+            expenseScales[Money.scale(value)]--;
+            expenses = Money.withScale(Money.subtract(expenses, value), maxScale(expenseScales));
+        }
+    }
+
+    //EFFECTS: Returns the sum of all positive sources
+    long income() {
+        return income;
+    }
+
+    //EFFECTS: Returns the sum of all negative sources
+    long expenses() {
+        return expenses;
+    }
+
+    //EFFECTS: Returns the sum of all sources rounded up to whole cents
+    long surplus() {
+        return Money.ceilCents(Money.add(income, expenses));
+    }
+
+    //EFFECTS: Returns the largest scale that still has a source counted against it, or 0 if there are none
+    private static int maxScale(int[] scales) {
+        for (int i = scales.length - 1; i > 0; i--) {
+            if (scales[i] > 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,36 @@
+package persistence;
+
+import model.Account;
+
+import java.io.IOException;
+
+/**
+ * Converts account save files between formats, choosing each file's format from its extension.
+ *
+ * Usage: java persistence.AccountConverter from-file to-file
+ * e.g. java persistence.AccountConverter data/UserAccount.json data/UserAccount.budgeit
+ */
+public class AccountConverter {
+
+    // EFFECTS: converts the file named by the first argument into the file named by the second
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: AccountConverter from-file to-file");
+            System.exit(2);
+        }
+        try {
+            convert(args[0], args[1]);
+            System.out.println("Converted " + args[0] + " to " + args[1]);
+        } catch (IOException e) {
+            System.err.println("Unable to convert " + args[0] + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // EFFECTS: reads the account saved at from and writes it to to, each in the format matching its extension,
+    //          throwing IOException if either file cannot be used
+    public static void convert(String from, String to) throws IOException {
+        Account acc = AccountFormat.forPath(from).read(from);
+        AccountFormat.forPath(to).write(acc, to);
+    }
+}
@@ -0,0 +1,127 @@
+package persistence;
+
+import model.Account;
+import model.AccountSnapshot;
+import model.ReceiptHistory;
+import model.ReceiptPages;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * The file formats an account can be saved in, each identified by its file extension.
+ */
+public enum AccountFormat {
+    JSON(".json"),
+    BINARY(".budgeit");
+
+    private final String extension;
+
+    AccountFormat(String extension) {
+        this.extension = extension;
+    }
+
+    // EFFECTS: returns the file extension of this format, including the dot
+    public String getExtension() {
+        return extension;
+    }
+
+    // EFFECTS: returns the format matching the extension of path, or JSON if it has no known extension
+    public static AccountFormat forPath(String path) {
+        String lower = path.toLowerCase(Locale.ROOT);
+        for (AccountFormat format : values()) {
+            if (lower.endsWith(format.extension)) {
+                return format;
+            }
+        }
+        return JSON;
+    }
+
+    // EFFECTS: reads an account in this format from path, throwing IOException if it cannot be read
+    public Account read(String path) throws IOException {
+        if (this == BINARY) {
+            return new BinaryReader(path).read();
+        }
+        return new JsonStreamReader(path).read();
+    }
+
+    // EFFECTS: writes acc in this format to path, throwing IOException if it cannot be written. The account is
+    //          written to a temporary file first and moved over path only once it is safely on disk, so a crash
+    //          part way through leaves the previous file intact. If acc's receipts are paged from path, they are read
+    //          from the new file from then on.
+    public void write(Account acc, String path) throws IOException {
+        write(new AccountSnapshot(acc), path);
+    }
+
+    // EFFECTS: writes the account as of snapshot in this format to path, as write(Account, String) does, without
+    //          holding off changes to the account
+    public void write(AccountSnapshot snapshot, String path) throws IOException {
+        Path target = Paths.get(path).toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            writeDurably(snapshot, temp.toString());
+            replace(temp, target, snapshot.getReceipts());
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // EFFECTS: writes the account as of snapshot in this format to path in place and forces it to disk, throwing
+    //          IOException if it cannot be written
+    void writeDurably(AccountSnapshot snapshot, String path) throws IOException {
+        if (this == BINARY) {
+            BinaryWriter writer = new BinaryWriter(path);
+            writer.open();
+            try {
+                writer.write(snapshot);
+            } finally {
+                writer.close();
+            }
+        } else {
+            JsonStreamWriter writer = new JsonStreamWriter(path);
+            writer.open();
+            try {
+                writer.write(snapshot);
+            } finally {
+                writer.close();
+            }
+        }
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    // REQUIRES: source was written from the account receipts belong to, or from a snapshot of it
+    // EFFECTS: atomically moves source over target as replace(source, target) does, first pointing receipts that are
+    //          paged from target at the same pages in source, so none are read while the file is being moved
+    static void replace(Path source, Path target, ReceiptHistory receipts) throws IOException {
+        ReceiptPages pages = receipts.getPages();
+        if (pages instanceof BinaryReader.Pages && ((BinaryReader.Pages) pages).isIn(target)) {
+            ((BinaryReader.Pages) pages).replaceFile(source);
+        } else {
+            replace(source, target);
+        }
+    }
+
+    // EFFECTS: atomically moves source over target, then forces the directory entry to disk where the platform
+    //          allows it
+    static void replace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (FileChannel dir = FileChannel.open(target.getParent(), StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Not every platform can sync a directory; the rename itself is still atomic
+        }
+    }
+}
@@ -0,0 +1,432 @@
+package persistence;
+
+import model.Account;
+import model.AccountListener;
+import model.AccountOp;
+import model.AccountSnapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps an account's save file up to date with a write-ahead journal, so that saving only appends the changes
+ * made since the last save instead of rewriting the whole account.
+ *
+ * The save file (the snapshot) holds the account as of the last compaction, in the format matching its extension.
+ * Next to it, UserAccount.json.journal holds every change made through the account's methods since then (see
+ * AccountOp), recorded as it happens and forced to disk in one batch on each save. Loading reads the snapshot and
+ * replays the journal on top of it. A record cut short by a crash fails its checksum and is dropped, along with
+ * any unsaved changes after it.
+ *
+ * Once the journal grows larger than the snapshot, the next save compacts it: the whole account is written to a
+ * temporary file that is atomically renamed over the snapshot, and the journal starts again empty. The journal's
+ * header records a checksum of the snapshot it applies to, so if a crash leaves an old journal next to a newer
+ * snapshot, the old journal is ignored instead of being replayed twice.
+ *
+ * An account in concurrent mode records each change while it holds the locks of the parts it changes, so the
+ * records come in the order the changes were made. Recording therefore only takes a lock of its own around the
+ * unsaved records, never the journal's, and saving takes the account's read locks only long enough to copy the
+ * account and the records made so far. Files are written after those are let go, so a slow save never holds up
+ * a change, and a change never waits on a save.
+ */
+public class AccountJournal implements AccountListener {
+    public static final String EXTENSION = ".journal";
+    public static final long MIN_COMPACT_BYTES = 64 * 1024;
+
+    private static final int MAGIC = 0x424a4e4c; // "BJNL"
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES + Long.BYTES;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+    private static final int NAME = 1;
+    private static final int AMOUNT = 2;
+    private static final int RATE = 4;
+    private static final AccountOp[] OPS = AccountOp.values();
+
+    private final Path snapshot;
+    private final Path journal;
+    private final AccountFormat format;
+    private final Object pendingLock = new Object(); // guards the fields below it up to pendingCount
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+    private final DataOutputStream recordOut = new DataOutputStream(record);
+    private final CRC32 recordCrc = new CRC32();
+    private int pendingCount;
+    private final CRC32 replayCrc = new CRC32();
+    private long recordCount;
+    private long commitCount;
+    private long compactionCount;
+    private volatile Account account;
+    private FileChannel channel;
+
+    // EFFECTS: creates a journal for the save file at snapshotPath, stored next to it
+    public AccountJournal(String snapshotPath) {
+        this.snapshot = Paths.get(snapshotPath).toAbsolutePath();
+        this.journal = snapshot.resolveSibling(snapshot.getFileName() + EXTENSION);
+        this.format = AccountFormat.forPath(snapshotPath);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the snapshot, replays the saved journal on top of it, and returns the result. From then on,
+    //          changes made to the returned account are recorded. Any unsaved changes to the previously loaded
+    //          account are discarded. Throws IOException if the snapshot does not exist or cannot be read.
+    public synchronized Account load() throws IOException {
+        detach();
+        Account acc = format.read(snapshot.toString());
+        long fingerprint = fingerprint(snapshot);
+        if (!replay(acc, fingerprint)) {
+            startJournal(journal, fingerprint);
+        }
+        channel = FileChannel.open(journal, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        attach(acc);
+        return acc;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves acc. If acc is the account being recorded, appends its unsaved changes to the journal and forces
+    //          them to disk, compacting if the journal has grown too large. Otherwise, or if an earlier compaction
+    //          failed, writes acc as a new snapshot and starts recording it. Throws IOException if the
+    //          changes cannot be saved.
+    public synchronized void save(Account acc) throws IOException {
+        if (acc != account || channel == null) {
+            detach();
+            compact(acc, true);
+            return;
+        }
+        commit();
+        if (channel.size() > Math.max(MIN_COMPACT_BYTES, Files.size(snapshot))) {
+            compact(acc, false);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves the recorded account, then writes it as a new snapshot and empties the journal. Throws
+    //          IOException if it cannot be saved, or if no account is being recorded.
+    public synchronized void compact() throws IOException {
+        if (account == null) {
+            throw new IOException("No account loaded or saved through this journal");
+        }
+        commit();
+        compact(account, false);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops recording and closes the journal. Unsaved changes are discarded. If everything has been saved,
+    //          compacts first so the save file alone holds the whole account.
+    public synchronized void close() throws IOException {
+        try {
+            if (account != null && getPendingCount() == 0 && recordCount > 0) {
+                compact(account, false);
+            }
+        } finally {
+            detach();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records a change to the account being recorded, to be written on the next save
+    @Override
+    public void accountChanged(Account changed, AccountOp op, String name, BigDecimal amount, BigDecimal rate) {
+        synchronized (pendingLock) {
+            if (changed == account) {
+                record(op, name, amount, rate);
+            }
+        }
+    }
+
+    // REQUIRES: this thread holds pendingLock
+    // MODIFIES: this
+    // EFFECTS: adds a record of a change to the unsaved records
+    private void record(AccountOp op, String name, BigDecimal amount, BigDecimal rate) {
+        try {
+            record.reset();
+            recordOut.writeByte(op.ordinal());
+            recordOut.writeByte((name == null ? 0 : NAME) | (amount == null ? 0 : AMOUNT) | (rate == null ? 0 : RATE));
+            if (name != null) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                recordOut.writeInt(bytes.length);
+                recordOut.write(bytes);
+            }
+            writeDecimal(amount);
+            writeDecimal(rate);
+            recordCrc.reset();
+            recordCrc.update(record.toByteArray());
+            DataOutputStream out = new DataOutputStream(pending);
+            out.writeInt(record.size());
+            out.writeInt((int) recordCrc.getValue());
+            record.writeTo(pending);
+            pendingCount++;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot record change to memory", e);
+        }
+    }
+
+    // EFFECTS: returns the number of changes recorded but not yet saved
+    public int getPendingCount() {
+        synchronized (pendingLock) {
+            return pendingCount;
+        }
+    }
+
+    // EFFECTS: returns the number of saved changes in the journal since the last compaction
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    // EFFECTS: returns the number of batches of changes forced to disk
+    public synchronized long getCommitCount() {
+        return commitCount;
+    }
+
+    // EFFECTS: returns the number of snapshots written
+    public synchronized long getCompactionCount() {
+        return compactionCount;
+    }
+
+    // EFFECTS: returns the path of the journal file
+    public Path getJournalPath() {
+        return journal;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends the unsaved changes to the journal and forces them to disk. Changes recorded meanwhile are
+    //          left for the next save.
+    private void commit() throws IOException {
+        byte[] records;
+        int count;
+        synchronized (pendingLock) {
+            if (pendingCount == 0) {
+                return;
+            }
+            records = pending.toByteArray();
+            count = pendingCount;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(records);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+        dropPending(records.length, count);
+        recordCount += count;
+        commitCount++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes acc as the new snapshot and replaces the journal with an empty one that applies to it. The
+    //          account and the number of unsaved changes it includes are taken together under its read locks, and
+    //          if attach is true it starts being recorded at that point too; the files are written after. Changes
+    //          recorded meanwhile are left for the next save. The old journal names the old snapshot's checksum,
+    //          so a crash between the two renames leaves it to be ignored next to the new snapshot, which already
+    //          holds its changes.
+    private void compact(Account acc, boolean attach) throws IOException {
+        AccountSnapshot taken;
+        int bytes;
+        int count;
+        acc.lockForReading();
+        try {
+            taken = new AccountSnapshot(acc);
+            if (attach) {
+                attach(acc);
+            }
+            synchronized (pendingLock) {
+                bytes = pending.size();
+                count = pendingCount;
+            }
+        } finally {
+            acc.unlockForReading();
+        }
+        Path snapshotTemp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        Path journalTemp = journal.resolveSibling(journal.getFileName() + ".tmp");
+        try {
+            format.writeDurably(taken, snapshotTemp.toString());
+            startJournal(journalTemp, fingerprint(snapshotTemp));
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+            AccountFormat.replace(snapshotTemp, snapshot, taken.getReceipts());
+            AccountFormat.replace(journalTemp, journal);
+        } finally {
+            Files.deleteIfExists(snapshotTemp);
+            Files.deleteIfExists(journalTemp);
+        }
+        channel = FileChannel.open(journal, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        dropPending(bytes, count);
+        recordCount = 0;
+        compactionCount++;
+    }
+
+    // REQUIRES: the unsaved records start with count records that take up the given number of bytes
+    // MODIFIES: this
+    // EFFECTS: removes those records from the unsaved records, keeping any recorded after them
+    private void dropPending(int bytes, int count) {
+        synchronized (pendingLock) {
+            byte[] rest = pending.toByteArray();
+            pending.reset();
+            pending.write(rest, bytes, rest.length - bytes);
+            pendingCount -= count;
+        }
+    }
+
+    // MODIFIES: acc
+    // EFFECTS: replays the journal onto acc and returns true, or returns false if there is no journal for the
+    //          snapshot with the given fingerprint. Cuts off a trailing record that was only partly written.
+    private boolean replay(Account acc, long fingerprint) throws IOException {
+        if (!Files.exists(journal)) {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(journal));
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getShort() > VERSION
+                || buffer.getLong() != fingerprint) {
+            return false;
+        }
+        recordCount = 0;
+        long good = buffer.position();
+        while (applyNext(acc, buffer)) {
+            recordCount++;
+            good = buffer.position();
+        }
+        if (good < buffer.limit()) {
+            try (FileChannel out = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+                out.truncate(good);
+                out.force(false);
+            }
+        }
+        return true;
+    }
+
+    // MODIFIES: acc, buffer
+    // EFFECTS: applies the next record in buffer to acc and returns true, or returns false if there is no complete
+    //          record left
+    private boolean applyNext(Account acc, ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < RECORD_HEADER_BYTES) {
+            return false;
+        }
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            return false;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        replayCrc.reset();
+        replayCrc.update(bytes);
+        if ((int) replayCrc.getValue() != checksum) {
+            return false;
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= OPS.length) {
+            throw new IOException("Journal " + journal + " has an unknown operation " + ordinal);
+        }
+        AccountOp op = OPS[ordinal];
+        int fields = in.readUnsignedByte();
+        String name = null;
+        if ((fields & NAME) != 0) {
+            byte[] nameBytes = new byte[in.readInt()];
+            in.readFully(nameBytes);
+            name = new String(nameBytes, StandardCharsets.UTF_8);
+        }
+        BigDecimal amount = (fields & AMOUNT) != 0 ? readDecimal(in) : null;
+        BigDecimal rate = (fields & RATE) != 0 ? readDecimal(in) : null;
+        op.apply(acc, name, amount, rate);
+        return true;
+    }
+
+    // EFFECTS: writes an empty journal to path, applying to the snapshot with the given fingerprint, and forces it
+    //          to disk
+    private static void startJournal(Path path, long fingerprint) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putShort(VERSION).putLong(fingerprint).flip();
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            out.force(true);
+        }
+    }
+
+    // EFFECTS: returns a checksum of the file's length and contents, or 0 if it does not exist
+    private static long fingerprint(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        CRC32 checksum = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long size = 0;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                buffer.flip();
+                checksum.update(buffer);
+                buffer.clear();
+                size += read;
+            }
+        }
+        return size << 32 | checksum.getValue();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts recording changes to acc
+    private void attach(Account acc) {
+        synchronized (pendingLock) {
+            account = acc;
+        }
+        acc.addListener(this);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops recording, discards unsaved changes and closes the journal file
+    private void detach() throws IOException {
+        if (account != null) {
+            account.removeListener(this);
+        }
+        synchronized (pendingLock) {
+            account = null;
+            pending.reset();
+            pendingCount = 0;
+        }
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    // REQUIRES: this thread holds pendingLock
+    // MODIFIES: this
+    // EFFECTS: writes n as its scale and unscaled value, if it is not null
+    private void writeDecimal(BigDecimal n) throws IOException {
+        if (n != null) {
+            byte[] unscaled = n.unscaledValue().toByteArray();
+            recordOut.writeInt(n.scale());
+            recordOut.writeInt(unscaled.length);
+            recordOut.write(unscaled);
+        }
+    }
+
+    // EFFECTS: reads a decimal written by writeDecimal, throwing IOException if its length is corrupt
+    private BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int scale = in.readInt();
+        int length = in.readInt();
+        if (length <= 0 || length > in.available()) {
+            throw new IOException("Journal " + journal + " has a decimal of invalid length " + length);
+        }
+        byte[] unscaled = new byte[length];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+}
@@ -0,0 +1,44 @@
+package persistence;
+
+import model.ReceiptHistory;
+
+/**
+ * Constants describing the binary account snapshot format read by BinaryReader and written by BinaryWriter.
+ *
+ * A snapshot starts with the 4-byte magic number and a 2-byte format version. Then come sections, each a 1-byte
+ * tag, a varint byte length and that many bytes of payload, ending with the END tag. Readers skip sections with
+ * tags they do not know, so later versions can add sections without breaking older readers.
+ *
+ * Inside a section, counts and integers are unsigned varints (7 bits per byte, low bits first) and signed values
+ * are zigzag varints. A decimal is its zigzag scale followed by its zigzag unscaled value, so amounts recorded in
+ * cents take one to three bytes. Strings are a varint UTF-8 byte length followed by the bytes. Source and debt
+ * names, including the names of debts recorded in receipts, are stored once in the NAMES section and referred to by
+ * index.
+ *
+ * The RECEIPTS section holds the receipt count, then (unless it is zero) the number of receipts per page
+ * (RECEIPT_PAGE_SIZE), a count of columns followed by the largest scale each column of ReceiptHistory.Column has
+ * held, the largest scale of any debt interest, and the byte length of each page. The pages follow, so a reader can
+ * find any page from the lengths before it without decoding a long history when the file is opened. Each receipt
+ * starts with a varint kind. RECEIPT_TEXT is followed by the receipt's text, for receipts read from save files that
+ * kept them as text. RECEIPT_RECORD is followed by its zigzag month, a count of amounts and the amounts in the order
+ * of ReceiptHistory.Column, a count of debts, and each debt's name index, balance and interest.
+ */
+final class BinaryFormat {
+    static final int MAGIC = 0x42554447; // "BUDG"
+    static final short VERSION = 1;
+
+    static final byte END = 0;
+    static final byte HEADER = 1;   // month, balance, savings percent goal
+    static final byte NAMES = 2;    // count, then each name
+    static final byte SOURCES = 3;  // count, then each source's name index and value
+    static final byte SAVINGS = 4;  // balance, interest
+    static final byte DEBTS = 5;    // count, then each debt's name index, value and interest
+    static final byte RECEIPTS = 6; // count, then each receipt
+
+    static final int RECEIPT_TEXT = 0;   // a receipt read as text from an older save file
+    static final int RECEIPT_RECORD = 1; // a receipt recorded with its amounts, debt balances and interest
+    static final int RECEIPT_PAGE_SIZE = ReceiptHistory.CHUNK_SIZE;
+
+    private BinaryFormat() {
+    }
+}
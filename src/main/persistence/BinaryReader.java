@@ -0,0 +1,392 @@
+package persistence;
+
+import model.Account;
+import model.Money;
+import model.ReceiptHistory;
+import model.ReceiptPages;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+import static persistence.BinaryFormat.*;
+
+/**
+ * Defines an object used to read an account from a binary snapshot file (see BinaryFormat).
+ *
+ * The file is memory-mapped and decoded in place. Names are decoded once from the name table and shared by every
+ * source and debt that uses them.
+ *
+ * Receipts take more than one page in long histories, and are then left in the file: only the page directory is
+ * read, and the account's ReceiptHistory reads each page through a channel opened only while it is read, so no file
+ * stays open. Saving the account over the file moves the new one over it (see AccountFormat.write) and the pages
+ * are then read from where the new file holds them. If the file is replaced any other way, reading a page fails.
+ */
+public class BinaryReader {
+    private final String source;
+    private byte[] bytes = new byte[256]; // scratch space for decoding one string
+    private char[] chars = new char[256];
+    private String[] names = new String[0];
+
+    // EFFECTS: constructs a reader to read source file
+    public BinaryReader(String source) {
+        this.source = source;
+    }
+
+    // EFFECTS: reads account from file and returns it, throwing IOException if file cannot be read, is not a
+    //          snapshot, or is from a newer format version
+    public Account read() throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ)) {
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return parseAccount(in);
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException
+                | NegativeArraySizeException e) {
+            throw new IOException("Snapshot is truncated or corrupt: " + source, e);
+        }
+    }
+
+    // EFFECTS: decodes an account from the snapshot in buffer
+    private Account parseAccount(ByteBuffer in) throws IOException {
+        readHeader(in);
+        Account acc = new Account();
+        byte tag;
+        while ((tag = in.get()) != END) {
+            int length = (int) varint(in);
+            int end = in.position() + length;
+            switch (tag) {
+                case HEADER:
+                    acc.setMonthTracker((int) varint(in));
+                    acc.updateBalance(decimal(in));
+                    acc.setSavingsPercentGoal(decimal(in));
+                    break;
+                case NAMES:
+                    readNames(in);
+                    break;
+                case SOURCES:
+                    addSources(acc, in);
+                    break;
+                case SAVINGS:
+                    acc.getSavings().setBal(decimal(in));
+                    acc.getSavings().setInterest(decimal(in));
+                    break;
+                case DEBTS:
+                    addDebts(acc, in);
+                    break;
+                case RECEIPTS:
+                    addReceipts(acc, in);
+                    break;
+                default:
+                    break;
+            }
+            in.position(end);
+        }
+        acc.publishSnapshot();
+        return acc;
+    }
+
+    // EFFECTS: decodes the magic number and format version, and throws IOException if the buffer is not a snapshot
+    //          or is from a newer format version
+    private void readHeader(ByteBuffer in) throws IOException {
+        if (in.remaining() < Integer.BYTES + Short.BYTES || in.getInt() != MAGIC) {
+            throw new IOException("Not an account snapshot: " + source);
+        }
+        short version = in.getShort();
+        if (version > VERSION) {
+            throw new IOException("Snapshot version " + version + " is newer than supported version " + VERSION);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes the name table
+    private void readNames(ByteBuffer in) {
+        names = new String[(int) varint(in)];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = string(in);
+        }
+    }
+
+    //MODIFIES: acc
+    //EFFECTS: decodes sources and adds them to acc, throwing IOException if two have the same name
+    private void addSources(Account acc, ByteBuffer in) throws IOException {
+        long count = varint(in);
+        for (long i = 0; i < count; i++) {
+            String name = names[(int) varint(in)];
+            if (!acc.addSource(name, decimal(in))) {
+                throw new IOException("Snapshot has two sources named " + name + ": " + source);
+            }
+        }
+    }
+
+    //MODIFIES: acc
+    //EFFECTS: decodes debts and adds them to acc, throwing IOException if two have the same name
+    private void addDebts(Account acc, ByteBuffer in) throws IOException {
+        long count = varint(in);
+        for (long i = 0; i < count; i++) {
+            String name = names[(int) varint(in)];
+            BigDecimal value = decimal(in);
+            if (!acc.addDebt(name, value, decimal(in))) {
+                throw new IOException("Snapshot has two debts named " + name + ": " + source);
+            }
+        }
+    }
+
+    //MODIFIES: acc
+    //EFFECTS: decodes the receipts section and adds its receipts to acc, or if they take more than one page leaves
+    //         them in the file to be read a page at a time. Throws IOException if the section is corrupt.
+    private void addReceipts(Account acc, ByteBuffer in) throws IOException {
+        ReceiptHistory receipts = acc.getReceipts();
+        long count = varint(in);
+        if (count == 0) {
+            return;
+        }
+        Pages pages = new Pages((int) count);
+        pages.readDirectory(in, count);
+        if (count <= pages.pageSize) {
+            readReceipts(receipts, in, count);
+        } else {
+            receipts.setPages(pages);
+        }
+    }
+
+    //MODIFIES: receipts
+    //EFFECTS: decodes count receipts and adds them to receipts, throwing IOException if one is of an unknown kind.
+    //         Amounts in columns ReceiptHistory does not have are skipped.
+    private void readReceipts(ReceiptHistory receipts, ByteBuffer in, long count) throws IOException {
+        for (long i = 0; i < count; i++) {
+            long kind = varint(in);
+            if (kind == RECEIPT_TEXT) {
+                receipts.add(string(in));
+            } else if (kind == RECEIPT_RECORD) {
+                int month = (int) zigzag(in);
+                long[] amounts = new long[ReceiptHistory.Column.values().length];
+                long columns = varint(in);
+                for (long c = 0; c < columns; c++) {
+                    BigDecimal amount = decimal(in);
+                    if (c < amounts.length) {
+                        amounts[(int) c] = Money.of(amount);
+                    }
+                }
+                long debts = varint(in);
+                for (long j = 0; j < debts; j++) {
+                    String name = names[(int) varint(in)];
+                    long balance = Money.of(decimal(in));
+                    receipts.addDebtBalance(name, balance, Money.of(decimal(in)));
+                }
+                receipts.record(month, amounts);
+            } else {
+                throw new IOException("Unknown receipt kind " + kind + " in " + source);
+            }
+        }
+    }
+
+    /**
+     * The pages of receipts in the file, each read through a channel opened only while it is read. Pages are read
+     * one at a time, as they share the reader's name table and scratch space.
+     */
+    class Pages implements ReceiptPages {
+        private final Path file;
+        private final int size;
+        private int pageSize;
+        private final int[] scales = new int[ReceiptHistory.Column.values().length];
+        private int debtInterestScale;
+        private long[] offsets; // where each page starts in the file, then where the last one ends
+        private BasicFileAttributes written; // the file the pages are in, or null if it was replaced by another
+
+        // EFFECTS: creates the pages of size receipts in the file, throwing IOException if it cannot be read
+        Pages(int size) throws IOException {
+            this.file = Paths.get(source).toAbsolutePath().normalize();
+            this.size = size;
+            this.written = Files.readAttributes(file, BasicFileAttributes.class);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int getPageSize() {
+            return pageSize;
+        }
+
+        @Override
+        public int getScale(ReceiptHistory.Column column) {
+            return scales[column.ordinal()];
+        }
+
+        @Override
+        public int getDebtInterestScale() {
+            return debtInterestScale;
+        }
+
+        // EFFECTS: reads page from the file and decodes its receipts, throwing IOException if it cannot be read, is
+        //          corrupt, or the file has been replaced by one other than a save of the same account
+        @Override
+        public synchronized ReceiptHistory load(int page) throws IOException {
+            ByteBuffer in = ByteBuffer.allocate((int) (offsets[page + 1] - offsets[page]));
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (written == null || !isSameFile(written, Files.readAttributes(file, BasicFileAttributes.class))) {
+                    throw new IOException("Snapshot was replaced after its receipts were read: " + file);
+                }
+                while (in.hasRemaining()) {
+                    if (channel.read(in, offsets[page] + in.position()) < 0) {
+                        throw new IOException("Snapshot is truncated: " + file);
+                    }
+                }
+            }
+            in.flip();
+            ReceiptHistory receipts = new ReceiptHistory();
+            try {
+                readReceipts(receipts, in, Math.min(pageSize, size - (long) page * pageSize));
+            } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException
+                    | NegativeArraySizeException e) {
+                throw new IOException("Snapshot is truncated or corrupt: " + file, e);
+            }
+            return receipts;
+        }
+
+        // EFFECTS: returns true if these pages are read from the file at path
+        boolean isIn(Path path) {
+            return file.equals(path.toAbsolutePath().normalize());
+        }
+
+        // REQUIRES: replacement is a snapshot of an account whose first receipts are these
+        // MODIFIES: this
+        // EFFECTS: moves replacement over the file these pages are in, and from then on reads them from the pages
+        //          of replacement. Throws IOException if it cannot be moved, or if replacement does not hold these
+        //          receipts in pages of the same size, after which no page can be read.
+        synchronized void replaceFile(Path replacement) throws IOException {
+            written = null;
+            AccountFormat.replace(replacement, file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                locate(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                written = attributes;
+            } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException
+                    | NegativeArraySizeException e) {
+                throw new IOException("Snapshot is truncated or corrupt: " + file, e);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: decodes the name table and the page directory of the snapshot in buffer, throwing IOException if
+        //          it does not hold these receipts in pages of the same size
+        private void locate(ByteBuffer in) throws IOException {
+            readHeader(in);
+            int oldPageSize = pageSize;
+            byte tag;
+            while ((tag = in.get()) != END) {
+                int length = (int) varint(in);
+                int end = in.position() + length;
+                if (tag == NAMES) {
+                    readNames(in);
+                } else if (tag == RECEIPTS) {
+                    long count = varint(in);
+                    if (count < size) {
+                        break;
+                    }
+                    readDirectory(in, count);
+                    if (pageSize == oldPageSize) {
+                        return;
+                    }
+                    break;
+                }
+                in.position(end);
+            }
+            throw new IOException("Snapshot does not hold the receipts it replaced: " + file);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: decodes the page directory of a receipts section of count receipts, up to the first page, and
+        //          throws IOException if it is corrupt
+        private void readDirectory(ByteBuffer in, long count) throws IOException {
+            pageSize = (int) varint(in);
+            if (pageSize <= 0) {
+                throw new IOException("Snapshot has an invalid receipt page size: " + file);
+            }
+            long columns = varint(in);
+            for (long c = 0; c < columns; c++) {
+                int scale = (int) varint(in);
+                if (c < scales.length) {
+                    scales[(int) c] = scale;
+                }
+            }
+            debtInterestScale = (int) varint(in);
+            offsets = new long[(int) ((count + pageSize - 1) / pageSize) + 1];
+            for (int p = 1; p < offsets.length; p++) {
+                offsets[p] = offsets[p - 1] + varint(in);
+            }
+            for (int p = 0; p < offsets.length; p++) {
+                offsets[p] += in.position();
+            }
+        }
+    }
+
+    // EFFECTS: returns true if a and b are the attributes of the same version of a file
+    private static boolean isSameFile(BasicFileAttributes a, BasicFileAttributes b) {
+        return a.size() == b.size() && a.lastModifiedTime().equals(b.lastModifiedTime())
+                && Objects.equals(a.fileKey(), b.fileKey());
+    }
+
+    // EFFECTS: decodes a decimal written as its scale and unscaled value
+    private static BigDecimal decimal(ByteBuffer in) {
+        int scale = (int) zigzag(in);
+        return BigDecimal.valueOf(zigzag(in), scale);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes a length-prefixed UTF-8 string
+    private String string(ByteBuffer in) {
+        int length = (int) varint(in);
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+            chars = new char[bytes.length];
+        }
+        in.get(bytes, 0, length);
+        int n = 0;
+        int i = 0;
+        while (i < length) {
+            int b = bytes[i++];
+            if (b >= 0) {
+                chars[n++] = (char) b;
+            } else if ((b & 0xe0) == 0xc0) {
+                chars[n++] = (char) ((b & 0x1f) << 6 | (bytes[i++] & 0x3f));
+            } else if ((b & 0xf0) == 0xe0) {
+                chars[n++] = (char) ((b & 0x0f) << 12 | (bytes[i++] & 0x3f) << 6 | (bytes[i++] & 0x3f));
+            } else {
+                int code = (b & 0x07) << 18 | (bytes[i++] & 0x3f) << 12 | (bytes[i++] & 0x3f) << 6
+                        | (bytes[i++] & 0x3f);
+                chars[n++] = Character.highSurrogate(code);
+                chars[n++] = Character.lowSurrogate(code);
+            }
+        }
+        return new String(chars, 0, n);
+    }
+
+    // EFFECTS: decodes a zigzag varint
+    private static long zigzag(ByteBuffer in) {
+        long n = varint(in);
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    // EFFECTS: decodes an unsigned varint
+    private static long varint(ByteBuffer in) {
+        long n = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = in.get();
+            n |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return n;
+            }
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+}
@@ -0,0 +1,311 @@
+package persistence;
+
+import model.Account;
+import model.AccountSnapshot;
+import model.EventLog;
+import model.EventType;
+import model.Money;
+import model.ReceiptHistory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import static persistence.BinaryFormat.*;
+
+/**
+ * Defines an object used to write an account to a binary snapshot file (see BinaryFormat).
+ *
+ * Each section is encoded twice: once only counting its bytes and once for real. This gives the exact file size
+ * up front, so the file is memory-mapped once at that size and filled in place with no intermediate buffers.
+ *
+ * The account is written from an AccountSnapshot, so no lock on it is held while the file is written and changes to
+ * it go ahead meanwhile. An account whose receipts are still paged from a snapshot file (see BinaryReader) reads them
+ * while it is written, so it must not be written over that file in place. AccountFormat.write writes a new file and
+ * moves it over instead.
+ */
+public class BinaryWriter {
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+    private static final byte[] SECTIONS = {HEADER, NAMES, SOURCES, SAVINGS, DEBTS, RECEIPTS};
+
+    private final String destination;
+    private final Map<String, Integer> nameIndex = new HashMap<>();
+    private FileChannel channel;
+    private MappedByteBuffer out; // null while counting
+    private long count;
+    private long[] pageLengths; // the byte length of each page of receipts, found while sizing
+    private byte[] bytes = new byte[256]; // scratch space for encoding one string
+    private AccountSnapshot snapshot;
+
+    // EFFECTS: Creates a writer object to write to a destination file
+    public BinaryWriter(String destination) {
+        this.destination = destination;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the destination file, replacing its contents, throws IOException if it cannot be written to
+    public void open() throws IOException {
+        channel = FileChannel.open(Paths.get(destination), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes account to file as it is at one moment if other threads are changing it, throws IOException if
+    //          it cannot be written
+    public void write(Account acc) throws IOException {
+        write(new AccountSnapshot(acc));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the account as of snapshot to file, throws IOException if it cannot be written
+    public void write(AccountSnapshot snapshot) throws IOException {
+        this.snapshot = snapshot;
+        indexNames();
+        long[] sizes = new long[SECTIONS.length];
+        long total = Integer.BYTES + Short.BYTES + 1;
+        out = null;
+        for (int i = 0; i < SECTIONS.length; i++) {
+            count = 0;
+            section(SECTIONS[i]);
+            sizes[i] = count;
+            total += 1 + varintSize(count) + count;
+        }
+
+        out = channel.map(FileChannel.MapMode.READ_WRITE, 0, total);
+        out.putInt(MAGIC);
+        out.putShort(VERSION);
+        for (int i = 0; i < SECTIONS.length; i++) {
+            out.put(SECTIONS[i]);
+            varint(sizes[i]);
+            section(SECTIONS[i]);
+        }
+        out.put(END);
+        out.force();
+        out = null;
+        this.snapshot = null;
+        EventLog.getInstance().logEvent(EventType.SAVE_DATA_CREATED);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the file
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: encodes the payload of the section with the given tag
+    private void section(byte tag) throws IOException {
+        switch (tag) {
+            case HEADER:
+                varint(snapshot.getMonth());
+                money(snapshot.getMoney());
+                decimal(snapshot.getSavingsPercentGoal());
+                break;
+            case NAMES:
+                writeNames();
+                break;
+            case SOURCES:
+                varint(snapshot.getSourceCount());
+                for (int i = 0; i < snapshot.getSourceCount(); i++) {
+                    varint(nameIndex.get(snapshot.getSourceName(i)));
+                    money(snapshot.getSourceMoney(i));
+                }
+                break;
+            case SAVINGS:
+                money(snapshot.getSavingsMoney());
+                decimal(snapshot.getSavingsInterest());
+                break;
+            case DEBTS:
+                varint(snapshot.getDebtCount());
+                for (int i = 0; i < snapshot.getDebtCount(); i++) {
+                    varint(nameIndex.get(snapshot.getDebtName(i)));
+                    money(snapshot.getDebtMoney(i));
+                    decimal(snapshot.getDebtInterest(i));
+                }
+                break;
+            default:
+                writeReceipts(snapshot.getReceipts());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: encodes receipts in pages of RECEIPT_PAGE_SIZE after a directory giving each page's length, or only
+    //          their count if there are none. The pages are counted before the directory while sizing, as the
+    //          directory needs their lengths.
+    private void writeReceipts(ReceiptHistory receipts) {
+        int pageCount = (receipts.size() + RECEIPT_PAGE_SIZE - 1) / RECEIPT_PAGE_SIZE;
+        if (out == null) {
+            pageLengths = new long[pageCount];
+            for (int p = 0; p < pageCount; p++) {
+                long start = count;
+                writePage(receipts, p);
+                pageLengths[p] = count - start;
+            }
+        }
+        varint(receipts.size());
+        if (receipts.isEmpty()) {
+            return;
+        }
+        varint(RECEIPT_PAGE_SIZE);
+        varint(ReceiptHistory.Column.values().length);
+        for (ReceiptHistory.Column column : ReceiptHistory.Column.values()) {
+            varint(receipts.getScale(column));
+        }
+        varint(receipts.getDebtInterestScale());
+        for (long length : pageLengths) {
+            varint(length);
+        }
+        if (out != null) {
+            for (int p = 0; p < pageCount; p++) {
+                writePage(receipts, p);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: encodes the receipts of page p, each as its text if it was saved as text by an older version, or else
+    //          as its amounts, debt balances and interest
+    private void writePage(ReceiptHistory receipts, int p) {
+        int end = Math.min(receipts.size(), (p + 1) * RECEIPT_PAGE_SIZE);
+        for (int i = p * RECEIPT_PAGE_SIZE; i < end; i++) {
+            if (!receipts.isRecorded(i)) {
+                varint(RECEIPT_TEXT);
+                string(receipts.get(i));
+                continue;
+            }
+            varint(RECEIPT_RECORD);
+            zigzag(receipts.getMonth(i));
+            varint(ReceiptHistory.Column.values().length);
+            for (ReceiptHistory.Column column : ReceiptHistory.Column.values()) {
+                money(receipts.getMoney(column, i));
+            }
+            varint(receipts.getDebtCount(i));
+            for (int j = 0; j < receipts.getDebtCount(i); j++) {
+                varint(nameIndex.get(receipts.getDebtName(i, j)));
+                money(receipts.getDebtBalance(i, j));
+                money(receipts.getDebtInterest(i, j));
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: numbers each distinct source, debt and receipt debt name in the order they first appear
+    private void indexNames() {
+        nameIndex.clear();
+        for (int i = 0; i < snapshot.getSourceCount(); i++) {
+            nameIndex.putIfAbsent(snapshot.getSourceName(i), nameIndex.size());
+        }
+        for (int i = 0; i < snapshot.getDebtCount(); i++) {
+            nameIndex.putIfAbsent(snapshot.getDebtName(i), nameIndex.size());
+        }
+        ReceiptHistory receipts = snapshot.getReceipts();
+        for (int i = 0; i < receipts.size(); i++) {
+            for (int j = 0; j < receipts.getDebtCount(i); j++) {
+                nameIndex.putIfAbsent(receipts.getDebtName(i, j), nameIndex.size());
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: encodes each distinct source and debt name once, in index order
+    private void writeNames() {
+        String[] ordered = new String[nameIndex.size()];
+        for (Map.Entry<String, Integer> entry : nameIndex.entrySet()) {
+            ordered[entry.getValue()] = entry.getKey();
+        }
+        varint(ordered.length);
+        for (String name : ordered) {
+            string(name);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: encodes a packed Money amount as a decimal at its recorded scale
+    private void money(long money) {
+        int scale = Money.scale(money);
+        zigzag(scale);
+        zigzag(Money.units(money) / POWERS_OF_TEN[Money.MAX_SCALE - scale]);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: encodes a decimal as its scale and unscaled value, throws IOException if it has over 63 bits
+    private void decimal(BigDecimal n) throws IOException {
+        zigzag(n.scale());
+        try {
+            zigzag(n.unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IOException("Value too precise for a snapshot: " + n);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: encodes a string as its UTF-8 length followed by its UTF-8 bytes
+    private void string(String s) {
+        if (bytes.length < s.length() * 3) {
+            bytes = new byte[Math.max(s.length() * 3, bytes.length * 2)];
+        }
+        int n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                bytes[n++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[n++] = (byte) (0xc0 | c >> 6);
+                bytes[n++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int code = Character.toCodePoint(c, s.charAt(++i));
+                bytes[n++] = (byte) (0xf0 | code >> 18);
+                bytes[n++] = (byte) (0x80 | (code >> 12 & 0x3f));
+                bytes[n++] = (byte) (0x80 | (code >> 6 & 0x3f));
+                bytes[n++] = (byte) (0x80 | (code & 0x3f));
+            } else {
+                // Unpaired surrogates are encoded as-is, as Java's modified UTF-8 does, so they survive a round trip
+                bytes[n++] = (byte) (0xe0 | c >> 12);
+                bytes[n++] = (byte) (0x80 | (c >> 6 & 0x3f));
+                bytes[n++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        varint(n);
+        if (out == null) {
+            count += n;
+        } else {
+            out.put(bytes, 0, n);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: encodes a signed value as a zigzag varint, so small negative values stay short
+    private void zigzag(long n) {
+        varint((n << 1) ^ (n >> 63));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: encodes an unsigned value 7 bits per byte, low bits first, or only counts its bytes while sizing
+    private void varint(long n) {
+        if (out == null) {
+            count += varintSize(n);
+            return;
+        }
+        while ((n & ~0x7fL) != 0) {
+            out.put((byte) ((n & 0x7f) | 0x80));
+            n >>>= 7;
+        }
+        out.put((byte) n);
+    }
+
+    // EFFECTS: returns the number of bytes the varint encoding of n takes
+    private static int varintSize(long n) {
+        int size = 1;
+        while ((n & ~0x7fL) != 0) {
+            n >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
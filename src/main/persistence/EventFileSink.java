@@ -0,0 +1,242 @@
+package persistence;
+
+import model.Event;
+import model.EventSink;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams logged events to an append-only log file on a background thread.
+ *
+ * Logging threads only offer events to a bounded queue, so they never wait on the disk. When the queue is full the
+ * event is shed and counted instead of blocking the caller. The writer thread drains the queue in batches, writes
+ * each batch through one buffered FileChannel write and forces it to disk once per batch (group commit). When the
+ * log file would grow past its size limit it is rotated: events.log becomes events.log.1, and so on, keeping a fixed
+ * number of old files.
+ */
+public class EventFileSink implements EventSink {
+    public static final String FILE_NAME = "events.log";
+    public static final long DEFAULT_MAX_FILE_BYTES = 1024 * 1024;
+    public static final int DEFAULT_MAX_FILES = 5;
+    public static final int DEFAULT_QUEUE_CAPACITY = 8192;
+
+    private static final int MAX_BATCH = 512;
+    private static final long CLOSE_TIMEOUT_MILLIS = 5_000;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final Event STOP = new Event("Event sink stopped.");
+
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final BlockingQueue<Event> queue;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private Thread writer;
+    private FileChannel channel;
+    private long fileBytes; // bytes in the current log file, including those still in the buffer
+
+    // EFFECTS: creates a sink writing to events.log in directory with the default size limit, file count and queue
+    public EventFileSink(Path directory) {
+        this(directory, DEFAULT_MAX_FILE_BYTES, DEFAULT_MAX_FILES, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    // REQUIRES: maxFileBytes > 0, maxFiles >= 1, queueCapacity > 0
+    // EFFECTS: creates a sink writing to events.log in directory, rotating it at maxFileBytes and keeping
+    //          maxFiles files in total, with room for queueCapacity events waiting to be written
+    public EventFileSink(Path directory, long maxFileBytes, int maxFiles, int queueCapacity) {
+        this.file = directory.resolve(FILE_NAME);
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the log file for appending and starts the writer thread, throwing IOException if the file
+    //          cannot be opened
+    public synchronized void start() throws IOException {
+        if (writer != null) {
+            return;
+        }
+        Files.createDirectories(file.getParent());
+        channel = open();
+        writer = new Thread(this::drain, "event-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // EFFECTS: queues e to be written, or sheds it if the queue is full
+    @Override
+    public void accept(Event e) {
+        if (!queue.offer(e)) {
+            rejected.incrementAndGet();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes everything already queued, stops the writer thread and closes the log file. Waits at most
+    //          CLOSE_TIMEOUT_MILLIS for each of queueing the stop and the writer finishing, then interrupts the
+    //          writer and drops whatever it has not written. Returns at once if the writer has already stopped
+    //          because the log could not be written.
+    public synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            if (writer.isAlive() && queue.offer(STOP, CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                writer.join(CLOSE_TIMEOUT_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer.interrupt();
+        writer = null;
+    }
+
+    // EFFECTS: returns the number of events written to disk
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    // EFFECTS: returns the number of events shed because the queue was full
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    // EFFECTS: returns the number of batches forced to disk
+    public long getCommitCount() {
+        return commits.get();
+    }
+
+    // EFFECTS: returns the path of the current log file
+    public Path getFile() {
+        return file;
+    }
+
+    // EFFECTS: writer thread loop, takes batches of events off the queue and commits them until stopped
+    private void drain() {
+        List<Event> batch = new ArrayList<>(MAX_BATCH);
+        boolean running = true;
+        try {
+            while (running) {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH - 1);
+                running = !batch.remove(STOP);
+                commit(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Event log writer stopped: " + e.getMessage());
+        } finally {
+            closeChannel();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a batch of events to the log file and forces it to disk
+    private void commit(List<Event> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (Event e : batch) {
+            byte[] line = format(e);
+            if (fileBytes + line.length > maxFileBytes && fileBytes > 0) {
+                flush();
+                rotate();
+            }
+            fileBytes += line.length;
+            if (line.length > buffer.remaining()) {
+                flush();
+            }
+            if (line.length > buffer.capacity()) {
+                ByteBuffer wrapped = ByteBuffer.wrap(line);
+                while (wrapped.hasRemaining()) {
+                    channel.write(wrapped);
+                }
+            } else {
+                buffer.put(line);
+            }
+        }
+        flush();
+        channel.force(false);
+        written.addAndGet(batch.size());
+        commits.incrementAndGet();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes out whatever is in the buffer
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shifts events.log.N to events.log.N+1, dropping the oldest, moves the current log to events.log.1
+    //          and starts a new empty log
+    private void rotate() throws IOException {
+        channel.force(false);
+        channel.close();
+        Files.deleteIfExists(rotated(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            if (Files.exists(rotated(i))) {
+                Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 1) {
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+        channel = open();
+    }
+
+    // EFFECTS: returns the path of the i-th rotated log file
+    private Path rotated(int i) {
+        return file.resolveSibling(FILE_NAME + "." + i);
+    }
+
+    // EFFECTS: opens the log file for appending
+    private FileChannel open() throws IOException {
+        FileChannel opened = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        fileBytes = opened.size();
+        return opened;
+    }
+
+    // EFFECTS: closes the log file, ignoring failures
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to write to
+        }
+    }
+
+    // EFFECTS: formats an event as one line of the log file
+    private static byte[] format(Event e) {
+        long nanos = e.getTimestamp();
+        String line = Instant.ofEpochSecond(0, nanos) + " " + e.getType() + " "
+                + e.getDescription().replace('\n', ' ') + "\n";
+        return line.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,311 @@
+package persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A pull parser that reads JSON tokens one at a time from a channel, decoding UTF-8 through fixed-size buffers.
+ * Only the current token is ever held in memory, so the size of the document does not matter.
+ *
+ * The parser is lenient about separators: commas are skipped, and a string followed by a colon is reported as a
+ * NAME rather than a STRING.
+ */
+class JsonPullParser implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The kinds of token the parser reports.
+     */
+    enum Token {
+        BEGIN_OBJECT,
+        END_OBJECT,
+        BEGIN_ARRAY,
+        END_ARRAY,
+        NAME,
+        STRING,
+        NUMBER,
+        TRUE,
+        FALSE,
+        NULL,
+        END_DOCUMENT
+    }
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+    private final StringBuilder text = new StringBuilder();
+    private char[] number = new char[32];
+    private int numberLength;
+    private boolean endOfInput;
+    private long position;
+
+    // EFFECTS: creates a parser reading from channel
+    JsonPullParser(ReadableByteChannel channel) {
+        this.channel = channel;
+        chars.flip();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads and returns the next token, throwing IOException if the input is not valid JSON
+    Token next() throws IOException {
+        int c = skipSeparators();
+        switch (c) {
+            case -1:
+                return Token.END_DOCUMENT;
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '}':
+                return Token.END_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case ']':
+                return Token.END_ARRAY;
+            case '"':
+                readString();
+                if (skipWhitespace() == ':') {
+                    read();
+                    return Token.NAME;
+                }
+                return Token.STRING;
+            case 't':
+                expectWord("rue");
+                return Token.TRUE;
+            case 'f':
+                expectWord("alse");
+                return Token.FALSE;
+            case 'n':
+                expectWord("ull");
+                return Token.NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    readNumber((char) c);
+                    return Token.NUMBER;
+                }
+                throw error("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    // REQUIRES: the last token was NAME or STRING
+    // EFFECTS: returns the text of the last token
+    String getString() {
+        return text.toString();
+    }
+
+    // REQUIRES: the last token was NAME
+    // EFFECTS: returns true if the last token's text equals name, without creating a String
+    boolean nameIs(String name) {
+        return text.length() == name.length() && name.contentEquals(text);
+    }
+
+    // REQUIRES: the last token was NUMBER
+    // EFFECTS: returns the value of the last token
+    BigDecimal getBigDecimal() {
+        return new BigDecimal(number, 0, numberLength);
+    }
+
+    // REQUIRES: the last token was NUMBER
+    // EFFECTS: returns the value of the last token as an int, throwing IOException if it is not one
+    int getInt() throws IOException {
+        try {
+            return getBigDecimal().intValueExact();
+        } catch (ArithmeticException e) {
+            throw error("Expected an integer but found " + getBigDecimal());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the next token and throws IOException if it is not the expected one
+    void expect(Token expected) throws IOException {
+        Token actual = next();
+        if (actual != expected) {
+            throw error("Expected " + expected + " but found " + actual);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads past the next value, including everything nested inside it
+    void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            Token t = next();
+            if (t == Token.BEGIN_OBJECT || t == Token.BEGIN_ARRAY) {
+                depth++;
+            } else if (t == Token.END_OBJECT || t == Token.END_ARRAY) {
+                depth--;
+            } else if (t == Token.END_DOCUMENT) {
+                throw error("Unexpected end of document");
+            }
+        } while (depth > 0);
+    }
+
+    // EFFECTS: returns an exception describing a problem at the current position
+    IOException error(String message) {
+        return new IOException("Malformed JSON at character " + position + ": " + message);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a string body after its opening quote into text, handling escapes
+    private void readString() throws IOException {
+        text.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return;
+            } else if (c == '\\') {
+                text.append(readEscape());
+            } else if (c == -1) {
+                throw error("Unterminated string");
+            } else {
+                text.append((char) c);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the character after a backslash and returns the character it stands for
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) {
+                        throw error("Invalid unicode escape");
+                    }
+                    code = code * 16 + digit;
+                }
+                return (char) code;
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            default:
+                throw error("Invalid escape '\\" + (char) c + "'");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the rest of a number starting with first into the number buffer
+    private void readNumber(char first) throws IOException {
+        numberLength = 0;
+        appendNumber(first);
+        while (true) {
+            int c = peek();
+            if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                appendNumber((char) read());
+            } else {
+                return;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends c to the number buffer, growing it if needed
+    private void appendNumber(char c) {
+        if (numberLength == number.length) {
+            char[] grown = new char[number.length * 2];
+            System.arraycopy(number, 0, grown, 0, numberLength);
+            number = grown;
+        }
+        number[numberLength++] = c;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the rest of a literal, throwing IOException if the input does not match it
+    private void expectWord(String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            if (read() != rest.charAt(i)) {
+                throw error("Invalid literal");
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace, commas and stray colons and returns the next character, consuming it
+    private int skipSeparators() throws IOException {
+        while (true) {
+            int c = read();
+            if (c != ',' && c != ':' && !Character.isWhitespace(c)) {
+                return c;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace and returns the next character without consuming it
+    private int skipWhitespace() throws IOException {
+        while (Character.isWhitespace(peek())) {
+            read();
+        }
+        return peek();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes and returns the next character, or -1 at the end of input
+    private int read() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            chars.get();
+            position++;
+        }
+        return c;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next character without consuming it, or -1 at the end of input
+    private int peek() throws IOException {
+        if (!chars.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return chars.get(chars.position());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes more characters from the channel, returning false if there are none left
+    private boolean fill() throws IOException {
+        chars.clear();
+        while (chars.position() == 0) {
+            if (!endOfInput && channel.read(bytes) < 0) {
+                endOfInput = true;
+            }
+            bytes.flip();
+            CoderResult result = decoder.decode(bytes, chars, endOfInput);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (endOfInput) {
+                decoder.flush(chars);
+            }
+            bytes.compact();
+            if (endOfInput) {
+                break;
+            }
+        }
+        chars.flip();
+        return chars.hasRemaining();
+    }
+}
@@ -25,7 +25,8 @@ public class JsonReader {
         this.source = source;
     }
 
-    // EFFECTS: reads account from file and returns it, throwing IOException if file cannot be read
+    // EFFECTS: reads account from file and returns it, throwing IOException if file cannot be read or names two
+    //          sources or two debts the same
     public Account read() throws IOException {
         String jsonData = readFile(source);
         JSONObject jsonObject = new JSONObject(jsonData);
@@ -44,7 +45,7 @@ public class JsonReader {
     }
 
     // EFFECTS: parses account from JSONObject and returns it
-    private Account parseAccount(JSONObject jsonObject) {
+    private Account parseAccount(JSONObject jsonObject) throws IOException {
         Account acc = new Account();
         acc.setMonthTracker(jsonObject.getInt("month"));
         acc.updateBalance(jsonObject.getBigDecimal("balance"));
@@ -53,12 +54,13 @@ public class JsonReader {
         addSavings(acc, jsonObject);
         addDebts(acc, jsonObject);
         addReceipts(acc, jsonObject);
+        acc.publishSnapshot();
         return acc;
     }
 
     //MODIFIES: acc
     //EFFECTS: parses sources from JSONObject and adds them to account
-    private void addSources(Account acc, JSONObject jsonObject) {
+    private void addSources(Account acc, JSONObject jsonObject) throws IOException {
         JSONArray jsonArray = jsonObject.getJSONArray("sources");
         for (Object json : jsonArray) {
             JSONObject nextSource = (JSONObject) json;
@@ -67,11 +69,13 @@ public class JsonReader {
     }
 
     //MODIFIES: acc
-    //EFFECTS: parses source from JSONObject and adds it to acc
-    private void addSource(Account acc, JSONObject jsonObject) {
+    //EFFECTS: parses source from JSONObject and adds it to acc, throwing IOException if acc has one of its name
+    private void addSource(Account acc, JSONObject jsonObject) throws IOException {
         String name = jsonObject.getString("name");
         BigDecimal val = jsonObject.getBigDecimal("value");
-        acc.addSource(name, val);
+        if (!acc.addSource(name, val)) {
+            throw new IOException("Save file has two sources named " + name + ": " + source);
+        }
     }
 
     //MODIFIES: acc
@@ -86,7 +90,7 @@ public class JsonReader {
 
     //MODIFIES: acc
     //EFFECTS: parses debts from JSONObject and adds them to acc
-    private void addDebts(Account acc, JSONObject jsonObject) {
+    private void addDebts(Account acc, JSONObject jsonObject) throws IOException {
         JSONArray jsonArray = jsonObject.getJSONArray("debts");
         for (Object json : jsonArray) {
             JSONObject nextDebt = (JSONObject) json;
@@ -95,12 +99,14 @@ public class JsonReader {
     }
 
     //MODIFIES: acc
-    //EFFECTS: parses a debt from JSONObject and adds it to acc
-    private void addDebt(Account acc, JSONObject jsonObject) {
+    //EFFECTS: parses a debt from JSONObject and adds it to acc, throwing IOException if acc has one of its name
+    private void addDebt(Account acc, JSONObject jsonObject) throws IOException {
         String name = jsonObject.getString("name");
         BigDecimal value = jsonObject.getBigDecimal("value");
         BigDecimal interest = jsonObject.getBigDecimal("interest");
-        acc.addDebt(name, value, interest);
+        if (!acc.addDebt(name, value, interest)) {
+            throw new IOException("Save file has two debts named " + name + ": " + source);
+        }
 
     }
 
@@ -110,8 +116,26 @@ public class JsonReader {
         JSONArray jsonArray = jsonObject.getJSONArray("receipts");
         for (Object json : jsonArray) {
             JSONObject nextReceipt = (JSONObject) json;
-            String receipt = (String) nextReceipt.get("receipt");
-            acc.getReceipts().add(receipt);
+            if (nextReceipt.has("receipt")) {
+                acc.getReceipts().add((String) nextReceipt.get("receipt"));
+            } else {
+                addReceipt(acc.getReceipts(), nextReceipt);
+            }
+        }
+    }
+
+    //MODIFIES: receipts
+    //EFFECTS: parses a receipt recorded with its amounts and debt balances and adds it to receipts
+    private void addReceipt(ReceiptHistory receipts, JSONObject jsonObject) {
+        for (Object json : jsonObject.getJSONArray("debts")) {
+            JSONObject debt = (JSONObject) json;
+            receipts.addDebtBalance(debt.getString("name"), Money.of(debt.getBigDecimal("value")),
+                    Money.of(debt.getBigDecimal("interest")));
+        }
+        long[] amounts = new long[ReceiptHistory.Column.values().length];
+        for (ReceiptHistory.Column column : ReceiptHistory.Column.values()) {
+            amounts[column.ordinal()] = Money.of(jsonObject.getBigDecimal(column.getKey()));
         }
+        receipts.record(jsonObject.getInt("month"), amounts);
     }
 }
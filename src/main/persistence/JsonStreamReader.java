@@ -0,0 +1,252 @@
+package persistence;
+
+import model.Account;
+import model.Money;
+import model.ReceiptHistory;
+import persistence.JsonPullParser.Token;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Defines an object used to read an account from a save file as it streams in.
+ *
+ * Reads the same format as JsonReader, but pulls one token at a time from a file channel and fills the account
+ * directly instead of first loading the whole file into a string and a JSONObject tree. Memory use no longer grows
+ * with the size of the file beyond the account itself. Keys may appear in any order, and unknown keys are skipped.
+ */
+public class JsonStreamReader {
+    private final String source;
+
+    // EFFECTS: constructs a reader to read source file
+    public JsonStreamReader(String source) {
+        this.source = source;
+    }
+
+    // EFFECTS: reads account from file and returns it, throwing IOException if file cannot be read or is malformed
+    public Account read() throws IOException {
+        try (JsonPullParser parser = new JsonPullParser(FileChannel.open(Paths.get(source),
+                StandardOpenOption.READ))) {
+            return parseAccount(parser);
+        }
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: parses an account object and returns it
+    private Account parseAccount(JsonPullParser parser) throws IOException {
+        Account acc = new Account();
+        parser.expect(Token.BEGIN_OBJECT);
+        while (nextName(parser)) {
+            if (parser.nameIs("month")) {
+                acc.setMonthTracker(nextInt(parser));
+            } else if (parser.nameIs("balance")) {
+                acc.updateBalance(nextNumber(parser));
+            } else if (parser.nameIs("spg")) {
+                acc.setSavingsPercentGoal(nextNumber(parser));
+            } else if (parser.nameIs("sources")) {
+                addSources(acc, parser);
+            } else if (parser.nameIs("savings")) {
+                addSavings(acc, parser);
+            } else if (parser.nameIs("debts")) {
+                addDebts(acc, parser);
+            } else if (parser.nameIs("receipts")) {
+                addReceipts(acc, parser);
+            } else {
+                parser.skipValue();
+            }
+        }
+        acc.publishSnapshot();
+        return acc;
+    }
+
+    //MODIFIES: acc, parser
+    //EFFECTS: parses an array of sources and adds them to acc, throwing IOException if two have the same name
+    private void addSources(Account acc, JsonPullParser parser) throws IOException {
+        parser.expect(Token.BEGIN_ARRAY);
+        while (nextElement(parser)) {
+            String name = null;
+            BigDecimal value = null;
+            while (nextName(parser)) {
+                if (parser.nameIs("name")) {
+                    name = nextString(parser);
+                } else if (parser.nameIs("value")) {
+                    value = nextNumber(parser);
+                } else {
+                    parser.skipValue();
+                }
+            }
+            if (!acc.addSource(require(parser, name, "name"), require(parser, value, "value"))) {
+                throw new IOException("Save file has two sources named " + name + ": " + source);
+            }
+        }
+    }
+
+    //MODIFIES: acc, parser
+    //EFFECTS: parses a savings object and sets its values on acc
+    private void addSavings(Account acc, JsonPullParser parser) throws IOException {
+        parser.expect(Token.BEGIN_OBJECT);
+        while (nextName(parser)) {
+            if (parser.nameIs("balance")) {
+                acc.getSavings().setBal(nextNumber(parser));
+            } else if (parser.nameIs("interest")) {
+                acc.getSavings().setInterest(nextNumber(parser));
+            } else {
+                parser.skipValue();
+            }
+        }
+    }
+
+    //MODIFIES: acc, parser
+    //EFFECTS: parses an array of debts and adds them to acc, throwing IOException if two have the same name
+    private void addDebts(Account acc, JsonPullParser parser) throws IOException {
+        parser.expect(Token.BEGIN_ARRAY);
+        while (nextElement(parser)) {
+            String name = null;
+            BigDecimal value = null;
+            BigDecimal interest = null;
+            while (nextName(parser)) {
+                if (parser.nameIs("name")) {
+                    name = nextString(parser);
+                } else if (parser.nameIs("value")) {
+                    value = nextNumber(parser);
+                } else if (parser.nameIs("interest")) {
+                    interest = nextNumber(parser);
+                } else {
+                    parser.skipValue();
+                }
+            }
+            if (!acc.addDebt(require(parser, name, "name"), require(parser, value, "value"),
+                    require(parser, interest, "interest"))) {
+                throw new IOException("Save file has two debts named " + name + ": " + source);
+            }
+        }
+    }
+
+    //MODIFIES: acc, parser
+    //EFFECTS: parses an array of receipts, each either text or recorded with its amounts and debt balances, and
+    //         adds them to acc
+    private void addReceipts(Account acc, JsonPullParser parser) throws IOException {
+        ReceiptHistory receipts = acc.getReceipts();
+        int required = (1 << ReceiptHistory.Column.values().length) - 1;
+        parser.expect(Token.BEGIN_ARRAY);
+        while (nextElement(parser)) {
+            long[] amounts = new long[ReceiptHistory.Column.values().length];
+            String receipt = null;
+            Integer month = null;
+            int found = 0;
+            while (nextName(parser)) {
+                ReceiptHistory.Column column = receiptColumn(parser);
+                if (parser.nameIs("receipt")) {
+                    receipt = nextString(parser);
+                } else if (parser.nameIs("month")) {
+                    month = nextInt(parser);
+                } else if (parser.nameIs("debts")) {
+                    addDebtBalances(receipts, parser);
+                } else if (column != null) {
+                    amounts[column.ordinal()] = Money.of(nextNumber(parser));
+                    found |= 1 << column.ordinal();
+                } else {
+                    parser.skipValue();
+                }
+            }
+            if (receipt != null) {
+                receipts.add(receipt);
+            } else if (month == null || (found & required) != required) {
+                throw parser.error("Receipt is missing its text or one of its amounts");
+            } else {
+                receipts.record(month, amounts);
+            }
+        }
+    }
+
+    // EFFECTS: returns the receipt column the current key names, or null if it names none
+    private static ReceiptHistory.Column receiptColumn(JsonPullParser parser) {
+        for (ReceiptHistory.Column column : ReceiptHistory.Column.values()) {
+            if (parser.nameIs(column.getKey())) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    //MODIFIES: receipts, parser
+    //EFFECTS: parses an array of debt balances and adds them to the next receipt recorded
+    private void addDebtBalances(ReceiptHistory receipts, JsonPullParser parser) throws IOException {
+        parser.expect(Token.BEGIN_ARRAY);
+        while (nextElement(parser)) {
+            String name = null;
+            BigDecimal value = null;
+            BigDecimal interest = null;
+            while (nextName(parser)) {
+                if (parser.nameIs("name")) {
+                    name = nextString(parser);
+                } else if (parser.nameIs("value")) {
+                    value = nextNumber(parser);
+                } else if (parser.nameIs("interest")) {
+                    interest = nextNumber(parser);
+                } else {
+                    parser.skipValue();
+                }
+            }
+            receipts.addDebtBalance(require(parser, name, "name"), Money.of(require(parser, value, "value")),
+                    Money.of(require(parser, interest, "interest")));
+        }
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: reads the next key of an object and returns true, or returns false at the end of the object
+    private static boolean nextName(JsonPullParser parser) throws IOException {
+        Token t = parser.next();
+        if (t == Token.END_OBJECT) {
+            return false;
+        } else if (t != Token.NAME) {
+            throw parser.error("Expected a key but found " + t);
+        }
+        return true;
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: reads the start of the next object in an array and returns true, or returns false at the end of
+    //          the array
+    private static boolean nextElement(JsonPullParser parser) throws IOException {
+        Token t = parser.next();
+        if (t == Token.END_ARRAY) {
+            return false;
+        } else if (t != Token.BEGIN_OBJECT) {
+            throw parser.error("Expected an object but found " + t);
+        }
+        return true;
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: reads a number value and returns it
+    private static BigDecimal nextNumber(JsonPullParser parser) throws IOException {
+        parser.expect(Token.NUMBER);
+        return parser.getBigDecimal();
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: reads an integer value and returns it
+    private static int nextInt(JsonPullParser parser) throws IOException {
+        parser.expect(Token.NUMBER);
+        return parser.getInt();
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: reads a string value and returns it
+    private static String nextString(JsonPullParser parser) throws IOException {
+        parser.expect(Token.STRING);
+        return parser.getString();
+    }
+
+    // EFFECTS: returns value, throwing IOException if the object it belongs to had no such key
+    private static <T> T require(JsonPullParser parser, T value, String key) throws IOException {
+        if (value == null) {
+            throw parser.error("Missing key \"" + key + "\"");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,423 @@
+package persistence;
+
+import model.Account;
+import model.AccountSnapshot;
+import model.EventLog;
+import model.EventType;
+import model.Money;
+import model.ReceiptHistory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Defines an object used to write an account to a save file as a stream of JSON tokens.
+ *
+ * Writes the same format JsonReader and JsonStreamReader read, but encodes each token straight into a fixed-size
+ * buffer that is written to a file channel whenever it fills, instead of building a JSONObject tree and a String of
+ * the whole file first. Memory use while saving stays the same however large the account is. Output is indented
+ * by default and can be written on a single line instead.
+ *
+ * The account is written from an AccountSnapshot, so no lock on the account is held while the file is written and
+ * changes to it go ahead during a save.
+ */
+public class JsonStreamWriter {
+    private static final int TAB = 4;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private final String destination;
+    private final boolean pretty;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final byte[] digits = new byte[20];
+    private boolean[] empty = new boolean[8]; // per nesting depth, true until the container has an element
+    private int depth;
+    private boolean afterName;
+    private FileChannel channel;
+
+    // EFFECTS: Creates a writer object to write indented JSON to a destination file
+    public JsonStreamWriter(String destination) {
+        this(destination, true);
+    }
+
+    // EFFECTS: Creates a writer object to write to a destination file, indented if pretty and on one line if not
+    public JsonStreamWriter(String destination, boolean pretty) {
+        this.destination = destination;
+        this.pretty = pretty;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the destination file, replacing its contents, throws IOException if it cannot be written to
+    public void open() throws IOException {
+        channel = FileChannel.open(Paths.get(destination), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.clear();
+        depth = 0;
+        afterName = false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON of account to file, as it is at one moment if other threads are changing it, throws
+    //          IOException if it cannot be written. Changes are only held off while the account is copied.
+    public void write(Account acc) throws IOException {
+        write(new AccountSnapshot(acc));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON of the account as it was in snapshot to file, throws IOException if it cannot be written
+    public void write(AccountSnapshot snapshot) throws IOException {
+        beginObject();
+        name("month");
+        value(snapshot.getMonth());
+        name("balance");
+        money(snapshot.getMoney());
+        name("spg");
+        value(snapshot.getSavingsPercentGoal());
+        writeSources(snapshot);
+        name("savings");
+        beginObject();
+        name("balance");
+        money(snapshot.getSavingsMoney());
+        name("interest");
+        value(snapshot.getSavingsInterest());
+        endObject();
+        writeDebts(snapshot);
+        writeReceipts(snapshot.getReceipts());
+        endObject();
+        EventLog.getInstance().logEvent(EventType.SAVE_DATA_CREATED);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes out anything still buffered and closes the file, throws IOException if it cannot be written
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the account's sources as an array of objects
+    private void writeSources(AccountSnapshot snapshot) throws IOException {
+        name("sources");
+        beginArray();
+        for (int i = 0; i < snapshot.getSourceCount(); i++) {
+            beginObject();
+            name("name");
+            value(snapshot.getSourceName(i));
+            name("value");
+            money(snapshot.getSourceMoney(i));
+            endObject();
+        }
+        endArray();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the account's debts as an array of objects
+    private void writeDebts(AccountSnapshot snapshot) throws IOException {
+        name("debts");
+        beginArray();
+        for (int i = 0; i < snapshot.getDebtCount(); i++) {
+            beginObject();
+            name("interest");
+            value(snapshot.getDebtInterest(i));
+            name("name");
+            value(snapshot.getDebtName(i));
+            name("value");
+            money(snapshot.getDebtMoney(i));
+            endObject();
+        }
+        endArray();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the account's receipts as an array of objects, each either its amounts and debt balances or,
+    //          for a receipt saved as text by an older version, its text
+    private void writeReceipts(ReceiptHistory receipts) throws IOException {
+        name("receipts");
+        beginArray();
+        for (int i = 0; i < receipts.size(); i++) {
+            beginObject();
+            if (receipts.isRecorded(i)) {
+                name("month");
+                value(receipts.getMonth(i));
+                for (ReceiptHistory.Column column : ReceiptHistory.Column.values()) {
+                    name(column.getKey());
+                    money(receipts.getMoney(column, i));
+                }
+                name("debts");
+                beginArray();
+                for (int j = 0; j < receipts.getDebtCount(i); j++) {
+                    beginObject();
+                    name("name");
+                    value(receipts.getDebtName(i, j));
+                    name("value");
+                    money(receipts.getDebtBalance(i, j));
+                    name("interest");
+                    money(receipts.getDebtInterest(i, j));
+                    endObject();
+                }
+                endArray();
+            } else {
+                name("receipt");
+                value(receipts.get(i));
+            }
+            endObject();
+        }
+        endArray();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts an object
+    private void beginObject() throws IOException {
+        openContainer('{');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: ends the innermost object
+    private void endObject() throws IOException {
+        closeContainer('}');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts an array
+    private void beginArray() throws IOException {
+        openContainer('[');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: ends the innermost array
+    private void endArray() throws IOException {
+        closeContainer(']');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the key of the next member of the innermost object
+    private void name(String name) throws IOException {
+        separate();
+        string(name);
+        put(':');
+        if (pretty) {
+            put(' ');
+        }
+        afterName = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a string value
+    private void value(String s) throws IOException {
+        separate();
+        string(s);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a number value
+    private void value(BigDecimal n) throws IOException {
+        separate();
+        String s = n.toString();
+        for (int i = 0; i < s.length(); i++) {
+            put(s.charAt(i));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes an integer value
+    private void value(long n) throws IOException {
+        separate();
+        if (n < 0) {
+            put('-');
+        }
+        digits(Math.abs(n), 1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a packed Money amount as a number with its scale, without going through BigDecimal
+    private void money(long money) throws IOException {
+        separate();
+        long units = Money.units(money);
+        int scale = Money.scale(money);
+        if (units < 0) {
+            put('-');
+            units = -units;
+        }
+        long fraction = units % POWERS_OF_TEN[Money.MAX_SCALE];
+        digits(units / POWERS_OF_TEN[Money.MAX_SCALE], 1);
+        if (scale > 0) {
+            put('.');
+            digits(fraction / POWERS_OF_TEN[Money.MAX_SCALE - scale], scale);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the decimal digits of n >= 0, padded with leading zeros to at least width digits
+    private void digits(long n, int width) throws IOException {
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + n % 10);
+            n /= 10;
+        } while (n > 0);
+        while (count < width) {
+            digits[count++] = '0';
+        }
+        while (count > 0) {
+            putByte(digits[--count]);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the separator and indentation that come before the next value in the innermost container
+    private void separate() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth == 0) {
+            return;
+        }
+        if (!empty[depth]) {
+            put(',');
+        }
+        empty[depth] = false;
+        newLine();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the opening bracket c and enters a new container
+    private void openContainer(char c) throws IOException {
+        separate();
+        put(c);
+        depth++;
+        if (depth == empty.length) {
+            boolean[] grown = new boolean[depth * 2];
+            System.arraycopy(empty, 0, grown, 0, depth);
+            empty = grown;
+        }
+        empty[depth] = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: leaves the innermost container and writes the closing bracket c
+    private void closeContainer(char c) throws IOException {
+        boolean wasEmpty = empty[depth];
+        depth--;
+        if (!wasEmpty) {
+            newLine();
+        }
+        put(c);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a new indented line if pretty printing
+    private void newLine() throws IOException {
+        if (pretty) {
+            put('\n');
+            for (int i = 0; i < depth * TAB; i++) {
+                put(' ');
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes s as a quoted, escaped JSON string in UTF-8
+    private void string(String s) throws IOException {
+        put('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                put('\\');
+                put(c);
+            } else if (c < ' ') {
+                escapeControl(c);
+            } else if (c < 0x80) {
+                put(c);
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int code = Character.toCodePoint(c, s.charAt(++i));
+                putByte(0xf0 | code >> 18);
+                putByte(0x80 | (code >> 12 & 0x3f));
+                putByte(0x80 | (code >> 6 & 0x3f));
+                putByte(0x80 | (code & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                escapeUnicode(c);
+            } else if (c < 0x800) {
+                putByte(0xc0 | c >> 6);
+                putByte(0x80 | (c & 0x3f));
+            } else {
+                putByte(0xe0 | c >> 12);
+                putByte(0x80 | (c >> 6 & 0x3f));
+                putByte(0x80 | (c & 0x3f));
+            }
+        }
+        put('"');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the escape sequence for a control character
+    private void escapeControl(char c) throws IOException {
+        switch (c) {
+            case '\b':
+                put('\\');
+                put('b');
+                break;
+            case '\t':
+                put('\\');
+                put('t');
+                break;
+            case '\n':
+                put('\\');
+                put('n');
+                break;
+            case '\f':
+                put('\\');
+                put('f');
+                break;
+            case '\r':
+                put('\\');
+                put('r');
+                break;
+            default:
+                escapeUnicode(c);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes c as a \\uXXXX escape sequence
+    private void escapeUnicode(char c) throws IOException {
+        put('\\');
+        put('u');
+        for (int shift = 12; shift >= 0; shift -= 4) {
+            putByte(HEX[c >> shift & 0xf]);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes an ASCII character
+    private void put(char c) throws IOException {
+        putByte(c);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a byte, writing the buffer out to the file first if it is full
+    private void putByte(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put((byte) b);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes out whatever is in the buffer
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
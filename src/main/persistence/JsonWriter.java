@@ -4,6 +4,7 @@
 package persistence;
 
 import model.Account;
+import model.AccountSnapshot;
 import org.json.JSONObject;
 
 import java.io.FileNotFoundException;
@@ -35,6 +36,13 @@ public class JsonWriter {
         saveToFile(json.toString(TAB));
     }
 
+    // MODIFIES: this
+    // EFFECTS: writes JSON of the account snapshot was taken of to file, without holding up changes to the account
+    public void write(AccountSnapshot snapshot) {
+        JSONObject json = snapshot.toJson();
+        saveToFile(json.toString(TAB));
+    }
+
     // MODIFIES: this
     // EFFECTS: closes the writer
     public void close() {
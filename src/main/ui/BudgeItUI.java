@@ -4,34 +4,37 @@
 package ui;
 
 import model.Account;
-import model.DebtAcc;
+import model.AccountSnapshot;
 import model.Event;
 import model.EventLog;
-import model.Source;
-import org.jfree.chart.ChartFactory;
+import model.MonteCarloEngine;
+import model.MonteCarloResult;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
-import org.jfree.chart.title.LegendTitle;
-import org.jfree.chart.ui.RectangleEdge;
 import org.jfree.data.category.CategoryDataset;
 import org.jfree.data.category.DefaultCategoryDataset;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import persistence.AccountJournal;
+import persistence.EventFileSink;
+import ui.RefreshScheduler.Part;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.util.List;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
-import static java.math.BigDecimal.ONE;
 import static java.math.BigDecimal.ZERO;
-import static org.jfree.data.general.DatasetUtils.findMaximumStackedRangeValue;
-import static org.jfree.data.general.DatasetUtils.findMinimumStackedRangeValue;
 
 /**
  * Represents applications main UI window frame.
@@ -40,12 +43,19 @@ public class BudgeItUI extends JFrame {
     private static final int WIDTH = 1500;
     private static final int HEIGHT = 700;
     private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
-    private static final String CURRENT = "Current";
-    private static final String FUTURE = "Next month";
+    private static final String OUT_OF_RANGE = "That amount is too large for BudgeIt to keep track of.";
     private static final Dimension PREFERRED_SIZE = new Dimension(WIDTH / 4, HEIGHT - 300);
     private static final Dimension PREFERRED_BUTTON_SIZE = new Dimension(WIDTH / 4, HEIGHT - 600);
+    private static final int FORECAST_MONTHS = 60;
+    private static final int FORECAST_PATHS = 100_000;
+    private static final double FORECAST_VOLATILITY = 0.1;
+    private static final double FORECAST_RATE_SHOCK = 0.002;
+    private static final int MASCOT_SIZE = 300;
+    private static final int STARTUP_TASKS = 4; // the three charts and the mascot
 
     private final String saveLocation = FilePathManager.getSaveLocation();
+    private final AccountJournal journal = new AccountJournal(saveLocation);
+    private final EventFileSink eventSink = new EventFileSink(Paths.get(FilePathManager.getAppDataFolder()));
 
     private Account userAccount;
     private final JFrame desktop;
@@ -54,6 +64,15 @@ public class BudgeItUI extends JFrame {
     private ChartPanel graph;
     private ChartPanel debts;
     private ChartPanel savings;
+    private JPanel graphSlot;
+    private JPanel debtSlot;
+    private JPanel savingsSlot;
+    private final Deque<Runnable> startupTasks = new ArrayDeque<>();
+    private final StartupTimer startupTimer = new StartupTimer(STARTUP_TASKS);
+    private ChartDatasets datasets;
+    private LedgerFrame ledger;
+    private final RefreshScheduler refreshScheduler = new RefreshScheduler(this::startRefresh);
+    private RefreshWorker refreshWorker;
 
 
     private JMenu fileMenu;
@@ -65,11 +84,20 @@ public class BudgeItUI extends JFrame {
     //EFFECTS: Sets up the main window with visual elements and interaction.
     public BudgeItUI() {
         userAccount = new Account();
+        datasets = new ChartDatasets(userAccount.snapshot());
+        userAccount.addListener(datasets);
+        startEventSink();
 
         desktop = new JFrame();
         desktop.addMouseListener(new DesktopFocusAction());
 
-        desktopMain = new JPanel();
+        desktopMain = new JPanel() {
+            @Override
+            public void paint(Graphics g) {
+                super.paint(g);
+                startupTimer.firstPaint();
+            }
+        };
         desktop.add(desktopMain);
         GridBagLayout desktopLayout = new GridBagLayout();
         desktopMain.setLayout(desktopLayout);
@@ -85,6 +113,42 @@ public class BudgeItUI extends JFrame {
         centreOnScreen();
         setVisible(true);
         pack();
+        runStartupTasks();
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Builds the charts into their placeholders, one per event so the window stays responsive in between,
+    //         once the window has been shown. Building a JFreeChart is slow the first time, as its classes load.
+    private void runStartupTasks() {
+        startupTasks.add(() -> graph = fillChartSlot(graphSlot,
+                ChartRenderer.createSourceChart(datasets.getSources())));
+        startupTasks.add(() -> debts = fillChartSlot(debtSlot,
+                ChartRenderer.createDebtChart(datasets.getDebts())));
+        startupTasks.add(() -> savings = fillChartSlot(savingsSlot,
+                ChartRenderer.createSavingsChart(datasets.getSavings())));
+        SwingUtilities.invokeLater(this::runNextStartupTask);
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Runs the next deferred startup task and schedules the one after it
+    private void runNextStartupTask() {
+        Runnable task = startupTasks.poll();
+        if (task != null) {
+            task.run();
+            startupTimer.taskDone();
+            SwingUtilities.invokeLater(this::runNextStartupTask);
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Starts streaming logged events to the event log file in the app data folder, so they survive a crash
+    private void startEventSink() {
+        try {
+            eventSink.start();
+            EventLog.getInstance().addSink(eventSink);
+        } catch (IOException e) {
+            System.err.println("Warning: Event log file could not be opened: " + e.getMessage());
+        }
     }
 
     //EFFECTS: Prints the log of all actions taken to the console on close
@@ -96,13 +160,30 @@ public class BudgeItUI extends JFrame {
                 for (Event event : EventLog.getInstance()) {
                     System.out.println(event);
                 }
+                if (StartupTimer.ENABLED) {
+                    System.out.println("Chart refreshes requested: " + refreshScheduler.getRequestedCount()
+                            + ", performed: " + refreshScheduler.getPerformedCount());
+                }
+                closeJournal();
+                EventLog.getInstance().removeSink(eventSink);
+                eventSink.close();
                 EventLog.getInstance().clear();
+                EventLog.getInstance().close();
                 System.exit(0);
             }
         };
         this.addWindowListener(exitListener);
     }
 
+    //EFFECTS: Closes the save journal, folding saved changes into the save file
+    private void closeJournal() {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Warning: Save journal could not be compacted: " + e.getMessage());
+        }
+    }
+
     //MODIFIES: this
     //EFFECTS: Adds the visual components, with their correct gridbaglayout constraints to the main panel. Panels are
     //          aligned to align the modification button panels with its respective graph component.
@@ -114,11 +195,11 @@ public class BudgeItUI extends JFrame {
         c.weightx = 0.5;
         c.gridx = 3;
         c.gridy = 0;
-        addGraph(c);
+        graphSlot = addChartSlot(c);
         c.gridx =  2;
-        addDebtGraph(c);
+        debtSlot = addChartSlot(c);
         c.gridx = 1;
-        addSavingsGraph(c);
+        savingsSlot = addChartSlot(c);
         c.gridx = 0;
         addImage(c);
         c.gridx = 3;
@@ -133,7 +214,8 @@ public class BudgeItUI extends JFrame {
     }
 
     //MODIFIES: this
-    //EFFECTS: Adds the excellent little frog mascot to the image panel
+    //EFFECTS: Adds the excellent little frog mascot to the image panel. The image is decoded and scaled on a
+    //         background thread and shown when it is ready, with an empty space of its size until then.
     private void addImage(GridBagConstraints c) {
         JPanel imagePanel = new JPanel();
         imagePanel.setBackground(Color.WHITE);
@@ -141,36 +223,43 @@ public class BudgeItUI extends JFrame {
         GridBagConstraints inner = new GridBagConstraints();
         imagePanel.setComponentOrientation(ComponentOrientation.RIGHT_TO_LEFT);
         inner.fill = GridBagConstraints.BOTH;
-        try {
-            // Updated to load from resources (works in JAR and IDE)
-            // This requires the file to be at: src/main/resources/images/gefraks.jpg
-            java.io.InputStream imgStream = FilePathManager.getResourceAsStream("images/gefraks.jpg");
-            
+
+        JLabel picLabel = new JLabel();
+        picLabel.setPreferredSize(new Dimension(MASCOT_SIZE, MASCOT_SIZE));
+        JLabel picText = new JLabel("Sir Gerald Budge-It");
+        inner.gridx = 0;
+        inner.gridy = 1;
+        imagePanel.add(picLabel, inner);
+        inner.gridy = 0;
+        imagePanel.add(picText, inner);
+        desktopMain.add(imagePanel, c);
+        new MascotWorker(picLabel).execute();
+    }
+
+    //EFFECTS: Reads the mascot image from resources and scales it to MASCOT_SIZE square
+    private static Image loadMascot() throws IOException {
+        // Loaded from resources (works in JAR and IDE)
+        // This requires the file to be at: src/main/resources/images/gefraks.jpg
+        try (java.io.InputStream imgStream = FilePathManager.getResourceAsStream("images/gefraks.jpg")) {
             if (imgStream == null) {
                 // If this throws, it means the build didn't copy the image into the JAR
                 // or the file isn't in src/main/resources/images/
                 throw new IOException("Resource not found in classpath: images/gefraks.jpg");
             }
-            
+
             Image image = ImageIO.read(imgStream);
             if (image == null) {
                 throw new IOException("Failed to decode image from stream");
             }
 
-            image = image.getScaledInstance(300, 300, 0);
-            JLabel picLabel = new JLabel(new ImageIcon(image));
-            JLabel picText = new JLabel("Sir Gerald Budge-It");
-            picText.setText("Sir Gerald Budge-It");
-            inner.gridx = 0;
-            inner.gridy = 1;
-            imagePanel.add(picLabel, inner);
-            inner.gridy = 0;
-            imagePanel.add(picText, inner);
-        } catch (IOException e) {
-            // Log error but don't crash app if image fails
-            System.err.println("Warning: Helper mascot could not be loaded: " + e.getMessage());
+            // Drawn into a new image so the scaling happens here, not lazily when the label is first painted
+            BufferedImage scaled = new BufferedImage(MASCOT_SIZE, MASCOT_SIZE, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = scaled.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, MASCOT_SIZE, MASCOT_SIZE, null);
+            g.dispose();
+            return scaled;
         }
-        desktopMain.add(imagePanel, c);
     }
 
     //MODIFIES: this
@@ -216,137 +305,28 @@ public class BudgeItUI extends JFrame {
     }
 
     //MODIFIES: this
-    //EFFECTS: adds the source graph panel, with income, expenses, and surplus
-    private void addGraph(GridBagConstraints c) {
-        CategoryDataset sourceDataset = createSurplusDataSet();
-
-        JFreeChart inOutGraph = ChartFactory.createStackedBarChart("Income/Expense Graph",
-                "Sources",
-                "Value ($)", sourceDataset);
-
-        LegendTitle legend = inOutGraph.getLegend();
-        legend.setPosition(RectangleEdge.RIGHT);
-
-        graph = new ChartPanel(inOutGraph);
-        graph.setPreferredSize(PREFERRED_SIZE);
-        graph.setDomainZoomable(false);
-        graph.setRangeZoomable(false);
-        graph.setVisible(true);
-
-        desktopMain.add(graph, c);
-        pack();
-    }
-
-    //MODIFIES: this
-    //EFFECTS: adds the debt graph panel with all debts current values, followed by their value in the next period.
-    private void addDebtGraph(GridBagConstraints c) {
-        CategoryDataset debtDataset = createDebtFutureDataSet();
-
-        JFreeChart debtFutureGraph = ChartFactory.createBarChart("Debt Interest Accumulation",
-                "Debts",
-                "Value ($)",
-                debtDataset);
-
-        LegendTitle legend = debtFutureGraph.getLegend();
-        legend.setPosition(RectangleEdge.RIGHT);
-
-        debts = new ChartPanel(debtFutureGraph);
-        debts.setPreferredSize(PREFERRED_SIZE);
-        debts.setDomainZoomable(false);
-        debts.setRangeZoomable(false);
-        debts.setVisible(true);
-
-        desktopMain.add(debts, c);
-        pack();
+    //EFFECTS: Adds an empty panel holding the place of a chart until it is built
+    private JPanel addChartSlot(GridBagConstraints c) {
+        JPanel slot = new JPanel(new BorderLayout());
+        slot.setPreferredSize(PREFERRED_SIZE);
+        slot.add(new JLabel("Loading chart...", SwingConstants.CENTER), BorderLayout.CENTER);
+        desktopMain.add(slot, c);
+        return slot;
     }
 
     //MODIFIES: this
-    //EFFECTS: adds the savings graph with current value and future value displayed side by side
-    private void addSavingsGraph(GridBagConstraints c) {
-        CategoryDataset savingsDataset = createSavingsFutureDataset();
-
-        JFreeChart savingsFutureGraph = ChartFactory.createBarChart("Savings Interest Accumulation",
-                "Savings",
-                "Value ($)",
-                savingsDataset);
-
-        savingsFutureGraph.removeLegend();
-
-        savings = new ChartPanel(savingsFutureGraph);
-        savings.setPreferredSize(PREFERRED_SIZE);
-        savings.setDomainZoomable(false);
-        savings.setRangeZoomable(false);
-        savings.setVisible(true);
-
-        desktopMain.add(savings, c);
-        pack();
-    }
-
-    //EFFECTS: Creates a dataset representing current and future balance of a savings account.
-    private CategoryDataset createSavingsFutureDataset() {
-        BigDecimal savingsVal = userAccount.getSavingsBal();
-        BigDecimal savingsInt = userAccount.getSavings().getInterest();
-        BigDecimal savingsGoal = userAccount.getSavingsPercentGoal();
-        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-
-        dataset.addValue(savingsVal, "Savings", CURRENT);
-        dataset.addValue(savingsVal.multiply(ONE.add(savingsInt)), "Savings", FUTURE);
-        dataset.addValue(savingsVal.multiply(savingsGoal), "Savings", "Savings Goal");
-
-        return dataset;
-    }
-
-    //EFFECTS: Creates a dataset representing current and future values of multiple debt accounts
-    private CategoryDataset createDebtFutureDataSet() {
-        List<DebtAcc> debts = userAccount.getDebts();
-        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-
-        for (DebtAcc d : debts) {
-            BigDecimal val = d.getValue();
-            String nameKey = d.getName();
-            dataset.addValue(val, nameKey, CURRENT);
-
-            BigDecimal futureVal = d.getValue().multiply(ONE.add(d.getInterest()));
-
-            dataset.addValue(futureVal, nameKey, FUTURE);
-        }
-        return dataset;
-    }
-
-    //EFFECTS: Creates a CategoryDataset of the userAccount's income and expense sources.
-    private CategoryDataset createSurplusDataSet() {
-        final String incomeColumn = "Income";
-        final String expenseColumn = "Expense";
-
-        List<Source> sources = userAccount.getSources();
-        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-
-        for (Source s : sources) {
-            BigDecimal val = s.getValue();
-            String nameKey = s.getName();
-            if (val.compareTo(BigDecimal.ZERO) > -1) {
-                dataset.addValue(val, nameKey, incomeColumn);
-            } else {
-                dataset.addValue(val, nameKey, expenseColumn);
-            }
-        }
-
-        if (dataset.getColumnCount() != 0) {
-            createSurplusCategory(dataset);
-        }
-
-        return dataset;
-    }
-
-    //EFFECTS: Creates a surplus column for a graph representing income and expenses.
-    private void createSurplusCategory(DefaultCategoryDataset dataset) {
-        Number totalIncomeNum = findMaximumStackedRangeValue(dataset);
-        Number totalExpenseNum = findMinimumStackedRangeValue(dataset);
-
-        BigDecimal totalIncome = new BigDecimal(totalIncomeNum.toString());
-        BigDecimal totalExpense = new BigDecimal(totalExpenseNum.toString());
-        BigDecimal totalSurplus = totalIncome.add(totalExpense);
-        dataset.addValue(totalSurplus, "Surplus", "Surplus");
+    //EFFECTS: Replaces the placeholder in slot with a panel showing chart, and returns the panel
+    private ChartPanel fillChartSlot(JPanel slot, JFreeChart chart) {
+        ChartPanel panel = new ChartPanel(chart);
+        panel.setPreferredSize(PREFERRED_SIZE);
+        panel.setDomainZoomable(false);
+        panel.setRangeZoomable(false);
+
+        slot.removeAll();
+        slot.add(panel, BorderLayout.CENTER);
+        slot.revalidate();
+        slot.repaint();
+        return panel;
     }
 
     //EFFECTS: standardizes the way balance BigDecimals are displayed
@@ -392,6 +372,10 @@ public class BudgeItUI extends JFrame {
 
         addMenuItem(chartMenu, new RefreshGraphAction(),
                 KeyStroke.getKeyStroke("control R"), "R");
+        addMenuItem(chartMenu, new ForecastAction(),
+                KeyStroke.getKeyStroke("control M"), "F");
+        addMenuItem(chartMenu, new LedgerAction(),
+                KeyStroke.getKeyStroke("control L"), "L");
 
         addMenuItem(sourceEdit, new SourceAddAction());
         addMenuItem(sourceEdit, new SourceRemoveAction());
@@ -458,11 +442,14 @@ public class BudgeItUI extends JFrame {
         }
 
         try {
-            userAccount.addSource(nameString, new BigDecimal(valString));
+            if (!userAccount.addSource(nameString, new BigDecimal(valString))) {
+                showInvalidInputError("That name is already present in your account's sources.");
+            }
         } catch (NumberFormatException exception) {
             showInvalidInputError("Please only enter numbers for this value.");
+        } catch (ArithmeticException exception) {
+            showInvalidInputError(OUT_OF_RANGE);
         }
-        refresh();
     }
 
     //MODIFIES: this
@@ -478,7 +465,6 @@ public class BudgeItUI extends JFrame {
         if (!result) {
             showInvalidInputError("That name is not present in your account's sources.");
         }
-        refresh();
     }
 
     //MODIFIES: this
@@ -524,6 +510,8 @@ public class BudgeItUI extends JFrame {
             }
         } catch (NumberFormatException exception) {
             showInvalidInputError("Please only enter numbers for this value!");
+        } catch (ArithmeticException exception) {
+            showInvalidInputError(OUT_OF_RANGE);
         }
     }
 
@@ -560,6 +548,8 @@ public class BudgeItUI extends JFrame {
             }
         } catch (NumberFormatException exception) {
             showInvalidInputError("Please only enter numbers for this value!");
+        } catch (ArithmeticException exception) {
+            showInvalidInputError(OUT_OF_RANGE);
         }
     }
 
@@ -579,10 +569,12 @@ public class BudgeItUI extends JFrame {
             } else if (intVal.compareTo(ZERO) < 0) {
                 showInvalidInputError("Please enter a value between 0 and 100!");
             } else {
-                userAccount.getSavings().setInterest(intVal.movePointLeft(2));
+                userAccount.setSavingsInterest(intVal.movePointLeft(2));
             }
         } catch (NumberFormatException exception) {
             showInvalidInputError("Please only enter numbers for the value!");
+        } catch (ArithmeticException exception) {
+            showInvalidInputError(OUT_OF_RANGE);
         }
     }
 
@@ -600,12 +592,15 @@ public class BudgeItUI extends JFrame {
             return;
         }
 
-        boolean result = userAccount.payDebt(nameString, new BigDecimal(valString));
-
-        if (!result) {
-            showInvalidInputError("That name is not present in your account's sources.");
+        try {
+            if (!userAccount.payDebt(nameString, new BigDecimal(valString))) {
+                showInvalidInputError("That name is not present in your account's sources.");
+            }
+        } catch (NumberFormatException exception) {
+            showInvalidInputError("Please only enter numbers for this value!");
+        } catch (ArithmeticException exception) {
+            showInvalidInputError(OUT_OF_RANGE);
         }
-        refresh();
     }
 
     //EFFECTS: Displays an input dialog box with given message and initialSelection for a value
@@ -653,7 +648,6 @@ public class BudgeItUI extends JFrame {
         if (!result) {
             showInvalidInputError("That name is not present in your account's sources.");
         }
-        refresh();
     }
 
     //MODIFIES: this
@@ -669,7 +663,6 @@ public class BudgeItUI extends JFrame {
         String valString = parseVal("What is the current balance of this debt?",
                 "Enter balance: ");
         checkForAddDebtErrors(intVal, nameString, valString);
-        refresh();
     }
 
     //MODIFIES: this
@@ -687,6 +680,8 @@ public class BudgeItUI extends JFrame {
             checkForDebtInterestErrors(intVal, nameString, valVal, intString);
         } catch (NumberFormatException exception) {
             showInvalidInputError("Please only enter numbers for the value!");
+        } catch (ArithmeticException exception) {
+            showInvalidInputError(OUT_OF_RANGE);
         }
     }
 
@@ -703,9 +698,8 @@ public class BudgeItUI extends JFrame {
             showInvalidInputError("Please enter a value between 0 and 100!");
         } else if (intVal.compareTo(BigDecimal.ZERO) < 0) {
             showInvalidInputError("Please enter a value between 0 and 100!");
-        } else {
-            userAccount.addDebt(nameString, valVal,
-                    intVal.movePointLeft(2));
+        } else if (!userAccount.addDebt(nameString, valVal, intVal.movePointLeft(2))) {
+            showInvalidInputError("That name is already present in your account's debts.");
         }
     }
 
@@ -724,19 +718,57 @@ public class BudgeItUI extends JFrame {
     }
 
     //MODIFIES: this
-    //EFFECTS: Re-sets all the datasets for graphs in the window, as well as re-setting the balance.
-    private void refresh() {
+    //EFFECTS: Schedules the given parts of the window to be refreshed, together with any other edits made within
+    //         the same frame (see RefreshScheduler)
+    private void refresh(Part... parts) {
+        refreshScheduler.request(parts);
+    }
 
-        setDataset(graph, createSurplusDataSet());
-        setDataset(debts, createDebtFutureDataSet());
-        setDataset(savings, createSavingsFutureDataset());
-        setBalanceLabelText(userAccount.getBalance());
-        pack();
+    //MODIFIES: this
+    //EFFECTS: Schedules every chart and the balance to be refreshed
+    private void refreshAll() {
+        refreshScheduler.requestAll();
     }
 
-    //EFFECTS: Sets a given ChartPanel's CategoryPlot to the given dataset.
+    //MODIFIES: this
+    //EFFECTS: Re-sets the balance if it is among parts, and rebuilds the datasets for the other given parts of the
+    //         window. The account is copied here, the datasets are built from the copy on a background thread, and
+    //         the window is updated with all of them at once when they are ready. A refresh still running is
+    //         cancelled, since its datasets would be out of date, and its parts are rebuilt with these. Single edits
+    //         do not need this, since ChartDatasets applies them to the charts as they are made.
+    private void startRefresh(Set<Part> parts) {
+        Set<Part> all = EnumSet.copyOf(parts);
+        if (refreshWorker != null && refreshWorker.cancel(true)) {
+            all.addAll(refreshWorker.parts);
+        }
+        if (all.remove(Part.BALANCE)) {
+            setBalanceLabelText(userAccount.getBalance());
+        }
+        if (!all.isEmpty()) {
+            refreshWorker = new RefreshWorker(userAccount.snapshot(), all, datasets.getChangeCount());
+            refreshWorker.execute();
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Shows acc in the window instead of the current account, moving the chart datasets and any open ledger
+    //         tables over to follow its changes
+    private void setAccount(Account acc) {
+        userAccount.removeListener(datasets);
+        userAccount = acc;
+        acc.addListener(datasets);
+        if (ledger != null && ledger.isDisplayable()) {
+            ledger.setAccount(acc);
+        }
+        refreshAll();
+    }
+
+    //EFFECTS: Sets a given ChartPanel's CategoryPlot to the given dataset, if it is not already showing it. A chart
+    //         not built yet needs nothing, since it will be built from the current dataset.
     private void setDataset(ChartPanel savings, CategoryDataset dataset) {
-        savings.getChart().getCategoryPlot().setDataset(dataset);
+        if (savings != null && savings.getChart().getCategoryPlot().getDataset() != dataset) {
+            savings.getChart().getCategoryPlot().setDataset(dataset);
+        }
     }
 
     /**
@@ -754,15 +786,12 @@ public class BudgeItUI extends JFrame {
             save();
         }
 
-        //EFFECTS: Saves a JSON object to a Json file with the details of an account object
+        //EFFECTS: Saves the details of an account object in the save file's format
         private void save() {
             try {
                 System.out.println("File saved to " + saveLocation);
-                JsonWriter writer = new JsonWriter(saveLocation);
-                writer.open();
-                writer.write(userAccount);
-                writer.close();
-            } catch (FileNotFoundException e) {
+                journal.save(userAccount);
+            } catch (IOException e) {
                 System.out.println("Unable to write to file " + saveLocation);
             }
         }
@@ -778,21 +807,136 @@ public class BudgeItUI extends JFrame {
             super("Load");
         }
 
+        //EFFECTS: Reads the saved account in the background behind a modal dialog, so the account cannot be
+        //         changed or saved while the journal is loading it. Returns once it has been loaded.
         @Override
         public void actionPerformed(ActionEvent e) {
-            load();
-            refresh();
+            System.out.println("File loading from " + saveLocation);
+            JDialog loading = new JDialog(BudgeItUI.this, "Load", Dialog.ModalityType.APPLICATION_MODAL);
+            loading.setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+            loading.add(new JLabel("Loading " + saveLocation));
+            loading.pack();
+            loading.setLocationRelativeTo(BudgeItUI.this);
+            new LoadWorker(loading).execute();
+            // Blocks until the worker closes the dialog; done() cannot run before this, as it runs on this thread
+            loading.setVisible(true);
+        }
+    }
+
+    /**
+     * Represents a background task that reads the saved account, then replaces the account shown in the window
+     */
+    private class LoadWorker extends SwingWorker<Account, Void> {
+        private final JDialog loading;
+
+        LoadWorker(JDialog loading) {
+            this.loading = loading;
         }
 
-        //MODIFIES: this
-        //EFFECTS: Loads the saved JSONObject and updates account to what was saved
-        private void load() {
+        //EFFECTS: Reads the saved account in its file's format, off the event dispatch thread
+        @Override
+        protected Account doInBackground() throws IOException {
+            return journal.load();
+        }
+
+        //MODIFIES: BudgeItUI.this
+        //EFFECTS: Updates account to what was saved, refreshes the window and lets it be used again
+        @Override
+        protected void done() {
             try {
-                System.out.println("File loading from " + saveLocation);
-                JsonReader reader = new JsonReader(saveLocation);
-                userAccount = reader.read();
-            } catch (IOException e) {
+                setAccount(get());
+            } catch (InterruptedException | ExecutionException e) {
                 System.out.println("Unable to read file " + saveLocation);
+            } finally {
+                loading.dispose();
+            }
+        }
+    }
+
+    /**
+     * Represents a background task that decodes the mascot image, then shows it in its label
+     */
+    private class MascotWorker extends SwingWorker<Image, Void> {
+        private final JLabel label;
+
+        MascotWorker(JLabel label) {
+            this.label = label;
+        }
+
+        //EFFECTS: Reads and scales the mascot image, off the event dispatch thread
+        @Override
+        protected Image doInBackground() throws IOException {
+            return loadMascot();
+        }
+
+        //MODIFIES: BudgeItUI.this
+        //EFFECTS: Shows the image, or warns if it could not be loaded; the app works without it
+        @Override
+        protected void done() {
+            try {
+                label.setIcon(new ImageIcon(get()));
+            } catch (InterruptedException | ExecutionException e) {
+                System.err.println("Warning: Helper mascot could not be loaded: " + e.getMessage());
+            }
+            startupTimer.taskDone();
+        }
+    }
+
+    /**
+     * Represents a background task that rebuilds the datasets for some of the window's charts from a snapshot of the
+     * account
+     */
+    private class RefreshWorker extends SwingWorker<Map<Part, DefaultCategoryDataset>, Void> {
+        private final AccountSnapshot snapshot;
+        private final Set<Part> parts;
+        private final long changeCount;
+
+        //REQUIRES: parts does not contain Part.BALANCE, changeCount is the ChartDatasets change count when snapshot
+        //          was taken
+        RefreshWorker(AccountSnapshot snapshot, Set<Part> parts, long changeCount) {
+            this.snapshot = snapshot;
+            this.parts = parts;
+            this.changeCount = changeCount;
+        }
+
+        //EFFECTS: Builds the datasets of the charts among parts, off the event dispatch thread
+        @Override
+        protected Map<Part, DefaultCategoryDataset> doInBackground() {
+            Map<Part, DefaultCategoryDataset> built = new EnumMap<>(Part.class);
+            if (parts.contains(Part.SOURCES)) {
+                built.put(Part.SOURCES, ChartDatasets.createSourceDataset(snapshot));
+            }
+            if (parts.contains(Part.DEBTS)) {
+                built.put(Part.DEBTS, ChartDatasets.createDebtDataset(snapshot));
+            }
+            if (parts.contains(Part.SAVINGS)) {
+                built.put(Part.SAVINGS, ChartDatasets.createSavingsDataset(snapshot));
+            }
+            return built;
+        }
+
+        //MODIFIES: BudgeItUI.this
+        //EFFECTS: Shows the new datasets, unless this refresh was cancelled. If the account changed since the
+        //         snapshot was taken, the change went to the datasets being replaced, so the parts are rebuilt again.
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                return;
+            }
+            if (datasets.getChangeCount() != changeCount) {
+                refresh(parts.toArray(new Part[0]));
+                return;
+            }
+            try {
+                for (Map.Entry<Part, DefaultCategoryDataset> entry : get().entrySet()) {
+                    datasets.setDataset(entry.getKey(), entry.getValue());
+                }
+                setDataset(graph, datasets.getSources());
+                setDataset(debts, datasets.getDebts());
+                setDataset(savings, datasets.getSavings());
+                pack();
+            } catch (InterruptedException | ExecutionException e) {
+                System.err.println("Unable to refresh charts: " + e.getMessage());
             }
         }
     }
@@ -919,7 +1063,62 @@ public class BudgeItUI extends JFrame {
 
         @Override
         public void actionPerformed(ActionEvent e) {
-            refresh();
+            refreshAll();
+        }
+    }
+
+    /**
+     * Represents an AbstractAction to open the ledger tables of the account, or bring them to the front if they are
+     * already open
+     */
+    private class LedgerAction extends AbstractAction {
+        LedgerAction() {
+            super("Ledger");
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            if (ledger == null || !ledger.isDisplayable()) {
+                ledger = new LedgerFrame(userAccount);
+                ledger.setLocationRelativeTo(BudgeItUI.this);
+            }
+            ledger.setVisible(true);
+            ledger.toFront();
+        }
+    }
+
+    /**
+     * Represents an AbstractAction to open a Monte Carlo forecast of the account
+     */
+    private class ForecastAction extends AbstractAction {
+        ForecastAction() {
+            super("Forecast");
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            MonteCarloEngine engine = new MonteCarloEngine(userAccount);
+            engine.setVolatility(FORECAST_VOLATILITY);
+            engine.setRateShock(FORECAST_RATE_SHOCK);
+            setEnabled(false);
+            new SwingWorker<MonteCarloResult, Void>() {
+                @Override
+                protected MonteCarloResult doInBackground() {
+                    return engine.simulate(FORECAST_MONTHS, FORECAST_PATHS, System.nanoTime());
+                }
+
+                @Override
+                protected void done() {
+                    setEnabled(true);
+                    try {
+                        ForecastFrame forecast = new ForecastFrame(get());
+                        forecast.setLocationRelativeTo(BudgeItUI.this);
+                        forecast.setVisible(true);
+                    } catch (InterruptedException | ExecutionException ex) {
+                        System.err.println("Unable to run forecast: " + ex.getMessage());
+                    }
+                }
+            }.execute();
         }
     }
 
@@ -1072,7 +1271,7 @@ public class BudgeItUI extends JFrame {
                     setInterest();
                     break;
             }
-            refresh();
+            refresh(Part.BALANCE);
         }
     }
 
@@ -1113,8 +1312,7 @@ public class BudgeItUI extends JFrame {
             } else if (action.equals("Withdraw")) {
                 withdrawBalance();
             }
-            setBalanceLabelText(userAccount.getBalance());
-            refresh();
+            refresh(Part.BALANCE);
         }
     }
 }
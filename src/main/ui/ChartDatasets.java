@@ -0,0 +1,436 @@
+package ui;
+
+import model.Account;
+import model.AccountListener;
+import model.AccountOp;
+import model.AccountSnapshot;
+import model.DebtAcc;
+import model.SavingsAcc;
+import model.Source;
+import org.jfree.data.category.DefaultCategoryDataset;
+import ui.RefreshScheduler.Part;
+
+import javax.swing.SwingUtilities;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+import static java.math.BigDecimal.ONE;
+
+/**
+ * The datasets behind the main window's source, debt and savings charts, kept up to date as the account changes.
+ *
+ * Registered as a listener on the account shown, each change is applied to the rows it affects: adding a source adds
+ * its row and updates the surplus, paying a debt updates that debt's row, and so on, so an edit costs work in
+ * proportion to what it changed rather than to the size of the account. The surplus is read from the account's
+ * running totals instead of being summed from the chart. Datasets can also be built from scratch from a snapshot
+ * off the event dispatch thread and swapped in, for when the account is replaced.
+ *
+ * A chart with one series per source or debt becomes unreadable, and slow to lay out, past a few dozen series. Once
+ * there are more than MAX_SERIES sources (or debts), the chart shows the largest MAX_SERIES - 1 by size and adds the
+ * rest up into an OTHER series. Changes to an aggregated chart rebuild it from the account, since any change can
+ * move a row into or out of the largest ones; the ledger tables (see LedgerFrame) list every row.
+ *
+ * The surplus and OTHER rows are keyed by SURPLUS_ROW and OTHER_ROW rather than by their labels, so a source or debt
+ * that happens to be called "Surplus" or "Other" gets a row of its own instead of overwriting them.
+ *
+ * The datasets are only touched on the event dispatch thread, since the charts drawing them are. A change made on
+ * another thread is passed to the event dispatch thread, where the parts it affects are rebuilt from a snapshot:
+ * by the time it runs the account may have changed again, so the rows it names may no longer be there.
+ */
+public class ChartDatasets implements AccountListener {
+    public static final String CURRENT = "Current";
+    public static final String FUTURE = "Next month";
+    public static final String INCOME = "Income";
+    public static final String EXPENSE = "Expense";
+    public static final String SURPLUS = "Surplus";
+    public static final String SAVINGS = "Savings";
+    public static final String SAVINGS_GOAL = "Savings Goal";
+    public static final String OTHER = "Other";
+    public static final int MAX_SERIES = 20;
+    public static final RowKey SURPLUS_ROW = new RowKey(SURPLUS);
+    public static final RowKey OTHER_ROW = new RowKey(OTHER);
+
+    private DefaultCategoryDataset sources;
+    private DefaultCategoryDataset debts;
+    private DefaultCategoryDataset savings;
+    private long changeCount;
+
+    //EFFECTS: Creates the datasets for the account snapshot was taken of
+    public ChartDatasets(AccountSnapshot snapshot) {
+        this.sources = createSourceDataset(snapshot);
+        this.debts = createDebtDataset(snapshot);
+        this.savings = createSavingsDataset(snapshot);
+    }
+
+    public DefaultCategoryDataset getSources() {
+        return sources;
+    }
+
+    public DefaultCategoryDataset getDebts() {
+        return debts;
+    }
+
+    public DefaultCategoryDataset getSavings() {
+        return savings;
+    }
+
+    //EFFECTS: Returns the number of changes applied so far. A dataset built from a snapshot may only replace the
+    //         current one if no changes were applied after the snapshot was taken, since it would not include them.
+    public long getChangeCount() {
+        return changeCount;
+    }
+
+    //REQUIRES: part != Part.BALANCE
+    //MODIFIES: this
+    //EFFECTS: Replaces the dataset for part with one built from a snapshot
+    public void setDataset(Part part, DefaultCategoryDataset dataset) {
+        switch (part) {
+            case SOURCES:
+                sources = dataset;
+                break;
+            case DEBTS:
+                debts = dataset;
+                break;
+            default:
+                savings = dataset;
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Applies a change made to account to the rows of the datasets it affects, or if not called on the event
+    //         dispatch thread, rebuilds them there later
+    @Override
+    public void accountChanged(Account account, AccountOp op, String name, BigDecimal amount, BigDecimal rate) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> rebuild(account, op));
+            return;
+        }
+        changeCount++;
+        switch (op) {
+            case ADD_SOURCE:
+                addSource(account, account.getSource(name));
+                break;
+            case REMOVE_SOURCE:
+                removeSource(account, name);
+                break;
+            case ADD_DEBT:
+            case PAY_DEBT:
+            case ADD_TO_DEBT:
+                updateDebt(account, name);
+                break;
+            case REMOVE_DEBT:
+                removeDebt(account, name);
+                break;
+            case NEXT_PERIOD:
+                updateDebts(account);
+                updateSavings(account);
+                break;
+            case DEPOSIT_SAVINGS:
+            case WITHDRAW_SAVINGS:
+            case SET_SAVINGS_INTEREST:
+            case SET_SAVINGS_GOAL:
+                updateSavings(account);
+                break;
+            default:
+                // The balance, month and receipts are not charted
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Rebuilds the datasets op affects from a snapshot of account. Counts as a change, so that a refresh
+    //         started before it (possibly for another account, if the account shown was replaced meanwhile) is
+    //         built again rather than swapped in.
+    private void rebuild(Account account, AccountOp op) {
+        changeCount++;
+        AccountSnapshot snapshot = account.snapshot();
+        switch (op) {
+            case ADD_SOURCE:
+            case REMOVE_SOURCE:
+                fillSources(sources, snapshot);
+                break;
+            case ADD_DEBT:
+            case PAY_DEBT:
+            case ADD_TO_DEBT:
+            case REMOVE_DEBT:
+                fillDebts(debts, snapshot);
+                break;
+            case NEXT_PERIOD:
+                fillDebts(debts, snapshot);
+                fillSavings(savings, snapshot);
+                break;
+            case DEPOSIT_SAVINGS:
+            case WITHDRAW_SAVINGS:
+            case SET_SAVINGS_INTEREST:
+            case SET_SAVINGS_GOAL:
+                fillSavings(savings, snapshot);
+                break;
+            default:
+                // The balance, month and receipts are not charted
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Adds source's row and updates the surplus, keeping the surplus last so it is drawn after the sources
+    private void addSource(Account account, Source source) {
+        if (isAggregated(sources, account.getSources().size())) {
+            fillSources(sources, account.snapshot());
+            return;
+        }
+        sources.setNotify(false);
+        if (sources.getRowIndex(SURPLUS_ROW) >= 0) {
+            sources.removeValue(SURPLUS_ROW, SURPLUS);
+        }
+        sources.addValue(source.getValue(), source.getName(), sourceColumn(source.getValue()));
+        sources.addValue(account.getSurplus(), SURPLUS_ROW, SURPLUS);
+        sources.setNotify(true);
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Removes the row of the source called name and updates the surplus, removing it too if no sources are
+    //         left
+    private void removeSource(Account account, String name) {
+        if (isAggregated(sources, account.getSources().size())) {
+            fillSources(sources, account.snapshot());
+            return;
+        }
+        sources.setNotify(false);
+        int row = sources.getRowIndex(name);
+        int income = sources.getColumnIndex(INCOME);
+        if (income >= 0 && sources.getValue(row, income) != null) {
+            sources.removeValue(name, INCOME);
+        } else {
+            sources.removeValue(name, EXPENSE);
+        }
+        if (account.getSources().isEmpty()) {
+            sources.removeValue(SURPLUS_ROW, SURPLUS);
+        } else {
+            sources.setValue(account.getSurplus(), SURPLUS_ROW, SURPLUS);
+        }
+        sources.setNotify(true);
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Adds or updates the row of the debt called name
+    private void updateDebt(Account account, String name) {
+        if (isAggregated(debts, account.getDebts().size())) {
+            fillDebts(debts, account.snapshot());
+        } else {
+            DebtAcc debt = account.getDebt(name);
+            setDebt(debts, name, debt.getValue(), debt.getInterest());
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Removes the row of the debt called name
+    private void removeDebt(Account account, String name) {
+        if (isAggregated(debts, account.getDebts().size())) {
+            fillDebts(debts, account.snapshot());
+        } else {
+            debts.removeRow(name);
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Updates the row of every debt in account, since all of them have accrued interest
+    private void updateDebts(Account account) {
+        if (isAggregated(debts, account.getDebts().size())) {
+            fillDebts(debts, account.snapshot());
+            return;
+        }
+        debts.setNotify(false);
+        for (DebtAcc debt : account.getDebts()) {
+            setDebt(debts, debt.getName(), debt.getValue(), debt.getInterest());
+        }
+        debts.setNotify(true);
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Updates the savings values from account
+    private void updateSavings(Account account) {
+        SavingsAcc acc = account.getSavings();
+        savings.setNotify(false);
+        setSavings(savings, acc.getBal(), acc.getInterest(), account.getSavingsPercentGoal());
+        savings.setNotify(true);
+    }
+
+    //EFFECTS: Returns true if a chart of count rows, currently showing dataset, is or was aggregated, so a change
+    //         to it has to be made by rebuilding it
+    private static boolean isAggregated(DefaultCategoryDataset dataset, int count) {
+        return count > MAX_SERIES || dataset.getRowIndex(OTHER_ROW) >= 0;
+    }
+
+    //EFFECTS: Creates a dataset of the snapshot's income and expense sources, followed by its surplus
+    public static DefaultCategoryDataset createSourceDataset(AccountSnapshot snapshot) {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        fillSources(dataset, snapshot);
+        return dataset;
+    }
+
+    //MODIFIES: dataset
+    //EFFECTS: Replaces the contents of dataset with the snapshot's sources, or the largest of them and an OTHER row
+    //         if there are more than MAX_SERIES, followed by its surplus
+    private static void fillSources(DefaultCategoryDataset dataset, AccountSnapshot snapshot) {
+        int count = snapshot.getSourceCount();
+        BigDecimal[] values = new BigDecimal[count];
+        for (int i = 0; i < count; i++) {
+            checkCancelled();
+            values[i] = snapshot.getSourceValue(i);
+        }
+        boolean[] shown = largest(values, count > MAX_SERIES ? MAX_SERIES - 1 : count);
+
+        dataset.setNotify(false);
+        dataset.clear();
+        BigDecimal otherIncome = BigDecimal.ZERO;
+        BigDecimal otherExpense = BigDecimal.ZERO;
+        for (int i = 0; i < count; i++) {
+            if (shown[i]) {
+                dataset.addValue(values[i], snapshot.getSourceName(i), sourceColumn(values[i]));
+            } else if (values[i].signum() >= 0) {
+                otherIncome = otherIncome.add(values[i]);
+            } else {
+                otherExpense = otherExpense.add(values[i]);
+            }
+        }
+        if (count > MAX_SERIES) {
+            dataset.addValue(otherIncome, OTHER_ROW, INCOME);
+            dataset.addValue(otherExpense, OTHER_ROW, EXPENSE);
+        }
+        if (count != 0) {
+            dataset.addValue(snapshot.getSurplus(), SURPLUS_ROW, SURPLUS);
+        }
+        dataset.setNotify(true);
+    }
+
+    //EFFECTS: Creates a dataset of the current and future values of the snapshot's debts
+    public static DefaultCategoryDataset createDebtDataset(AccountSnapshot snapshot) {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        fillDebts(dataset, snapshot);
+        return dataset;
+    }
+
+    //MODIFIES: dataset
+    //EFFECTS: Replaces the contents of dataset with the current and future values of the snapshot's debts, or of
+    //         the largest of them and an OTHER row if there are more than MAX_SERIES
+    private static void fillDebts(DefaultCategoryDataset dataset, AccountSnapshot snapshot) {
+        int count = snapshot.getDebtCount();
+        BigDecimal[] values = new BigDecimal[count];
+        for (int i = 0; i < count; i++) {
+            checkCancelled();
+            values[i] = snapshot.getDebtValue(i);
+        }
+        boolean[] shown = largest(values, count > MAX_SERIES ? MAX_SERIES - 1 : count);
+
+        dataset.setNotify(false);
+        dataset.clear();
+        BigDecimal otherCurrent = BigDecimal.ZERO;
+        BigDecimal otherFuture = BigDecimal.ZERO;
+        for (int i = 0; i < count; i++) {
+            if (shown[i]) {
+                setDebt(dataset, snapshot.getDebtName(i), values[i], snapshot.getDebtInterest(i));
+            } else {
+                otherCurrent = otherCurrent.add(values[i]);
+                otherFuture = otherFuture.add(values[i].multiply(ONE.add(snapshot.getDebtInterest(i))));
+            }
+        }
+        if (count > MAX_SERIES) {
+            dataset.setValue(otherCurrent, OTHER_ROW, CURRENT);
+            dataset.setValue(otherFuture, OTHER_ROW, FUTURE);
+        }
+        dataset.setNotify(true);
+    }
+
+    //REQUIRES: 0 <= n <= values.length
+    //EFFECTS: Returns which of values are among the n largest by size, breaking ties by earlier index. Keeps the
+    //         n largest seen so far in order, so it takes O(values.length * n) time for the small n charts use.
+    static boolean[] largest(BigDecimal[] values, int n) {
+        boolean[] shown = new boolean[values.length];
+        if (n == values.length) {
+            Arrays.fill(shown, true);
+            return shown;
+        }
+        int[] top = new int[n];
+        int size = 0;
+        for (int i = 0; i < values.length; i++) {
+            int pos = size;
+            while (pos > 0 && values[top[pos - 1]].abs().compareTo(values[i].abs()) < 0) {
+                pos--;
+            }
+            if (pos < n) {
+                System.arraycopy(top, pos, top, pos + 1, Math.min(size, n - 1) - pos);
+                top[pos] = i;
+                size = Math.min(size + 1, n);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            shown[top[i]] = true;
+        }
+        return shown;
+    }
+
+    //EFFECTS: Creates a dataset of the current and future balance of the snapshot's savings, and its savings goal
+    public static DefaultCategoryDataset createSavingsDataset(AccountSnapshot snapshot) {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        fillSavings(dataset, snapshot);
+        return dataset;
+    }
+
+    //MODIFIES: dataset
+    //EFFECTS: Sets the savings values in dataset from the snapshot
+    private static void fillSavings(DefaultCategoryDataset dataset, AccountSnapshot snapshot) {
+        dataset.setNotify(false);
+        setSavings(dataset, snapshot.getSavingsBal(), snapshot.getSavingsInterest(), snapshot.getSavingsPercentGoal());
+        dataset.setNotify(true);
+    }
+
+    //EFFECTS: Returns the column a source with value val is charted in
+    private static String sourceColumn(BigDecimal val) {
+        return val.compareTo(BigDecimal.ZERO) > -1 ? INCOME : EXPENSE;
+    }
+
+    //MODIFIES: dataset
+    //EFFECTS: Sets the current value of the debt called name, and its value after a month of interest
+    private static void setDebt(DefaultCategoryDataset dataset, String name, BigDecimal val, BigDecimal interest) {
+        dataset.setValue(val, name, CURRENT);
+        dataset.setValue(val.multiply(ONE.add(interest)), name, FUTURE);
+    }
+
+    //MODIFIES: dataset
+    //EFFECTS: Sets the current savings balance, its value after a month of interest, and the savings goal
+    private static void setSavings(DefaultCategoryDataset dataset, BigDecimal bal, BigDecimal interest,
+                                   BigDecimal goal) {
+        dataset.setValue(bal, SAVINGS, CURRENT);
+        dataset.setValue(bal.multiply(ONE.add(interest)), SAVINGS, FUTURE);
+        dataset.setValue(bal.multiply(goal), SAVINGS, SAVINGS_GOAL);
+    }
+
+    /**
+     * The key of a row the charts add themselves, such as the surplus. Keys are equal only to themselves, so no source
+     * or debt name, whatever it is, can be mistaken for one. They are drawn in the legend by their label.
+     */
+    public static final class RowKey implements Comparable<RowKey> {
+        private final String label;
+
+        private RowKey(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public int compareTo(RowKey other) {
+            return label.compareTo(other.label);
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    //EFFECTS: Throws CancellationException if the current thread is a background refresh that has been cancelled
+    //         because a newer one replaced it
+    private static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package ui;
+
+import model.Account;
+import model.AccountSnapshot;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.title.LegendTitle;
+import org.jfree.chart.ui.RectangleEdge;
+import org.jfree.data.category.CategoryDataset;
+import org.jfree.data.category.DefaultCategoryDataset;
+import persistence.AccountFormat;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Draws an account's source, debt and savings charts side by side into an image, without a window, so reports can be
+ * made on a server running with java.awt.headless=true. The main window builds its charts with the same methods.
+ *
+ * Each thread rendering keeps its own charts, image and PNG writer and reuses them for every account it draws,
+ * swapping in each account's datasets, so rendering many accounts in parallel only builds new datasets per account.
+ *
+ * Run from the command line as: ChartRenderer [output folder] [save file]... to write a PNG report for each save
+ * file, named after it. Save files are read as they are; changes still in a journal next to one are not included.
+ */
+public class ChartRenderer {
+    public static final int DEFAULT_WIDTH = 500;
+    public static final int DEFAULT_HEIGHT = 400;
+    public static final String EXTENSION = ".png";
+    private static final float PNG_QUALITY = 0.9f; // a light deflate level: faster to encode, files a bit larger
+
+    private final int width;
+    private final int height;
+    private final ThreadLocal<Canvas> canvases = ThreadLocal.withInitial(Canvas::new);
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    //REQUIRES: width > 0, height > 0
+    //EFFECTS: Creates a renderer drawing each chart width by height pixels, making reports 3 * width by height
+    public ChartRenderer(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Sets the pool renderAll runs on
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Draws the charts of the account snapshot was taken of into this thread's image and returns it. The
+    //         image is reused by the next render on the same thread, so it must be used or copied before then.
+    public BufferedImage render(AccountSnapshot snapshot) {
+        return canvases.get().render(snapshot);
+    }
+
+    //MODIFIES: this, out
+    //EFFECTS: Writes the charts of the account snapshot was taken of to out as a PNG image
+    public void writePng(AccountSnapshot snapshot, OutputStream out) throws IOException {
+        Canvas canvas = canvases.get();
+        canvas.write(canvas.render(snapshot), out);
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Writes the charts of the account snapshot was taken of to file as a PNG image
+    public void writePng(AccountSnapshot snapshot, Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            writePng(snapshot, out);
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Reads each save file and writes its report to outDir, named after the save file with EXTENSION
+    //         added, rendering in parallel on the pool. A save file that cannot be read or rendered is reported to
+    //         the console and skipped. Returns the number of reports written.
+    public int renderAll(List<Path> saveFiles, Path outDir) throws IOException {
+        Files.createDirectories(outDir);
+        AtomicInteger written = new AtomicInteger();
+        pool.submit(() -> IntStream.range(0, saveFiles.size()).parallel().forEach(i -> {
+            Path saveFile = saveFiles.get(i);
+            try {
+                Account acc = AccountFormat.forPath(saveFile.toString()).read(saveFile.toString());
+                writePng(acc.snapshot(), outDir.resolve(saveFile.getFileName() + EXTENSION));
+                written.incrementAndGet();
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Unable to render " + saveFile + ": " + e.getMessage());
+            }
+        })).join();
+        return written.get();
+    }
+
+    //EFFECTS: Creates the source chart, with income, expenses, and surplus
+    public static JFreeChart createSourceChart(CategoryDataset dataset) {
+        JFreeChart inOutGraph = ChartFactory.createStackedBarChart("Income/Expense Graph",
+                "Sources",
+                "Value ($)", dataset);
+
+        LegendTitle legend = inOutGraph.getLegend();
+        legend.setPosition(RectangleEdge.RIGHT);
+        return inOutGraph;
+    }
+
+    //EFFECTS: Creates the debt chart with all debts current values, followed by their value in the next period.
+    public static JFreeChart createDebtChart(CategoryDataset dataset) {
+        JFreeChart debtFutureGraph = ChartFactory.createBarChart("Debt Interest Accumulation",
+                "Debts",
+                "Value ($)",
+                dataset);
+
+        LegendTitle legend = debtFutureGraph.getLegend();
+        legend.setPosition(RectangleEdge.RIGHT);
+        return debtFutureGraph;
+    }
+
+    //EFFECTS: Creates the savings chart with current value and future value displayed side by side
+    public static JFreeChart createSavingsChart(CategoryDataset dataset) {
+        JFreeChart savingsFutureGraph = ChartFactory.createBarChart("Savings Interest Accumulation",
+                "Savings",
+                "Value ($)",
+                dataset);
+
+        savingsFutureGraph.removeLegend();
+        return savingsFutureGraph;
+    }
+
+    //EFFECTS: Writes a report for each save file named in args[1..] to the folder args[0], without a display
+    public static void main(String[] args) throws IOException {
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
+        }
+        if (args.length < 2) {
+            System.err.println("Usage: ChartRenderer [output folder] [save file]...");
+            System.exit(2);
+        }
+        List<Path> saveFiles = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            saveFiles.add(Paths.get(args[i]));
+        }
+        long start = System.nanoTime();
+        int written = new ChartRenderer(DEFAULT_WIDTH, DEFAULT_HEIGHT).renderAll(saveFiles, Paths.get(args[0]));
+        System.out.println("Wrote " + written + " of " + saveFiles.size() + " reports in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * One thread's charts, image and PNG writer, reused for every account the thread renders
+     */
+    private class Canvas {
+        private final JFreeChart[] charts = {
+            createSourceChart(new DefaultCategoryDataset()),
+            createDebtChart(new DefaultCategoryDataset()),
+            createSavingsChart(new DefaultCategoryDataset())
+        };
+        private final BufferedImage image = new BufferedImage(3 * width, height, BufferedImage.TYPE_INT_RGB);
+        private final Rectangle2D area = new Rectangle2D.Double();
+        private final ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        private final ImageWriteParam param = writer.getDefaultWriteParam();
+
+        Canvas() {
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(PNG_QUALITY);
+            }
+        }
+
+        //MODIFIES: this
+        //EFFECTS: Draws the snapshot's charts into image and returns it
+        BufferedImage render(AccountSnapshot snapshot) {
+            charts[0].getCategoryPlot().setDataset(ChartDatasets.createSourceDataset(snapshot));
+            charts[1].getCategoryPlot().setDataset(ChartDatasets.createDebtDataset(snapshot));
+            charts[2].getCategoryPlot().setDataset(ChartDatasets.createSavingsDataset(snapshot));
+
+            Graphics2D g = image.createGraphics();
+            try {
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, image.getWidth(), image.getHeight());
+                for (int i = 0; i < charts.length; i++) {
+                    area.setRect(i * width, 0, width, height);
+                    charts[i].draw(g, area);
+                }
+            } finally {
+                g.dispose();
+            }
+            return image;
+        }
+
+        //MODIFIES: out
+        //EFFECTS: Encodes image to out as a PNG
+        void write(BufferedImage image, OutputStream out) throws IOException {
+            try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+                writer.setOutput(stream);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.setOutput(null);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ui;
+
+import model.AccountOp;
+import model.AccountSnapshot;
+import model.Money;
+
+import java.math.BigDecimal;
+
+import static java.math.BigDecimal.ONE;
+
+/**
+ * A table of an account's debts, with their balance, monthly interest rate and balance after a month of interest.
+ */
+public class DebtTableModel extends LedgerTableModel {
+    public static final int BALANCE = 1;
+    public static final int INTEREST = 2;
+    public static final int NEXT_MONTH = 3;
+
+    //EFFECTS: Creates an empty table of debts
+    public DebtTableModel() {
+        super("Name", "Balance ($)", "Monthly interest", "Next month ($)");
+    }
+
+    @Override
+    protected int countOf(AccountSnapshot snapshot) {
+        return snapshot.getDebtCount();
+    }
+
+    @Override
+    protected boolean affects(AccountOp op) {
+        switch (op) {
+            case ADD_DEBT:
+            case REMOVE_DEBT:
+            case PAY_DEBT:
+            case ADD_TO_DEBT:
+            case NEXT_PERIOD:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    protected String nameOf(AccountSnapshot snapshot, int row) {
+        return snapshot.getDebtName(row);
+    }
+
+    @Override
+    protected BigDecimal valueOf(AccountSnapshot snapshot, int row, int column) {
+        if (column == BALANCE) {
+            return snapshot.getDebtValue(row);
+        } else if (column == INTEREST) {
+            return snapshot.getDebtInterest(row);
+        }
+        return snapshot.getDebtValue(row).multiply(ONE.add(snapshot.getDebtInterest(row)));
+    }
+
+    @Override
+    protected int compare(AccountSnapshot snapshot, int a, int b, int column) {
+        if (column == INTEREST) {
+            return snapshot.getDebtInterest(a).compareTo(snapshot.getDebtInterest(b));
+        } else if (column == BALANCE) {
+            return Money.compare(snapshot.getDebtMoney(a), snapshot.getDebtMoney(b));
+        }
+        return valueOf(snapshot, a, NEXT_MONTH).compareTo(valueOf(snapshot, b, NEXT_MONTH));
+    }
+}
@@ -1,10 +1,14 @@
 package ui;
 
+import persistence.AccountConverter;
+import persistence.AccountFormat;
+
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Locale;
 
 /**
  * Manages file paths for the BudgeIt application.
@@ -14,16 +18,20 @@ import java.nio.file.Paths;
  */
 public class FilePathManager {
     private static final String APP_FOLDER = ".budgeit";
-    private static final String SAVE_FILE = "UserAccount.json";
+    private static final String SAVE_NAME = "UserAccount";
+    private static final String SAVE_FILE = SAVE_NAME + AccountFormat.JSON.getExtension();
 
     /**
-     * Gets the path where user data (UserAccount.json) should be saved.
-     * Checks if the file exists; if not, copies the default from the JAR resources.
+     * Gets the path where user data should be saved. The file is UserAccount.json unless
+     * -Dbudgeit.saveFormat=binary selects the binary snapshot UserAccount.budgeit.
+     * Checks if the file exists; if not, copies the default from the JAR resources,
+     * converting it (or an existing UserAccount.json) to a snapshot if needed.
      *
      * @return the save location path as a String
      */
     public static String getSaveLocation() {
         String path;
+        AccountFormat format = parseSaveFormat(System.getProperty("budgeit.saveFormat"));
 
         // Determine destination path
         if (isRunningFromProject()) {
@@ -33,16 +41,63 @@ public class FilePathManager {
             } catch (IOException e) {
                 System.err.println("Could not create data folder: " + e.getMessage());
             }
-            path = "./data/" + SAVE_FILE;
+            path = "./data/";
         } else {
             // Production (JAR): Use file next to the JAR (Portable)
-            path = "./" + SAVE_FILE;
+            path = "./";
         }
 
         // Ensure the file exists (copy from JAR if missing)
-        ensureFileExists(path);
+        ensureFileExists(path + SAVE_FILE);
+        if (format == AccountFormat.JSON) {
+            return path + SAVE_FILE;
+        }
+        ensureSnapshotExists(path + SAVE_FILE, path + SAVE_NAME + format.getExtension());
+        return path + SAVE_NAME + format.getExtension();
+    }
+
+    /**
+     * Parses the value of -Dbudgeit.saveFormat, ignoring case.
+     * Falls back to JSON, with a warning, if the value is not a known format.
+     *
+     * @param value the property value, or null if it is not set
+     * @return the format to save the account in
+     */
+    static AccountFormat parseSaveFormat(String value) {
+        if (value == null) {
+            return AccountFormat.JSON;
+        }
+        try {
+            return AccountFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown save format '" + value + "', saving as JSON instead.");
+            return AccountFormat.JSON;
+        }
+    }
 
-        return path;
+    /**
+     * Gets the format of a save file from its extension.
+     *
+     * @param path the save file path
+     * @return the format to read and write the file with
+     */
+    public static AccountFormat getSaveFormat(String path) {
+        return AccountFormat.forPath(path);
+    }
+
+    /**
+     * Checks if the snapshot file exists at the path.
+     * If not, converts the JSON save file into it.
+     */
+    private static void ensureSnapshotExists(String jsonPath, String snapshotPath) {
+        if (!new File(snapshotPath).exists()) {
+            try {
+                AccountConverter.convert(jsonPath, snapshotPath);
+                System.out.println("Created snapshot save file from " + jsonPath);
+            } catch (IOException e) {
+                System.err.println("Error creating snapshot save file: " + e.getMessage());
+            }
+        }
     }
 
     /**
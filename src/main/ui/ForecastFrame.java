@@ -0,0 +1,86 @@
+package ui;
+
+import model.MonteCarloResult;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.DeviationRenderer;
+import org.jfree.data.xy.YIntervalSeries;
+import org.jfree.data.xy.YIntervalSeriesCollection;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * A window showing the results of a Monte Carlo forecast as fan charts: for the balance, the savings and each debt,
+ * the median over time surrounded by a dark band holding the middle half of the simulated futures and a light band
+ * holding the middle 90%.
+ */
+public class ForecastFrame extends JFrame {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 500;
+    private static final int BALANCE = -1;
+    private static final int SAVINGS = -2;
+    private static final int P5 = 0;
+    private static final int P25 = 1;
+    private static final int MEDIAN = 2;
+    private static final int P75 = 3;
+    private static final int P95 = 4;
+
+    //REQUIRES: result reports MonteCarloEngine.PERCENTILES
+    //EFFECTS: Creates a window with one fan chart tab per value in result
+    public ForecastFrame(MonteCarloResult result) {
+        super("Forecast (" + result.getPaths() + " simulated futures)");
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("Balance", createFanChart("Balance", result, BALANCE));
+        tabs.addTab("Savings", createFanChart("Savings", result, SAVINGS));
+        for (int debt = 0; debt < result.getDebtCount(); debt++) {
+            tabs.addTab(result.getDebtName(debt), createFanChart(result.getDebtName(debt), result, debt));
+        }
+        setContentPane(tabs);
+        setPreferredSize(new Dimension(WIDTH, HEIGHT));
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        pack();
+    }
+
+    //EFFECTS: Creates a fan chart of the balance, the savings, or the debt at index series
+    private static ChartPanel createFanChart(String title, MonteCarloResult result, int series) {
+        YIntervalSeries outer = new YIntervalSeries("5th to 95th percentile");
+        YIntervalSeries inner = new YIntervalSeries("25th to 75th percentile");
+        for (int point = 0; point < result.getPointCount(); point++) {
+            double median = value(result, series, MEDIAN, point);
+            outer.add(result.getMonth(point), median, value(result, series, P5, point),
+                    value(result, series, P95, point));
+            inner.add(result.getMonth(point), median, value(result, series, P25, point),
+                    value(result, series, P75, point));
+        }
+        YIntervalSeriesCollection dataset = new YIntervalSeriesCollection();
+        dataset.addSeries(outer);
+        dataset.addSeries(inner);
+
+        DeviationRenderer renderer = new DeviationRenderer(true, false);
+        renderer.setSeriesPaint(0, new Color(70, 130, 180));
+        renderer.setSeriesFillPaint(0, new Color(70, 130, 180, 70));
+        renderer.setSeriesPaint(1, new Color(25, 70, 120));
+        renderer.setSeriesFillPaint(1, new Color(25, 70, 120, 110));
+        renderer.setAlpha(1f);
+
+        NumberAxis months = new NumberAxis("Months from now");
+        months.setStandardTickUnits(NumberAxis.createIntegerTickUnits());
+        NumberAxis value = new NumberAxis("Value ($)");
+        value.setAutoRangeIncludesZero(false);
+        XYPlot plot = new XYPlot(dataset, months, value, renderer);
+        return new ChartPanel(new JFreeChart(title, plot));
+    }
+
+    //EFFECTS: Returns the value of the given series at the given percentile index and point
+    private static double value(MonteCarloResult result, int series, int percentile, int point) {
+        if (series == BALANCE) {
+            return result.getBalance(percentile, point);
+        } else if (series == SAVINGS) {
+            return result.getSavings(percentile, point);
+        }
+        return result.getDebt(series, percentile, point);
+    }
+}
@@ -0,0 +1,97 @@
+package ui;
+
+import model.Account;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+/**
+ * A window listing an account's sources and debts in tables, for ledgers too large to read off the charts. Clicking
+ * a column header sorts by that column, clicking it again reverses the order, and the text box above each table
+ * filters its rows by name. The tables follow changes to the account while the window is open.
+ */
+public class LedgerFrame extends JFrame {
+    private static final int WIDTH = 600;
+    private static final int HEIGHT = 500;
+
+    private final SourceTableModel sourceModel = new SourceTableModel();
+    private final DebtTableModel debtModel = new DebtTableModel();
+
+    //EFFECTS: Creates a window with a tab of sources and a tab of debts from acc
+    public LedgerFrame(Account acc) {
+        super("Ledger");
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("Sources", createTablePanel(sourceModel));
+        tabs.addTab("Debts", createTablePanel(debtModel));
+        setAccount(acc);
+
+        setContentPane(tabs);
+        setPreferredSize(new Dimension(WIDTH, HEIGHT));
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                setAccount(null);
+            }
+        });
+        pack();
+    }
+
+    //MODIFIES: this, acc
+    //EFFECTS: Shows the sources and debts of acc instead of the current account, or nothing if acc is null
+    public void setAccount(Account acc) {
+        sourceModel.setAccount(acc);
+        debtModel.setAccount(acc);
+    }
+
+    //EFFECTS: Creates a panel holding a filter box and a sortable table of model
+    private static JPanel createTablePanel(LedgerTableModel model) {
+        JTable table = new JTable(model);
+        table.setFillsViewportHeight(true);
+        table.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = table.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    model.sort(table.convertColumnIndexToModel(column));
+                }
+            }
+        });
+
+        JTextField filter = new JTextField();
+        JLabel count = new JLabel();
+        filter.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                model.setFilter(filter.getText());
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                model.setFilter(filter.getText());
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                model.setFilter(filter.getText());
+            }
+        });
+        model.addTableModelListener(e -> count.setText(model.getRowCount() + " of " + model.getTotalCount()));
+
+        JPanel top = new JPanel(new BorderLayout());
+        top.add(new JLabel("Filter: "), BorderLayout.WEST);
+        top.add(filter, BorderLayout.CENTER);
+        top.add(count, BorderLayout.EAST);
+
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.add(top, BorderLayout.NORTH);
+        panel.add(new JScrollPane(table), BorderLayout.CENTER);
+        return panel;
+    }
+}
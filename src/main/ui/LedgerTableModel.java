@@ -0,0 +1,202 @@
+package ui;
+
+import model.Account;
+import model.AccountListener;
+import model.AccountOp;
+import model.AccountSnapshot;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.math.BigDecimal;
+
+/**
+ * A table of one of an account's ledgers (its sources or its debts) that reads rows straight from the account's latest
+ * snapshot instead of copying them, so a JTable, which only asks for the rows it is drawing, stays fast on very large
+ * ledgers. A snapshot never changes, so the rows can be read on the event dispatch thread while the account is being
+ * changed on another.
+ *
+ * Sorting and filtering never move rows: the model keeps a permutation of indices into the snapshot's ledger holding
+ * the rows that pass the filter in sorted order, and table row i is the element at the i-th index. The snapshot and the
+ * permutation are replaced when the account changes one of this ledger's rows. Must be used on the event dispatch
+ * thread; a change made to the account on another thread rebuilds the table on the event dispatch thread later.
+ */
+public abstract class LedgerTableModel extends AbstractTableModel implements AccountListener {
+    private final String[] columns;
+    private Account account;
+    private AccountSnapshot snapshot; // the rows shown, or null if there is no account
+    private int[] view = new int[0]; // view[i] is the index in the snapshot's ledger of table row i
+    private int[] scratch = new int[0]; // merge buffer for sorting view
+    private int viewSize;
+    private int sortColumn = -1;
+    private boolean ascending = true;
+    private String filter = "";
+
+    //EFFECTS: Creates an empty table with the given column names, the first of which is the row's name
+    protected LedgerTableModel(String... columns) {
+        this.columns = columns;
+    }
+
+    //EFFECTS: Returns the number of rows this table shows from snapshot
+    protected abstract int countOf(AccountSnapshot snapshot);
+
+    //EFFECTS: Returns true if op changes the rows of this table
+    protected abstract boolean affects(AccountOp op);
+
+    //REQUIRES: 0 <= row < countOf(snapshot)
+    //EFFECTS: Returns the name of the snapshot's rowth row
+    protected abstract String nameOf(AccountSnapshot snapshot, int row);
+
+    //REQUIRES: 0 <= row < countOf(snapshot), 0 < column < getColumnCount()
+    //EFFECTS: Returns the value of the snapshot's rowth row in column
+    protected abstract BigDecimal valueOf(AccountSnapshot snapshot, int row, int column);
+
+    //REQUIRES: 0 <= a, b < countOf(snapshot), 0 < column < getColumnCount()
+    //EFFECTS: Compares the snapshot's rows a and b by their value in column, in ascending order
+    protected abstract int compare(AccountSnapshot snapshot, int a, int b, int column);
+
+    //MODIFIES: this, acc
+    //EFFECTS: Shows the rows of acc, following its changes from now on and no longer following the previous account.
+    //         If acc is null, the table is emptied.
+    public void setAccount(Account acc) {
+        if (account != null) {
+            account.removeListener(this);
+        }
+        account = acc;
+        if (acc != null) {
+            acc.addListener(this);
+        }
+        update();
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Sorts the table by column, in descending order if it was already sorted by column in ascending order
+    //         and in ascending order otherwise
+    public void sort(int column) {
+        ascending = column != sortColumn || !ascending;
+        sortColumn = column;
+        update();
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Shows only the rows whose name contains text, ignoring case; an empty text shows every row
+    public void setFilter(String text) {
+        filter = text;
+        update();
+    }
+
+    public int getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    //EFFECTS: Returns the number of rows in the ledger, including those hidden by the filter
+    public int getTotalCount() {
+        return snapshot == null ? 0 : countOf(snapshot);
+    }
+
+    @Override
+    public int getRowCount() {
+        return viewSize;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 0 ? String.class : BigDecimal.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int i = view[row];
+        return column == 0 ? nameOf(snapshot, i) : valueOf(snapshot, i, column);
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Rebuilds the table if the change was to one of its rows, on the event dispatch thread
+    @Override
+    public void accountChanged(Account acc, AccountOp op, String name, BigDecimal amount, BigDecimal rate) {
+        if (!affects(op)) {
+            return;
+        }
+        if (SwingUtilities.isEventDispatchThread()) {
+            update();
+        } else {
+            SwingUtilities.invokeLater(this::update);
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Takes the account's latest snapshot, rebuilds the permutation from its rows that pass the filter, sorts
+    //         it, and tells the table
+    private void update() {
+        snapshot = account == null ? null : account.snapshot();
+        int size = getTotalCount();
+        if (view.length < size) {
+            view = new int[size];
+            scratch = new int[size];
+        }
+        viewSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (filter.isEmpty() || containsIgnoreCase(nameOf(snapshot, i), filter)) {
+                view[viewSize++] = i;
+            }
+        }
+        if (sortColumn >= 0) {
+            mergeSort(0, viewSize);
+        }
+        fireTableDataChanged();
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Sorts view[lo..hi) by sortColumn, keeping rows that compare equal in the account's order
+    private void mergeSort(int lo, int hi) {
+        if (hi - lo < 2) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(lo, mid);
+        mergeSort(mid, hi);
+        if (compareIndices(view[mid - 1], view[mid]) <= 0) {
+            return;
+        }
+        System.arraycopy(view, lo, scratch, lo, hi - lo);
+        int left = lo;
+        int right = mid;
+        for (int i = lo; i < hi; i++) {
+            if (right >= hi || (left < mid && compareIndices(scratch[left], scratch[right]) <= 0)) {
+                view[i] = scratch[left++];
+            } else {
+                view[i] = scratch[right++];
+            }
+        }
+    }
+
+    //EFFECTS: Compares the rows at indices a and b by sortColumn, in the current sort direction
+    private int compareIndices(int a, int b) {
+        int result = sortColumn == 0 ? nameOf(snapshot, a).compareToIgnoreCase(nameOf(snapshot, b))
+                : compare(snapshot, a, b, sortColumn);
+        return ascending ? result : -result;
+    }
+
+    //EFFECTS: Returns true if text contains part, ignoring case
+    private static boolean containsIgnoreCase(String text, String part) {
+        for (int i = 0; i + part.length() <= text.length(); i++) {
+            if (text.regionMatches(true, i, part, 0, part.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,10 +1,12 @@
 package ui;
 
+import javax.swing.SwingUtilities;
+
 /**
  * Creates a BudgeItUI object to run the program
  */
 public class Main {
     public static void main(String[] args) {
-        new BudgeItUI();
+        SwingUtilities.invokeLater(BudgeItUI::new);
     }
 }
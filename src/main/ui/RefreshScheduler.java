@@ -0,0 +1,95 @@
+package ui;
+
+import javax.swing.Timer;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Collects requests to refresh parts of the main window and carries them out together, so that a burst of edits
+ * rebuilds each chart once instead of once per edit.
+ *
+ * Each request marks the parts it affects as dirty and (re)starts a one-frame timer. When the timer fires, every
+ * dirty part is handed to the refresher in one call and the dirty set is cleared. Requests keep pushing the refresh
+ * back while they arrive within a frame of each other, but never more than MAX_DELAY_MILLIS after the first one,
+ * so a long burst still shows progress. All methods must be called on the event dispatch thread, which is also
+ * where the refresher is called.
+ */
+public class RefreshScheduler {
+    public static final int FRAME_MILLIS = 16;
+    public static final int MAX_DELAY_MILLIS = 100;
+
+    /**
+     * The parts of the main window that can be refreshed separately.
+     */
+    public enum Part {
+        SOURCES,
+        DEBTS,
+        SAVINGS,
+        BALANCE
+    }
+
+    private final Consumer<Set<Part>> refresher;
+    private final Set<Part> dirty = EnumSet.noneOf(Part.class);
+    private final Timer timer;
+    private long firstRequestNanos;
+    private long requestedCount;
+    private long performedCount;
+
+    //EFFECTS: Creates a scheduler that passes the dirty parts to refresher when it refreshes
+    public RefreshScheduler(Consumer<Set<Part>> refresher) {
+        this.refresher = refresher;
+        this.timer = new Timer(FRAME_MILLIS, e -> flush());
+        timer.setRepeats(false);
+    }
+
+    //REQUIRES: parts is not empty
+    //MODIFIES: this
+    //EFFECTS: Marks parts as dirty and schedules a refresh, unless one is already due within MAX_DELAY_MILLIS
+    public void request(Part... parts) {
+        requestedCount++;
+        Collections.addAll(dirty, parts);
+        long now = System.nanoTime();
+        if (!timer.isRunning()) {
+            firstRequestNanos = now;
+            timer.start();
+        } else if ((now - firstRequestNanos) / 1_000_000 < MAX_DELAY_MILLIS - FRAME_MILLIS) {
+            timer.restart();
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Marks every part as dirty and schedules a refresh
+    public void requestAll() {
+        request(Part.values());
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Refreshes the dirty parts now, if there are any, instead of waiting for the timer
+    public void flush() {
+        timer.stop();
+        if (dirty.isEmpty()) {
+            return;
+        }
+        Set<Part> parts = EnumSet.copyOf(dirty);
+        dirty.clear();
+        performedCount++;
+        refresher.accept(parts);
+    }
+
+    //EFFECTS: Returns true if a refresh is waiting to be carried out
+    public boolean isPending() {
+        return !dirty.isEmpty();
+    }
+
+    //EFFECTS: Returns the number of refreshes requested
+    public long getRequestedCount() {
+        return requestedCount;
+    }
+
+    //EFFECTS: Returns the number of refreshes carried out
+    public long getPerformedCount() {
+        return performedCount;
+    }
+}
@@ -0,0 +1,44 @@
+package ui;
+
+import model.AccountOp;
+import model.AccountSnapshot;
+import model.Money;
+
+import java.math.BigDecimal;
+
+/**
+ * A table of an account's income and expense sources, with their monthly values.
+ */
+public class SourceTableModel extends LedgerTableModel {
+    public static final int VALUE = 1;
+
+    //EFFECTS: Creates an empty table of sources
+    public SourceTableModel() {
+        super("Name", "Monthly value ($)");
+    }
+
+    @Override
+    protected int countOf(AccountSnapshot snapshot) {
+        return snapshot.getSourceCount();
+    }
+
+    @Override
+    protected boolean affects(AccountOp op) {
+        return op == AccountOp.ADD_SOURCE || op == AccountOp.REMOVE_SOURCE;
+    }
+
+    @Override
+    protected String nameOf(AccountSnapshot snapshot, int row) {
+        return snapshot.getSourceName(row);
+    }
+
+    @Override
+    protected BigDecimal valueOf(AccountSnapshot snapshot, int row, int column) {
+        return snapshot.getSourceValue(row);
+    }
+
+    @Override
+    protected int compare(AccountSnapshot snapshot, int a, int b, int column) {
+        return Money.compare(snapshot.getSourceMoney(a), snapshot.getSourceMoney(b));
+    }
+}
@@ -0,0 +1,66 @@
+package ui;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures how long the main window takes to start up, so cold-start regressions can be tracked. Two times are kept,
+ * both counted from JVM start: first paint, when the window (with placeholders for anything not yet built) is first
+ * drawn, and interactive, when every deferred startup task has finished and the window is complete.
+ *
+ * The times are printed to the console when the program is run with -Dbudgeit.startupTiming=true, as are the main
+ * window's chart refresh counts when it closes. Must be used on the event dispatch thread.
+ */
+public class StartupTimer {
+    public static final boolean ENABLED = Boolean.getBoolean("budgeit.startupTiming");
+
+    private int pending;
+    private long firstPaintMillis = -1;
+    private long interactiveMillis = -1;
+
+    //REQUIRES: tasks > 0
+    //EFFECTS: Creates a timer for a startup that defers tasks tasks until after the window is shown
+    public StartupTimer(int tasks) {
+        this.pending = tasks;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Records the time of first paint, if this is the first paint
+    public void firstPaint() {
+        if (firstPaintMillis < 0) {
+            firstPaintMillis = uptime();
+            print("first paint", firstPaintMillis);
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Counts a deferred startup task as finished, recording the time the window became interactive if it was
+    //         the last one
+    public void taskDone() {
+        if (pending > 0 && --pending == 0) {
+            interactiveMillis = uptime();
+            print("interactive", interactiveMillis);
+        }
+    }
+
+    //EFFECTS: Returns the milliseconds from JVM start to first paint, or -1 if the window has not been painted
+    public long getFirstPaintMillis() {
+        return firstPaintMillis;
+    }
+
+    //EFFECTS: Returns the milliseconds from JVM start until every startup task was done, or -1 if some are not
+    public long getInteractiveMillis() {
+        return interactiveMillis;
+    }
+
+    //EFFECTS: Returns the milliseconds since JVM start
+    private static long uptime() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    //EFFECTS: Prints the time of a startup milestone if timing is enabled
+    private static void print(String milestone, long millis) {
+        if (ENABLED) {
+            System.out.println("Startup: " + milestone + " after " + millis + " ms");
+        }
+    }
+}
@@ -6,30 +6,92 @@ package ui.textconsole;
 import model.Account;
 import model.DebtAcc;
 import model.Source;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import persistence.AccountJournal;
 import ui.FilePathManager;
 
-import java.io.FileNotFoundException;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.math.BigDecimal;
-import java.util.List;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
 
 /**
  * Represents the main UI processing for the BudgeItApp, initializing the user's account.
+ *
+ * The app can also run in batch mode, reading the same commands a user would type (menu letters followed by their
+ * arguments, separated by spaces or new lines) from a script, with no menus or prompts printed. For example:
+ *     a add Work 5000
+ *     d add Loan 1000 5
+ *     end
+ *     file save
+ * Output is buffered and ends with a count of the commands run and of those rejected as invalid. Run a script with
+ * BudgeItApp --batch [file], reading standard input if no file is given.
  */
 public class BudgeItApp {
     private Account userAccount;
     private Scanner input;
-    private final String saveLocation = FilePathManager.getSaveLocation();
+    private final PrintWriter out;
+    private final boolean batch;
+    private final String saveLocation;
+    private final AccountJournal journal;
+    private int commandCount;
+    private int rejectedCount;
 
     public BudgeItApp() {
+        this(new InputStreamReader(System.in), new PrintWriter(System.out, true), FilePathManager.getSaveLocation(),
+                false);
         startBudgeIt();
     }
 
+    //EFFECTS: Creates an app in batch mode, reading commands from script and writing to output, that saves to and
+    //         loads from saveLocation. Call runBatch to run the script.
+    public BudgeItApp(Reader script, Writer output, String saveLocation) {
+        this(script, new PrintWriter(new BufferedWriter(output)), saveLocation, true);
+    }
+
+    private BudgeItApp(Reader script, PrintWriter out, String saveLocation, boolean batch) {
+        this.input = new Scanner(new BufferedReader(script));
+        this.out = out;
+        this.saveLocation = saveLocation;
+        this.journal = new AccountJournal(saveLocation);
+        this.batch = batch;
+    }
+
+    //EFFECTS: Runs the console app, or a batch script with --batch [file]
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--batch")) {
+            Reader script = args.length > 1
+                    ? Files.newBufferedReader(Paths.get(args[1])) : new InputStreamReader(System.in);
+            try (Reader in = script) {
+                new BudgeItApp(in, new OutputStreamWriter(System.out), FilePathManager.getSaveLocation()).runBatch();
+            }
+        } else {
+            new BudgeItApp();
+        }
+    }
+
     //MODIFIES: this
-    //EFFECTS: Starts the application and creates the user's account.
+    //EFFECTS: Runs every command in the script, then prints a summary. Returns the number of commands rejected.
+    public int runBatch() {
+        long start = System.nanoTime();
+        startBudgeIt();
+        out.println("Batch finished: " + commandCount + " commands, " + rejectedCount + " rejected, in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        out.flush();
+        return rejectedCount;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Starts the application and creates the user's account. Runs until the user quits or the input ends.
     private void startBudgeIt() {
         boolean running = true;
         String command;
@@ -37,30 +99,100 @@ public class BudgeItApp {
         init();
 
         while (running) {
-            input = new Scanner(System.in);
-            displayOptions();
+            if (!batch) {
+                displayOptions();
+            }
+            if (!input.hasNext()) {
+                closeJournal();
+                break;
+            }
             command = input.next();
             command = command.toLowerCase();
+            commandCount++;
 
             if (command.equals("q")) {
-
+                closeJournal();
                 running = false;
             } else {
-                commandLine(command);
+                runCommand(command);
             }
         }
+        out.flush();
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Runs a main menu command, rejecting it if one of its values is not a number or if an amount it gives or
+    //         works out is too large for the account to hold
+    private void runCommand(String command) {
+        try {
+            commandLine(command);
+        } catch (InputMismatchException e) {
+            reject("Please only enter numbers for this value: " + input.next());
+        } catch (NoSuchElementException e) {
+            reject("The input ended in the middle of a command.");
+        } catch (ArithmeticException e) {
+            reject("That amount is too large for BudgeIt to keep track of.");
+        }
+    }
+
+    //EFFECTS: Prints a request for the user's next input, unless running a script
+    private void prompt(String message) {
+        if (!batch) {
+            out.println(message);
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: Prints why the user's input was not accepted, and counts it as rejected
+    private void reject(String message) {
+        rejectedCount++;
+        out.println(message);
+    }
+
+    //EFFECTS: Reads a name, which is a single word. Typed at the console, the rest of the line is ignored.
+    private String readName() {
+        String name = input.next();
+        if (!batch) {
+            input.nextLine();
+        }
+        return name;
+    }
+
+    //EFFECTS: Returns the number of commands run
+    public int getCommandCount() {
+        return commandCount;
+    }
+
+    //EFFECTS: Returns the number of commands or values rejected as invalid
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    //EFFECTS: Closes the save journal, folding saved changes into the save file
+    private void closeJournal() {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            out.println("Unable to compact save journal " + journal.getJournalPath());
+        }
     }
 
     //EFFECTS: runs the main operations associated with the user's inputs
     private void commandLine(String command) {
         if (command.equals("a")) {
-            displayAccountOptions();
+            if (!batch) {
+                displayAccountOptions();
+            }
             commandLineAccount(awaitNextMenuCommand());
         } else if (command.equals("s")) {
-            displaySavingsAccountOptions();
+            if (!batch) {
+                displaySavingsAccountOptions();
+            }
             commandLineSavings(awaitNextMenuCommand());
         } else if (command.equals("d")) {
-            displayDebtAccountOptions();
+            if (!batch) {
+                displayDebtAccountOptions();
+            }
             commandLineDebts(awaitNextMenuCommand());
         } else if (command.equals("sur")) {
             displaySurplus();
@@ -71,10 +203,12 @@ public class BudgeItApp {
         } else if (command.equals("end")) {
             endPeriod();
         } else if (command.equals("file")) {
-            displayFileOptions();
+            if (!batch) {
+                displayFileOptions();
+            }
             commandLineFile(awaitNextMenuCommand());
         } else {
-            System.out.println("Please enter a valid selection.");
+            reject("Please enter a valid selection.");
         }
     }
 
@@ -91,7 +225,7 @@ public class BudgeItApp {
         } else if (command.equals("reset")) {
             resetAccount();
         } else {
-            System.out.println("Please enter a valid selection.");
+            reject("Please enter a valid selection.");
 
         }
     }
@@ -100,11 +234,11 @@ public class BudgeItApp {
     private void commandLineAccount(String command) {
         BigDecimal val;
         if (command.equals("d")) {
-            System.out.println("Please enter the amount you'd like to deposit to your account balance: ");
+            prompt("Please enter the amount you'd like to deposit to your account balance: ");
             val = input.nextBigDecimal();
             userAccount.depositBalance(val);
         } else if (command.equals("w")) {
-            System.out.println("Please enter the amount you'd like to withdraw from your account balance: ");
+            prompt("Please enter the amount you'd like to withdraw from your account balance: ");
             val = input.nextBigDecimal();
             userAccount.withdrawBalance(val);
         } else if (command.equals("bal")) {
@@ -120,7 +254,7 @@ public class BudgeItApp {
         } else if (command.equals("b")) {
             // RETURN TO MAIN MENU
         } else {
-            System.out.println("Please enter a valid selection.");
+            reject("Please enter a valid selection.");
         }
     }
 
@@ -129,11 +263,11 @@ public class BudgeItApp {
         BigDecimal val;
 
         if (command.equals("d")) {
-            System.out.println("Please enter the amount you'd like to deposit to your savings: ");
+            prompt("Please enter the amount you'd like to deposit to your savings: ");
             val = input.nextBigDecimal();
             addToSavings(val);
         } else if (command.equals("w")) {
-            System.out.println("Please enter the amount you'd like to withdraw from your savings: ");
+            prompt("Please enter the amount you'd like to withdraw from your savings: ");
             val = input.nextBigDecimal();
             withdrawFromSavings(val);
         } else if (command.equals("bal")) {
@@ -145,7 +279,7 @@ public class BudgeItApp {
         } else if (command.equals("b")) {
             // RETURN TO MAIN MENU
         } else {
-            System.out.println("Please enter a valid selection.");
+            reject("Please enter a valid selection.");
         }
     }
 
@@ -164,7 +298,7 @@ public class BudgeItApp {
         } else if (command.equals("b")) {
             // RETURN TO MAIN MENU
         } else {
-            System.out.println("Please enter a valid selection.");
+            reject("Please enter a valid selection.");
         }
     }
 
@@ -179,71 +313,69 @@ public class BudgeItApp {
     //EFFECTS: Creates the user's account for entry
     private void init() {
         userAccount = new Account();
-        input = new Scanner(System.in);
-        input.useDelimiter("\n");
     }
 
     //EFFECTS: Display options for input to the user
     private void displayOptions() {
-        System.out.println("\nSelect from:");
-        System.out.println("\ta -> show account options");
-        System.out.println("\ts -> show savings account options");
-        System.out.println("\td -> show debt management options");
-        System.out.println("\tsur -> show this month's surplus");
-        System.out.println("\trec -> show this month's receipt");
-        System.out.println("\trecs -> show all receipts on your account");
-        System.out.println("\tend -> end the current month, and record a receipt to your account");
-        System.out.println("\tfile -> access the options to save and load your file");
-        System.out.println("\tq -> quit");
+        out.println("\nSelect from:");
+        out.println("\ta -> show account options");
+        out.println("\ts -> show savings account options");
+        out.println("\td -> show debt management options");
+        out.println("\tsur -> show this month's surplus");
+        out.println("\trec -> show this month's receipt");
+        out.println("\trecs -> show all receipts on your account");
+        out.println("\tend -> end the current month, and record a receipt to your account");
+        out.println("\tfile -> access the options to save and load your file");
+        out.println("\tq -> quit");
     }
 
     //EFFECTS: Displays options for modifying your account.
     private void displayFileOptions() {
-        System.out.println("\nSelect from:");
-        System.out.println("\tsave -> save your file to disk");
-        System.out.println("\tload -> load your file from disk");
-        System.out.println("\tcr -> clear receipts from your account, and reset the month tracker");
-        System.out.println("\treset -> create a new account");
-        System.out.println("\tb -> return to main menu");
+        out.println("\nSelect from:");
+        out.println("\tsave -> save your file to disk");
+        out.println("\tload -> load your file from disk");
+        out.println("\tcr -> clear receipts from your account, and reset the month tracker");
+        out.println("\treset -> create a new account");
+        out.println("\tb -> return to main menu");
     }
 
     //EFFECTS: Displays options for modifying your account
     private void displayAccountOptions() {
-        System.out.println("\nSelect from:");
-        System.out.println("\td -> deposit");
-        System.out.println("\tw -> withdraw");
-        System.out.println("\tbal -> show current account balance");
-        System.out.println("\tu -> update your account balance quickly");
-        System.out.println("\tshow -> show all income and expense sources");
-        System.out.println("\tadd -> add income or expense to account");
-        System.out.println("\trem -> remove income or expense from account");
-        System.out.println("\tb -> return to main menu");
+        out.println("\nSelect from:");
+        out.println("\td -> deposit");
+        out.println("\tw -> withdraw");
+        out.println("\tbal -> show current account balance");
+        out.println("\tu -> update your account balance quickly");
+        out.println("\tshow -> show all income and expense sources");
+        out.println("\tadd -> add income or expense to account");
+        out.println("\trem -> remove income or expense from account");
+        out.println("\tb -> return to main menu");
     }
 
     //EFFECTS: Displays the options for modifying your savings account
     private void displaySavingsAccountOptions() {
-        System.out.println("\td -> deposit to savings"); //Account mod
-        System.out.println("\tw -> withdraw from savings");
-        System.out.println("\tbal -> show current savings account balance");
-        System.out.println("\tg -> set a savings goal for your account");
-        System.out.println("\ti -> set an interest rate for your savings");
-        System.out.println("\tb -> return to main menu");
+        out.println("\td -> deposit to savings"); //Account mod
+        out.println("\tw -> withdraw from savings");
+        out.println("\tbal -> show current savings account balance");
+        out.println("\tg -> set a savings goal for your account");
+        out.println("\ti -> set an interest rate for your savings");
+        out.println("\tb -> return to main menu");
     }
 
     //EFFECTS: Displays the options for modifying your debt
     private void displayDebtAccountOptions() {
-        System.out.println("\td -> show all current debts");
-        System.out.println("\tp -> make a payment on one of your debts");
-        System.out.println("\ta -> add value to one of your debts");
-        System.out.println("\tadd -> add a debt to your account");
-        System.out.println("\trem -> remove a debt from your account");
-        System.out.println("\tb -> return to main menu");
+        out.println("\td -> show all current debts");
+        out.println("\tp -> make a payment on one of your debts");
+        out.println("\ta -> add value to one of your debts");
+        out.println("\tadd -> add a debt to your account");
+        out.println("\trem -> remove a debt from your account");
+        out.println("\tb -> return to main menu");
     }
 
     //MODIFIES: this
     //EFFECTS: Updates the user's balance to given value
     private void updateBalance() {
-        System.out.println("Please enter your desired account balance:");
+        prompt("Please enter your desired account balance:");
         BigDecimal amount = input.nextBigDecimal();
         userAccount.updateBalance(amount);
     }
@@ -254,16 +386,17 @@ public class BudgeItApp {
         String name;
         BigDecimal val;
 
-        System.out.println("Please enter the name of the source you'd like to add: ");
-        name = input.next();
-        input.nextLine();
-        System.out.println("Please enter the value of the source you'd like to add: ");
+        prompt("Please enter the name of the source you'd like to add: ");
+        name = readName();
+        prompt("Please enter the value of the source you'd like to add: ");
         try {
-            input.reset();
             val = input.nextBigDecimal();
-            userAccount.addSource(name, val);
-        } catch (Exception e) {
-            System.out.println("Please make sure you enter a positive or negative number for value of the source.");
+            if (!userAccount.addSource(name, val)) {
+                reject("A source with that name already exists, please choose another name.");
+            }
+        } catch (InputMismatchException e) {
+            input.next();
+            reject("Please make sure you enter a positive or negative number for value of the source.");
         }
     }
 
@@ -272,20 +405,20 @@ public class BudgeItApp {
     private void removeSource() {
         String name;
 
-        System.out.println("Please enter the name of the source you'd like to remove: ");
+        prompt("Please enter the name of the source you'd like to remove: ");
         name = input.next();
 
         if (userAccount.removeSource(name)) {
-            System.out.println("Source removed.");
+            out.println("Source removed.");
         } else {
-            System.out.println("Source name could not be found, please try again.");
+            reject("Source name could not be found, please try again.");
         }
     }
 
     //EFFECTS: Displays this month's budget surplus
     private void displaySurplus() {
-        System.out.println("Your current surplus is: ");
-        System.out.println(userAccount.calculateSurplus());
+        out.println("Your current surplus is: ");
+        out.println(userAccount.calculateSurplus());
     }
 
     //REQUIRES: User inputs a value between 0 and 100
@@ -294,14 +427,14 @@ public class BudgeItApp {
     private void setSavingsGoal() {
         BigDecimal savingsGoal;
 
-        System.out.println("Please enter your desired savings goal as a percentage (of your income): ");
+        prompt("Please enter your desired savings goal as a percentage (of your income): ");
         savingsGoal = input.nextBigDecimal();
         savingsGoal = savingsGoal.movePointLeft(2);
 
         if (savingsGoal.compareTo(BigDecimal.ONE) > 0) {
-            System.out.println("Please make sure your value is not greater than 100%...");
+            reject("Please make sure your value is not greater than 100%...");
         } else if (savingsGoal.compareTo(BigDecimal.ZERO) < 0) {
-            System.out.println("Please make sure your value is not less than 0%...");
+            reject("Please make sure your value is not less than 0%...");
         } else {
             userAccount.setSavingsPercentGoal(savingsGoal);
         }
@@ -314,21 +447,20 @@ public class BudgeItApp {
         BigDecimal val;
         String name;
 
-        System.out.println("Please enter the name of the debt: ");
-        name = input.next();
-        input.nextLine();
-        System.out.println("Please enter the balance for the debt: ");
+        prompt("Please enter the name of the debt: ");
+        name = readName();
+        prompt("Please enter the balance for the debt: ");
         val = input.nextBigDecimal();
-        System.out.println("Please enter the interest rate for your debt: ");
+        prompt("Please enter the interest rate for your debt: ");
         interest = input.nextBigDecimal();
         interest = interest.movePointLeft(2);
 
         if (interest.compareTo(BigDecimal.ONE) > 0) {
-            System.out.println("Please make sure your value is not greater than 100%...");
+            reject("Please make sure your value is not greater than 100%...");
         } else if (interest.compareTo(BigDecimal.ZERO) < 0) {
-            System.out.println("Please make sure your value is not less than 0%...");
-        } else {
-            userAccount.addDebt(name, val, interest);
+            reject("Please make sure your value is not less than 0%...");
+        } else if (!userAccount.addDebt(name, val, interest)) {
+            reject("A debt with that name already exists, please choose another name.");
         }
     }
 
@@ -337,13 +469,13 @@ public class BudgeItApp {
     private void removeDebt() {
         String name;
 
-        System.out.println("Please enter the name of the debt you'd like to remove: ");
+        prompt("Please enter the name of the debt you'd like to remove: ");
         name = input.next();
 
         if (!userAccount.removeDebt(name)) {
-            System.out.println("Could not find that debt in your list.");
+            reject("Could not find that debt in your list.");
         } else {
-            System.out.println("Debt removed.");
+            out.println("Debt removed.");
         }
     }
 
@@ -352,26 +484,21 @@ public class BudgeItApp {
     private void payDebt() {
         String name;
         BigDecimal amt;
-        System.out.println("Please enter the name of the debt you'd like to make a payment on: ");
+        prompt("Please enter the name of the debt you'd like to make a payment on: ");
         name = input.next();
-        System.out.println("Please enter the payment amount: ");
+        prompt("Please enter the payment amount: ");
         amt = input.nextBigDecimal();
 
-        List<DebtAcc> debts = userAccount.getDebts();
-        for (DebtAcc d : debts) {
-            if (name.equals(d.getName())) {
-                if (amt.compareTo(d.getValue()) > 0) {
-                    System.out.println("You cannot pay a value greater than your debt balance.");
-                } else {
-                    d.subValue(amt);
-                    userAccount.withdrawBalance(amt);
-                    System.out.println("Balance remaining: " + d.getValue());
-                }
-            } else {
-                System.out.println("We could not find that debt in your list!");
-            }
+        DebtAcc d = userAccount.getDebt(name);
+        if (d == null) {
+            reject("We could not find that debt in your list!");
+        } else if (amt.compareTo(d.getValue()) > 0) {
+            reject("You cannot pay a value greater than your debt balance.");
+        } else {
+            userAccount.payDebt(name, amt);
+            userAccount.withdrawBalance(amt);
+            out.println("Balance remaining: " + d.getValue());
         }
-
     }
 
     //MODIFIES: this
@@ -379,18 +506,13 @@ public class BudgeItApp {
     private void addToDebt() {
         String name;
         BigDecimal amt;
-        System.out.println("Please enter the name of the debt you'd like to increase the value of: ");
+        prompt("Please enter the name of the debt you'd like to increase the value of: ");
         name = input.next();
-        System.out.println("Please enter the amount to increase the debt by: ");
+        prompt("Please enter the amount to increase the debt by: ");
         amt = input.nextBigDecimal();
 
-        List<DebtAcc> debts = userAccount.getDebts();
-        for (DebtAcc d : debts) {
-            if (name.equals(d.getName())) {
-                d.addValue(amt);
-            } else {
-                System.out.println("We could not find that debt in your list!");
-            }
+        if (!userAccount.addToDebt(name, amt)) {
+            reject("We could not find that debt in your list!");
         }
     }
 
@@ -398,7 +520,7 @@ public class BudgeItApp {
     //EFFECTS: Adds the given amt to your savings balance
     private void addToSavings(BigDecimal amt) {
         if (amt.compareTo(userAccount.getBalance()) > 0) {
-            System.out.println("Cannot deposit more than your account balance to savings.");
+            reject("Cannot deposit more than your account balance to savings.");
         } else {
             userAccount.depositSavings(amt);
         }
@@ -408,7 +530,7 @@ public class BudgeItApp {
     //EFFECTS: Withdraws from your savings balance to your account balance
     private void withdrawFromSavings(BigDecimal amt) {
         if (amt.compareTo(userAccount.getSavingsBal()) > 0) {
-            System.out.println("You cannot withdraw more than your current balance. Please try again.");
+            reject("You cannot withdraw more than your current balance. Please try again.");
         } else {
             userAccount.withdrawSavings(amt);
         }
@@ -416,43 +538,43 @@ public class BudgeItApp {
 
     //EFFECTS: displays this month's receipt
     private void displayReceipt() {
-        System.out.println(userAccount.returnReceipt());
+        out.println(userAccount.returnReceipt());
     }
 
     //EFFECTS: Displays all receipts attached to the user account
     private void displayReceipts() {
         if (userAccount.getReceipts().isEmpty()) {
-            System.out.println("There are no receipts recorded for this account.");
+            out.println("There are no receipts recorded for this account.");
         } else {
             for (String r : userAccount.getReceipts()) {
-                System.out.println(r);
+                out.println(r);
             }
         }
     }
 
     //EFFECTS: Prints out the user's current balance
     private void showBalance() {
-        System.out.println("Here is your current account balance: ");
-        System.out.println(userAccount.getBalance());
+        out.println("Here is your current account balance: ");
+        out.println(userAccount.getBalance());
     }
 
     private void showSources() {
         for (Source s : userAccount.getSources()) {
-            System.out.println("Name: " + s.getName() + ", Value: " + s.getValue());
+            out.println("Name: " + s.getName() + ", Value: " + s.getValue());
         }
     }
 
     //EFFECTS: Prints out the user's current savings balance
     private void showSavings() {
-        System.out.println("Here is your current savings balance: ");
-        System.out.println(userAccount.getSavings().getBal());
+        out.println("Here is your current savings balance: ");
+        out.println(userAccount.getSavings().getBal());
     }
 
     //EFFECTS: Prints out the user's list of debts attached to the account
     private void showDebts() {
-        System.out.println("Here are the debts listed on your account: ");
+        out.println("Here are the debts listed on your account: ");
         for (DebtAcc da : userAccount.getDebts()) {
-            System.out.println("Name: " + da.getName()
+            out.println("Name: " + da.getName()
                     + "\nValue: " + da.getValue()
                     + "\nInterest: " + da.getInterest().movePointRight(2) + "%");
         }
@@ -461,32 +583,29 @@ public class BudgeItApp {
     //MODIFIES: this
     //EFFECTS: Ends the current period, and starts the next one. Records the receipt for the previous period.
     private void endPeriod() {
-        System.out.println("Ending period...");
+        out.println("Ending period...");
         userAccount.computeNextPeriod();
+        out.println("We recommend saving: " + userAccount.getRecommendedSavings());
     }
 
-    //EFFECTS: Saves a JSON object with the details of the current account object
+    //EFFECTS: Saves the details of the current account object in the save file's format
     private void save() {
         try {
-            System.out.println("File saved to " + saveLocation);
-            JsonWriter writer = new JsonWriter(saveLocation);
-            writer.open();
-            writer.write(userAccount);
-            writer.close();
-        } catch (FileNotFoundException e) {
-            System.out.println("Unable to write to file " + saveLocation);
+            out.println("File saved to " + saveLocation);
+            journal.save(userAccount);
+        } catch (IOException e) {
+            reject("Unable to write to file " + saveLocation);
         }
     }
 
     //MODIFIES: this
-    //EFFECTS: Loads the saved JSONObject and updates account to what was saved
+    //EFFECTS: Reads the saved account in its file's format and updates account to what was saved
     private void load() {
         try {
-            System.out.println("File loading from " + saveLocation);
-            JsonReader reader = new JsonReader(saveLocation);
-            userAccount = reader.read();
+            out.println("File loading from " + saveLocation);
+            userAccount = journal.load();
         } catch (IOException e) {
-            System.out.println("Unable to read file " + saveLocation);
+            reject("Unable to read file " + saveLocation);
         }
     }
 
@@ -495,24 +614,23 @@ public class BudgeItApp {
     //EFFECTS: Sets the savings interest rate on your savings account
     private void setSavingsInterestRate() {
         BigDecimal interest;
-        System.out.println("Please enter the interest rate as a percentage: ");
+        prompt("Please enter the interest rate as a percentage: ");
         interest = input.nextBigDecimal();
         interest = interest.movePointLeft(2);
 
         if (interest.compareTo(BigDecimal.ONE) > 0) {
-            System.out.println("Please make sure your value is not greater than 100%...");
+            reject("Please make sure your value is not greater than 100%...");
         } else if (interest.compareTo(BigDecimal.ZERO) < 0) {
-            System.out.println("Please make sure your value is not less than 0%...");
+            reject("Please make sure your value is not less than 0%...");
         } else {
-            userAccount.getSavings().setInterest(interest);
+            userAccount.setSavingsInterest(interest);
         }
     }
 
     //MODIFIES: this
     //EFFECTS: clears all receipts from the user's account, and resets the month tracker
     private void clearReceipts() {
-        userAccount.getReceipts().clear();
-        userAccount.setMonthTracker(1);
+        userAccount.clearReceipts();
     }
 
     //MODIFIES: this
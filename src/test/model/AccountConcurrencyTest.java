@@ -0,0 +1,193 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress tests the concurrent mode of the model.Account class: several threads change the same account at once and
+ * the totals must come out as if the changes had run one at a time, with readers never seeing a change half done.
+ */
+public class AccountConcurrencyTest {
+    private static final int THREADS = 4;
+    private static final int ROUNDS = 5_000;
+    private static final BigDecimal START = BigDecimal.valueOf(1_000_000);
+
+    /**
+     * One thread's share of the work, run once every thread has started.
+     */
+    private interface Work {
+        void run(int thread) throws Exception;
+    }
+
+    @Test
+    public void testModeIsChosenAtCreation() {
+        assertTrue(new Account(true).isConcurrent());
+        assertFalse(new Account(false).isConcurrent());
+    }
+
+    @Test
+    public void testNoLostSavingsUpdates() throws Exception {
+        Account acc = new Account(true);
+        acc.updateBalance(START);
+        BigDecimal three = BigDecimal.valueOf(3);
+        run(THREADS, thread -> {
+            for (int i = 0; i < ROUNDS; i++) {
+                acc.depositSavings(three);
+                acc.withdrawSavings(BigDecimal.ONE);
+            }
+        });
+        BigDecimal moved = BigDecimal.valueOf(2L * THREADS * ROUNDS);
+        assertEquals(0, moved.compareTo(acc.getSavingsBal()));
+        assertEquals(0, START.subtract(moved).compareTo(acc.getBalance()));
+    }
+
+    @Test
+    public void testSnapshotsSeeWholeTransfers() throws Exception {
+        Account acc = new Account(true);
+        acc.updateBalance(START);
+        run(THREADS, thread -> {
+            for (int i = 0; i < ROUNDS; i++) {
+                if (thread == 0) {
+                    AccountSnapshot snapshot = new AccountSnapshot(acc);
+                    assertEquals(0, START.compareTo(snapshot.getBalance().add(snapshot.getSavingsBal())),
+                            "a snapshot saw money in neither or both places");
+                } else if (i % 2 == 0) {
+                    acc.depositSavings(BigDecimal.TEN);
+                } else {
+                    acc.withdrawSavings(BigDecimal.TEN);
+                }
+            }
+        });
+        assertEquals(0, START.compareTo(acc.getBalance().add(acc.getSavingsBal())));
+    }
+
+    @Test
+    public void testPartsChangedTogether() throws Exception {
+        Account acc = new Account(true);
+        acc.addDebt("Loan", BigDecimal.valueOf(100_000), BigDecimal.ZERO);
+        run(THREADS, thread -> {
+            for (int i = 0; i < ROUNDS; i++) {
+                switch (thread) {
+                    case 0:
+                        acc.addSource("Source " + i, BigDecimal.ONE);
+                        break;
+                    case 1:
+                        acc.payDebt("Loan", BigDecimal.ONE);
+                        acc.addToDebt("Loan", BigDecimal.valueOf(3));
+                        break;
+                    case 2:
+                        acc.depositBalance(BigDecimal.ONE);
+                        break;
+                    default:
+                        if (i % 100 == 0) {
+                            acc.toJson();
+                        }
+                        acc.calculateSurplus();
+                }
+            }
+        });
+        assertEquals(ROUNDS, acc.getSources().size());
+        assertEquals(0, BigDecimal.valueOf(ROUNDS).compareTo(acc.calculateSurplus()));
+        assertEquals(0, BigDecimal.valueOf(100_000 + 2 * ROUNDS).compareTo(acc.getDebt("Loan").getValue()));
+        assertEquals(0, BigDecimal.valueOf(ROUNDS).compareTo(acc.getBalance()));
+    }
+
+    @Test
+    public void testPublishedSnapshotsSeeEveryChange() throws Exception {
+        Account acc = new Account(true);
+        acc.updateBalance(START);
+        acc.addDebt("Loan", BigDecimal.valueOf(100_000), BigDecimal.ZERO);
+        run(THREADS, thread -> {
+            for (int i = 0; i < ROUNDS; i++) {
+                switch (thread) {
+                    case 0:
+                        AccountSnapshot snapshot = acc.snapshot();
+                        assertEquals(0, START.compareTo(snapshot.getBalance().add(snapshot.getSavingsBal())),
+                                "a published snapshot saw money in neither or both places");
+                        break;
+                    case 1:
+                        acc.depositSavings(BigDecimal.TEN);
+                        acc.withdrawSavings(BigDecimal.ONE);
+                        break;
+                    case 2:
+                        acc.addSource("Source " + i, BigDecimal.ONE);
+                        break;
+                    default:
+                        acc.payDebt("Loan", BigDecimal.ONE);
+                }
+            }
+        });
+        AccountSnapshot last = acc.snapshot();
+        assertEquals(ROUNDS, last.getSourceCount());
+        assertEquals(0, BigDecimal.valueOf(ROUNDS).compareTo(last.getSurplus()));
+        assertEquals(0, BigDecimal.valueOf(100_000 - ROUNDS).compareTo(last.getDebtValue(0)));
+        assertEquals(0, BigDecimal.valueOf(9L * ROUNDS).compareTo(last.getSavingsBal()));
+        assertEquals(0, acc.getBalance().compareTo(last.getBalance()));
+    }
+
+    @Test
+    public void testSnapshotReceiptsReadWhilePeriodsEnd() throws Exception {
+        Account acc = new Account(true);
+        acc.addSource("Work", BigDecimal.valueOf(100));
+        acc.addDebt("Loan", BigDecimal.valueOf(100_000), BigDecimal.valueOf(.01));
+        int periods = ROUNDS / 5;
+        run(2, thread -> {
+            if (thread == 0) {
+                for (int i = 0; i < periods; i++) {
+                    acc.computeNextPeriod();
+                }
+                return;
+            }
+            int seen = 0;
+            while (seen < periods) {
+                AccountSnapshot snapshot = acc.snapshot();
+                ReceiptHistory receipts = snapshot.getReceipts();
+                seen = receipts.size();
+                assertEquals(snapshot.getMonth() - 1, seen);
+                if (seen > 0) {
+                    assertEquals(seen, receipts.getMonth(seen - 1));
+                    assertEquals("Loan", receipts.getDebtName(seen - 1, 0));
+                    assertTrue(receipts.get(seen - 1).startsWith("Month: " + seen + "\n"));
+                    assertEquals(0, Money.compare(Money.of(BigDecimal.valueOf(100L * seen)),
+                            snapshot.queryHistory(ReceiptHistory.Column.BALANCE).last(1).max()));
+                }
+            }
+        });
+    }
+
+    // EFFECTS: runs work on the given number of threads, started together, and rethrows the first failure
+    private static void run(int threads, Work work) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> started = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    work.run(thread);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            worker.start();
+            started.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : started) {
+            worker.join();
+        }
+        if (failure.get() instanceof Exception) {
+            throw (Exception) failure.get();
+        } else if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.json.JSONObject;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the model.AccountSnapshot class for functionality
+ */
+public class AccountSnapshotTest {
+    Account testAcc;
+
+    @BeforeEach
+    public void setup() {
+        testAcc = new Account();
+        testAcc.addSource("Work", BigDecimal.valueOf(5000));
+        testAcc.addSource("Bills", BigDecimal.valueOf(-360.5));
+        testAcc.updateBalance(BigDecimal.valueOf(1200));
+        testAcc.depositSavings(BigDecimal.valueOf(200));
+        testAcc.setSavingsInterest(BigDecimal.valueOf(.01));
+        testAcc.setSavingsPercentGoal(BigDecimal.valueOf(.2));
+        testAcc.addDebt("Loan", BigDecimal.valueOf(1000), BigDecimal.valueOf(.05));
+    }
+
+    @Test
+    public void testCopiesAccount() {
+        AccountSnapshot snapshot = new AccountSnapshot(testAcc);
+        assertEquals(testAcc.getBalance(), snapshot.getBalance());
+        assertEquals(2, snapshot.getSourceCount());
+        assertEquals("Bills", snapshot.getSourceName(1));
+        assertEquals(BigDecimal.valueOf(-360.5), snapshot.getSourceValue(1));
+        assertEquals(testAcc.calculateSurplus(), snapshot.getSurplus());
+        assertEquals(1, snapshot.getDebtCount());
+        assertEquals("Loan", snapshot.getDebtName(0));
+        assertEquals(BigDecimal.valueOf(1000), snapshot.getDebtValue(0));
+        assertEquals(BigDecimal.valueOf(.05), snapshot.getDebtInterest(0));
+        assertEquals(BigDecimal.valueOf(200), snapshot.getSavingsBal());
+        assertEquals(BigDecimal.valueOf(.01), snapshot.getSavingsInterest());
+        assertEquals(BigDecimal.valueOf(.2), snapshot.getSavingsPercentGoal());
+    }
+
+    @Test
+    public void testUnaffectedByLaterChanges() {
+        AccountSnapshot snapshot = new AccountSnapshot(testAcc);
+        BigDecimal balance = testAcc.getBalance();
+        testAcc.addSource("Gift", BigDecimal.TEN);
+        testAcc.removeDebt("Loan");
+        testAcc.depositBalance(BigDecimal.ONE);
+        testAcc.computeNextPeriod();
+
+        assertEquals(balance, snapshot.getBalance());
+        assertEquals(2, snapshot.getSourceCount());
+        assertEquals(1, snapshot.getDebtCount());
+        assertEquals(BigDecimal.valueOf(200), snapshot.getSavingsBal());
+    }
+
+    @Test
+    public void testEveryChangePublished() {
+        AccountSnapshot before = testAcc.snapshot();
+        assertEquals(testAcc.getBalance(), before.getBalance());
+        assertEquals(2, before.getSourceCount());
+        assertEquals(BigDecimal.valueOf(200), before.getSavingsBal());
+
+        testAcc.addSource("Gift", BigDecimal.TEN);
+        testAcc.payDebt("Loan", BigDecimal.valueOf(100));
+        testAcc.computeNextPeriod();
+        AccountSnapshot after = testAcc.snapshot();
+        assertEquals(3, after.getSourceCount());
+        assertEquals("Gift", after.getSourceName(2));
+        assertEquals(testAcc.getSurplus(), after.getSurplus());
+        assertEquals(testAcc.getDebt("Loan").getValue(), after.getDebtValue(0));
+        assertEquals(testAcc.getSavingsBal(), after.getSavingsBal());
+        assertEquals(testAcc.getBalance(), after.getBalance());
+        assertEquals(2, after.getMonth());
+        assertEquals(1, after.getReceiptCount());
+
+        assertEquals(2, before.getSourceCount());
+        assertEquals(BigDecimal.valueOf(1000), before.getDebtValue(0));
+        assertEquals(1, before.getMonth());
+        assertEquals(0, before.getReceiptCount());
+    }
+
+    @Test
+    public void testUnchangedPartsShared() {
+        AccountSnapshot before = testAcc.snapshot();
+        testAcc.depositBalance(BigDecimal.ONE);
+        AccountSnapshot balance = testAcc.snapshot();
+        assertSame(before.sources, balance.sources);
+        assertSame(before.debts, balance.debts);
+
+        testAcc.addSource("Gift", BigDecimal.TEN);
+        AccountSnapshot source = testAcc.snapshot();
+        assertNotSame(balance.sources, source.sources);
+        assertSame(balance.debts, source.debts);
+        assertEquals(balance.getBalance(), source.getBalance());
+
+        testAcc.removeSource("Work");
+        testAcc.removeDebt("Loan");
+        AccountSnapshot removed = testAcc.snapshot();
+        assertEquals(2, removed.getSourceCount());
+        assertEquals("Bills", removed.getSourceName(0));
+        assertEquals(0, removed.getDebtCount());
+        assertEquals(testAcc.getSurplus(), removed.getSurplus());
+    }
+
+    @Test
+    public void testRemovedSlotsSkipped() {
+        for (int i = 0; i < 10; i++) {
+            testAcc.addSource("Side " + i, BigDecimal.valueOf(i + 1));
+        }
+        testAcc.removeSource("Work");
+        testAcc.removeSource("Side 3");
+        AccountSnapshot removed = testAcc.snapshot();
+        assertEquals(12, removed.sources.size());
+        assertEquals(10, removed.getSourceCount());
+        assertEquals("Bills", removed.getSourceName(0));
+        assertEquals("Side 4", removed.getSourceName(4));
+        assertEquals(testAcc.getSources().get(9).getName(), removed.getSourceName(9));
+        assertThrows(IndexOutOfBoundsException.class, () -> removed.getSourceName(10));
+
+        for (int i = 0; i < 10; i++) {
+            testAcc.removeSource("Side " + i);
+        }
+        AccountSnapshot compacted = testAcc.snapshot();
+        assertEquals(1, compacted.getSourceCount());
+        assertTrue(compacted.sources.size() < 6);
+        assertEquals("Bills", compacted.getSourceName(0));
+        testAcc.addSource("Gift", BigDecimal.TEN);
+        assertEquals("Gift", testAcc.snapshot().getSourceName(1));
+        assertEquals(testAcc.getSurplus(), testAcc.snapshot().getSurplus());
+        assertEquals(10, removed.getSourceCount());
+    }
+
+    @Test
+    public void testDebtChangesAfterRemoval() {
+        testAcc.addDebt("Card", BigDecimal.valueOf(300), BigDecimal.valueOf(.2));
+        testAcc.removeDebt("Loan");
+        testAcc.addDebt("Car", BigDecimal.valueOf(9000), BigDecimal.valueOf(.04));
+        testAcc.payDebt("Car", BigDecimal.valueOf(1000));
+        AccountSnapshot snapshot = testAcc.snapshot();
+        assertEquals(2, snapshot.getDebtCount());
+        assertEquals("Card", snapshot.getDebtName(0));
+        assertEquals("Car", snapshot.getDebtName(1));
+        assertEquals(0, BigDecimal.valueOf(8000).compareTo(snapshot.getDebtValue(1)));
+        assertTrue(snapshot.toJson().similar(testAcc.toJson()));
+    }
+
+    @Test
+    public void testReceiptsOfSnapshotKept() {
+        testAcc.computeNextPeriod();
+        AccountSnapshot first = testAcc.snapshot();
+        testAcc.computeNextPeriod();
+        assertEquals(1, first.queryHistory(ReceiptHistory.Column.BALANCE).count());
+        assertEquals(2, testAcc.snapshot().queryHistory(ReceiptHistory.Column.BALANCE).count());
+
+        testAcc.getReceipts().clear();
+        assertEquals(1, first.getReceipts().size());
+        assertThrows(UnsupportedOperationException.class, () -> first.getReceipts().add("Receipt"));
+
+        testAcc.clearReceipts();
+        assertEquals(0, testAcc.snapshot().getReceiptCount());
+        assertEquals(1, first.queryHistory(ReceiptHistory.Column.BALANCE).lastMonth());
+        assertEquals(2, first.getMonth());
+    }
+
+    @Test
+    public void testDirectChangesPublishedOnRequest() {
+        testAcc.getSavings().setBal(BigDecimal.valueOf(500));
+        assertEquals(BigDecimal.valueOf(200), testAcc.snapshot().getSavingsBal());
+        assertEquals(BigDecimal.valueOf(500), new AccountSnapshot(testAcc).getSavingsBal());
+        testAcc.publishSnapshot();
+        assertEquals(BigDecimal.valueOf(500), testAcc.snapshot().getSavingsBal());
+    }
+
+    @Test
+    public void testToJsonMatchesAccount() {
+        testAcc.computeNextPeriod();
+        testAcc.getReceipts().add("Old receipt");
+        testAcc.publishSnapshot();
+        JSONObject json = testAcc.snapshot().toJson();
+        assertTrue(json.similar(testAcc.toJson()));
+        assertEquals(2, json.getJSONArray("receipts").length());
+    }
+}
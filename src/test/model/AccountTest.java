@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -40,11 +42,30 @@ public class AccountTest {
         assertEquals(5, testAcc.getSources().size());
     }
 
+    @Test
+    public void testAddDuplicateSource() {
+        assertFalse(testAcc.addSource("Work", BigDecimal.valueOf(10)));
+        assertEquals(4, testAcc.getSources().size());
+        assertEquals(BigDecimal.valueOf(5000), testAcc.getSource("Work").getValue());
+    }
+
     @Test
     public void testRemoveSource() {
         assertTrue(testAcc.removeSource("test source"));
     }
 
+    @Test
+    public void testRemoveSourceKeepsOrder() {
+        assertTrue(testAcc.removeSource("Work"));
+        assertNull(testAcc.getSource("Work"));
+        assertEquals(3, testAcc.getSources().size());
+        assertEquals("test source", testAcc.getSources().get(0).getName());
+        assertEquals("Lawn Mowing", testAcc.getSources().get(1).getName());
+        assertEquals("Bills", testAcc.getSources().get(2).getName());
+        assertTrue(testAcc.addSource("Work", BigDecimal.valueOf(1)));
+        assertEquals("Work", testAcc.getSources().get(3).getName());
+    }
+
     @Test
     public void testRemoveNonExistentSource() {
         assertFalse(testAcc.removeSource("president of belarus"));
@@ -61,6 +82,117 @@ public class AccountTest {
         assertEquals(BigDecimal.valueOf(5000+500-1-360-6000).setScale(2, RoundingMode.CEILING), testAcc.calculateSurplus());
     }
 
+    @Test
+    public void testGetSurplusNotLogged() {
+        assertEquals(testAcc.calculateSurplus(), testAcc.getSurplus());
+        testAcc.addSource("Temp Bill", BigDecimal.valueOf(-6000));
+        assertEquals(testAcc.calculateSurplus(), testAcc.getSurplus());
+        assertEquals(BigDecimal.valueOf(5000+500-1-360-6000).setScale(2, RoundingMode.CEILING), testAcc.getSurplus());
+        long afterCalculate = EventLog.getInstance().getLoggedCount();
+        testAcc.getSurplus();
+        assertEquals(afterCalculate, EventLog.getInstance().getLoggedCount());
+    }
+
+    @Test
+    public void testNextPeriodOutOfRangeLeavesAccountUnchanged() {
+        testAcc.addDebt("Small", BigDecimal.valueOf(100), BigDecimal.valueOf(.1));
+        testAcc.addDebt("A", new BigDecimal("1000000000000"), new BigDecimal("0.5"));
+        testAcc.depositSavings(BigDecimal.TEN);
+        testAcc.setSavingsInterest(BigDecimal.valueOf(.01));
+        int month = testAcc.getMonthTracker();
+
+        assertThrows(ArithmeticException.class, testAcc::computeNextPeriod);
+        assertEquals(0, BigDecimal.valueOf(-10).compareTo(testAcc.getBalance()));
+        assertEquals(BigDecimal.valueOf(100), testAcc.getDebt("Small").getValue());
+        assertEquals(new BigDecimal("1000000000000"), testAcc.getDebt("A").getValue());
+        assertEquals(BigDecimal.TEN, testAcc.getSavings().getBal());
+        assertEquals(month, testAcc.getMonthTracker());
+        assertTrue(testAcc.getReceipts().isEmpty());
+        AccountSnapshot snapshot = testAcc.snapshot();
+        assertEquals(testAcc.getMoney(), snapshot.getMoney());
+        assertEquals(testAcc.getDebt("Small").getMoney(), snapshot.getDebtMoney(0));
+        assertEquals(0, snapshot.getReceiptCount());
+
+        testAcc.payDebt("A", new BigDecimal("500000000000"));
+        testAcc.computeNextPeriod();
+        assertEquals(month + 1, testAcc.getMonthTracker());
+        assertEquals(new BigDecimal("750000000000.00"), testAcc.getDebt("A").getValue());
+    }
+
+    @Test
+    public void testOutOfRangeChangesLeaveAccountUnchanged() {
+        BigDecimal large = new BigDecimal("1000000000000");
+        assertTrue(testAcc.addSource("Windfall", large));
+        assertThrows(ArithmeticException.class, () -> testAcc.addSource("Jackpot", large));
+        assertNull(testAcc.getSource("Jackpot"));
+        assertEquals(5, testAcc.getSources().size());
+        assertEquals(0, large.add(BigDecimal.valueOf(5139)).compareTo(testAcc.getSurplus()));
+
+        testAcc.updateBalance(large);
+        testAcc.depositSavings(large);
+        testAcc.updateBalance(large);
+        assertThrows(ArithmeticException.class, () -> testAcc.depositSavings(new BigDecimal("300000000000")));
+        assertEquals(large, testAcc.getBalance());
+        assertEquals(large, testAcc.getSavings().getBal());
+    }
+
+    @Test
+    public void testNextPeriodLogsNoTotalsItDoesNotCompute() {
+        EventLog log = EventLog.getInstance();
+        EventType.Level level = log.getLevel();
+        log.setLevel(EventType.Level.DEBUG);
+        try {
+            log.clear();
+            testAcc.computeNextPeriod();
+            int surpluses = 0;
+            for (Event e : log) {
+                assertNotEquals(EventType.INCOME_CALCULATED, e.getType());
+                assertNotEquals(EventType.EXPENSES_CALCULATED, e.getType());
+                if (e.getType() == EventType.SURPLUS_CALCULATED) {
+                    surpluses++;
+                }
+            }
+            assertEquals(1, surpluses);
+        } finally {
+            log.setLevel(level);
+        }
+    }
+
+    @Test
+    public void testTotalsAfterRemoval() {
+        Account.setVerifyTotals(true);
+        try {
+            testAcc.addSource("Interest", new BigDecimal("0.125"));
+            testAcc.addSource("Coffee", new BigDecimal("-4.5"));
+            assertEquals(new BigDecimal("5500.125"), testAcc.calculateIncome());
+            assertEquals(new BigDecimal("-365.5"), testAcc.calculateExpenses());
+            assertEquals(new BigDecimal("5134.63"), testAcc.calculateSurplus());
+
+            assertTrue(testAcc.removeSource("Interest"));
+            assertTrue(testAcc.removeSource("Coffee"));
+            assertEquals(BigDecimal.valueOf(5500), testAcc.calculateIncome());
+            assertEquals(BigDecimal.valueOf(-361), testAcc.calculateExpenses());
+            assertEquals(BigDecimal.valueOf(5139).setScale(2, RoundingMode.CEILING), testAcc.calculateSurplus());
+
+            testAcc.removeSource("Work");
+            testAcc.removeSource("Lawn Mowing");
+            assertEquals(BigDecimal.ZERO, testAcc.calculateIncome());
+        } finally {
+            Account.setVerifyTotals(false);
+        }
+    }
+
+    @Test
+    public void testVerifyTotalsDetectsDrift() {
+        Account.setVerifyTotals(true);
+        try {
+            testAcc.totals.add(Money.of(BigDecimal.ONE));
+            assertThrows(IllegalStateException.class, () -> testAcc.calculateIncome());
+        } finally {
+            Account.setVerifyTotals(false);
+        }
+    }
+
     @Test
     public void testCalculateIncome() {
         assertEquals(BigDecimal.valueOf(5000+500), testAcc.calculateIncome());
@@ -136,12 +268,55 @@ public class AccountTest {
         assertEquals(1, testAcc.getReceipts().size());
     }
 
+    @Test
+    public void testComputeNextPeriodRecordsReceipt() {
+        testAcc.addDebt("Loan", BigDecimal.valueOf(1000), BigDecimal.valueOf(.1));
+        testAcc.setSavingsPercentGoal(BigDecimal.valueOf(.1));
+        String summary = testAcc.returnReceipt();
+        testAcc.computeNextPeriod();
+
+        ReceiptHistory receipts = testAcc.getReceipts();
+        assertTrue(receipts.isRecorded(0));
+        assertEquals(1, receipts.getMonth(0));
+        assertEquals(testAcc.getMoney(), receipts.getMoney(ReceiptHistory.Column.BALANCE, 0));
+        assertEquals("Loan", receipts.getDebtName(0, 0));
+        assertEquals(testAcc.getDebt("Loan").getMoney(), receipts.getDebtBalance(0, 0));
+        assertEquals(0, Money.compare(Money.ofCents(10000, 2), receipts.getDebtInterest(0, 0)));
+        assertEquals(summary + "\nBalance: 5139.00\nSavings Balance: " + testAcc.getSavingsBal()
+                + "\nDebt Loan: 1100.00 (interest 100.00)\n------", receipts.get(0));
+    }
+
+    @Test
+    public void testQueryHistory() {
+        testAcc.addDebt("Loan", BigDecimal.valueOf(1000), BigDecimal.valueOf(.1));
+        for (int i = 0; i < 14; i++) {
+            testAcc.computeNextPeriod();
+        }
+        HistoryQuery balances = testAcc.queryHistory(ReceiptHistory.Column.BALANCE);
+        assertEquals(14, balances.count());
+        assertEquals(12, balances.groupBy(HistoryQuery.Period.YEAR).get(0).count());
+        assertEquals(new BigDecimal("5139.00"), balances.last(12).column(ReceiptHistory.Column.SURPLUS).average());
+        assertEquals(testAcc.getMoney(), balances.max());
+        assertEquals(new BigDecimal("13.000000"), balances.growth());
+        assertEquals(0, Money.compare(Money.subtract(testAcc.getDebt("Loan").getMoney(), Money.ofCents(100000, 2)),
+                balances.interest("Loan")));
+        assertEquals(0, Money.compare(Money.ofCents(10000, 2), balances.months(1, 1).interest("Loan")));
+    }
+
     @Test
     public void testAddDebt() {
         testAcc.addDebt("Credit Card2", BigDecimal.valueOf(100), BigDecimal.valueOf(.2));
         assertEquals(1, testAcc.getDebts().size());
     }
 
+    @Test
+    public void testAddDuplicateDebt() {
+        assertTrue(testAcc.addDebt("Loan", BigDecimal.valueOf(100), BigDecimal.valueOf(.2)));
+        assertFalse(testAcc.addDebt("Loan", BigDecimal.valueOf(200), BigDecimal.valueOf(.1)));
+        assertEquals(1, testAcc.getDebts().size());
+        assertEquals(BigDecimal.valueOf(100), testAcc.getDebt("Loan").getValue());
+    }
+
     @Test
     public void removeDebt() {
         testAcc.addDebt("Credit Card", BigDecimal.valueOf(20000), BigDecimal.valueOf(.2));
@@ -192,4 +367,61 @@ public class AccountTest {
         assertFalse(testAcc.payDebt("Lone", BigDecimal.ONE));
         assertEquals(BigDecimal.valueOf(1000), testAcc.getDebts().get(0).getValue());
     }
+
+    @Test
+    public void testAddToDebt() {
+        testAcc.addDebt("Loan", BigDecimal.valueOf(1000), BigDecimal.valueOf(.2));
+        assertTrue(testAcc.addToDebt("Loan", BigDecimal.valueOf(250)));
+        assertEquals(BigDecimal.valueOf(1250), testAcc.getDebts().get(0).getValue());
+        assertFalse(testAcc.addToDebt("Lone", BigDecimal.ONE));
+    }
+
+    @Test
+    public void testSetSavingsInterestAndClearReceipts() {
+        testAcc.setSavingsInterest(BigDecimal.valueOf(.05));
+        assertEquals(BigDecimal.valueOf(.05), testAcc.getSavings().getInterest());
+
+        testAcc.computeNextPeriod();
+        testAcc.clearReceipts();
+        assertTrue(testAcc.getReceipts().isEmpty());
+        assertEquals(1, testAcc.getMonthTracker());
+    }
+
+    @Test
+    public void testListenerSeesChanges() {
+        List<AccountOp> ops = new ArrayList<>();
+        AccountListener listener = (acc, op, name, amount, rate) -> ops.add(op);
+        testAcc.addListener(listener);
+        testAcc.addSource("Gift", BigDecimal.TEN);
+        testAcc.addSource("Gift", BigDecimal.TEN);
+        testAcc.removeSource("Nothing");
+        testAcc.depositBalance(BigDecimal.TEN);
+        testAcc.addDebt("Loan", BigDecimal.TEN, BigDecimal.ONE);
+        testAcc.payDebt("Loan", BigDecimal.ONE);
+        testAcc.removeListener(listener);
+        testAcc.computeNextPeriod();
+        assertEquals(List.of(AccountOp.ADD_SOURCE, AccountOp.DEPOSIT_BALANCE, AccountOp.ADD_DEBT, AccountOp.PAY_DEBT),
+                ops);
+    }
+
+    @Test
+    public void testReplayOpsRebuildsAccount() {
+        Account copy = new Account();
+        testAcc = new Account();
+        testAcc.addListener((acc, op, name, amount, rate) -> op.apply(copy, name, amount, rate));
+        testAcc.addSource("Work", BigDecimal.valueOf(5000));
+        testAcc.addDebt("Loan", BigDecimal.valueOf(1000), BigDecimal.valueOf(.2));
+        testAcc.setSavingsPercentGoal(BigDecimal.valueOf(.1));
+        testAcc.setSavingsInterest(BigDecimal.valueOf(.05));
+        testAcc.computeNextPeriod();
+        testAcc.addToDebt("Loan", BigDecimal.TEN);
+        testAcc.withdrawSavings(BigDecimal.ONE);
+        testAcc.computeNextPeriod();
+
+        assertEquals(testAcc.getBalance(), copy.getBalance());
+        assertEquals(testAcc.getSavingsBal(), copy.getSavingsBal());
+        assertEquals(testAcc.getDebts().get(0).getValue(), copy.getDebts().get(0).getValue());
+        assertEquals(testAcc.getMonthTracker(), copy.getMonthTracker());
+        assertEquals(testAcc.getReceipts(), copy.getReceipts());
+    }
 }
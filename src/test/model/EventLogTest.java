@@ -1,8 +1,15 @@
 package model;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class EventLogTest {
@@ -15,6 +22,12 @@ public class EventLogTest {
         testEvent = new Event("Test Event");
     }
 
+    @AfterEach
+    public void teardown() {
+        el.configure(EventLog.DEFAULT_CAPACITY, EventLog.Retention.DROP_OLDEST, null);
+        el.setLevel(EventType.Level.INFO);
+    }
+
     @Test
     public void testGetInstance() {
         assertTrue(EventLog.getInstance().equals(el));
@@ -36,4 +49,130 @@ public class EventLogTest {
         el.clear();
         assertNotEquals(testEvent, el.iterator().next());
     }
+
+    @Test
+    public void testCapacityRoundedToPowerOfTwo() {
+        el.configure(5, EventLog.Retention.DROP_OLDEST, null);
+        assertEquals(8, el.getCapacity());
+        el.configure(8, EventLog.Retention.DROP_OLDEST, null);
+        assertEquals(8, el.getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> el.configure(0, EventLog.Retention.DROP_OLDEST, null));
+    }
+
+    @Test
+    public void testDropOldest() {
+        el.configure(4, EventLog.Retention.DROP_OLDEST, null);
+        long droppedBefore = el.getDroppedCount();
+        for (int i = 0; i < 10; i++) {
+            el.logEvent(new Event("Event " + i));
+        }
+        assertEquals(4, el.getRetainedCount());
+        assertEquals(6, el.getDroppedCount() - droppedBefore);
+
+        List<String> descriptions = new ArrayList<>();
+        for (Event event : el) {
+            descriptions.add(event.getDescription());
+        }
+        assertEquals(List.of("Event 6", "Event 7", "Event 8", "Event 9"), descriptions);
+    }
+
+    @Test
+    public void testSpillToDisk() throws IOException {
+        Path spill = Files.createTempFile("eventlog", ".log");
+        try {
+            el.configure(2, EventLog.Retention.SPILL_TO_DISK, spill);
+            long spilledBefore = el.getSpilledCount();
+            el.logEvent(new Event("Event 0"));
+            el.logEvent(new Event("Event 1"));
+            el.logEvent(new Event("Event 2"));
+            el.clear();
+
+            assertEquals(1, el.getSpilledCount() - spilledBefore);
+            List<String> lines = Files.readAllLines(spill);
+            assertEquals(1, lines.size());
+            assertTrue(lines.get(0).endsWith("Event 0"));
+        } finally {
+            el.configure(EventLog.DEFAULT_CAPACITY, EventLog.Retention.DROP_OLDEST, null);
+            Files.deleteIfExists(spill);
+        }
+    }
+
+    @Test
+    public void testSpillFlushedAsWritten() throws IOException, InterruptedException {
+        Path spill = Files.createTempFile("eventlog", ".log");
+        try {
+            el.configure(4, EventLog.Retention.SPILL_TO_DISK, spill);
+            long spilledBefore = el.getSpilledCount();
+            for (int i = 0; i < 5; i++) {
+                el.logEvent(new Event("Event " + i));
+            }
+            List<String> lines = Files.readAllLines(spill);
+            assertEquals(1, lines.size());
+            assertTrue(lines.get(0).endsWith("Event 0"));
+
+            Thread[] producers = new Thread[4];
+            for (int t = 0; t < producers.length; t++) {
+                producers[t] = new Thread(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        el.logEvent(new Event("Concurrent"));
+                    }
+                });
+                producers[t].start();
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            assertEquals(el.getSpilledCount() - spilledBefore, Files.readAllLines(spill).size());
+
+            el.close();
+            el.logEvent(new Event("After close"));
+            el.flush();
+            assertEquals(el.getSpilledCount() - spilledBefore, Files.readAllLines(spill).size());
+        } finally {
+            el.configure(EventLog.DEFAULT_CAPACITY, EventLog.Retention.DROP_OLDEST, null);
+            Files.deleteIfExists(spill);
+        }
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        el.configure(1024, EventLog.Retention.DROP_OLDEST, null);
+        long loggedBefore = el.getLoggedCount();
+        long droppedBefore = el.getDroppedCount();
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++) {
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    el.logEvent(new Event("Concurrent"));
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        assertEquals(40000, el.getLoggedCount() - loggedBefore);
+        assertEquals(40000 - 1024, el.getDroppedCount() - droppedBefore);
+        assertEquals(1024, el.getRetainedCount());
+    }
+
+    @Test
+    public void testLevelSkipsEvents() {
+        el.clear();
+        long loggedBefore = el.getLoggedCount();
+        el.logEvent(EventType.SURPLUS_CALCULATED);
+        assertEquals(loggedBefore, el.getLoggedCount());
+        el.logEvent(EventType.SOURCE_REMOVED, "Work");
+        assertEquals(loggedBefore + 1, el.getLoggedCount());
+
+        el.setLevel(EventType.Level.DEBUG);
+        el.logEvent(EventType.DEBT_INTEREST_CALCULATED, "Loan");
+        assertEquals(loggedBefore + 2, el.getLoggedCount());
+        assertTrue(el.isLoggable(EventType.RECEIPT_CREATED));
+
+        el.setLevel(EventType.Level.OFF);
+        el.logEvent(EventType.DEBT_PAID, "5", "Loan");
+        assertEquals(loggedBefore + 2, el.getLoggedCount());
+        assertFalse(el.isLoggable(EventType.MESSAGE));
+    }
 }
@@ -3,7 +3,9 @@ package model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
 import java.util.Calendar;
+import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -25,8 +27,13 @@ public class EventTest {
 
     @Test
     public void testConstructor() {
-        assertEquals(Calendar.getInstance().getTime(), e1.getDate());
+        Date before = Calendar.getInstance().getTime();
+        Event e = new Event("Test Event");
+        Date after = Calendar.getInstance().getTime();
+        assertFalse(e.getDate().before(before));
+        assertFalse(e.getDate().after(after));
         assertEquals("Test Event", e1.getDescription());
+        assertEquals(EventType.MESSAGE, e1.getType());
     }
 
     @SuppressWarnings("unlikely-arg-type")
@@ -47,4 +54,32 @@ public class EventTest {
     public void testToString() {
         assertEquals(e1.getDate().toString() + "\n" + e1.getDescription(), e1.toString());
     }
+
+    @Test
+    public void testTypedEventFormatsLazily() {
+        StringBuilder name = new StringBuilder("Work");
+        Event typed = new Event(EventType.SOURCE_ADDED, name, BigDecimal.valueOf(500));
+        name.append(" (late edit)");
+        assertEquals(EventType.SOURCE_ADDED, typed.getType());
+        assertEquals("Source added with name: Work (late edit), and modify balance: 500", typed.getDescription());
+        name.append(" ignored");
+        assertTrue(typed.toString().endsWith("\nSource added with name: Work (late edit), and modify balance: 500"));
+    }
+
+    @Test
+    public void testTypedEventWithoutArguments() {
+        assertEquals("Creating receipt...", new Event(EventType.RECEIPT_CREATED).getDescription());
+        assertEquals("Successfully paid 5 from Loan's debt account balance",
+                new Event(EventType.DEBT_PAID, 5, "Loan").getDescription());
+    }
+
+    @Test
+    public void testTimestamp() {
+        long before = System.currentTimeMillis();
+        Event e = new Event(EventType.PERIOD_ENDED);
+        long after = System.currentTimeMillis();
+        assertTrue(e.getTimestamp() / 1_000_000 >= before);
+        assertTrue(e.getTimestamp() / 1_000_000 <= after);
+        assertEquals(e.getTimestamp() / 1_000_000, e.getDate().getTime());
+    }
 }
@@ -0,0 +1,153 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the model.HistoryQuery class for functionality
+ */
+public class HistoryQueryTest {
+    ReceiptHistory history;
+
+    @BeforeEach
+    public void setup() {
+        history = new ReceiptHistory();
+        String[] surpluses = {"100", "-50.25", "300", "-50.25", "75.50", "0", "20", "400", "-10", "5", "60", "90",
+                "-200", "30"};
+        for (int i = 0; i < surpluses.length; i++) {
+            history.addDebtBalance("Loan", Money.ofCents(100000, 2), Money.ofCents(1000 + i, 2));
+            if (i % 2 == 0) {
+                history.addDebtBalance("Card", Money.ofCents(5000, 2), Money.ofCents(50, 2));
+            }
+            history.record(i + 1, ReceiptHistoryTest.amounts("5000", "-4900", surpluses[i], "0",
+                    String.valueOf(1000 + 100 * i), String.valueOf(500 + 25 * i)));
+        }
+    }
+
+    @Test
+    public void testAggregates() {
+        HistoryQuery surplus = history.query(ReceiptHistory.Column.SURPLUS);
+        assertEquals(14, surplus.count());
+        assertEquals(0, Money.compare(money("770.00"), surplus.sum()));
+        assertEquals(money("-200"), surplus.min());
+        assertEquals(13, surplus.minMonth());
+        assertEquals(money("400"), surplus.max());
+        assertEquals(8, surplus.maxMonth());
+        assertEquals(new BigDecimal("55.00"), surplus.average());
+        assertEquals(0, Money.compare(money("-200"), surplus.percentile(0)));
+        assertEquals(0, Money.compare(money("20"), surplus.percentile(50)));
+        assertEquals(0, Money.compare(money("400"), surplus.percentile(100)));
+        assertEquals(new BigDecimal("-0.700000"), surplus.growth());
+        assertEquals(new BigDecimal("0.650000"), surplus.column(ReceiptHistory.Column.SAVINGS_BALANCE).growth());
+        assertNull(surplus.months(6, 14).growth());
+    }
+
+    @Test
+    public void testRanges() {
+        HistoryQuery surplus = history.query(ReceiptHistory.Column.SURPLUS);
+        HistoryQuery lastYear = surplus.last(12);
+        assertEquals(3, lastYear.firstMonth());
+        assertEquals(14, lastYear.lastMonth());
+        assertEquals(money("-200"), lastYear.min());
+        assertEquals(14, surplus.last(100).count());
+
+        HistoryQuery spring = surplus.months(4, 6);
+        assertEquals(3, spring.count());
+        assertEquals(money("-50.25"), spring.min());
+        assertEquals(4, spring.minMonth());
+        assertEquals(0, surplus.months(6, 4).count());
+        assertEquals(0, surplus.months(20, 30).count());
+        assertEquals(2, surplus.months(13, Integer.MAX_VALUE).count());
+        assertEquals(2, spring.range(1, 3).count());
+        assertEquals(5, spring.range(1, 3).firstMonth());
+
+        HistoryQuery empty = surplus.months(20, 30);
+        assertEquals(Money.ZERO, empty.sum());
+        assertThrows(NoSuchElementException.class, empty::min);
+        assertThrows(NoSuchElementException.class, empty::average);
+        assertThrows(IllegalArgumentException.class, () -> surplus.percentile(101));
+    }
+
+    @Test
+    public void testGroupBy() {
+        HistoryQuery balance = history.query(ReceiptHistory.Column.BALANCE);
+        List<HistoryQuery> quarters = balance.groupBy(HistoryQuery.Period.QUARTER);
+        assertEquals(5, quarters.size());
+        assertEquals(3, quarters.get(0).count());
+        assertEquals(10, quarters.get(3).firstMonth());
+        assertEquals(2, quarters.get(4).count());
+        assertEquals(money("2100"), quarters.get(3).max());
+        assertEquals(0, Money.compare(money("6000"), quarters.get(3).sum()));
+
+        List<HistoryQuery> years = balance.months(6, 14).groupBy(HistoryQuery.Period.YEAR);
+        assertEquals(2, years.size());
+        assertEquals(6, years.get(0).firstMonth());
+        assertEquals(12, years.get(0).lastMonth());
+        assertEquals(13, years.get(1).firstMonth());
+        assertTrue(balance.months(20, 30).groupBy(HistoryQuery.Period.YEAR).isEmpty());
+    }
+
+    @Test
+    public void testInterest() {
+        HistoryQuery query = history.query(ReceiptHistory.Column.BALANCE);
+        long expected = 0;
+        for (int i = 0; i < 14; i++) {
+            expected += 1000 + i;
+        }
+        assertEquals(0, Money.compare(Money.ofCents(expected, 2), query.interest("Loan")));
+        assertEquals(0, Money.compare(Money.ofCents(350, 2), query.interest("Card")));
+        assertEquals(0, Money.compare(Money.ofCents(50, 2), query.months(3, 4).interest("Card")));
+        assertEquals(0, Money.compare(Money.ofCents(1003 + 1004, 2), query.months(4, 5).interest("Loan")));
+        assertEquals(0, Money.signum(query.interest("Mortgage")));
+
+        history.addDebtBalance("Mortgage", Money.ofCents(100, 2), Money.ofCents(7, 2));
+        history.record(15, new long[ReceiptHistory.Column.values().length]);
+        assertEquals(0, Money.compare(Money.ofCents(7, 2), history.query(ReceiptHistory.Column.BALANCE)
+                .interest("Mortgage")));
+    }
+
+    @Test
+    public void testMatchesScanOverLongHistory() {
+        history.clear();
+        Random random = new Random(210);
+        int months = ReceiptHistory.CHUNK_SIZE * 4 + 3;
+        long[] cents = new long[months];
+        for (int i = 0; i < months; i++) {
+            cents[i] = random.nextInt(200_000) - 100_000;
+            long[] amounts = new long[ReceiptHistory.Column.values().length];
+            amounts[ReceiptHistory.Column.SURPLUS.ordinal()] = Money.ofCents(cents[i], 2);
+            history.record(i + 1, amounts);
+        }
+        HistoryQuery surplus = history.query(ReceiptHistory.Column.SURPLUS);
+        for (int trial = 0; trial < 200; trial++) {
+            int from = random.nextInt(months);
+            int to = from + 1 + random.nextInt(months - from);
+            HistoryQuery range = surplus.months(from + 1, to);
+            long[] sorted = Arrays.copyOfRange(cents, from, to);
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long c : sorted) {
+                total += c;
+            }
+            assertEquals(to - from, range.count());
+            assertEquals(0, Money.compare(Money.ofCents(total, 2), range.sum()));
+            assertEquals(Money.ofCents(sorted[0], 2), range.min());
+            assertEquals(Money.ofCents(sorted[sorted.length - 1], 2), range.max());
+            int percent = 1 + random.nextInt(100);
+            int rank = (percent * sorted.length + 99) / 100 - 1;
+            assertEquals(0, Money.compare(Money.ofCents(sorted[rank], 2), range.percentile(percent)));
+        }
+    }
+
+    private static long money(String amount) {
+        return Money.of(new BigDecimal(amount));
+    }
+}
@@ -0,0 +1,177 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the model.Money class for equivalence with the BigDecimal arithmetic it replaces
+ */
+public class MoneyTest {
+    private static final int TRIALS = 20000;
+    Random random;
+
+    @BeforeEach
+    public void setup() {
+        random = new Random(210);
+    }
+
+    @Test
+    public void testRoundTripKeepsScale() {
+        for (int i = 0; i < TRIALS; i++) {
+            BigDecimal val = randomAmount();
+            assertEquals(val, Money.toBigDecimal(Money.of(val)));
+        }
+        assertEquals(BigDecimal.valueOf(500), Money.toBigDecimal(Money.of(BigDecimal.valueOf(500))));
+        assertEquals(new BigDecimal("500.00"), Money.toBigDecimal(Money.of(new BigDecimal("500.00"))));
+    }
+
+    @Test
+    public void testAddSubtractEquivalence() {
+        for (int i = 0; i < TRIALS; i++) {
+            BigDecimal a = randomAmount();
+            BigDecimal b = randomAmount();
+            assertEquals(a.add(b), Money.toBigDecimal(Money.add(Money.of(a), Money.of(b))));
+            assertEquals(a.subtract(b), Money.toBigDecimal(Money.subtract(Money.of(a), Money.of(b))));
+        }
+    }
+
+    @Test
+    public void testCeilCentsEquivalence() {
+        for (int i = 0; i < TRIALS; i++) {
+            BigDecimal a = randomAmount();
+            assertEquals(a.setScale(2, RoundingMode.CEILING), Money.toBigDecimal(Money.ceilCents(Money.of(a))));
+        }
+        assertEquals(new BigDecimal("-1.23"),
+                Money.toBigDecimal(Money.ceilCents(Money.of(new BigDecimal("-1.239")))));
+        assertEquals(new BigDecimal("1.24"),
+                Money.toBigDecimal(Money.ceilCents(Money.of(new BigDecimal("1.231")))));
+    }
+
+    @Test
+    public void testCompoundEquivalence() {
+        for (int i = 0; i < TRIALS; i++) {
+            BigDecimal a = randomAmount();
+            BigDecimal rate = BigDecimal.valueOf(random.nextInt(1_000_000), random.nextInt(Money.MAX_SCALE + 1));
+            BigDecimal expected = a.multiply(rate.add(BigDecimal.ONE)).setScale(2, RoundingMode.CEILING);
+            assertEquals(expected, Money.toBigDecimal(Money.compound(Money.of(a), Money.of(rate))));
+        }
+    }
+
+    @Test
+    public void testCompoundOverflowFallsBack() {
+        BigDecimal rate = new BigDecimal("0.07");
+        BigDecimal large = new BigDecimal("99999999.999999");
+        BigDecimal expected = large.multiply(rate.add(BigDecimal.ONE)).setScale(2, RoundingMode.CEILING);
+        assertEquals(expected, Money.toBigDecimal(Money.compound(Money.of(large), Money.of(rate))));
+
+        BigDecimal tooLarge = new BigDecimal("1100000000000.00");
+        assertThrows(ArithmeticException.class, () -> Money.compound(Money.of(tooLarge), Money.of(rate)));
+    }
+
+    @Test
+    public void testAccountPeriodsMatchBigDecimal() {
+        Account acc = new Account();
+        BigDecimal balance = new BigDecimal("1234.567");
+        BigDecimal savings = new BigDecimal("800.5");
+        BigDecimal savingsRate = new BigDecimal("0.0125");
+        BigDecimal debt = new BigDecimal("15000");
+        BigDecimal debtRate = new BigDecimal("0.019");
+        BigDecimal surplus = new BigDecimal("2500.10").add(new BigDecimal("-1399.999")).add(new BigDecimal("-7"));
+
+        acc.updateBalance(balance);
+        acc.addSource("Work", new BigDecimal("2500.10"));
+        acc.addSource("Rent", new BigDecimal("-1399.999"));
+        acc.addSource("Phone", new BigDecimal("-7"));
+        acc.getSavings().setBal(savings);
+        acc.getSavings().setInterest(savingsRate);
+        acc.addDebt("Loan", debt, debtRate);
+
+        for (int month = 0; month < 120; month++) {
+            acc.computeNextPeriod();
+            balance = balance.add(surplus.setScale(2, RoundingMode.CEILING)).setScale(2, RoundingMode.CEILING);
+            savings = savings.multiply(savingsRate.add(BigDecimal.ONE)).setScale(2, RoundingMode.CEILING);
+            debt = debt.multiply(debtRate.add(BigDecimal.ONE)).setScale(2, RoundingMode.CEILING);
+            assertEquals(balance, acc.getBalance());
+            assertEquals(savings, acc.getSavingsBal());
+            assertEquals(debt, acc.getDebts().get(0).getValue());
+        }
+    }
+
+    @Test
+    public void testSignumAndCompare() {
+        for (int i = 0; i < TRIALS; i++) {
+            BigDecimal a = randomAmount();
+            BigDecimal b = randomAmount();
+            assertEquals(a.signum(), Money.signum(Money.of(a)));
+            assertEquals(Integer.signum(a.compareTo(b)), Integer.signum(Money.compare(Money.of(a), Money.of(b))));
+        }
+    }
+
+    @Test
+    public void testPlainZeroMatchesBigDecimalEquals() {
+        assertTrue(Money.isPlainZero(Money.of(BigDecimal.valueOf(0))));
+        assertFalse(Money.isPlainZero(Money.of(new BigDecimal("0.00"))));
+        assertEquals(BigDecimal.ZERO, Money.toBigDecimal(Money.negate(Money.ZERO)));
+    }
+
+    @Test
+    public void testExtraDecimalsRounded() {
+        assertEquals(new BigDecimal("0.123457"), Money.toBigDecimal(Money.of(new BigDecimal("0.1234566"))));
+        assertEquals(BigDecimal.valueOf(1000), Money.toBigDecimal(Money.of(new BigDecimal("1E+3"))));
+    }
+
+    @Test
+    public void testOutOfRange() {
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("2000000000000")));
+    }
+
+    @Test
+    public void testPreciseRatesCompoundExactly() {
+        BigDecimal rate = new BigDecimal("0.0123456789");
+        assertEquals(Money.INEXACT, Money.ofRate(rate));
+        assertEquals(Money.of(new BigDecimal("0.012500")), Money.ofRate(new BigDecimal("0.01250000000")));
+
+        BigDecimal debt = new BigDecimal("15000");
+        BigDecimal savings = new BigDecimal("800.5");
+        DebtAcc debtAcc = new DebtAcc("Loan", debt, rate);
+        SavingsAcc savingsAcc = new SavingsAcc(savings, rate);
+        for (int month = 0; month < 120; month++) {
+            debtAcc.calculateInterest();
+            savingsAcc.calculateInterest();
+            debt = debt.multiply(rate.add(BigDecimal.ONE)).setScale(2, RoundingMode.CEILING);
+            savings = savings.multiply(rate.add(BigDecimal.ONE)).setScale(2, RoundingMode.CEILING);
+            assertEquals(debt, debtAcc.getValue());
+            assertEquals(savings, savingsAcc.getBal());
+        }
+        assertEquals(rate, debtAcc.getInterest());
+    }
+
+    @Test
+    public void testVeryLargeAmounts() {
+        BigDecimal largest = new BigDecimal("1152921504606.846975");
+        assertEquals(largest, Money.toBigDecimal(Money.of(largest)));
+        assertEquals(largest.negate(), Money.toBigDecimal(Money.of(largest.negate())));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1152921504606.846976")));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1E+30")));
+
+        BigDecimal rate = new BigDecimal("1.5E+12");
+        assertEquals(Money.INEXACT, Money.ofRate(rate));
+        DebtAcc debt = new DebtAcc("Loan", new BigDecimal("0.01"), rate);
+        debt.calculateInterest();
+        assertEquals(new BigDecimal("15000000000.01"), debt.getValue());
+        assertThrows(ArithmeticException.class, debt::calculateInterest);
+    }
+
+    //EFFECTS: returns a random amount up to a million dollars with 0 to 6 decimal places
+    private BigDecimal randomAmount() {
+        int scale = random.nextInt(Money.MAX_SCALE + 1);
+        long unscaled = (long) ((random.nextDouble() * 2 - 1) * 1_000_000 * Math.pow(10, scale));
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+}
@@ -0,0 +1,43 @@
+package model;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Times MonteCarloEngine on the common fork/join pool and on a single thread. Run the main method; it is not part
+ * of the test suite.
+ *
+ * Arguments (all optional): number of paths, number of months, number of debts, number of timed runs.
+ */
+public class MonteCarloBenchmark {
+
+    public static void main(String[] args) {
+        int paths = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int months = args.length > 1 ? Integer.parseInt(args[1]) : 120;
+        int debts = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int runs = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        MonteCarloEngine engine = new MonteCarloEngine(ProjectionBenchmark.generateAccount(debts));
+        engine.setVolatility(.1);
+        engine.setRateShock(.001);
+        measure("Common pool (" + ForkJoinPool.commonPool().getParallelism() + " threads)", engine, paths, months,
+                runs);
+        ForkJoinPool single = new ForkJoinPool(1);
+        engine.setPool(single);
+        measure("Single thread", engine, paths, months, runs);
+        single.shutdown();
+    }
+
+    // EFFECTS: prints the mean time of runs simulations, after as many untimed ones to warm up the JIT
+    private static void measure(String label, MonteCarloEngine engine, int paths, int months, int runs) {
+        long total = 0;
+        for (int i = 0; i < runs * 2; i++) {
+            long start = System.nanoTime();
+            engine.simulate(months, paths, i);
+            if (i >= runs) {
+                total += System.nanoTime() - start;
+            }
+        }
+        System.out.printf("%s: %d paths x %d months: %.1f ms/op%n", label, paths, months,
+                total / 1e6 / runs);
+    }
+}
@@ -0,0 +1,166 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the model.MonteCarloEngine and model.MonteCarloResult classes for functionality
+ */
+public class MonteCarloEngineTest {
+    private static final int MEDIAN = 2;
+
+    Account testAcc;
+
+    @BeforeEach
+    public void setup() {
+        testAcc = new Account();
+        testAcc.addSource("Work", BigDecimal.valueOf(5000));
+        testAcc.addSource("Bills", BigDecimal.valueOf(-2000));
+        testAcc.updateBalance(BigDecimal.valueOf(1000));
+        testAcc.depositSavings(BigDecimal.valueOf(500));
+        testAcc.setSavingsInterest(BigDecimal.valueOf(.01));
+        testAcc.addDebt("Loan", BigDecimal.valueOf(10000), BigDecimal.valueOf(.005));
+    }
+
+    @Test
+    public void testNoVolatilityMatchesProjection() {
+        MonteCarloResult result = new MonteCarloEngine(testAcc).simulate(60, 1000, 1);
+        Projection projection = new ProjectionEngine(testAcc).project(60);
+        assertEquals(61, result.getPointCount());
+        assertEquals(1000, result.getPaths());
+        assertEquals(1, result.getDebtCount());
+        assertEquals("Loan", result.getDebtName(0));
+
+        for (int point = 0; point < result.getPointCount(); point++) {
+            int month = result.getMonth(point);
+            assertEquals(point, month);
+            for (int p = 0; p < result.getPercentiles().length; p++) {
+                assertEquals(projection.getBalance(month).doubleValue(), result.getBalance(p, point), 0.01 * month);
+                assertEquals(projection.getSavings(month).doubleValue(), result.getSavings(p, point), 0.01 * month);
+                assertEquals(projection.getDebt(0, month).doubleValue(), result.getDebt(0, p, point), 0.01 * month);
+            }
+        }
+    }
+
+    @Test
+    public void testIncomeVolatilityPercentiles() {
+        MonteCarloEngine engine = new MonteCarloEngine(testAcc);
+        assertTrue(engine.setSourceVolatility("Work", .1));
+        assertFalse(engine.setSourceVolatility("Lottery", .1));
+        MonteCarloResult result = engine.simulate(1, 100_000, 42);
+
+        // The balance after depositing savings is 500, and one month's surplus is normal with mean 3000 and
+        // standard deviation 500
+        assertEquals(3500, result.getBalance(MEDIAN, 1), 10);
+        assertEquals(3500 - 1.645 * 500, result.getBalance(0, 1), 10);
+        assertEquals(3500 - 0.674 * 500, result.getBalance(1, 1), 10);
+        assertEquals(3500 + 0.674 * 500, result.getBalance(3, 1), 10);
+        assertEquals(3500 + 1.645 * 500, result.getBalance(4, 1), 10);
+        assertEquals(result.getSavings(0, 1), result.getSavings(4, 1));
+    }
+
+    @Test
+    public void testRateShockSpreadsSavingsAndDebts() {
+        MonteCarloEngine engine = new MonteCarloEngine(testAcc);
+        engine.setRateShock(.002);
+        MonteCarloResult result = engine.simulate(120, 10_000, 7);
+        int last = result.getPointCount() - 1;
+
+        assertTrue(result.getSavings(0, last) < result.getSavings(4, last));
+        assertTrue(result.getDebt(0, 0, last) < result.getDebt(0, 4, last));
+        assertTrue(result.getDebt(0, 0, last) >= 10000);
+        assertEquals(result.getBalance(0, last), result.getBalance(4, last));
+        for (int point = 0; point <= last; point++) {
+            for (int p = 1; p < result.getPercentiles().length; p++) {
+                assertTrue(result.getSavings(p - 1, point) <= result.getSavings(p, point));
+                assertTrue(result.getDebt(0, p - 1, point) <= result.getDebt(0, p, point));
+            }
+        }
+    }
+
+    @Test
+    public void testSameSeedSameResultOnAnyPool() {
+        MonteCarloEngine engine = new MonteCarloEngine(testAcc);
+        engine.setVolatility(.2);
+        engine.setRateShock(.001);
+        MonteCarloResult first = engine.simulate(24, 20_000, 99);
+        ForkJoinPool single = new ForkJoinPool(1);
+        engine.setPool(single);
+        MonteCarloResult second = engine.simulate(24, 20_000, 99);
+        single.shutdown();
+
+        for (int point = 0; point < first.getPointCount(); point++) {
+            for (int p = 0; p < first.getPercentiles().length; p++) {
+                assertEquals(first.getBalance(p, point), second.getBalance(p, point));
+                assertEquals(first.getSavings(p, point), second.getSavings(p, point));
+                assertEquals(first.getDebt(0, p, point), second.getDebt(0, p, point));
+            }
+        }
+    }
+
+    @Test
+    public void testLongRunIsSampled() {
+        MonteCarloResult result = new MonteCarloEngine(testAcc).simulate(ProjectionEngine.MAX_MONTHS, 10, 1);
+        assertEquals(MonteCarloEngine.MAX_POINTS + 1, result.getPointCount());
+        assertEquals(0, result.getMonth(0));
+        assertEquals(5, result.getMonth(1));
+        assertEquals(ProjectionEngine.MAX_MONTHS, result.getMonth(result.getPointCount() - 1));
+
+        result = new MonteCarloEngine(testAcc).simulate(125, 10, 1);
+        assertEquals(125, result.getMonth(result.getPointCount() - 1));
+        assertEquals(124, result.getMonth(result.getPointCount() - 2));
+    }
+
+    @Test
+    public void testOutOfRange() {
+        MonteCarloEngine engine = new MonteCarloEngine(testAcc);
+        assertThrows(IllegalArgumentException.class, () -> engine.simulate(0, 10, 1));
+        assertThrows(IllegalArgumentException.class, () -> engine.simulate(ProjectionEngine.MAX_MONTHS + 1, 10, 1));
+        assertThrows(IllegalArgumentException.class, () -> engine.simulate(12, 0, 1));
+        assertEquals(2, engine.simulate(1, 1, 1).getPointCount());
+    }
+
+    @Test
+    public void testSelect() {
+        SplittableRandom random = new SplittableRandom(3);
+        for (int n = 1; n < 200; n += 7) {
+            double[] values = new double[n];
+            for (int i = 0; i < n; i++) {
+                values[i] = random.nextInt(20);
+            }
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            for (int k = 0; k < n; k++) {
+                double[] copy = values.clone();
+                MonteCarloEngine.select(copy, 0, n, k);
+                assertEquals(sorted[k], copy[k]);
+            }
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        SplittableRandom random = new SplittableRandom(5);
+        for (int n = 1; n < 3000; n += 211) {
+            double[] values = new double[n];
+            for (int i = 0; i < n; i++) {
+                values[i] = i % 3 == 0 ? random.nextInt(5) : Math.exp(random.nextGaussian() * 3);
+            }
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            double[] result = new double[MonteCarloEngine.PERCENTILES.length];
+            MonteCarloEngine.percentiles(values, n, new int[64], new double[n], result);
+            for (int i = 0; i < result.length; i++) {
+                int k = (int) Math.round(MonteCarloEngine.PERCENTILES[i] / 100 * (n - 1));
+                assertEquals(sorted[k], result[i]);
+            }
+        }
+    }
+}
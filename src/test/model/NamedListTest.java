@@ -0,0 +1,95 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the model.NamedList class for functionality
+ */
+public class NamedListTest {
+    NamedList<String> testList;
+
+    @BeforeEach
+    public void setup() {
+        testList = new NamedList<>();
+        testList.put("a", "first");
+        testList.put("b", "second");
+        testList.put("c", "third");
+    }
+
+    @Test
+    public void testPutRejectsDuplicate() {
+        assertFalse(testList.put("b", "again"));
+        assertEquals(3, testList.size());
+        assertEquals("second", testList.find("b"));
+    }
+
+    @Test
+    public void testFindAndContains() {
+        assertEquals("third", testList.find("c"));
+        assertNull(testList.find("d"));
+        assertTrue(testList.containsName("a"));
+        assertFalse(testList.containsName("d"));
+    }
+
+    @Test
+    public void testRemoveKeepsOrder() {
+        assertEquals("second", testList.remove("b"));
+        assertNull(testList.remove("b"));
+        assertEquals(2, testList.size());
+        assertEquals("first", testList.get(0));
+        assertEquals("third", testList.get(1));
+        testList.put("b", "fourth");
+        assertEquals("fourth", testList.get(2));
+    }
+
+    @Test
+    public void testSlotsStayPut() {
+        assertEquals(1, testList.slotOf("b"));
+        assertEquals(-1, testList.slotOf("d"));
+        testList.remove("a");
+        testList.put("d", "fourth");
+        assertEquals(1, testList.slotOf("b"));
+        assertEquals(3, testList.slotOf("d"));
+        assertEquals(-1, testList.slotOf("a"));
+        assertEquals(4, testList.slotCount());
+        assertArrayEquals(new Object[] {null, "second", "third", "fourth"}, testList.toSlotArray());
+        assertFalse(testList.compactSlots());
+    }
+
+    @Test
+    public void testCompactSlots() {
+        testList.remove("a");
+        testList.remove("b");
+        assertTrue(testList.compactSlots());
+        assertEquals(1, testList.slotCount());
+        assertEquals(0, testList.slotOf("c"));
+        testList.put("a", "fourth");
+        assertEquals(1, testList.slotOf("a"));
+        assertArrayEquals(new Object[] {"third", "fourth"}, testList.toSlotArray());
+        assertEquals("fourth", testList.get(1));
+    }
+
+    @Test
+    public void testIterationOrder() {
+        List<String> seen = new ArrayList<>();
+        for (String s : testList) {
+            seen.add(s);
+        }
+        assertEquals(List.of("first", "second", "third"), seen);
+    }
+
+    @Test
+    public void testReadOnlyThroughList() {
+        assertThrows(UnsupportedOperationException.class, () -> testList.add("x"));
+        Iterator<String> it = testList.iterator();
+        it.next();
+        assertThrows(UnsupportedOperationException.class, it::remove);
+    }
+}
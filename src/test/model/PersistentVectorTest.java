@@ -0,0 +1,83 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the model.PersistentVector class for functionality
+ */
+public class PersistentVectorTest {
+
+    @Test
+    public void testEmpty() {
+        PersistentVector<String> empty = PersistentVector.empty();
+        assertEquals(0, empty.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> empty.get(0));
+        assertEquals(0, PersistentVector.of(new Object[0]).size());
+    }
+
+    @Test
+    public void testAppendAcrossLevels() {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        int count = 32 * 32 * 2 + 5;
+        for (int i = 0; i < count; i++) {
+            vector = vector.append(i);
+        }
+        assertEquals(count, vector.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, vector.get(i));
+        }
+        PersistentVector<Integer> full = vector;
+        assertThrows(IndexOutOfBoundsException.class, () -> full.get(count));
+    }
+
+    @Test
+    public void testOldVersionsUnchanged() {
+        PersistentVector<String> first = PersistentVector.<String>empty().append("a").append("b");
+        PersistentVector<String> second = first.set(0, "c");
+        PersistentVector<String> third = second.append("d");
+        PersistentVector<String> fourth = third.set(1, null);
+
+        assertEquals("a", first.get(0));
+        assertEquals(2, first.size());
+        assertEquals("c", second.get(0));
+        assertEquals(2, second.size());
+        assertEquals("d", third.get(2));
+        assertEquals("b", third.get(1));
+        assertEquals(3, fourth.size());
+        assertNull(fourth.get(1));
+        assertEquals("d", fourth.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> first.set(2, "e"));
+        assertThrows(IndexOutOfBoundsException.class, () -> first.set(-1, "e"));
+    }
+
+    @Test
+    public void testMatchesListOverRandomChanges() {
+        Random random = new Random(210);
+        List<Integer> expected = new ArrayList<>();
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        for (int step = 0; step < 5000; step++) {
+            int choice = random.nextInt(10);
+            if (choice < 6 || expected.isEmpty()) {
+                expected.add(step);
+                vector = vector.append(step);
+            } else {
+                int i = random.nextInt(expected.size());
+                expected.set(i, -step);
+                vector = vector.set(i, -step);
+            }
+        }
+        assertEquals(expected.size(), vector.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), vector.get(i));
+        }
+        assertEquals(expected.size(), PersistentVector.of(expected.toArray()).size());
+        assertEquals(expected.get(expected.size() - 1), PersistentVector.of(expected.toArray())
+                .get(expected.size() - 1));
+    }
+}
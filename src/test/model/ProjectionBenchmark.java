@@ -0,0 +1,58 @@
+package model;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+
+/**
+ * Compares projecting an account forward by calling computeNextPeriod repeatedly against ProjectionEngine. Run the
+ * main method; it is not part of the test suite.
+ *
+ * Arguments (all optional): number of months, number of debts, number of timed runs.
+ */
+public class ProjectionBenchmark {
+
+    public static void main(String[] args) {
+        int months = args.length > 0 ? Integer.parseInt(args[0]) : ProjectionEngine.MAX_MONTHS;
+        int debts = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long stepped = 0;
+        long projected = 0;
+        for (int i = 0; i < runs * 2; i++) {
+            Account acc = generateAccount(debts);
+            ProjectionEngine engine = new ProjectionEngine(generateAccount(debts));
+            long start = System.nanoTime();
+            for (int n = 0; n < months; n++) {
+                acc.computeNextPeriod();
+            }
+            long mid = System.nanoTime();
+            engine.project(months);
+            long end = System.nanoTime();
+            if (i >= runs) { // the first half warms up the JIT
+                stepped += mid - start;
+                projected += end - mid;
+            }
+        }
+        System.setOut(console);
+        System.out.printf("computeNextPeriod x %d: %.1f us/op%n", months, stepped / 1000.0 / runs);
+        System.out.printf("ProjectionEngine %d months: %.1f us/op%n", months, projected / 1000.0 / runs);
+    }
+
+    // EFFECTS: returns an account with a few sources, savings, and the given number of debts
+    static Account generateAccount(int debts) {
+        Account acc = new Account();
+        acc.addSource("Work", BigDecimal.valueOf(5000));
+        acc.addSource("Rent", BigDecimal.valueOf(-1800.5));
+        acc.addSource("Groceries", BigDecimal.valueOf(-420.25));
+        acc.updateBalance(BigDecimal.valueOf(2500));
+        acc.depositSavings(BigDecimal.valueOf(1000));
+        acc.setSavingsInterest(BigDecimal.valueOf(.004));
+        for (int i = 0; i < debts; i++) {
+            acc.addDebt("Debt " + i, BigDecimal.valueOf(1000 + i * 250), BigDecimal.valueOf(.005 + i * .001));
+        }
+        return acc;
+    }
+}
@@ -0,0 +1,123 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the model.ProjectionEngine and model.Projection classes for functionality
+ */
+public class ProjectionEngineTest {
+    Account testAcc;
+
+    @BeforeEach
+    public void setup() {
+        testAcc = new Account();
+        testAcc.addSource("Work", BigDecimal.valueOf(5000.125));
+        testAcc.addSource("Bills", BigDecimal.valueOf(-1394.591));
+        testAcc.updateBalance(new BigDecimal("12.3456"));
+        testAcc.depositSavings(BigDecimal.valueOf(1000.5));
+        testAcc.setSavingsInterest(BigDecimal.valueOf(.0125));
+        testAcc.addDebt("Loan", BigDecimal.valueOf(30000), BigDecimal.valueOf(.007));
+        testAcc.addDebt("Card", new BigDecimal("123.456"), BigDecimal.valueOf(.2));
+        testAcc.addDebt("Refund", BigDecimal.valueOf(-0.04), BigDecimal.valueOf(.1));
+        testAcc.addDebt("Free", BigDecimal.valueOf(50), BigDecimal.ZERO);
+    }
+
+    @Test
+    public void testMatchesComputeNextPeriod() {
+        int months = 120;
+        Projection projection = new ProjectionEngine(testAcc).project(months);
+        assertEquals(months, projection.getMonths());
+        assertEquals(1, projection.getStartMonth());
+        assertEquals(4, projection.getDebtCount());
+
+        for (int month = 0; month <= months; month++) {
+            assertEquals(testAcc.getBalance(), projection.getBalance(month), "balance, month " + month);
+            assertEquals(testAcc.getSavingsBal(), projection.getSavings(month), "savings, month " + month);
+            for (int i = 0; i < projection.getDebtCount(); i++) {
+                DebtAcc debt = testAcc.getDebts().get(i);
+                assertEquals(debt.getName(), projection.getDebtName(i));
+                assertEquals(debt.getValue(), projection.getDebt(i, month), debt.getName() + ", month " + month);
+                assertEquals(debt.getMoney(), projection.getDebtMoney(i, month));
+            }
+            assertEquals(testAcc.getMoney(), projection.getBalanceMoney(month));
+            assertEquals(testAcc.getSavings().getMoney(), projection.getSavingsMoney(month));
+            testAcc.computeNextPeriod();
+        }
+    }
+
+    @Test
+    public void testPreciseRatesMatchComputeNextPeriod() {
+        testAcc.setSavingsInterest(new BigDecimal("0.01250000001"));
+        testAcc.addDebt("Precise", BigDecimal.valueOf(2500), new BigDecimal("0.0123456789"));
+        Projection projection = new ProjectionEngine(testAcc).project(60);
+
+        for (int month = 0; month <= 60; month++) {
+            assertEquals(testAcc.getSavingsBal(), projection.getSavings(month), "savings, month " + month);
+            assertEquals(testAcc.getDebts().get(4).getValue(), projection.getDebt(4, month), "month " + month);
+            testAcc.computeNextPeriod();
+        }
+    }
+
+    @Test
+    public void testDoesNotChangeAccount() {
+        BigDecimal balance = testAcc.getBalance();
+        ProjectionEngine engine = new ProjectionEngine(testAcc);
+        engine.project(120);
+        assertEquals(balance, testAcc.getBalance());
+        assertEquals(BigDecimal.valueOf(30000), testAcc.getDebts().get(0).getValue());
+        assertEquals(1, testAcc.getMonthTracker());
+        assertTrue(testAcc.getReceipts().isEmpty());
+    }
+
+    @Test
+    public void testIgnoresLaterChanges() {
+        ProjectionEngine engine = new ProjectionEngine(testAcc);
+        Projection before = engine.project(12);
+        testAcc.addSource("Raise", BigDecimal.valueOf(1000));
+        testAcc.removeDebt("Loan");
+        Projection after = engine.project(12);
+        assertEquals(before.getBalance(12), after.getBalance(12));
+        assertEquals("Loan", after.getDebtName(0));
+    }
+
+    @Test
+    public void testNegativeSurplus() {
+        testAcc.addSource("Rent", BigDecimal.valueOf(-9000));
+        Projection projection = new ProjectionEngine(testAcc).project(24);
+        for (int month = 0; month <= 24; month++) {
+            assertEquals(testAcc.getBalance(), projection.getBalance(month));
+            testAcc.computeNextPeriod();
+        }
+    }
+
+    @Test
+    public void testMonthsOutOfRange() {
+        ProjectionEngine engine = new ProjectionEngine(testAcc);
+        assertThrows(IllegalArgumentException.class, () -> engine.project(0));
+        assertThrows(IllegalArgumentException.class, () -> engine.project(ProjectionEngine.MAX_MONTHS + 1));
+        assertEquals(1, engine.project(1).getMonths());
+    }
+
+    @Test
+    public void testValueOutOfRange() {
+        ProjectionEngine engine = new ProjectionEngine(testAcc);
+        assertThrows(ArithmeticException.class, () -> engine.project(ProjectionEngine.MAX_MONTHS));
+        testAcc.removeDebt("Card");
+        assertEquals(ProjectionEngine.MAX_MONTHS, new ProjectionEngine(testAcc).project(ProjectionEngine.MAX_MONTHS)
+                .getMonths());
+    }
+
+    @Test
+    public void testEmptyAccount() {
+        Projection projection = new ProjectionEngine(new Account()).project(ProjectionEngine.MAX_MONTHS);
+        assertEquals(BigDecimal.ZERO, projection.getBalance(0));
+        assertEquals(BigDecimal.valueOf(0, 2), projection.getBalance(ProjectionEngine.MAX_MONTHS));
+        assertEquals(BigDecimal.valueOf(0, 2), projection.getSavings(ProjectionEngine.MAX_MONTHS));
+        assertEquals(0, projection.getDebtCount());
+    }
+}
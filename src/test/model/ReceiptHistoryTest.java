@@ -0,0 +1,216 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the model.ReceiptHistory class for functionality
+ */
+public class ReceiptHistoryTest {
+    private static final String OLD_RECEIPT = "Month: 3\nIncome: 5500\nExpenses: -361\n------\nTotal: 5139.00"
+            + "\nRecommended Savings: 513.9000\n------";
+
+    ReceiptHistory history;
+
+    @BeforeEach
+    public void setup() {
+        history = new ReceiptHistory();
+    }
+
+    @Test
+    public void testRecord() {
+        history.addDebtBalance("Loan", money("1050.00"), money("50.00"));
+        history.addDebtBalance("Card", money("200.50"), money("0"));
+        history.record(1, amounts("5000", "-360", "4640.00", "464.000", "4640.00", "505"));
+        history.record(2, amounts("5000", "-360", "4640.00", "464.000", "9280.00", "510.05"));
+
+        assertEquals(2, history.size());
+        assertTrue(history.isRecorded(0));
+        assertEquals(2, history.getMonth(1));
+        assertEquals(money("9280.00"), history.getMoney(ReceiptHistory.Column.BALANCE, 1));
+        assertEquals(2, history.getDebtCount(0));
+        assertEquals(0, history.getDebtCount(1));
+        assertEquals("Card", history.getDebtName(0, 1));
+        assertEquals(money("200.50"), history.getDebtBalance(0, 1));
+        assertEquals(money("50.00"), history.getDebtInterest(0, 0));
+        assertEquals(money("510.05"), history.getMoney(ReceiptHistory.Column.SAVINGS_BALANCE, 1));
+        assertEquals("Month: 1\nIncome: 5000\nExpenses: -360\n------\nTotal: 4640.00\nRecommended Savings: 464.000"
+                + "\n------\nBalance: 4640.00\nSavings Balance: 505\nDebt Loan: 1050.00 (interest 50.00)"
+                + "\nDebt Card: 200.50 (interest 0)\n------", history.get(0));
+    }
+
+    @Test
+    public void testOldReceiptText() {
+        history.add(OLD_RECEIPT);
+        history.add("This is a receipt");
+        history.add(OLD_RECEIPT.replace("5500", "5,500"));
+
+        assertEquals(3, history.size());
+        assertFalse(history.isRecorded(0));
+        assertEquals(OLD_RECEIPT, history.get(0));
+        assertEquals(3, history.getMonth(0));
+        assertEquals(money("513.9000"), history.getMoney(ReceiptHistory.Column.SAVINGS, 0));
+        assertEquals("This is a receipt", history.get(1));
+        assertEquals(0, history.getMonth(1));
+        assertEquals(Money.ZERO, history.getMoney(ReceiptHistory.Column.INCOME, 2));
+        assertEquals(OLD_RECEIPT.replace("5500", "5,500"), history.get(2));
+    }
+
+    @Test
+    public void testSumAcrossChunks() {
+        int months = ReceiptHistory.CHUNK_SIZE * 3 + 17;
+        for (int i = 0; i < months; i++) {
+            history.addDebtBalance("Loan " + (i % 3), Money.ofCents(i, 2), Money.ZERO);
+            long[] amounts = new long[ReceiptHistory.Column.values().length];
+            amounts[ReceiptHistory.Column.INCOME.ordinal()] = Money.ofCents(100, 2);
+            amounts[ReceiptHistory.Column.SURPLUS.ordinal()] = Money.ofCents(i, 2);
+            history.record(i + 1, amounts);
+        }
+        assertEquals(months, history.size());
+        assertEquals(0, Money.compare(Money.ofCents(100L * months, 2),
+                history.sum(ReceiptHistory.Column.INCOME, 0, months)));
+        int from = ReceiptHistory.CHUNK_SIZE - 5;
+        int to = ReceiptHistory.CHUNK_SIZE * 2 + 9;
+        long expected = 0;
+        for (int i = from; i < to; i++) {
+            expected += i;
+        }
+        assertEquals(0, Money.compare(Money.ofCents(expected, 2),
+                history.sum(ReceiptHistory.Column.SURPLUS, from, to)));
+        assertEquals(Money.ZERO, history.sum(ReceiptHistory.Column.SURPLUS, 7, 7));
+        assertEquals("Loan 1", history.getDebtName(months - 1, 0));
+        assertEquals(Money.ofCents(months - 1, 2), history.getDebtBalance(months - 1, 0));
+    }
+
+    @Test
+    public void testClearAndEquals() {
+        ReceiptHistory other = new ReceiptHistory();
+        history.add(OLD_RECEIPT);
+        other.add(OLD_RECEIPT);
+        assertEquals(other, history);
+
+        history.clear();
+        assertTrue(history.isEmpty());
+        history.addDebtBalance("Loan", money("10"), money("0"));
+        history.record(1, amounts("1", "0", "1", "0", "1", "0"));
+        assertEquals("Loan", history.getDebtName(0, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> history.get(1));
+    }
+
+    @Test
+    public void testPagedReceipts() {
+        ReceiptHistory eager = new ReceiptHistory();
+        List<ReceiptHistory> pageList = new ArrayList<>();
+        for (int i = 0; i < 21; i++) {
+            if (i % 2 == 0) {
+                pageList.add(new ReceiptHistory());
+            }
+            for (ReceiptHistory h : List.of(eager, pageList.get(pageList.size() - 1))) {
+                h.addDebtBalance("Loan", money("100"), money("1.5"));
+                h.record(i + 1, amounts("10", "-5", "5", "0.5", String.valueOf(i), "0"));
+            }
+        }
+        int[] loads = new int[1];
+        history.setPages(new ReceiptPages() {
+            @Override
+            public int size() {
+                return 21;
+            }
+
+            @Override
+            public int getPageSize() {
+                return 2;
+            }
+
+            @Override
+            public int getScale(ReceiptHistory.Column column) {
+                return column == ReceiptHistory.Column.SAVINGS ? 1 : 0;
+            }
+
+            @Override
+            public int getDebtInterestScale() {
+                return 1;
+            }
+
+            @Override
+            public ReceiptHistory load(int page) {
+                loads[0]++;
+                return pageList.get(page);
+            }
+        });
+        assertEquals(21, history.size());
+        assertEquals(0, loads[0]);
+        assertEquals(eager.get(20), history.get(20));
+        assertEquals(1, loads[0]);
+
+        history.add(OLD_RECEIPT);
+        eager.add(OLD_RECEIPT);
+        assertEquals(eager, history);
+        assertEquals(12, loads[0]); // the last page was dropped while the ten before it were read, then read again
+        history.get(6);
+        assertEquals(12, loads[0]); // still cached
+        history.get(0);
+        assertEquals(13, loads[0]); // dropped as one of the least recently read
+        assertEquals(OLD_RECEIPT, history.get(21));
+        assertEquals(0, Money.compare(money("210"), history.sum(ReceiptHistory.Column.BALANCE, 0, 21)));
+        assertEquals(0, Money.compare(money("31.5"), history.query(ReceiptHistory.Column.BALANCE).interest("Loan")));
+
+        history.clear();
+        assertNull(history.getPages());
+        assertTrue(history.isEmpty());
+    }
+
+    @Test
+    public void testViewKeepsReceiptsAsTheyWere() {
+        history.addDebtBalance("Loan", money("100"), money("1"));
+        history.record(1, amounts("10", "-5", "5", "0.5", "5", "0"));
+        history.add("Some text");
+        ReceiptHistory view = history.view();
+        assertTrue(view.isReadOnly());
+        assertSame(view, view.view());
+        assertEquals(0, Money.compare(money("5"), view.sum(ReceiptHistory.Column.BALANCE, 0, 2)));
+
+        for (int i = 0; i < ReceiptHistory.CHUNK_SIZE * 2; i++) {
+            history.addDebtBalance("Card " + i, money("7"), money("0.25"));
+            history.record(i + 2, amounts("10", "-5", "5", "0.5", "5", "0"));
+        }
+        history.add("More text");
+        assertEquals(2, view.size());
+        assertEquals("Some text", view.get(1));
+        assertEquals(1, view.getDebtCount(0));
+        assertEquals(0, view.getDebtCount(1));
+        assertEquals(0, Money.compare(money("5"), view.query(ReceiptHistory.Column.BALANCE).sum()));
+        assertEquals(0, Money.compare(money("1"), view.query(ReceiptHistory.Column.BALANCE).interest("Loan")));
+        assertEquals(0, Money.compare(money("1"), history.query(ReceiptHistory.Column.BALANCE).range(0, 2)
+                .interest("Loan")));
+        assertEquals(0, Money.compare(money("0"), view.query(ReceiptHistory.Column.BALANCE).interest("Card 0")));
+        assertEquals("More text", history.get(history.size() - 1));
+
+        history.clear();
+        assertEquals(2, view.size());
+        assertEquals("Loan", view.getDebtName(0, 0));
+        assertThrows(UnsupportedOperationException.class, () -> view.add("text"));
+        assertThrows(UnsupportedOperationException.class, () -> view.record(3, amounts("1", "1", "1", "1", "1", "1")));
+        assertThrows(UnsupportedOperationException.class, () -> view.addDebtBalance("Loan", 0, 0));
+        assertThrows(UnsupportedOperationException.class, view::clear);
+    }
+
+    private static long money(String amount) {
+        return Money.of(new BigDecimal(amount));
+    }
+
+    // EFFECTS: returns the given amounts, in the order of ReceiptHistory.Column
+    static long[] amounts(String... amounts) {
+        long[] values = new long[amounts.length];
+        for (int i = 0; i < amounts.length; i++) {
+            values[i] = money(amounts[i]);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,69 @@
+package persistence;
+
+import model.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the persistence.AccountConverter and persistence.AccountFormat classes for functionality
+ */
+public class AccountConverterTest extends JsonTest {
+    private Path dir;
+
+    @BeforeEach
+    void setup() throws IOException {
+        dir = Files.createTempDirectory("converter");
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    @Test
+    void testFormatForPath() {
+        assertEquals(AccountFormat.JSON, AccountFormat.forPath("./data/UserAccount.json"));
+        assertEquals(AccountFormat.BINARY, AccountFormat.forPath("./data/UserAccount.budgeit"));
+        assertEquals(AccountFormat.BINARY, AccountFormat.forPath("SAVE.BUDGEIT"));
+        assertEquals(AccountFormat.JSON, AccountFormat.forPath("./data/UserAccount"));
+    }
+
+    @Test
+    void testConvertRoundTrip() throws IOException {
+        String binary = dir.resolve("account.budgeit").toString();
+        String json = dir.resolve("account.json").toString();
+        AccountConverter.convert("./data/testReaderGenericAccount.json", binary);
+        AccountConverter.convert(binary, json);
+
+        Account expected = new JsonReader("./data/testReaderGenericAccount.json").read();
+        Account acc = AccountFormat.forPath(json).read(json);
+        assertEquals(expected.getMonthTracker(), acc.getMonthTracker());
+        assertEquals(expected.getBalance(), acc.getBalance());
+        assertEquals(expected.getSavingsPercentGoal(), acc.getSavingsPercentGoal());
+        checkSavings(expected.getSavingsBal(), expected.getSavings().getInterest(), acc.getSavings());
+        checkSource("Bills", BigDecimal.valueOf(-1394.59), acc.getSources().get(1));
+        checkDebt("Loan", BigDecimal.valueOf(300000), BigDecimal.valueOf(.07), acc.getDebts().get(0));
+        assertEquals(expected.getReceipts(), acc.getReceipts());
+    }
+
+    @Test
+    void testConvertMissingFile() {
+        assertThrows(IOException.class, () -> AccountConverter.convert(dir.resolve("missing.json").toString(),
+                dir.resolve("out.budgeit").toString()));
+        assertFalse(Files.exists(dir.resolve("out.budgeit")));
+    }
+}
@@ -0,0 +1,324 @@
+package persistence;
+
+import model.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the persistence.AccountJournal class for functionality
+ */
+public class AccountJournalTest extends JsonTest {
+    private Path dir;
+    private String save;
+    private AccountJournal journal;
+
+    @BeforeEach
+    void setup() throws IOException {
+        dir = Files.createTempDirectory("journal");
+        save = dir.resolve("account.json").toString();
+        journal = new AccountJournal(save);
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    // EFFECTS: saves a new account through journal and returns it
+    private Account newSavedAccount() throws IOException {
+        Account acc = new Account();
+        journal.save(acc);
+        return acc;
+    }
+
+    @Test
+    void testLoadWithNoSaveFile() {
+        assertThrows(IOException.class, () -> journal.load());
+        assertFalse(Files.exists(Path.of(save)));
+    }
+
+    @Test
+    void testSaveNewAccountWritesSnapshot() throws IOException {
+        Account acc = new Account();
+        acc.addSource("Work", BigDecimal.valueOf(5000));
+        journal.save(acc);
+
+        assertEquals(1, journal.getCompactionCount());
+        Account read = new JsonStreamReader(save).read();
+        checkSource("Work", BigDecimal.valueOf(5000), read.getSources().get(0));
+    }
+
+    @Test
+    void testSaveAppendsChangesWithoutRewritingSnapshot() throws IOException {
+        Account acc = new Account();
+        acc.addSource("Work", BigDecimal.valueOf(5000));
+        journal.save(acc);
+        byte[] snapshot = Files.readAllBytes(Path.of(save));
+
+        acc.addSource("Bills", BigDecimal.valueOf(-1394.59));
+        acc.addDebt("Loan", BigDecimal.valueOf(1000), BigDecimal.valueOf(.07));
+        assertEquals(2, journal.getPendingCount());
+        journal.save(acc);
+
+        assertEquals(0, journal.getPendingCount());
+        assertEquals(2, journal.getRecordCount());
+        assertEquals(1, journal.getCommitCount());
+        assertArrayEquals(snapshot, Files.readAllBytes(Path.of(save)));
+
+        Account loaded = new AccountJournal(save).load();
+        assertEquals(2, loaded.getSources().size());
+        checkSource("Bills", BigDecimal.valueOf(-1394.59), loaded.getSources().get(1));
+        checkDebt("Loan", BigDecimal.valueOf(1000), BigDecimal.valueOf(.07), loaded.getDebts().get(0));
+    }
+
+    @Test
+    void testLoadDiscardsUnsavedChanges() throws IOException {
+        Account acc = newSavedAccount();
+        acc.depositBalance(BigDecimal.TEN);
+        journal.save(acc);
+        acc.depositBalance(BigDecimal.ONE);
+
+        Account loaded = journal.load();
+        assertEquals(BigDecimal.TEN, loaded.getBalance());
+        assertEquals(0, journal.getPendingCount());
+
+        acc.depositBalance(BigDecimal.ONE);
+        assertEquals(0, journal.getPendingCount());
+    }
+
+    @Test
+    void testReplayEveryOperation() throws IOException {
+        Account acc = newSavedAccount();
+        acc.addSource("Work", BigDecimal.valueOf(5000));
+        acc.addSource("Gift", BigDecimal.TEN);
+        acc.removeSource("Gift");
+        acc.depositBalance(BigDecimal.valueOf(100));
+        acc.withdrawBalance(BigDecimal.valueOf(20));
+        acc.addDebt("Loan", BigDecimal.valueOf(1000), BigDecimal.valueOf(.2));
+        acc.addDebt("Card", BigDecimal.valueOf(50), BigDecimal.valueOf(.25));
+        acc.removeDebt("Card");
+        acc.payDebt("Loan", BigDecimal.valueOf(100));
+        acc.addToDebt("Loan", BigDecimal.valueOf(5));
+        acc.depositSavings(BigDecimal.valueOf(300));
+        acc.withdrawSavings(BigDecimal.valueOf(30));
+        acc.setSavingsInterest(BigDecimal.valueOf(.05));
+        acc.setSavingsPercentGoal(BigDecimal.valueOf(.1));
+        acc.computeNextPeriod();
+        acc.computeNextPeriod();
+        journal.save(acc);
+
+        Account loaded = new AccountJournal(save).load();
+        assertEquals(acc.getBalance(), loaded.getBalance());
+        assertEquals(acc.getSavingsPercentGoal(), loaded.getSavingsPercentGoal());
+        assertEquals(acc.getMonthTracker(), loaded.getMonthTracker());
+        assertEquals(acc.getReceipts(), loaded.getReceipts());
+        assertEquals(1, loaded.getSources().size());
+        checkSavings(acc.getSavingsBal(), BigDecimal.valueOf(.05), loaded.getSavings());
+        assertEquals(1, loaded.getDebts().size());
+        checkDebt("Loan", acc.getDebts().get(0).getValue(), BigDecimal.valueOf(.2), loaded.getDebts().get(0));
+
+        acc.clearReceipts();
+        acc.updateBalance(BigDecimal.ONE);
+        journal.save(acc);
+        loaded = new AccountJournal(save).load();
+        assertTrue(loaded.getReceipts().isEmpty());
+        assertEquals(1, loaded.getMonthTracker());
+        assertEquals(BigDecimal.ONE, loaded.getBalance());
+    }
+
+    @Test
+    void testReplayLongDecimal() throws IOException {
+        Account acc = newSavedAccount();
+        BigDecimal rate = new BigDecimal("0." + "1234567890".repeat(70));
+        acc.setSavingsInterest(rate);
+        journal.save(acc);
+
+        assertEquals(rate, new AccountJournal(save).load().getSavings().getInterest());
+    }
+
+    @Test
+    void testTornRecordIsDropped() throws IOException {
+        Account acc = newSavedAccount();
+        acc.depositBalance(BigDecimal.TEN);
+        journal.save(acc);
+        long good = Files.size(journal.getJournalPath());
+        acc.addSource("Work", BigDecimal.valueOf(5000));
+        journal.save(acc);
+        try (FileChannel out = FileChannel.open(journal.getJournalPath(), StandardOpenOption.WRITE)) {
+            out.truncate(Files.size(journal.getJournalPath()) - 3);
+        }
+
+        AccountJournal reopened = new AccountJournal(save);
+        Account loaded = reopened.load();
+        assertEquals(BigDecimal.TEN, loaded.getBalance());
+        assertTrue(loaded.getSources().isEmpty());
+        assertEquals(1, reopened.getRecordCount());
+        assertEquals(good, Files.size(journal.getJournalPath()));
+
+        loaded.depositBalance(BigDecimal.ONE);
+        reopened.save(loaded);
+        assertEquals(BigDecimal.valueOf(11), new AccountJournal(save).load().getBalance());
+    }
+
+    @Test
+    void testCorruptRecordIsDropped() throws IOException {
+        Account acc = newSavedAccount();
+        acc.depositBalance(BigDecimal.TEN);
+        acc.depositBalance(BigDecimal.ONE);
+        journal.save(acc);
+        byte[] bytes = Files.readAllBytes(journal.getJournalPath());
+        bytes[bytes.length - 1] ^= 0x7f;
+        Files.write(journal.getJournalPath(), bytes);
+
+        assertEquals(BigDecimal.TEN, new AccountJournal(save).load().getBalance());
+    }
+
+    @Test
+    void testStaleJournalIsIgnored() throws IOException {
+        Account acc = new Account();
+        acc.depositBalance(BigDecimal.TEN);
+        journal.save(acc);
+        acc.depositBalance(BigDecimal.ONE);
+        journal.save(acc);
+        Path stale = dir.resolve("stale");
+        Files.copy(journal.getJournalPath(), stale);
+
+        journal.compact();
+        Files.copy(stale, journal.getJournalPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        assertEquals(BigDecimal.valueOf(11), new AccountJournal(save).load().getBalance());
+    }
+
+    @Test
+    void testCompactFoldsJournalIntoSnapshot() throws IOException {
+        Account acc = newSavedAccount();
+        acc.addSource("Work", BigDecimal.valueOf(5000));
+        journal.save(acc);
+        assertEquals(1, journal.getRecordCount());
+
+        journal.compact();
+        assertEquals(0, journal.getRecordCount());
+        assertEquals(2, journal.getCompactionCount());
+        checkSource("Work", BigDecimal.valueOf(5000), new JsonStreamReader(save).read().getSources().get(0));
+        assertFalse(Files.exists(Path.of(save + ".tmp")));
+        assertFalse(Files.exists(Path.of(journal.getJournalPath() + ".tmp")));
+
+        acc.depositBalance(BigDecimal.TEN);
+        journal.save(acc);
+        Account loaded = new AccountJournal(save).load();
+        assertEquals(BigDecimal.TEN, loaded.getBalance());
+        assertEquals(1, loaded.getSources().size());
+    }
+
+    @Test
+    void testLargeJournalIsCompactedOnSave() throws IOException {
+        Account acc = newSavedAccount();
+        for (int i = 0; i < 5000; i++) {
+            acc.depositBalance(BigDecimal.ONE);
+            if (i % 100 == 99) {
+                journal.save(acc);
+            }
+        }
+        assertTrue(journal.getCompactionCount() > 0);
+        assertTrue(Files.size(journal.getJournalPath()) <= AccountJournal.MIN_COMPACT_BYTES);
+        assertEquals(BigDecimal.valueOf(5000), new AccountJournal(save).load().getBalance());
+    }
+
+    @Test
+    void testCloseCompactsSavedChanges() throws IOException {
+        Account acc = newSavedAccount();
+        acc.depositBalance(BigDecimal.TEN);
+        journal.save(acc);
+        journal.close();
+        assertEquals(BigDecimal.TEN, new JsonStreamReader(save).read().getBalance());
+
+        acc = journal.load();
+        acc.depositBalance(BigDecimal.TEN);
+        journal.save(acc);
+        acc.depositBalance(BigDecimal.ONE);
+        journal.close();
+        assertEquals(BigDecimal.TEN, new JsonStreamReader(save).read().getBalance());
+        assertEquals(BigDecimal.valueOf(20), new AccountJournal(save).load().getBalance());
+    }
+
+    @Test
+    void testSaveWhileAnotherThreadChangesAccount() throws Exception {
+        Account acc = new Account(true);
+        journal.save(acc);
+        Thread[] workers = new Thread[3];
+        for (int t = 0; t < workers.length; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    acc.depositBalance(BigDecimal.ONE);
+                }
+            });
+            workers[t].start();
+        }
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Thread saver = new Thread(() -> {
+            try {
+                for (int round = 0; Arrays.stream(workers).anyMatch(Thread::isAlive); round++) {
+                    if (round % 4 == 3) {
+                        journal.compact();
+                    } else {
+                        journal.save(acc);
+                    }
+                }
+            } catch (IOException e) {
+                failure.set(e);
+            }
+        });
+        saver.start();
+        saver.join(60_000);
+        for (Thread worker : workers) {
+            worker.join(1_000);
+            assertFalse(worker.isAlive(), "a change and a save waited on each other");
+        }
+        assertFalse(saver.isAlive(), "a save and a change waited on each other");
+        assertNull(failure.get());
+        journal.save(acc);
+
+        assertEquals(0, BigDecimal.valueOf(6000).compareTo(new AccountJournal(save).load().getBalance()));
+    }
+
+    @Test
+    void testCompactWithNothingLoaded() {
+        assertThrows(IOException.class, () -> journal.compact());
+    }
+
+    @Test
+    void testBinarySnapshot() throws IOException {
+        String binary = dir.resolve("account.budgeit").toString();
+        AccountJournal binaryJournal = new AccountJournal(binary);
+        Account acc = new Account();
+        binaryJournal.save(acc);
+        acc.addSource("Work", BigDecimal.valueOf(5000));
+        binaryJournal.save(acc);
+        binaryJournal.compact();
+        acc.depositBalance(BigDecimal.TEN);
+        binaryJournal.save(acc);
+
+        Account loaded = new AccountJournal(binary).load();
+        checkSource("Work", BigDecimal.valueOf(5000), loaded.getSources().get(0));
+        assertEquals(BigDecimal.TEN, loaded.getBalance());
+    }
+}
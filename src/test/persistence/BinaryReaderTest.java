@@ -0,0 +1,162 @@
+package persistence;
+
+import model.Account;
+import model.ReceiptHistory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the persistence.BinaryReader class for functionality
+ */
+public class BinaryReaderTest extends JsonTest {
+    private Path file;
+
+    @BeforeEach
+    void setup() throws IOException {
+        file = Files.createTempFile("binaryreader", ".budgeit");
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testReaderInvalidFile() {
+        BinaryReader reader = new BinaryReader("./data/Idon'texist.budgeit");
+        try {
+            reader.read();
+            fail("IOException was expected");
+        } catch (IOException e) {
+            // Pass
+        }
+    }
+
+    @Test
+    void testReaderGenericAccount() throws IOException {
+        AccountConverter.convert("./data/testReaderGenericAccount.json", file.toString());
+        Account acc = new BinaryReader(file.toString()).read();
+        assertEquals(2, acc.getMonthTracker());
+        assertEquals(BigDecimal.valueOf(5000.55), acc.getBalance());
+        assertEquals(BigDecimal.valueOf(.5), acc.getSavingsPercentGoal());
+        assertEquals(2, acc.getSources().size());
+        checkSource("Work", BigDecimal.valueOf(5000), acc.getSources().get(0));
+        checkSource("Bills", BigDecimal.valueOf(-1394.59), acc.getSources().get(1));
+        checkSavings(BigDecimal.valueOf(135903.39), BigDecimal.valueOf(.01), acc.getSavings());
+        assertEquals(1, acc.getDebts().size());
+        checkDebt("Loan", BigDecimal.valueOf(300000), BigDecimal.valueOf(.07), acc.getDebts().get(0));
+        assertEquals(1, acc.getReceipts().size());
+        assertEquals("This is a receipt", acc.getReceipts().get(0));
+    }
+
+    @Test
+    void testReaderNotASnapshot() {
+        assertThrows(IOException.class, () -> new BinaryReader("./data/testReaderGenericAccount.json").read());
+    }
+
+    @Test
+    void testReaderNewerVersion() throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(7);
+        bytes.putInt(BinaryFormat.MAGIC).putShort((short) (BinaryFormat.VERSION + 1)).put(BinaryFormat.END);
+        Files.write(file, bytes.array());
+        assertThrows(IOException.class, () -> new BinaryReader(file.toString()).read());
+    }
+
+    @Test
+    void testReaderTruncatedFile() throws IOException {
+        AccountConverter.convert("./data/testReaderGenericAccount.json", file.toString());
+        byte[] whole = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(whole, whole.length / 2));
+        assertThrows(IOException.class, () -> new BinaryReader(file.toString()).read());
+    }
+
+    @Test
+    void testReaderSkipsUnknownSections() throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(32);
+        bytes.putInt(BinaryFormat.MAGIC).putShort(BinaryFormat.VERSION);
+        bytes.put((byte) 99).put((byte) 3).put((byte) 1).put((byte) 2).put((byte) 3);
+        bytes.put(BinaryFormat.HEADER).put((byte) 5).put((byte) 7); // month 7
+        bytes.put((byte) 4).put((byte) 6); // balance scale 2, unscaled 3 -> 0.03
+        bytes.put((byte) 0).put((byte) 0); // savings percent goal 0
+        bytes.put(BinaryFormat.END);
+        Files.write(file, Arrays.copyOf(bytes.array(), bytes.position()));
+
+        Account acc = new BinaryReader(file.toString()).read();
+        assertEquals(7, acc.getMonthTracker());
+        assertEquals(new BigDecimal("0.03"), acc.getBalance());
+    }
+
+    @Test
+    void testReaderPagedReceipts() throws IOException {
+        Account acc = new Account();
+        acc.addSource("Work", new BigDecimal("100.25"));
+        acc.addDebt("Loan", BigDecimal.valueOf(1000), BigDecimal.ZERO);
+        acc.getReceipts().add("This is a receipt");
+        for (int i = 0; i < BinaryFormat.RECEIPT_PAGE_SIZE * 2 + 10; i++) {
+            acc.computeNextPeriod();
+        }
+        AccountFormat.BINARY.write(acc, file.toString());
+
+        Account read = new BinaryReader(file.toString()).read();
+        ReceiptHistory receipts = read.getReceipts();
+        assertEquals(acc.getReceipts().size(), receipts.size());
+        assertEquals(acc.getReceipts().get(300), receipts.get(300));
+        assertFalse(isOpen(file));
+        assertEquals(acc.queryHistory(ReceiptHistory.Column.BALANCE).sum(),
+                read.queryHistory(ReceiptHistory.Column.BALANCE).sum());
+
+        // saving over the file it pages from still leaves the pages readable
+        read.computeNextPeriod();
+        AccountFormat.BINARY.write(read, file.toString());
+        acc.computeNextPeriod();
+        assertEquals(acc.getReceipts(), receipts);
+        assertEquals(acc.getReceipts(), new BinaryReader(file.toString()).read().getReceipts());
+        assertFalse(isOpen(file));
+    }
+
+    @Test
+    void testReaderPagesOfReplacedFile() throws IOException {
+        Account acc = new Account();
+        for (int i = 0; i < BinaryFormat.RECEIPT_PAGE_SIZE * 2; i++) {
+            acc.computeNextPeriod();
+        }
+        AccountFormat.BINARY.write(acc, file.toString());
+        Account read = new BinaryReader(file.toString()).read();
+        assertEquals(acc.getReceipts().get(0), read.getReceipts().get(0));
+
+        AccountFormat.BINARY.write(new Account(), file.toString());
+        assertEquals(acc.getReceipts().get(0), read.getReceipts().get(0)); // already decoded
+        assertThrows(UncheckedIOException.class, () -> read.getReceipts().get(BinaryFormat.RECEIPT_PAGE_SIZE));
+    }
+
+    // EFFECTS: returns true if this process has path open, where the platform lists open files, false otherwise
+    private static boolean isOpen(Path path) throws IOException {
+        Path fds = Paths.get("/proc/self/fd");
+        if (!Files.isDirectory(fds)) {
+            return false;
+        }
+        Path real = path.toRealPath();
+        try (Stream<Path> open = Files.list(fds)) {
+            return open.anyMatch(fd -> {
+                try {
+                    return Files.readSymbolicLink(fd).equals(real);
+                } catch (IOException e) {
+                    return false;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package persistence;
+
+import model.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the persistence.BinaryWriter class for functionality
+ */
+public class BinaryWriterTest extends JsonTest {
+    private Account acc;
+    private Path file;
+
+    @BeforeEach
+    void setup() throws IOException {
+        acc = new Account();
+        file = Files.createTempFile("binarywriter", ".budgeit");
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testWriterInvalidFile() {
+        try {
+            BinaryWriter writer = new BinaryWriter("./data/my/imbroken;':[]}{)_+/.file.budgeit");
+            writer.open();
+            fail("IOException was expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testWriterEmptyAccount() throws IOException {
+        save();
+        Account read = new BinaryReader(file.toString()).read();
+        assertEquals(1, read.getMonthTracker());
+        assertEquals(BigDecimal.ZERO, read.getBalance());
+        assertEquals(BigDecimal.ZERO, read.getSavingsPercentGoal());
+        assertEquals(0, read.getSources().size());
+        assertEquals(BigDecimal.ZERO, read.getSavingsBal());
+        assertEquals(0, read.getDebts().size());
+        assertEquals(0, read.getReceipts().size());
+    }
+
+    @Test
+    void testWriterGenericAccount() throws IOException {
+        acc.setMonthTracker(2);
+        acc.updateBalance(BigDecimal.valueOf(5000.55));
+        acc.setSavingsPercentGoal(BigDecimal.valueOf(.5));
+        acc.addSource("Work", BigDecimal.valueOf(5000));
+        acc.addSource("Bills", BigDecimal.valueOf(-1394.59));
+        acc.addSource("Fees", new BigDecimal("-0.000001"));
+        acc.getSavings().setBal(BigDecimal.valueOf(135903.39));
+        acc.getSavings().setInterest(BigDecimal.valueOf(.01));
+        acc.addDebt("Loan", BigDecimal.valueOf(300000), BigDecimal.valueOf(.07));
+        acc.addDebt("Work", new BigDecimal("12.50"), new BigDecimal("1E-3"));
+        acc.getReceipts().add("This is a receipt");
+        acc.getReceipts().add("caf\u00e9 \u20ac \ud83d\udcb0 lone \ud83d end\n");
+        save();
+
+        Account read = new BinaryReader(file.toString()).read();
+        assertEquals(2, read.getMonthTracker());
+        assertEquals(BigDecimal.valueOf(5000.55), read.getBalance());
+        assertEquals(BigDecimal.valueOf(.5), read.getSavingsPercentGoal());
+        assertEquals(3, read.getSources().size());
+        checkSource("Work", BigDecimal.valueOf(5000), read.getSources().get(0));
+        checkSource("Bills", BigDecimal.valueOf(-1394.59), read.getSources().get(1));
+        checkSource("Fees", new BigDecimal("-0.000001"), read.getSources().get(2));
+        checkSavings(BigDecimal.valueOf(135903.39), BigDecimal.valueOf(.01), read.getSavings());
+        assertEquals(2, read.getDebts().size());
+        checkDebt("Loan", BigDecimal.valueOf(300000), BigDecimal.valueOf(.07), read.getDebts().get(0));
+        checkDebt("Work", new BigDecimal("12.50"), new BigDecimal("1E-3"), read.getDebts().get(1));
+        assertSame(read.getSources().get(0).getName(), read.getDebts().get(1).getName());
+        assertEquals(acc.getReceipts(), read.getReceipts());
+    }
+
+    @Test
+    void testWriterIsCompact() throws IOException {
+        acc.addSource("Work", BigDecimal.valueOf(5000));
+        acc.addDebt("Work", new BigDecimal("12.50"), new BigDecimal("0.05"));
+        save();
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        assertEquals(BinaryFormat.MAGIC, bytes.getInt());
+        assertEquals(BinaryFormat.VERSION, bytes.getShort());
+        assertTrue(Files.size(file) < 50, "snapshot was " + Files.size(file) + " bytes");
+        assertEquals(BinaryFormat.END, bytes.get(bytes.limit() - 1));
+    }
+
+    @Test
+    void testWriterRecordedReceipts() throws IOException {
+        acc.getReceipts().add("This is a receipt");
+        acc.addSource("Work", BigDecimal.valueOf(5000));
+        acc.addDebt("Loan", BigDecimal.valueOf(1000), BigDecimal.valueOf(.05));
+        acc.computeNextPeriod();
+        acc.removeDebt("Loan");
+        acc.addDebt("Card", BigDecimal.valueOf(200), BigDecimal.valueOf(.2));
+        acc.computeNextPeriod();
+        save();
+
+        Account read = new BinaryReader(file.toString()).read();
+        assertEquals(acc.getReceipts(), read.getReceipts());
+        assertTrue(read.getReceipts().isRecorded(2));
+        assertEquals("Card", read.getReceipts().getDebtName(2, 0));
+    }
+
+    @Test
+    void testWriterReplacesLargerFile() throws IOException {
+        for (int i = 0; i < 5000; i++) {
+            acc.addSource("Source " + i, BigDecimal.valueOf(i, 2));
+            acc.getReceipts().add("Receipt number " + i);
+        }
+        save();
+        long large = Files.size(file);
+        Account read = new BinaryReader(file.toString()).read();
+        assertEquals(acc.getReceipts(), read.getReceipts());
+        assertEquals(acc.calculateSurplus(), read.calculateSurplus());
+
+        acc = new Account();
+        save();
+        assertTrue(Files.size(file) < large);
+        assertEquals(0, new BinaryReader(file.toString()).read().getSources().size());
+    }
+
+    private void save() throws IOException {
+        BinaryWriter writer = new BinaryWriter(file.toString());
+        writer.open();
+        writer.write(acc);
+        writer.close();
+    }
+}
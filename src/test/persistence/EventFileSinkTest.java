@@ -0,0 +1,122 @@
+package persistence;
+
+import model.Event;
+import model.EventLog;
+import model.EventType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the persistence.EventFileSink class for functionality
+ */
+public class EventFileSinkTest {
+    private Path dir;
+
+    @BeforeEach
+    void setup() throws IOException {
+        dir = Files.createTempDirectory("eventsink");
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    @Test
+    void testWritesAllEvents() throws IOException {
+        EventFileSink sink = new EventFileSink(dir);
+        sink.start();
+        for (int i = 0; i < 1000; i++) {
+            sink.accept(new Event(EventType.SOURCE_REMOVED, "Source " + i));
+        }
+        sink.close();
+
+        List<String> lines = Files.readAllLines(sink.getFile());
+        assertEquals(1000, lines.size());
+        assertEquals(1000, sink.getWrittenCount());
+        assertTrue(sink.getCommitCount() >= 1);
+        assertTrue(sink.getCommitCount() <= 1000);
+        assertTrue(lines.get(0).endsWith("SOURCE_REMOVED Source removed with name: Source 0"));
+        assertTrue(lines.get(999).endsWith("Source removed with name: Source 999"));
+    }
+
+    @Test
+    void testRotation() throws IOException {
+        EventFileSink sink = new EventFileSink(dir, 500, 3, 1024);
+        sink.start();
+        for (int i = 0; i < 100; i++) {
+            sink.accept(new Event("Rotating event " + i));
+        }
+        sink.close();
+
+        assertTrue(Files.size(sink.getFile()) <= 500);
+        assertTrue(Files.exists(dir.resolve(EventFileSink.FILE_NAME + ".1")));
+        assertTrue(Files.exists(dir.resolve(EventFileSink.FILE_NAME + ".2")));
+        assertFalse(Files.exists(dir.resolve(EventFileSink.FILE_NAME + ".3")));
+        List<String> lines = Files.readAllLines(sink.getFile());
+        assertTrue(lines.get(lines.size() - 1).endsWith("Rotating event 99"));
+    }
+
+    @Test
+    void testFullQueueShedsInsteadOfBlocking() throws IOException {
+        EventFileSink sink = new EventFileSink(dir, EventFileSink.DEFAULT_MAX_FILE_BYTES, 1, 10);
+        for (int i = 0; i < 25; i++) {
+            sink.accept(new Event("Queued event " + i));
+        }
+        assertEquals(15, sink.getRejectedCount());
+        sink.start();
+        sink.close();
+        assertEquals(10, Files.readAllLines(sink.getFile()).size());
+    }
+
+    @Test
+    void testCloseAfterWriterFailed() throws Exception {
+        Files.createDirectories(dir.resolve(EventFileSink.FILE_NAME + ".1").resolve("taken"));
+        EventFileSink sink = new EventFileSink(dir, 1, 2, 2);
+        sink.start();
+        sink.accept(new Event("Written event"));
+        sink.accept(new Event("Unrotatable event"));
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            if (t.getName().equals("event-log-writer")) {
+                t.join(30_000);
+            }
+        }
+        sink.accept(new Event("Queued event 1"));
+        sink.accept(new Event("Queued event 2"));
+        Thread closer = new Thread(sink::close);
+        closer.start();
+        closer.join(30_000);
+        assertFalse(closer.isAlive(), "close waited on a writer that had stopped");
+        assertTrue(sink.getWrittenCount() <= 1);
+    }
+
+    @Test
+    void testReceivesEventsFromEventLog() throws IOException {
+        EventFileSink sink = new EventFileSink(dir);
+        sink.start();
+        EventLog.getInstance().addSink(sink);
+        try {
+            EventLog.getInstance().logEvent(new Event("Sink test event"));
+        } finally {
+            EventLog.getInstance().removeSink(sink);
+            sink.close();
+        }
+        List<String> lines = Files.readAllLines(sink.getFile());
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).endsWith("MESSAGE Sink test event"));
+    }
+}
@@ -0,0 +1,93 @@
+package persistence;
+
+import model.Account;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compares how long JsonReader and JsonStreamReader take to load a large save file, and how much memory each
+ * allocates doing it. Run the main method; it is not part of the test suite.
+ *
+ * Arguments (all optional): number of sources, number of receipts, number of timed runs.
+ */
+public class JsonReaderBenchmark {
+    private static final int WARMUP_RUNS = 5;
+
+    /**
+     * A step of the benchmark that reads the file and returns the account.
+     */
+    interface Load {
+        Account read(String file) throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int sources = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int receipts = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        Path file = Files.createTempFile("benchmark", ".json");
+        try {
+            writeAccount(file, sources, receipts);
+            System.out.printf("File: %d sources, %d receipts, %.1f MB%n", sources, receipts,
+                    Files.size(file) / (1024.0 * 1024.0));
+            measure("JsonReader", file, runs, f -> new JsonReader(f).read());
+            measure("JsonStreamReader", file, runs, f -> new JsonStreamReader(f).read());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // EFFECTS: writes an account with the given number of sources, debts and receipts to file
+    private static void writeAccount(Path file, int sources, int receipts) throws IOException {
+        JsonWriter writer = new JsonWriter(file.toString());
+        writer.open();
+        writer.write(generateAccount(sources, receipts));
+        writer.close();
+    }
+
+    // EFFECTS: returns an account with the given number of sources and receipts, and a debt for every tenth source
+    static Account generateAccount(int sources, int receipts) {
+        Account acc = new Account();
+        for (int i = 0; i < sources; i++) {
+            acc.addSource("Source " + i, BigDecimal.valueOf(i % 2 == 0 ? i * 101L : -i * 37L, 2));
+            if (i % 10 == 0) {
+                acc.addDebt("Debt " + i, BigDecimal.valueOf(i * 1000L, 2), new BigDecimal("0.05"));
+            }
+        }
+        for (int i = 0; i < receipts; i++) {
+            acc.getReceipts().add("Month " + i + " receipt\nBalance: " + i + ".00\nSurplus: 12.34\nSavings: 5.00\n");
+        }
+        return acc;
+    }
+
+    // EFFECTS: times load over runs reads of file after warming up, and prints the mean time and allocation
+    static void measure(String name, Path file, int runs, Load load) throws IOException {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            load.read(file.toString());
+        }
+        System.gc();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        int checksum = 0;
+        for (int i = 0; i < runs; i++) {
+            checksum += load.read(file.toString()).getReceipts().size();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        System.out.printf("%-18s %8.2f ms/op %10.1f MB allocated/op (checksum %d)%n", name,
+                elapsed / 1e6 / runs, allocated / (1024.0 * 1024.0) / runs, checksum);
+    }
+
+    // EFFECTS: returns the bytes allocated by this thread so far, or 0 if the JVM does not report it
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -10,6 +10,7 @@ import java.io.IOException;
 import java.math.BigDecimal;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 /**
@@ -30,6 +31,17 @@ public class JsonReaderTest extends JsonTest {
         }
     }
 
+    @Test
+    public void testReaderDuplicateNames() {
+        JsonReader reader = new JsonReader("./data/testReaderDuplicateNames.json");
+        try {
+            acc = reader.read();
+            fail("IOException was expected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("two sources named Work"));
+        }
+    }
+
     @Test
     public void testReaderEmptyAccount() {
         JsonReader reader = new JsonReader("./data/testReaderEmptyAccount.json");
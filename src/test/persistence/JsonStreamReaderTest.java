@@ -0,0 +1,155 @@
+package persistence;
+
+import model.Account;
+import model.DebtAcc;
+import model.Source;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the persistence.JsonStreamReader class for functionality
+ */
+public class JsonStreamReaderTest extends JsonTest {
+    private Account acc;
+    private Path file;
+
+    @BeforeEach
+    void setup() throws IOException {
+        file = Files.createTempFile("streamreader", ".json");
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testReaderInvalidFile() {
+        JsonStreamReader reader = new JsonStreamReader("./data/Idon'texist.json");
+        try {
+            acc = reader.read();
+            fail("IOException was expected");
+        } catch (IOException e) {
+            // Pass
+        }
+    }
+
+    @Test
+    void testReaderEmptyAccount() throws IOException {
+        acc = new JsonStreamReader("./data/testReaderEmptyAccount.json").read();
+        assertEquals(1, acc.getMonthTracker());
+        assertEquals(BigDecimal.ZERO, acc.getBalance());
+        assertEquals(BigDecimal.ZERO, acc.getSavingsPercentGoal());
+        assertEquals(0, acc.getSources().size());
+        assertEquals(BigDecimal.ZERO, acc.getSavingsBal());
+        assertEquals(0, acc.getDebts().size());
+        assertEquals(0, acc.getReceipts().size());
+    }
+
+    @Test
+    void testReaderGenericAccount() throws IOException {
+        acc = new JsonStreamReader("./data/testReaderGenericAccount.json").read();
+        assertEquals(2, acc.getMonthTracker());
+        assertEquals(BigDecimal.valueOf(5000.55), acc.getBalance());
+        assertEquals(BigDecimal.valueOf(.5), acc.getSavingsPercentGoal());
+        assertEquals(2, acc.getSources().size());
+        checkSource("Work", BigDecimal.valueOf(5000), acc.getSources().get(0));
+        checkSource("Bills", BigDecimal.valueOf(-1394.59), acc.getSources().get(1));
+        checkSavings(BigDecimal.valueOf(135903.39), BigDecimal.valueOf(.01), acc.getSavings());
+        assertEquals(1, acc.getDebts().size());
+        checkDebt("Loan", BigDecimal.valueOf(300000), BigDecimal.valueOf(.07), acc.getDebts().get(0));
+        assertEquals(1, acc.getReceipts().size());
+        assertEquals("This is a receipt", acc.getReceipts().get(0));
+    }
+
+    @Test
+    void testMatchesJsonReaderOnLargeFile() throws IOException {
+        Account original = new Account();
+        original.updateBalance(new BigDecimal("1234.5"));
+        original.setSavingsPercentGoal(new BigDecimal("0.25"));
+        for (int i = 0; i < 3000; i++) {
+            original.addSource("Source \"" + i + "\" caf\u00e9\t\u20ac", BigDecimal.valueOf(i % 2 == 0 ? i : -i, 2));
+            original.getReceipts().add("Receipt " + i + "\nline two \u2713 \\ /");
+        }
+        for (int i = 0; i < 200; i++) {
+            original.addDebt("Debt " + i, BigDecimal.valueOf(1000 + i), new BigDecimal("0.0" + (i % 10)));
+        }
+        original.getSavings().setBal(new BigDecimal("99.99"));
+        original.getSavings().setInterest(new BigDecimal("0.035"));
+        original.setMonthTracker(42);
+        JsonWriter writer = new JsonWriter(file.toString());
+        writer.open();
+        writer.write(original);
+        writer.close();
+
+        Account expected = new JsonReader(file.toString()).read();
+        acc = new JsonStreamReader(file.toString()).read();
+
+        assertEquals(expected.getMonthTracker(), acc.getMonthTracker());
+        assertEquals(expected.getBalance(), acc.getBalance());
+        assertEquals(expected.getSavingsPercentGoal(), acc.getSavingsPercentGoal());
+        checkSavings(expected.getSavingsBal(), expected.getSavings().getInterest(), acc.getSavings());
+        assertEquals(expected.getSources().size(), acc.getSources().size());
+        for (int i = 0; i < expected.getSources().size(); i++) {
+            Source s = expected.getSources().get(i);
+            checkSource(s.getName(), s.getValue(), acc.getSources().get(i));
+        }
+        assertEquals(expected.getDebts().size(), acc.getDebts().size());
+        for (int i = 0; i < expected.getDebts().size(); i++) {
+            DebtAcc d = expected.getDebts().get(i);
+            checkDebt(d.getName(), d.getValue(), d.getInterest(), acc.getDebts().get(i));
+        }
+        assertEquals(expected.getReceipts(), acc.getReceipts());
+        assertEquals(expected.calculateSurplus(), acc.calculateSurplus());
+    }
+
+    @Test
+    void testReaderSkipsUnknownKeysInAnyOrder() throws IOException {
+        write("{\"savings\": {\"interest\": 0.02, \"extra\": [1, {\"a\": null}], \"balance\": 10},"
+                + " \"version\": \"2\", \"flags\": {\"on\": true, \"off\": false},"
+                + " \"sources\": [{\"value\": 7.50, \"note\": \"x\", \"name\": \"Tips\"}],"
+                + " \"month\": 3, \"spg\": 0.1, \"balance\": -2e1, \"debts\": [], \"receipts\": []}");
+        acc = new JsonStreamReader(file.toString()).read();
+        assertEquals(3, acc.getMonthTracker());
+        assertEquals(BigDecimal.valueOf(-20), acc.getBalance());
+        checkSavings(BigDecimal.valueOf(10), new BigDecimal("0.02"), acc.getSavings());
+        checkSource("Tips", new BigDecimal("7.50"), acc.getSources().get(0));
+    }
+
+    @Test
+    void testReaderDuplicateNames() throws IOException {
+        JsonStreamReader reader = new JsonStreamReader("./data/testReaderDuplicateNames.json");
+        IOException e = assertThrows(IOException.class, reader::read);
+        assertTrue(e.getMessage().contains("two debts named Loan"));
+
+        write("{\"month\": 3, \"sources\": [{\"name\": \"Work\", \"value\": 1},"
+                + " {\"name\": \"Work\", \"value\": 2}]}");
+        e = assertThrows(IOException.class, () -> new JsonStreamReader(file.toString()).read());
+        assertTrue(e.getMessage().contains("two sources named Work"));
+    }
+
+    @Test
+    void testReaderMalformedFile() throws IOException {
+        write("{\"month\": 3, \"sources\": [{\"name\": \"Tips\", \"value\": 7.50}");
+        assertThrows(IOException.class, () -> new JsonStreamReader(file.toString()).read());
+        write("{\"month\": 3, \"sources\": [{\"name\": \"Tips\"}]}");
+        assertThrows(IOException.class, () -> new JsonStreamReader(file.toString()).read());
+        write("{\"month\": 3.5}");
+        assertThrows(IOException.class, () -> new JsonStreamReader(file.toString()).read());
+        write("{\"receipts\": [{\"receipt\": \"unterminated}]}");
+        assertThrows(IOException.class, () -> new JsonStreamReader(file.toString()).read());
+    }
+
+    private void write(String json) throws IOException {
+        Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+    }
+}
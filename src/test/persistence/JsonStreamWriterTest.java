@@ -0,0 +1,211 @@
+package persistence;
+
+import model.Account;
+import model.AccountSnapshot;
+import model.Money;
+import model.ReceiptHistory;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the persistence.JsonStreamWriter class for functionality
+ */
+public class JsonStreamWriterTest extends JsonTest {
+    private Account acc;
+    private Path file;
+
+    @BeforeEach
+    void setup() throws IOException {
+        acc = new Account();
+        file = Files.createTempFile("streamwriter", ".json");
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testWriterInvalidFile() {
+        try {
+            JsonStreamWriter writer = new JsonStreamWriter("./data/my/imbroken;':[]}{)_+/.file.json");
+            writer.open();
+            fail("IOException was expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testWriterEmptyAccount() throws IOException {
+        save(true);
+        for (Account read : new Account[] {new JsonReader(file.toString()).read(),
+                new JsonStreamReader(file.toString()).read()}) {
+            assertEquals(1, read.getMonthTracker());
+            assertEquals(BigDecimal.ZERO, read.getBalance());
+            assertEquals(BigDecimal.ZERO, read.getSavingsPercentGoal());
+            assertEquals(0, read.getSources().size());
+            assertEquals(BigDecimal.ZERO, read.getSavingsBal());
+            assertEquals(0, read.getDebts().size());
+            assertEquals(0, read.getReceipts().size());
+        }
+    }
+
+    @Test
+    void testWriterGenericAccount() throws IOException {
+        acc.setMonthTracker(2);
+        acc.updateBalance(BigDecimal.valueOf(5000.55));
+        acc.setSavingsPercentGoal(BigDecimal.valueOf(.5));
+        acc.addSource("Work", BigDecimal.valueOf(5000));
+        acc.addSource("Bills", BigDecimal.valueOf(-1394.59));
+        acc.getSavings().setBal(BigDecimal.valueOf(135903.39));
+        acc.getSavings().setInterest(BigDecimal.valueOf(.01));
+        acc.addDebt("Loan", BigDecimal.valueOf(300000), BigDecimal.valueOf(.07));
+        acc.getReceipts().add("This is a receipt");
+        save(true);
+
+        for (Account read : new Account[] {new JsonReader(file.toString()).read(),
+                new JsonStreamReader(file.toString()).read()}) {
+            assertEquals(2, read.getMonthTracker());
+            assertEquals(BigDecimal.valueOf(5000.55), read.getBalance());
+            assertEquals(BigDecimal.valueOf(.5), read.getSavingsPercentGoal());
+            assertEquals(2, read.getSources().size());
+            checkSource("Work", BigDecimal.valueOf(5000), read.getSources().get(0));
+            checkSource("Bills", BigDecimal.valueOf(-1394.59), read.getSources().get(1));
+            checkSavings(BigDecimal.valueOf(135903.39), BigDecimal.valueOf(.01), read.getSavings());
+            assertEquals(1, read.getDebts().size());
+            checkDebt("Loan", BigDecimal.valueOf(300000), BigDecimal.valueOf(.07), read.getDebts().get(0));
+            assertEquals(1, read.getReceipts().size());
+            assertEquals("This is a receipt", read.getReceipts().get(0));
+        }
+    }
+
+    @Test
+    void testWriterKeepsScaleAndSign() throws IOException {
+        acc.updateBalance(new BigDecimal("-0.05"));
+        acc.addSource("Tips", new BigDecimal("7.50"));
+        acc.addSource("Fees", new BigDecimal("-0.000001"));
+        acc.addSource("Rent", new BigDecimal("-1200"));
+        save(false);
+
+        Account read = new JsonStreamReader(file.toString()).read();
+        assertEquals(new BigDecimal("-0.05"), read.getBalance());
+        checkSource("Tips", new BigDecimal("7.50"), read.getSources().get(0));
+        checkSource("Fees", new BigDecimal("-0.000001"), read.getSources().get(1));
+        checkSource("Rent", new BigDecimal("-1200"), read.getSources().get(2));
+    }
+
+    @Test
+    void testWriterCompactAndPretty() throws IOException {
+        acc.addSource("Work", BigDecimal.valueOf(5000));
+        save(false);
+        String compact = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        assertFalse(compact.contains("\n"));
+        assertFalse(compact.contains(" "));
+
+        save(true);
+        String pretty = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        assertTrue(pretty.contains("\n    \"sources\": [\n        {\n            \"name\": \"Work\","));
+        assertEquals(new JSONObject(compact).toString(), new JSONObject(pretty).toString());
+    }
+
+    @Test
+    void testWriterEscapesStrings() throws IOException {
+        String name = "Quote \" slash \\ tab \t bell \u0007 caf\u00e9 \u20ac \ud83d\udcb0 lone \ud83d end";
+        acc.addSource(name, BigDecimal.ONE);
+        acc.getReceipts().add("Line one\nLine two\r\n");
+        save(false);
+
+        for (Account read : new Account[] {new JsonReader(file.toString()).read(),
+                new JsonStreamReader(file.toString()).read()}) {
+            assertEquals(name, read.getSources().get(0).getName());
+            assertEquals("Line one\nLine two\r\n", read.getReceipts().get(0));
+        }
+    }
+
+    @Test
+    void testWriterRecordedReceipts() throws IOException {
+        acc.getReceipts().add("This is a receipt");
+        acc.addSource("Work", BigDecimal.valueOf(5000));
+        acc.addDebt("Loan", BigDecimal.valueOf(1000), BigDecimal.valueOf(.05));
+        acc.computeNextPeriod();
+        acc.removeDebt("Loan");
+        acc.computeNextPeriod();
+        save(true);
+
+        for (Account read : new Account[] {new JsonReader(file.toString()).read(),
+                new JsonStreamReader(file.toString()).read()}) {
+            assertEquals(acc.getReceipts(), read.getReceipts());
+            assertFalse(read.getReceipts().isRecorded(0));
+            assertTrue(read.getReceipts().isRecorded(1));
+            assertEquals(1, read.getReceipts().getDebtCount(1));
+            assertEquals(0, read.getReceipts().getDebtCount(2));
+        }
+        acc.getReceipts().add("Another receipt");
+        JsonWriter writer = new JsonWriter(file.toString());
+        writer.open();
+        writer.write(acc);
+        writer.close();
+        ReceiptHistory read = new JsonStreamReader(file.toString()).read().getReceipts();
+        assertEquals(4, read.size());
+        assertEquals("Another receipt", read.get(3));
+        // JSONObject drops trailing zeros, so only the values survive
+        assertEquals(0, Money.compare(acc.getReceipts().getMoney(ReceiptHistory.Column.BALANCE, 2),
+                read.getMoney(ReceiptHistory.Column.BALANCE, 2)));
+    }
+
+    @Test
+    void testWriterLargeAccount() throws IOException {
+        for (int i = 0; i < 5000; i++) {
+            acc.addSource("Source " + i, BigDecimal.valueOf(i, 2));
+            acc.getReceipts().add("Receipt number " + i);
+        }
+        save(true);
+
+        Account read = new JsonStreamReader(file.toString()).read();
+        assertEquals(5000, read.getSources().size());
+        checkSource("Source 4999", new BigDecimal("49.99"), read.getSources().get(4999));
+        assertEquals(acc.getReceipts(), read.getReceipts());
+        assertEquals(acc.calculateSurplus(), read.calculateSurplus());
+    }
+
+    @Test
+    void testWriterSnapshot() throws IOException {
+        acc = new Account(true);
+        acc.addSource("Work", BigDecimal.valueOf(5000));
+        acc.addSource("Bills", BigDecimal.valueOf(-100));
+        acc.computeNextPeriod();
+        acc.removeSource("Work");
+        AccountSnapshot snapshot = acc.snapshot();
+        acc.addSource("Gift", BigDecimal.TEN);
+        acc.computeNextPeriod();
+        JsonStreamWriter writer = new JsonStreamWriter(file.toString());
+        writer.open();
+        writer.write(snapshot);
+        writer.close();
+
+        Account read = new JsonStreamReader(file.toString()).read();
+        assertEquals(2, read.getMonthTracker());
+        assertEquals(1, read.getSources().size());
+        checkSource("Bills", BigDecimal.valueOf(-100), read.getSources().get(0));
+        assertEquals(1, read.getReceipts().size());
+        assertEquals(0, BigDecimal.valueOf(4900).compareTo(read.getBalance()));
+    }
+
+    private void save(boolean pretty) throws IOException {
+        JsonStreamWriter writer = new JsonStreamWriter(file.toString(), pretty);
+        writer.open();
+        writer.write(acc);
+        writer.close();
+    }
+}
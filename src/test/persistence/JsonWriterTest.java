@@ -4,6 +4,7 @@
 package persistence;
 
 import model.Account;
+import model.AccountSnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -92,4 +93,33 @@ public class JsonWriterTest extends JsonTest {
             fail("Unexpected exception was thrown");
         }
     }
+
+    @Test
+    public void testWriterSnapshot() {
+        try {
+            acc.depositBalance(BigDecimal.valueOf(120));
+            acc.addSource("Work", BigDecimal.valueOf(5000));
+            acc.addDebt("Loan", BigDecimal.valueOf(300000), BigDecimal.valueOf(.07));
+            acc.computeNextPeriod();
+            AccountSnapshot snapshot = acc.snapshot();
+            acc.removeSource("Work");
+            acc.depositBalance(BigDecimal.ONE);
+
+            JsonWriter writer = new JsonWriter("./data/testWriterSnapshot.json");
+            writer.open();
+            writer.write(snapshot);
+            writer.close();
+
+            JsonReader reader = new JsonReader("./data/testWriterSnapshot.json");
+            Account read = reader.read();
+            assertEquals(2, read.getMonthTracker());
+            assertEquals(0, snapshot.getBalance().compareTo(read.getBalance()));
+            assertEquals(1, read.getSources().size());
+            checkSource("Work", BigDecimal.valueOf(5000), read.getSources().get(0));
+            assertEquals(1, read.getReceipts().size());
+            assertEquals(0, snapshot.getDebtValue(0).compareTo(read.snapshot().getDebtValue(0)));
+        } catch (IOException e) {
+            fail("Unexpected exception was thrown");
+        }
+    }
 }
@@ -0,0 +1,43 @@
+package persistence;
+
+import model.Account;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compares loading and saving a large account as JSON and as a binary snapshot. Run the main method; it is not
+ * part of the test suite.
+ *
+ * Arguments (all optional): number of sources, number of receipts, number of timed runs.
+ */
+public class SnapshotBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int sources = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int receipts = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        Account acc = JsonReaderBenchmark.generateAccount(sources, receipts);
+        Path json = Files.createTempFile("benchmark", AccountFormat.JSON.getExtension());
+        Path binary = Files.createTempFile("benchmark", AccountFormat.BINARY.getExtension());
+        try {
+            JsonReaderBenchmark.measure("JSON save", json, runs, f -> save(AccountFormat.JSON, acc, f));
+            JsonReaderBenchmark.measure("Snapshot save", binary, runs, f -> save(AccountFormat.BINARY, acc, f));
+            System.out.printf("JSON %.1f MB, snapshot %.1f MB%n", Files.size(json) / (1024.0 * 1024.0),
+                    Files.size(binary) / (1024.0 * 1024.0));
+            JsonReaderBenchmark.measure("JSON load", json, runs, f -> new JsonStreamReader(f).read());
+            JsonReaderBenchmark.measure("Snapshot load", binary, runs, f -> new BinaryReader(f).read());
+        } finally {
+            Files.deleteIfExists(json);
+            Files.deleteIfExists(binary);
+        }
+    }
+
+    // EFFECTS: saves acc to file in format and returns it
+    private static Account save(AccountFormat format, Account acc, String file) throws IOException {
+        format.write(acc, file);
+        return acc;
+    }
+}
@@ -0,0 +1,273 @@
+package ui;
+
+import model.Account;
+import model.AccountSnapshot;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.SwingUtilities;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the ui.ChartDatasets class for functionality
+ */
+public class ChartDatasetsTest {
+    Account testAcc;
+    ChartDatasets datasets;
+
+    @BeforeEach
+    public void setup() {
+        testAcc = new Account();
+        testAcc.addSource("Work", BigDecimal.valueOf(5000));
+        testAcc.addSource("Bills", BigDecimal.valueOf(-360.5));
+        testAcc.addDebt("Loan", BigDecimal.valueOf(1000), BigDecimal.valueOf(.05));
+        testAcc.depositSavings(BigDecimal.valueOf(200));
+        datasets = new ChartDatasets(new AccountSnapshot(testAcc));
+        testAcc.addListener(datasets);
+    }
+
+    @Test
+    public void testCreatedFromSnapshot() {
+        DefaultCategoryDataset sources = datasets.getSources();
+        assertEquals(Arrays.asList("Work", "Bills", ChartDatasets.SURPLUS_ROW), sources.getRowKeys());
+        assertEquals(Arrays.asList(ChartDatasets.INCOME, ChartDatasets.EXPENSE, ChartDatasets.SURPLUS),
+                sources.getColumnKeys());
+        assertEquals(5000.0, sources.getValue("Work", ChartDatasets.INCOME).doubleValue());
+        assertEquals(testAcc.getSurplus(), sources.getValue(ChartDatasets.SURPLUS_ROW, ChartDatasets.SURPLUS));
+        assertEquals(1050.0, datasets.getDebts().getValue("Loan", ChartDatasets.FUTURE).doubleValue());
+        assertEquals(200.0, datasets.getSavings().getValue(ChartDatasets.SAVINGS, ChartDatasets.CURRENT).doubleValue());
+    }
+
+    @Test
+    public void testSourceChangesMatchRebuild() throws Exception {
+        onEdt(() -> {
+            testAcc.addSource("Gift", BigDecimal.valueOf(20));
+            assertMatchesRebuild();
+            assertEquals(2, datasets.getSources().getRowIndex("Gift"));
+            assertEquals(3, datasets.getSources().getRowIndex(ChartDatasets.SURPLUS_ROW));
+
+            testAcc.removeSource("Bills");
+            assertMatchesRebuild();
+            assertEquals(-1, datasets.getSources().getColumnIndex(ChartDatasets.EXPENSE));
+
+            testAcc.addSource("Rent", BigDecimal.valueOf(-1500));
+            testAcc.addSource("Work", BigDecimal.valueOf(1));
+            assertEquals(3, datasets.getChangeCount());
+            assertMatchesRebuild();
+            assertEquals(0, BigDecimal.valueOf(3520).compareTo(
+                    (BigDecimal) datasets.getSources().getValue(ChartDatasets.SURPLUS_ROW, ChartDatasets.SURPLUS)));
+
+            testAcc.removeSource("Work");
+            testAcc.removeSource("Gift");
+            testAcc.removeSource("Rent");
+            assertEquals(0, datasets.getSources().getRowCount());
+            assertEquals(0, datasets.getSources().getColumnCount());
+        });
+    }
+
+    @Test
+    public void testDebtChangesMatchRebuild() throws Exception {
+        onEdt(() -> {
+            testAcc.addDebt("Card", BigDecimal.valueOf(300), BigDecimal.valueOf(.2));
+            testAcc.payDebt("Loan", BigDecimal.valueOf(100));
+            testAcc.addToDebt("Card", BigDecimal.valueOf(50));
+            assertMatchesRebuild();
+            assertEquals(945.0, datasets.getDebts().getValue("Loan", ChartDatasets.FUTURE).doubleValue());
+
+            testAcc.removeDebt("Loan");
+            assertMatchesRebuild();
+            assertEquals(-1, datasets.getDebts().getRowIndex("Loan"));
+        });
+    }
+
+    @Test
+    public void testSavingsAndPeriodChangesMatchRebuild() throws Exception {
+        onEdt(() -> {
+            testAcc.setSavingsInterest(BigDecimal.valueOf(.01));
+            testAcc.setSavingsPercentGoal(BigDecimal.valueOf(.2));
+            testAcc.withdrawSavings(BigDecimal.valueOf(50));
+            assertMatchesRebuild();
+            assertEquals(30.0, datasets.getSavings().getValue(ChartDatasets.SAVINGS, ChartDatasets.SAVINGS_GOAL)
+                    .doubleValue());
+
+            testAcc.computeNextPeriod();
+            assertMatchesRebuild();
+        });
+    }
+
+    @Test
+    public void testChartedChangesOnly() throws Exception {
+        onEdt(() -> {
+            DefaultCategoryDataset sources = datasets.getSources();
+            testAcc.depositBalance(BigDecimal.TEN);
+            testAcc.setMonthTracker(4);
+            assertEquals(2, datasets.getChangeCount());
+            assertSame(sources, datasets.getSources());
+            assertMatchesRebuild();
+        });
+    }
+
+    @Test
+    public void testSetDataset() throws Exception {
+        onEdt(() -> {
+            DefaultCategoryDataset debts = new DefaultCategoryDataset();
+            datasets.setDataset(RefreshScheduler.Part.DEBTS, debts);
+            assertSame(debts, datasets.getDebts());
+            testAcc.addDebt("Card", BigDecimal.valueOf(300), BigDecimal.valueOf(.2));
+            assertEquals(1, debts.getRowCount());
+        });
+    }
+
+    @Test
+    public void testManySourcesAggregated() throws Exception {
+        onEdt(() -> {
+            for (int i = 1; i <= ChartDatasets.MAX_SERIES - 2; i++) {
+                testAcc.addSource("Small " + i, BigDecimal.valueOf(i % 2 == 0 ? i : -i));
+            }
+            assertEquals(ChartDatasets.MAX_SERIES + 1, datasets.getSources().getRowCount());
+            assertEquals(-1, datasets.getSources().getRowIndex(ChartDatasets.OTHER_ROW));
+
+            testAcc.addSource("Tiny", BigDecimal.valueOf(.5));
+            DefaultCategoryDataset sources = datasets.getSources();
+            assertEquals(ChartDatasets.MAX_SERIES + 1, sources.getRowCount());
+            assertEquals(-1, sources.getRowIndex("Tiny"));
+            assertEquals(-1, sources.getRowIndex("Small 1"));
+            assertEquals(0, BigDecimal.valueOf(.5).compareTo((BigDecimal) sources.getValue(ChartDatasets.OTHER_ROW,
+                    ChartDatasets.INCOME)));
+            assertEquals(0, BigDecimal.valueOf(-1).compareTo((BigDecimal) sources.getValue(ChartDatasets.OTHER_ROW,
+                    ChartDatasets.EXPENSE)));
+            assertEquals(sources.getRowCount() - 1, sources.getRowIndex(ChartDatasets.SURPLUS_ROW));
+            assertEquals(testAcc.getSurplus(), sources.getValue(ChartDatasets.SURPLUS_ROW, ChartDatasets.SURPLUS));
+            assertMatchesRebuild();
+
+            testAcc.removeSource("Work");
+            assertMatchesRebuild();
+            assertEquals(-1, datasets.getSources().getRowIndex(ChartDatasets.OTHER_ROW));
+            assertEquals(0, datasets.getSources().getRowIndex("Bills"));
+        });
+    }
+
+    @Test
+    public void testManyDebtsAggregated() throws Exception {
+        onEdt(() -> {
+            for (int i = 1; i <= ChartDatasets.MAX_SERIES + 5; i++) {
+                testAcc.addDebt("Debt " + i, BigDecimal.valueOf(i * 10), BigDecimal.valueOf(.1));
+            }
+            DefaultCategoryDataset debts = datasets.getDebts();
+            assertEquals(ChartDatasets.MAX_SERIES, debts.getRowCount());
+            assertEquals(-1, debts.getRowIndex("Debt 1"));
+            assertEquals(0, debts.getRowIndex("Loan"));
+            assertEquals(0, BigDecimal.valueOf(10 + 20 + 30 + 40 + 50 + 60 + 70).compareTo(
+                    (BigDecimal) debts.getValue(ChartDatasets.OTHER_ROW, ChartDatasets.CURRENT)));
+            assertMatchesRebuild();
+
+            testAcc.payDebt("Loan", BigDecimal.valueOf(995));
+            assertEquals(-1, debts.getRowIndex("Loan"));
+            testAcc.computeNextPeriod();
+            assertMatchesRebuild();
+            for (int i = 1; i <= 6; i++) {
+                testAcc.removeDebt("Debt " + i);
+            }
+            assertEquals(-1, debts.getRowIndex(ChartDatasets.OTHER_ROW));
+            assertMatchesRebuild();
+        });
+    }
+
+    @Test
+    public void testSourceAndDebtNamedLikeChartRows() throws Exception {
+        onEdt(() -> {
+            testAcc.addSource("Surplus", BigDecimal.valueOf(-40));
+            testAcc.addDebt("Other", BigDecimal.valueOf(70), BigDecimal.ZERO);
+            DefaultCategoryDataset sources = datasets.getSources();
+            assertEquals(Arrays.asList("Work", "Bills", "Surplus", ChartDatasets.SURPLUS_ROW), sources.getRowKeys());
+            assertEquals(-40.0, sources.getValue("Surplus", ChartDatasets.EXPENSE).doubleValue());
+            assertEquals(testAcc.getSurplus(), sources.getValue(ChartDatasets.SURPLUS_ROW, ChartDatasets.SURPLUS));
+            assertNull(sources.getValue("Surplus", ChartDatasets.SURPLUS));
+            assertMatchesRebuild();
+
+            testAcc.removeSource("Surplus");
+            assertEquals(Arrays.asList("Work", "Bills", ChartDatasets.SURPLUS_ROW), sources.getRowKeys());
+            for (int i = 1; i <= ChartDatasets.MAX_SERIES; i++) {
+                testAcc.addDebt("Debt " + i, BigDecimal.valueOf(i * 100), BigDecimal.ZERO);
+            }
+            assertEquals(-1, datasets.getDebts().getRowIndex("Other"));
+            assertEquals(0, BigDecimal.valueOf(70 + 100 + 200).compareTo(
+                    (BigDecimal) datasets.getDebts().getValue(ChartDatasets.OTHER_ROW, ChartDatasets.CURRENT)));
+            testAcc.removeDebt("Debt 20");
+            testAcc.removeDebt("Debt 19");
+            assertEquals(-1, datasets.getDebts().getRowIndex(ChartDatasets.OTHER_ROW));
+            assertEquals(70.0, datasets.getDebts().getValue("Other", ChartDatasets.CURRENT).doubleValue());
+            assertMatchesRebuild();
+        });
+    }
+
+    @Test
+    public void testChangeOffEventThreadAppliedOnIt() throws Exception {
+        DefaultCategoryDataset sources = datasets.getSources();
+        boolean[] onEdt = {true};
+        sources.addChangeListener(e -> onEdt[0] &= SwingUtilities.isEventDispatchThread());
+        testAcc.addSource("Gift", BigDecimal.valueOf(20));
+        testAcc.removeSource("Bills");
+        testAcc.addDebt("Card", BigDecimal.valueOf(300), BigDecimal.valueOf(.2));
+        testAcc.computeNextPeriod();
+        onEdt(() -> {
+            assertTrue(onEdt[0]);
+            assertEquals(4, datasets.getChangeCount());
+            assertSame(sources, datasets.getSources());
+            assertMatchesRebuild();
+        });
+    }
+
+    @Test
+    public void testLargest() {
+        BigDecimal[] values = {BigDecimal.ONE, BigDecimal.valueOf(-5), BigDecimal.valueOf(3), BigDecimal.ONE,
+            BigDecimal.valueOf(5), BigDecimal.ZERO};
+        assertArrayEquals(new boolean[] {false, true, false, false, true, false}, ChartDatasets.largest(values, 2));
+        assertArrayEquals(new boolean[] {true, true, true, false, true, false}, ChartDatasets.largest(values, 4));
+        assertArrayEquals(new boolean[6], ChartDatasets.largest(values, 0));
+        assertArrayEquals(new boolean[] {true, true, true, true, true, true}, ChartDatasets.largest(values, 6));
+    }
+
+    //EFFECTS: Runs check on the event dispatch thread, where changes to the account are applied to the datasets
+    //         as they are made, and waits for it
+    private static void onEdt(Runnable check) throws Exception {
+        try {
+            SwingUtilities.invokeAndWait(check);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw (Exception) e.getCause();
+        }
+    }
+
+    //EFFECTS: Checks that the datasets hold the same values as datasets built from scratch from the account
+    private void assertMatchesRebuild() {
+        ChartDatasets rebuilt = new ChartDatasets(new AccountSnapshot(testAcc));
+        assertSameValues(rebuilt.getSources(), datasets.getSources());
+        assertSameValues(rebuilt.getDebts(), datasets.getDebts());
+        assertSameValues(rebuilt.getSavings(), datasets.getSavings());
+    }
+
+    //EFFECTS: Checks that actual has the same rows, columns and values as expected
+    private static void assertSameValues(DefaultCategoryDataset expected, DefaultCategoryDataset actual) {
+        assertEquals(expected.getRowKeys(), actual.getRowKeys());
+        assertEquals(expected.getColumnKeys(), actual.getColumnKeys());
+        for (int row = 0; row < expected.getRowCount(); row++) {
+            for (int column = 0; column < expected.getColumnCount(); column++) {
+                Number value = expected.getValue(row, column);
+                if (value == null) {
+                    assertNull(actual.getValue(row, column));
+                } else {
+                    assertEquals(0, new BigDecimal(value.toString())
+                            .compareTo(new BigDecimal(actual.getValue(row, column).toString())));
+                }
+            }
+        }
+    }
+}
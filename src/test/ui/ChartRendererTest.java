@@ -0,0 +1,126 @@
+package ui;
+
+import model.Account;
+import model.AccountSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.AccountFormat;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the ui.ChartRenderer class for functionality
+ */
+public class ChartRendererTest {
+    private static final int WIDTH = 200;
+    private static final int HEIGHT = 150;
+
+    Path tempDir;
+    Account testAcc;
+    ChartRenderer renderer;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        tempDir = Files.createTempDirectory("reports");
+        testAcc = new Account();
+        testAcc.addSource("Work", BigDecimal.valueOf(5000));
+        testAcc.addSource("Bills", BigDecimal.valueOf(-360.5));
+        testAcc.addDebt("Loan", BigDecimal.valueOf(1000), BigDecimal.valueOf(.05));
+        testAcc.depositSavings(BigDecimal.valueOf(200));
+        renderer = new ChartRenderer(WIDTH, HEIGHT);
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            for (Path p : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    @Test
+    public void testRender() {
+        BufferedImage image = renderer.render(new AccountSnapshot(testAcc));
+        assertEquals(3 * WIDTH, image.getWidth());
+        assertEquals(HEIGHT, image.getHeight());
+        for (int chart = 0; chart < 3; chart++) {
+            assertTrue(hasColour(image, chart * WIDTH, (chart + 1) * WIDTH));
+        }
+        assertSame(image, renderer.render(new AccountSnapshot(new Account())));
+    }
+
+    @Test
+    public void testWritePng() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        renderer.writePng(new AccountSnapshot(testAcc), out);
+        BufferedImage read = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(3 * WIDTH, read.getWidth());
+        assertEquals(HEIGHT, read.getHeight());
+
+        BufferedImage rendered = renderer.render(new AccountSnapshot(testAcc));
+        for (int x = 0; x < read.getWidth(); x += 7) {
+            for (int y = 0; y < read.getHeight(); y += 7) {
+                assertEquals(rendered.getRGB(x, y), read.getRGB(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testRenderAll() throws IOException {
+        List<Path> saveFiles = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            testAcc.addSource("Source " + i, BigDecimal.valueOf(i + 1));
+            AccountFormat format = i % 2 == 0 ? AccountFormat.JSON : AccountFormat.BINARY;
+            Path saveFile = tempDir.resolve("account" + i + format.getExtension());
+            format.write(testAcc, saveFile.toString());
+            saveFiles.add(saveFile);
+        }
+        Path broken = tempDir.resolve("broken.json");
+        Files.write(broken, "{".getBytes());
+        saveFiles.add(broken);
+
+        Path outDir = tempDir.resolve("reports");
+        ForkJoinPool pool = new ForkJoinPool(3);
+        renderer.setPool(pool);
+        assertEquals(8, renderer.renderAll(saveFiles, outDir));
+        pool.shutdown();
+
+        for (int i = 0; i < 8; i++) {
+            Path report = outDir.resolve(saveFiles.get(i).getFileName() + ChartRenderer.EXTENSION);
+            assertEquals(3 * WIDTH, ImageIO.read(report.toFile()).getWidth());
+        }
+        assertFalse(Files.exists(outDir.resolve("broken.json" + ChartRenderer.EXTENSION)));
+    }
+
+    //EFFECTS: Returns true if some pixel of image between columns from and to is neither white nor grey
+    private static boolean hasColour(BufferedImage image, int from, int to) {
+        for (int x = from; x < to; x++) {
+            for (int y = 0; y < image.getHeight(); y++) {
+                int rgb = image.getRGB(x, y);
+                int r = (rgb >> 16) & 0xff;
+                int g = (rgb >> 8) & 0xff;
+                int b = rgb & 0xff;
+                if (r != g || g != b) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
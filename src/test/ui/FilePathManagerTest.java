@@ -0,0 +1,26 @@
+package ui;
+
+import org.junit.jupiter.api.Test;
+import persistence.AccountFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests how ui.FilePathManager reads the budgeit.saveFormat property
+ */
+public class FilePathManagerTest {
+
+    @Test
+    public void testParseSaveFormatKnownValues() {
+        assertEquals(AccountFormat.JSON, FilePathManager.parseSaveFormat(null));
+        assertEquals(AccountFormat.JSON, FilePathManager.parseSaveFormat("json"));
+        assertEquals(AccountFormat.BINARY, FilePathManager.parseSaveFormat("binary"));
+        assertEquals(AccountFormat.BINARY, FilePathManager.parseSaveFormat(" BINARY "));
+    }
+
+    @Test
+    public void testParseSaveFormatFallsBackToJson() {
+        assertEquals(AccountFormat.JSON, FilePathManager.parseSaveFormat("bin"));
+        assertEquals(AccountFormat.JSON, FilePathManager.parseSaveFormat(""));
+    }
+}
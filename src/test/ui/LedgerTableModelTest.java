@@ -0,0 +1,185 @@
+package ui;
+
+import model.Account;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.SwingUtilities;
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the ui.LedgerTableModel, ui.SourceTableModel and ui.DebtTableModel classes for functionality
+ */
+public class LedgerTableModelTest {
+    Account testAcc;
+    SourceTableModel sources;
+    DebtTableModel debts;
+
+    @BeforeEach
+    public void setup() {
+        testAcc = new Account();
+        testAcc.addSource("Work", BigDecimal.valueOf(5000));
+        testAcc.addSource("Bills", BigDecimal.valueOf(-360.5));
+        testAcc.addSource("Lawn Mowing", BigDecimal.valueOf(500));
+        testAcc.addSource("Netflix", BigDecimal.valueOf(-20));
+        testAcc.addDebt("Loan", BigDecimal.valueOf(1000), BigDecimal.valueOf(.05));
+        testAcc.addDebt("Card", BigDecimal.valueOf(300), BigDecimal.valueOf(.2));
+        sources = new SourceTableModel();
+        sources.setAccount(testAcc);
+        debts = new DebtTableModel();
+        debts.setAccount(testAcc);
+    }
+
+    @Test
+    public void testAccountOrder() {
+        assertEquals(4, sources.getRowCount());
+        assertEquals(2, sources.getColumnCount());
+        assertEquals("Name", sources.getColumnName(0));
+        assertEquals(BigDecimal.class, sources.getColumnClass(SourceTableModel.VALUE));
+        assertEquals("Work", sources.getValueAt(0, 0));
+        assertEquals(BigDecimal.valueOf(-360.5), sources.getValueAt(1, SourceTableModel.VALUE));
+        assertEquals(-1, sources.getSortColumn());
+
+        assertEquals(4, debts.getColumnCount());
+        assertEquals(BigDecimal.valueOf(.2), debts.getValueAt(1, DebtTableModel.INTEREST));
+        assertEquals(0, BigDecimal.valueOf(360).compareTo((BigDecimal) debts.getValueAt(1, DebtTableModel.NEXT_MONTH)));
+    }
+
+    @Test
+    public void testSort() {
+        sources.sort(SourceTableModel.VALUE);
+        assertTrue(sources.isAscending());
+        assertNames(sources, "Bills", "Netflix", "Lawn Mowing", "Work");
+        sources.sort(SourceTableModel.VALUE);
+        assertFalse(sources.isAscending());
+        assertNames(sources, "Work", "Lawn Mowing", "Netflix", "Bills");
+        sources.sort(0);
+        assertTrue(sources.isAscending());
+        assertNames(sources, "Bills", "Lawn Mowing", "Netflix", "Work");
+
+        debts.sort(DebtTableModel.INTEREST);
+        assertNames(debts, "Loan", "Card");
+        debts.sort(DebtTableModel.NEXT_MONTH);
+        assertNames(debts, "Card", "Loan");
+    }
+
+    @Test
+    public void testSortIsStable() throws Exception {
+        testAcc.addSource("Gym", BigDecimal.valueOf(-20));
+        testAcc.addSource("Phone", BigDecimal.valueOf(-20));
+        flushEvents();
+        sources.sort(SourceTableModel.VALUE);
+        assertNames(sources, "Bills", "Netflix", "Gym", "Phone", "Lawn Mowing", "Work");
+    }
+
+    @Test
+    public void testFilter() {
+        sources.setFilter("N");
+        assertNames(sources, "Lawn Mowing", "Netflix");
+        assertEquals(4, sources.getTotalCount());
+        sources.sort(SourceTableModel.VALUE);
+        assertNames(sources, "Netflix", "Lawn Mowing");
+        sources.setFilter("xyz");
+        assertEquals(0, sources.getRowCount());
+        sources.setFilter("");
+        assertEquals(4, sources.getRowCount());
+    }
+
+    @Test
+    public void testFollowsAccount() throws Exception {
+        int[] events = new int[1];
+        boolean[] onEdt = {true};
+        sources.addTableModelListener(e -> {
+            events[0]++;
+            onEdt[0] &= SwingUtilities.isEventDispatchThread();
+        });
+        sources.sort(SourceTableModel.VALUE);
+        onEdt[0] = true; // sorting told the table on this thread
+        testAcc.addSource("Rent", BigDecimal.valueOf(-1500));
+        flushEvents();
+        assertNames(sources, "Rent", "Bills", "Netflix", "Lawn Mowing", "Work");
+        testAcc.removeSource("Bills");
+        flushEvents();
+        assertNames(sources, "Rent", "Netflix", "Lawn Mowing", "Work");
+        testAcc.payDebt("Loan", BigDecimal.valueOf(100));
+        flushEvents();
+        assertEquals(3, events[0]);
+        assertTrue(onEdt[0]);
+
+        debts.sort(DebtTableModel.BALANCE);
+        testAcc.payDebt("Loan", BigDecimal.valueOf(800));
+        flushEvents();
+        assertNames(debts, "Loan", "Card");
+        testAcc.computeNextPeriod();
+        flushEvents();
+        assertEquals(0, BigDecimal.valueOf(105).compareTo((BigDecimal) debts.getValueAt(0, DebtTableModel.BALANCE)));
+    }
+
+    @Test
+    public void testRowsReadFromSnapshotWhileAccountChanges() throws Exception {
+        Account concurrent = new Account(true);
+        concurrent.addSource("Work", BigDecimal.valueOf(5000));
+        concurrent.addSource("Bills", BigDecimal.valueOf(-360.5));
+        SwingUtilities.invokeAndWait(() -> sources.setAccount(concurrent));
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch removed = new CountDownLatch(1);
+        String[] shown = new String[2];
+        Thread edt = new Thread(() -> {
+            try {
+                SwingUtilities.invokeAndWait(() -> {
+                    reading.countDown();
+                    try {
+                        removed.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    // the account has changed, but the table has not been told yet on this thread
+                    shown[0] = (String) sources.getValueAt(0, 0);
+                    shown[1] = (String) sources.getValueAt(1, 0);
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        edt.start();
+        reading.await();
+        concurrent.removeSource("Bills");
+        removed.countDown();
+        edt.join();
+        assertArrayEquals(new String[] {"Work", "Bills"}, shown);
+        flushEvents();
+        assertNames(sources, "Work");
+    }
+
+    @Test
+    public void testSetAccount() {
+        Account other = new Account();
+        other.addSource("Gift", BigDecimal.TEN);
+        sources.setAccount(other);
+        assertNames(sources, "Gift");
+        testAcc.addSource("Rent", BigDecimal.valueOf(-1500));
+        assertEquals(1, sources.getRowCount());
+
+        sources.setAccount(null);
+        assertEquals(0, sources.getRowCount());
+        other.addSource("Rent", BigDecimal.valueOf(-1500));
+        assertEquals(0, sources.getRowCount());
+    }
+
+    //EFFECTS: Waits for the changes made to the account on this thread to reach the tables on the event dispatch
+    //         thread
+    private static void flushEvents() throws Exception {
+        SwingUtilities.invokeAndWait(() -> { });
+    }
+
+    //EFFECTS: Checks that model shows rows with the given names, in order
+    private static void assertNames(LedgerTableModel model, String... names) {
+        assertEquals(names.length, model.getRowCount());
+        for (int i = 0; i < names.length; i++) {
+            assertEquals(names[i], model.getValueAt(i, 0));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ui;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the ui.StartupTimer class for functionality
+ */
+public class StartupTimerTest {
+
+    @Test
+    public void testMilestones() throws InterruptedException {
+        StartupTimer timer = new StartupTimer(2);
+        assertEquals(-1, timer.getFirstPaintMillis());
+        assertEquals(-1, timer.getInteractiveMillis());
+
+        timer.firstPaint();
+        long firstPaint = timer.getFirstPaintMillis();
+        assertTrue(firstPaint >= 0);
+        Thread.sleep(5);
+        timer.firstPaint();
+        assertEquals(firstPaint, timer.getFirstPaintMillis());
+
+        timer.taskDone();
+        assertEquals(-1, timer.getInteractiveMillis());
+        timer.taskDone();
+        long interactive = timer.getInteractiveMillis();
+        assertTrue(interactive >= firstPaint + 5);
+        timer.taskDone();
+        assertEquals(interactive, timer.getInteractiveMillis());
+    }
+}
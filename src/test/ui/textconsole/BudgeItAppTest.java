@@ -0,0 +1,106 @@
+package ui.textconsole;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the batch mode of the ui.textconsole.BudgeItApp class
+ */
+public class BudgeItAppTest {
+    private Path dir;
+    private String save;
+
+    @BeforeEach
+    void setup() throws IOException {
+        dir = Files.createTempDirectory("console");
+        save = dir.resolve("account.json").toString();
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    // EFFECTS: runs script in batch mode and returns what it printed
+    private String run(String script, int rejected) {
+        StringWriter out = new StringWriter();
+        BudgeItApp app = new BudgeItApp(new StringReader(script), out, save);
+        assertEquals(rejected, app.runBatch());
+        assertEquals(rejected, app.getRejectedCount());
+        return out.toString();
+    }
+
+    @Test
+    void testRunScript() {
+        String out = run("a add Work 5000\na add Rent -1200\na show\n"
+                + "d add Loan 1000 5\nd p Loan 100\nsur\nq\na add Ignored 1\n", 0);
+        assertFalse(out.contains("Please enter"));
+        assertFalse(out.contains("Select from"));
+        assertTrue(out.contains("Name: Work, Value: 5000"));
+        assertTrue(out.contains("Name: Rent, Value: -1200"));
+        assertTrue(out.contains("Balance remaining: 900"));
+        assertTrue(out.contains("Batch finished: 7 commands, 0 rejected"));
+    }
+
+    @Test
+    void testRejectedCommands() {
+        String out = run("a add Work 5000 a add Work 10 x a d abc s g 150 a bal d add", 5);
+        assertTrue(out.contains("A source with that name already exists"));
+        assertTrue(out.contains("Please enter a valid selection."));
+        assertTrue(out.contains("Please only enter numbers for this value: abc"));
+        assertTrue(out.contains("not greater than 100%"));
+        assertTrue(out.contains("The input ended in the middle of a command."));
+        assertTrue(out.contains("Here is your current account balance: \n0"));
+        assertTrue(out.contains("Batch finished: 7 commands, 5 rejected"));
+    }
+
+    @Test
+    void testEndPeriodRecommendsSavings() {
+        String out = run("a add Work 5000 a add Rent -1000 s g 20 end", 0);
+        assertTrue(out.contains("Ending period..."));
+        assertTrue(out.contains("We recommend saving: 800"));
+    }
+
+    @Test
+    void testOutOfRangeAmountsRejected() {
+        String out = run("a d 5000000000000 a add Work 5000 d add Loan 1000000000000 50 end a bal", 2);
+        assertEquals(2, out.split("too large for BudgeIt", -1).length - 1);
+        assertTrue(out.contains("Here is your current account balance: \n0"));
+        assertTrue(out.contains("Batch finished: 5 commands, 2 rejected"));
+    }
+
+    @Test
+    void testSaveAndLoad() {
+        run("a add Work 5000 d add Loan 1000 5 file save q", 0);
+        String out = run("file load a show d d", 0);
+        assertTrue(out.contains("Name: Work, Value: 5000"));
+        assertTrue(out.contains("Name: Loan"));
+    }
+
+    @Test
+    void testManyCommands() {
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            script.append("a d 2\na w 1\n");
+        }
+        script.append("a bal\n");
+        String out = run(script.toString(), 0);
+        assertTrue(out.contains("Here is your current account balance: \n5000"));
+        assertTrue(out.contains("Batch finished: 10001 commands, 0 rejected"));
+    }
+}